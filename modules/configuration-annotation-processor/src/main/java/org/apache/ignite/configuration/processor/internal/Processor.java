@@ -29,13 +29,18 @@ import com.squareup.javapoet.TypeSpec;
 import com.squareup.javapoet.TypeVariableName;
 import com.squareup.javapoet.WildcardTypeName;
 import java.io.IOException;
+import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import javax.annotation.processing.AbstractProcessor;
@@ -52,10 +57,16 @@ import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.MirroredTypesException;
 import javax.lang.model.type.TypeMirror;
 import javax.lang.model.util.Elements;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import org.apache.ignite.configuration.BooleanConfigurationValue;
 import org.apache.ignite.configuration.ConfigurationChanger;
 import org.apache.ignite.configuration.ConfigurationRegistry;
 import org.apache.ignite.configuration.ConfigurationTree;
 import org.apache.ignite.configuration.ConfigurationValue;
+import org.apache.ignite.configuration.DoubleConfigurationValue;
+import org.apache.ignite.configuration.IntConfigurationValue;
+import org.apache.ignite.configuration.LongConfigurationValue;
 import org.apache.ignite.configuration.NamedConfigurationTree;
 import org.apache.ignite.configuration.RootKey;
 import org.apache.ignite.configuration.annotation.Config;
@@ -63,21 +74,30 @@ import org.apache.ignite.configuration.annotation.ConfigValue;
 import org.apache.ignite.configuration.annotation.ConfigurationRoot;
 import org.apache.ignite.configuration.annotation.NamedConfigValue;
 import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.internal.BooleanDynamicProperty;
+import org.apache.ignite.configuration.internal.DoubleDynamicProperty;
 import org.apache.ignite.configuration.internal.DynamicConfiguration;
 import org.apache.ignite.configuration.internal.DynamicProperty;
+import org.apache.ignite.configuration.internal.IntDynamicProperty;
+import org.apache.ignite.configuration.internal.LongDynamicProperty;
 import org.apache.ignite.configuration.internal.NamedListConfiguration;
+import org.apache.ignite.configuration.internal.validation.LeafValidator;
 import org.apache.ignite.configuration.processor.internal.validation.ValidationGenerator;
+import org.apache.ignite.configuration.processor.internal.validation.ValidationGenerator.FieldValidatorSpec;
 import org.apache.ignite.configuration.tree.ConfigurationSource;
 import org.apache.ignite.configuration.tree.ConfigurationVisitor;
+import org.apache.ignite.configuration.tree.FlatCursor;
 import org.apache.ignite.configuration.tree.InnerNode;
 import org.apache.ignite.configuration.tree.NamedListChange;
 import org.apache.ignite.configuration.tree.NamedListInit;
 import org.apache.ignite.configuration.tree.NamedListNode;
 import org.apache.ignite.configuration.tree.NamedListView;
+import org.apache.ignite.configuration.tree.SchemaDescriptor;
 
 import static javax.lang.model.element.Modifier.ABSTRACT;
 import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PROTECTED;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
 import static org.apache.ignite.configuration.processor.internal.Utils.suppressWarningsUnchecked;
@@ -174,7 +194,12 @@ public class Processor extends AbstractProcessor {
 
             CodeBlock.Builder constructorBodyBuilder = CodeBlock.builder();
 
+            // Ordinals of the fields, same as in the generated node, children are constructed with them.
+            int ordinal = 0;
+
             for (VariableElement field : fields) {
+                int fieldOrdinal = ordinal++;
+
                 assert field.getModifiers().contains(PUBLIC) : clazz.getQualifiedName() + "#" + field.getSimpleName();
 
                 Element fieldTypeElement = processingEnv.getTypeUtils().asElement(field.asType());
@@ -210,7 +235,13 @@ public class Processor extends AbstractProcessor {
                     configurationClassBuilder.addField(nestedConfigField);
 
                     // Constructor statement
-                    constructorBodyBuilder.addStatement("add($L = new $T(keys, $S, rootKey, changer))", fieldName, fieldType, fieldName);
+                    constructorBodyBuilder.addStatement(
+                        "add($L = new $T(keys, $S, $L, rootKey, changer))",
+                        fieldName,
+                        fieldType,
+                        fieldName,
+                        fieldOrdinal
+                    );
                 }
 
                 final NamedConfigValue namedConfigAnnotation = field.getAnnotation(NamedConfigValue.class);
@@ -234,10 +265,11 @@ public class Processor extends AbstractProcessor {
 
                     // Constructor statement
                     constructorBodyBuilder.addStatement(
-                        "add($L = new $T(keys, $S, rootKey, changer, (p, k) -> new $T(p, k, rootKey, changer)))",
+                        "add($L = new $T(keys, $S, $L, rootKey, changer, (p, k) -> new $T(p, k, -1, rootKey, changer)))",
                         fieldName,
                         fieldType,
                         fieldName,
+                        fieldOrdinal,
                         Utils.getConfigurationName((ClassName) baseType)
                     );
                 }
@@ -258,12 +290,13 @@ public class Processor extends AbstractProcessor {
 
                     configurationClassBuilder.addField(generatedField);
 
-                    final CodeBlock validatorsBlock = ValidationGenerator.generateValidators(field);
-
                     // Constructor statement
                     constructorBodyBuilder.addStatement(
-                        "add($L = new $T(keys, $S, rootKey, changer), $L)",
-                        fieldName, fieldType, fieldName, validatorsBlock
+                        "add($L = new $T(keys, $S, $L, rootKey, changer))",
+                        fieldName,
+                        fieldType,
+                        fieldName,
+                        fieldOrdinal
                     );
                 }
 
@@ -316,8 +349,8 @@ public class Processor extends AbstractProcessor {
         FieldSpec keyField = FieldSpec.builder(
             fieldTypeName, "KEY", PUBLIC, STATIC, FINAL)
             .initializer(
-                "$T.newRootKey($S, $T.class, $T::new, (rootKey, changer) -> new $T($T.emptyList(), $S, rootKey, changer))",
-                ConfigurationRegistry.class, configDesc.getName(), storageType, nodeClassName,
+                "$T.newRootKey($S, $T.class, $T::new, $T.SCHEMA, (rootKey, changer) -> new $T($T.emptyList(), $S, -1, rootKey, changer))",
+                ConfigurationRegistry.class, configDesc.getName(), storageType, nodeClassName, nodeClassName,
                 Utils.getConfigurationName(schemaClassName), Collections.class, configDesc.getName()
             )
             .build();
@@ -413,6 +446,24 @@ public class Processor extends AbstractProcessor {
 
             fieldType = ParameterizedTypeName.get(dynPropClass, genericType);
             interfaceGetMethodType = ParameterizedTypeName.get(confValueClass, genericType);
+
+            // Primitive properties have specialized classes with unboxed getters and listeners.
+            if (baseType.equals(TypeName.INT)) {
+                fieldType = ClassName.get(IntDynamicProperty.class);
+                interfaceGetMethodType = ClassName.get(IntConfigurationValue.class);
+            }
+            else if (baseType.equals(TypeName.LONG)) {
+                fieldType = ClassName.get(LongDynamicProperty.class);
+                interfaceGetMethodType = ClassName.get(LongConfigurationValue.class);
+            }
+            else if (baseType.equals(TypeName.BOOLEAN)) {
+                fieldType = ClassName.get(BooleanDynamicProperty.class);
+                interfaceGetMethodType = ClassName.get(BooleanConfigurationValue.class);
+            }
+            else if (baseType.equals(TypeName.DOUBLE)) {
+                fieldType = ClassName.get(DoubleDynamicProperty.class);
+                interfaceGetMethodType = ClassName.get(DoubleConfigurationValue.class);
+            }
         }
 
         return new ConfigurationFieldTypes(fieldType, unwrappedType, viewClassType, initClassType, changeClassType, interfaceGetMethodType);
@@ -480,6 +531,20 @@ public class Processor extends AbstractProcessor {
         }
     }
 
+    /**
+     * Adds the case of the {@code switch} statement. Body statements are indented under the label.
+     *
+     * @param builder Method builder with the open {@code switch} statement.
+     * @param label Case label.
+     * @param body Statements of the case.
+     */
+    private static void addCase(MethodSpec.Builder builder, CodeBlock label, List<CodeBlock> body) {
+        builder.addStatement("case $L: $L", label, body.get(0));
+
+        for (CodeBlock statement : body.subList(1, body.size()))
+            builder.addStatement(INDENT + "$L", statement);
+    }
+
     /**
      * Create configuration class constructors.
      *
@@ -496,9 +561,10 @@ public class Processor extends AbstractProcessor {
             .addModifiers(PUBLIC)
             .addParameter(ParameterizedTypeName.get(List.class, String.class), "prefix")
             .addParameter(String.class, "key")
+            .addParameter(TypeName.INT, "ordinal")
             .addParameter(ParameterizedTypeName.get(ClassName.get(RootKey.class), WILDCARD), "rootKey")
             .addParameter(ConfigurationChanger.class, "changer")
-            .addStatement("super(prefix, key, rootKey, changer)")
+            .addStatement("super(prefix, key, ordinal, rootKey, changer)")
             .addCode(constructorBodyBuilder.build())
             .build();
         configurationClassBuilder.addMethod(constructorWithName);
@@ -559,7 +625,7 @@ public class Processor extends AbstractProcessor {
             .addSuperinterface(changeClsName)
             .addSuperinterface(initClsName)
             // Cannot use "schemaClassName" here because it can't handle inner static classes.
-            .addField(FieldSpec.builder(ClassName.get(clazz), "_spec", PRIVATE, FINAL)
+            .addField(FieldSpec.builder(ClassName.get(clazz), "_spec", PRIVATE, STATIC, FINAL)
                 .initializer("new $T()", ClassName.get(clazz))
                 .build()
             );
@@ -585,6 +651,77 @@ public class Processor extends AbstractProcessor {
             .addParameter(ParameterizedTypeName.get(ClassName.get(ConfigurationVisitor.class), t), "visitor")
             .beginControlFlow("switch (key)");
 
+        MethodSpec.Builder traverseChildByOrdinalBuilder = MethodSpec.methodBuilder("traverseChild")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .addTypeVariable(t)
+            .returns(t)
+            .addException(NoSuchElementException.class)
+            .addParameter(TypeName.INT, "ordinal")
+            .addParameter(ParameterizedTypeName.get(ClassName.get(ConfigurationVisitor.class), t), "visitor")
+            .beginControlFlow("switch (ordinal)");
+
+        MethodSpec.Builder leafEqualsBuilder = MethodSpec.methodBuilder("leafEquals")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.BOOLEAN)
+            .addException(NoSuchElementException.class)
+            .addParameter(TypeName.INT, "ordinal")
+            .addParameter(ClassName.get(InnerNode.class), "other")
+            .addStatement("$T that = ($T)other", nodeClsName, nodeClsName)
+            .beginControlFlow("switch (ordinal)");
+
+        MethodSpec.Builder writeFlatBuilder = MethodSpec.methodBuilder("writeFlat")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.VOID)
+            .addParameter(ClassName.get(String.class), "prefix")
+            .addParameter(ClassName.get(InnerNode.class), "cur")
+            .addParameter(
+                ParameterizedTypeName.get(
+                    ClassName.get(BiConsumer.class),
+                    ClassName.get(String.class),
+                    ClassName.get(Serializable.class)
+                ),
+                "sink"
+            )
+            .addStatement("$T that = ($T)cur", nodeClsName, nodeClsName);
+
+        MethodSpec.Builder readFlatBuilder = MethodSpec.methodBuilder("readFlat")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.VOID)
+            .addException(NoSuchElementException.class)
+            .addParameter(ClassName.get(FlatCursor.class), "cursor")
+            .addStatement("checkMutable()")
+            .beginControlFlow("for (String key; (key = cursor.name()) != null; )")
+            .beginControlFlow("switch (key)");
+
+        MethodSpec.Builder ordinalBuilder = MethodSpec.methodBuilder("ordinal")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.INT)
+            .addException(NoSuchElementException.class)
+            .addParameter(ClassName.get(String.class), "key")
+            .beginControlFlow("switch (key)");
+
+        // Ordinals of the fields, same as their order in the schema.
+        int ordinal = 0;
+
+        // Initializer of the static schema descriptor, fields are added in the order of their ordinals.
+        CodeBlock.Builder schemaBuilder = CodeBlock.builder()
+            .add("$T.builder($T.class)", SchemaDescriptor.class, ClassName.get(clazz))
+            .indent();
+
+        // Primitive leaves are stored unboxed, "unset" state of the i-th of them is the bit "i % 64" of the
+        // "unsetField(i)" bitmask. All bits are set in the new node.
+        int primitiveIdx = 0;
+
         MethodSpec.Builder constructBuilder = MethodSpec.methodBuilder("construct")
             .addAnnotation(Override.class)
             .addJavadoc(INHERIT_DOC)
@@ -593,8 +730,20 @@ public class Processor extends AbstractProcessor {
             .addException(NoSuchElementException.class)
             .addParameter(ClassName.get(String.class), "key")
             .addParameter(ClassName.get(ConfigurationSource.class), "src")
+            .addStatement("checkMutable()")
             .beginControlFlow("switch (key)");
 
+        MethodSpec.Builder constructByOrdinalBuilder = MethodSpec.methodBuilder("construct")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .returns(TypeName.VOID)
+            .addException(NoSuchElementException.class)
+            .addParameter(TypeName.INT, "ordinal")
+            .addParameter(ClassName.get(ConfigurationSource.class), "src")
+            .addStatement("checkMutable()")
+            .beginControlFlow("switch (ordinal)");
+
         MethodSpec.Builder constructDefaultBuilder = MethodSpec.methodBuilder("constructDefault")
             .addAnnotation(Override.class)
             .addJavadoc(INHERIT_DOC)
@@ -602,8 +751,15 @@ public class Processor extends AbstractProcessor {
             .returns(TypeName.BOOLEAN)
             .addException(NoSuchElementException.class)
             .addParameter(ClassName.get(String.class), "key")
+            .addStatement("checkMutable()")
             .beginControlFlow("switch (key)");
 
+        MethodSpec.Builder copyMutableChildrenBuilder = MethodSpec.methodBuilder("copyMutableChildren")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PROTECTED)
+            .returns(TypeName.VOID);
+
         MethodSpec.Builder schemaTypeBuilder = MethodSpec.methodBuilder("schemaType")
             .addAnnotation(Override.class)
             .addJavadoc(INHERIT_DOC)
@@ -613,6 +769,15 @@ public class Processor extends AbstractProcessor {
 
         ClassName consumerClsName = ClassName.get(Consumer.class);
 
+        // Code that creates validators of the schema, "LeafValidator" instances are shared by all nodes.
+        List<CodeBlock> leafValidators = new ArrayList<>();
+
+        // Indexes of validators in "leafValidators" to execute when the field is changed.
+        Map<String, List<Integer>> validatorsByField = new LinkedHashMap<>();
+
+        for (VariableElement field : fields)
+            validatorsByField.put(field.getSimpleName().toString(), new ArrayList<>());
+
         for (VariableElement field : fields) {
             Value valAnnotation = field.getAnnotation(Value.class);
             boolean mutable = valAnnotation == null || !valAnnotation.immutable();
@@ -622,6 +787,14 @@ public class Processor extends AbstractProcessor {
 
             boolean isArray = schemaFieldType instanceof ArrayTypeName;
 
+            boolean primitiveField = schemaFieldType.isPrimitive();
+
+            int fieldOrdinal = ordinal++;
+
+            String unsetField = primitiveField ? unsetField(primitiveIdx) : null;
+
+            String unsetMask = primitiveField ? unsetMask(primitiveIdx++) : null;
+
             boolean leafField = isPrimitiveOrArrayOfPrimitives(schemaFieldType)
                 || !((ClassName)schemaFieldType).simpleName().contains("ConfigurationSchema");
 
@@ -642,7 +815,7 @@ public class Processor extends AbstractProcessor {
                 ((ClassName)schemaFieldType).simpleName().replace("ConfigurationSchema", "Init")
             );
 
-            TypeName nodeFieldType = leafField ? schemaFieldType.box() : ClassName.get(
+            TypeName nodeFieldType = leafField ? (primitiveField ? schemaFieldType : schemaFieldType.box()) : ClassName.get(
                 ((ClassName)schemaFieldType).packageName() + (leafField ? "" : ".impl"),
                 ((ClassName)schemaFieldType).simpleName().replace("ConfigurationSchema", "Node")
             );
@@ -659,6 +832,27 @@ public class Processor extends AbstractProcessor {
                 initFieldType = ParameterizedTypeName.get(ClassName.get(NamedListInit.class), initFieldType);
             }
 
+            if (leafField) {
+                schemaBuilder.add("\n.leaf($S, $T.class, $L)", fieldName, schemaFieldType, !mutable);
+
+                if (valAnnotation.hasDefault())
+                    schemaBuilder.add("\n.defaultValue(_spec.$L)", fieldName);
+
+                Min minAnnotation = field.getAnnotation(Min.class);
+
+                if (minAnnotation != null)
+                    schemaBuilder.add("\n.min($LL)", minAnnotation.value());
+
+                Max maxAnnotation = field.getAnnotation(Max.class);
+
+                if (maxAnnotation != null)
+                    schemaBuilder.add("\n.max($LL)", maxAnnotation.value());
+            }
+            else if (namedListField)
+                schemaBuilder.add("\n.namedList($S, $T.SCHEMA)", fieldName, namedListParamType);
+            else
+                schemaBuilder.add("\n.innerNode($S, $T.SCHEMA, $L)", fieldName, nodeFieldType, !mutable);
+
             {
                 FieldSpec.Builder nodeFieldBuilder = FieldSpec.builder(nodeFieldType, fieldName, PRIVATE);
 
@@ -688,8 +882,38 @@ public class Processor extends AbstractProcessor {
                     MethodSpec.Builder nodeGetMtdBuilder = MethodSpec.methodBuilder(fieldName)
                         .addAnnotation(Override.class)
                         .addModifiers(PUBLIC)
-                        .returns(leafField ? viewFieldType : nodeFieldType)
-                        .addStatement(getStatement);
+                        .returns(leafField ? viewFieldType : nodeFieldType);
+
+                    // Unset leaf falls back to the default value from the schema, it is never persisted.
+                    boolean hasDefault = leafField && valAnnotation != null && valAnnotation.hasDefault();
+
+                    if (primitiveField && hasDefault) {
+                        nodeGetMtdBuilder.addStatement(
+                            "if (($L & $L) != 0) return _spec.$L",
+                            unsetField,
+                            unsetMask,
+                            fieldName
+                        );
+                    }
+                    else if (primitiveField) {
+                        // Same as unboxing of the null value.
+                        nodeGetMtdBuilder.addStatement(
+                            "if (($L & $L) != 0) throw new $T($S)",
+                            unsetField,
+                            unsetMask,
+                            NullPointerException.class,
+                            fieldName
+                        );
+                    }
+                    else if (hasDefault) {
+                        nodeGetMtdBuilder.addStatement(
+                            "if ($L == null) return _spec.$L" + (isArray ? ".clone()" : ""),
+                            fieldName,
+                            fieldName
+                        );
+                    }
+
+                    nodeGetMtdBuilder.addStatement(getStatement);
 
                     nodeClsBuilder.addMethod(nodeGetMtdBuilder.build());
                 }
@@ -715,7 +939,8 @@ public class Processor extends AbstractProcessor {
                     MethodSpec.Builder nodeChangeMtdBuilder = MethodSpec.methodBuilder(changeMtdName)
                         .addAnnotation(Override.class)
                         .addModifiers(PUBLIC)
-                        .returns(nodeClsName);
+                        .returns(nodeClsName)
+                        .addStatement("checkMutable()");
 
                     if (valAnnotation != null) {
                         CodeBlock changeStatement;
@@ -728,6 +953,9 @@ public class Processor extends AbstractProcessor {
                         nodeChangeMtdBuilder
                             .addParameter(changeFieldType, fieldName)
                             .addStatement(changeStatement);
+
+                        if (primitiveField)
+                            nodeChangeMtdBuilder.addStatement("$L &= ~$L", unsetField, unsetMask);
                     }
                     else {
                         String paramName = fieldName + "Consumer";
@@ -735,16 +963,20 @@ public class Processor extends AbstractProcessor {
 
                         if (!namedListField) {
                             nodeChangeMtdBuilder.addStatement(
-                                "if ($L == null) $L = new $T()",
+                                "$L = $L == null ? new $T() : ($T)$L.copyOnWrite()",
                                 fieldName,
                                 fieldName,
-                                nodeFieldType
+                                nodeFieldType,
+                                nodeFieldType,
+                                fieldName
                             );
                             nodeChangeMtdBuilder.addStatement("$L.accept($L)", paramName, fieldName);
                         }
                         else {
                             nodeChangeMtdBuilder.addAnnotation(suppressWarningsUnchecked());
 
+                            nodeChangeMtdBuilder.addStatement("$L = $L.copyOnWrite()", fieldName, fieldName);
+
                             nodeChangeMtdBuilder.addStatement("$L.accept((NamedListChange)$L)", paramName, fieldName);
                         }
                     }
@@ -775,7 +1007,8 @@ public class Processor extends AbstractProcessor {
                     MethodSpec.Builder nodeInitMtdBuilder = MethodSpec.methodBuilder(initMtdName)
                         .addAnnotation(Override.class)
                         .addModifiers(PUBLIC)
-                        .returns(nodeClsName);
+                        .returns(nodeClsName)
+                        .addStatement("checkMutable()");
 
                     if (valAnnotation != null) {
                         CodeBlock initStatement;
@@ -788,6 +1021,9 @@ public class Processor extends AbstractProcessor {
                         nodeInitMtdBuilder
                             .addParameter(initFieldType, fieldName)
                             .addStatement(initStatement);
+
+                        if (primitiveField)
+                            nodeInitMtdBuilder.addStatement("$L &= ~$L", unsetField, unsetMask);
                     }
                     else {
                         String paramName = fieldName + "Consumer";
@@ -795,10 +1031,12 @@ public class Processor extends AbstractProcessor {
 
                         if (!namedListField) {
                             nodeInitMtdBuilder.addStatement(
-                                "if ($L == null) $L = new $T()",
+                                "$L = $L == null ? new $T() : ($T)$L.copyOnWrite()",
                                 fieldName,
                                 fieldName,
-                                nodeFieldType
+                                nodeFieldType,
+                                nodeFieldType,
+                                fieldName
                             );
 
                             nodeInitMtdBuilder.addStatement("$L.accept($L)", paramName, fieldName);
@@ -806,6 +1044,8 @@ public class Processor extends AbstractProcessor {
                         else {
                             nodeInitMtdBuilder.addAnnotation(suppressWarningsUnchecked());
 
+                            nodeInitMtdBuilder.addStatement("$L = $L.copyOnWrite()", fieldName, fieldName);
+
                             nodeInitMtdBuilder.addStatement("$L.accept((NamedListChange)$L)", paramName, fieldName);
                         }
                     }
@@ -816,70 +1056,148 @@ public class Processor extends AbstractProcessor {
                 }
             }
 
-            {
-                if (leafField) {
-                    traverseChildrenBuilder.addStatement("visitor.visitLeafNode($S, $L)", fieldName, fieldName);
+            if (leafField) {
+                for (FieldValidatorSpec validator : ValidationGenerator.generateValidators(field)) {
+                    int idx = leafValidators.size();
 
-                    traverseChildBuilder
-                        .addStatement("case $S: return visitor.visitLeafNode(key, $L)", fieldName, fieldName);
-                }
-                else if (namedListField) {
-                    traverseChildrenBuilder.addStatement("visitor.visitNamedListNode($S, $L)", fieldName, fieldName);
+                    leafValidators.add(CodeBlock.of("new $T($S, $L)", LeafValidator.class, fieldName, validator.getCode()));
 
-                    traverseChildBuilder
-                        .addStatement("case $S: return visitor.visitNamedListNode(key, $L)", fieldName, fieldName);
-                }
-                else {
-                    traverseChildrenBuilder.addStatement("visitor.visitInnerNode($S, $L)", fieldName, fieldName);
+                    validatorsByField.get(fieldName).add(idx);
 
-                    traverseChildBuilder
-                        .addStatement("case $S: return visitor.visitInnerNode(key, $L)", fieldName, fieldName);
+                    for (String dependency : validator.getDependsOn()) {
+                        if (dependency.equals(fieldName) || !validatorsByField.containsKey(dependency)) {
+                            throw new ProcessorException(
+                                "Validator of " + clazz.getQualifiedName() + "." + fieldName + " depends on unknown " +
+                                    "field: " + dependency
+                            );
+                        }
+
+                        validatorsByField.get(dependency).add(idx);
+                    }
                 }
             }
 
             {
-                if (leafField) {
-                    constructBuilder.addStatement(
-                        "case $S: $L = src == null ? null : src.unwrap($T.class)",
-                        fieldName,
-                        fieldName,
-                        schemaFieldType.box()
-                    )
-                    .addStatement(INDENT + "break");
+                String visitMtdName = leafField ? "visitLeafNode" : namedListField ? "visitNamedListNode" : "visitInnerNode";
 
-                    if (valAnnotation.hasDefault()) {
-                        constructDefaultBuilder
-                            .addStatement("case $S: $L = _spec.$L", fieldName, fieldName, fieldName)
-                            .addStatement(INDENT + "return true");
+                // Unset primitive is visited as null.
+                String visitedVal = primitiveField
+                    ? "(" + unsetField + " & " + unsetMask + ") == 0 ? " + fieldName + " : null"
+                    : fieldName;
+
+                traverseChildrenBuilder.addStatement("visitor.$L($S, $L)", visitMtdName, fieldName, visitedVal);
+
+                traverseChildBuilder
+                    .addStatement("case $S: return visitor.$L(key, $L)", fieldName, visitMtdName, visitedVal);
+
+                traverseChildByOrdinalBuilder
+                    .addStatement("case $L: return visitor.$L($S, $L)", fieldOrdinal, visitMtdName, fieldName, visitedVal);
+
+                ordinalBuilder.addStatement("case $S: return $L", fieldName, fieldOrdinal);
+
+                if (leafField) {
+                    // Primitives are compared unboxed, unset primitive is always zero.
+                    if (primitiveField) {
+                        boolean floating = schemaFieldType.equals(TypeName.DOUBLE)
+                            || schemaFieldType.equals(TypeName.FLOAT);
+
+                        CodeBlock cmp = floating
+                            ? CodeBlock.of("$T.compare($L, that.$L) == 0", schemaFieldType.box(), fieldName, fieldName)
+                            : CodeBlock.of("$L == that.$L", fieldName, fieldName);
+
+                        leafEqualsBuilder.addStatement(
+                            "case $L: return ($L & $L) == (that.$L & $L) && $L",
+                            fieldOrdinal,
+                            unsetField,
+                            unsetMask,
+                            unsetField,
+                            unsetMask,
+                            cmp
+                        );
+                    }
+                    else {
+                        leafEqualsBuilder.addStatement(
+                            "case $L: return $T.equals($L, that.$L)",
+                            fieldOrdinal,
+                            isArray ? Arrays.class : Objects.class,
+                            fieldName,
+                            fieldName
+                        );
                     }
-                    else
-                        constructDefaultBuilder.addStatement("case $S: return false", fieldName);
                 }
-                else if (namedListField) {
-                    constructBuilder
+            }
+
+            {
+                // Field names are identifiers, so they are already escaped and keys of the children are literals.
+                if (primitiveField) {
+                    writeFlatBuilder.addStatement(
+                        "if (($L & $L) == 0) sink.accept(prefix + $S, $L)",
+                        unsetField,
+                        unsetMask,
+                        fieldName,
+                        fieldName
+                    );
+
+                    readFlatBuilder
                         .addStatement(
-                            "case $S: if (src == null) $L = new $T<>($T::new)",
+                            "case $S: $L = cursor.isNull() ? $L : cursor.leaf($T.class)",
                             fieldName,
                             fieldName,
-                            NamedListNode.class,
-                            namedListParamType
+                            schemaFieldType.equals(TypeName.BOOLEAN) ? "false" : "0",
+                            schemaFieldType.box()
                         )
                         .addStatement(
-                            INDENT + "else src.descend($L = $L.copy())",
-                            fieldName,
-                            fieldName
+                            INDENT + "$L = cursor.isNull() ? $L | $L : $L & ~$L",
+                            unsetField,
+                            unsetField,
+                            unsetMask,
+                            unsetField,
+                            unsetMask
                         )
                         .addStatement(INDENT + "break");
                 }
-                else {
-                    constructBuilder
+                else if (leafField) {
+                    writeFlatBuilder.addStatement(
+                        "if ($L != null) sink.accept(prefix + $S, $L)",
+                        fieldName,
+                        fieldName,
+                        fieldName
+                    );
+
+                    readFlatBuilder
                         .addStatement(
-                            "case $S: if (src == null) $L = null",
+                            "case $S: $L = cursor.leaf($T.class)",
                             fieldName,
-                            fieldName
+                            fieldName,
+                            schemaFieldType.box()
                         )
+                        .addStatement(INDENT + "break");
+                }
+                else if (namedListField) {
+                    writeFlatBuilder.addStatement(
+                        "$L.writeFlat(prefix + $S, that == null ? null : that.$L, sink)",
+                        fieldName,
+                        fieldName + ".",
+                        fieldName
+                    );
+
+                    readFlatBuilder
+                        .addStatement("case $S: cursor.descend($L = $L.copyOnWrite())", fieldName, fieldName, fieldName)
+                        .addStatement(INDENT + "break");
+                }
+                else {
+                    writeFlatBuilder.addStatement(
+                        "if ($L != null) $L.writeFlat(prefix + $S, that == null ? null : that.$L, sink)",
+                        fieldName,
+                        fieldName,
+                        fieldName + ".",
+                        fieldName
+                    );
+
+                    readFlatBuilder
                         .addStatement(
-                            INDENT + "else src.descend($L = ($L == null ? new $T() : ($T)$L.copy()))",
+                            "case $S: cursor.descend($L = ($L == null ? new $T() : ($T)$L.copyOnWrite()))",
+                            fieldName,
                             fieldName,
                             fieldName,
                             nodeFieldType,
@@ -889,25 +1207,163 @@ public class Processor extends AbstractProcessor {
                         .addStatement(INDENT + "break");
                 }
             }
+
+            {
+                // Statements of the "construct" case, they're the same for the name and for the ordinal of the field.
+                List<CodeBlock> constructBody = new ArrayList<>();
+
+                if (primitiveField) {
+                    constructBody.add(CodeBlock.of(
+                        "$L = src == null ? $L : src.unwrap($T.class)",
+                        fieldName,
+                        schemaFieldType.equals(TypeName.BOOLEAN) ? "false" : "0",
+                        schemaFieldType.box()
+                    ));
+
+                    constructBody.add(CodeBlock.of(
+                        "$L = src == null ? $L | $L : $L & ~$L",
+                        unsetField,
+                        unsetField,
+                        unsetMask,
+                        unsetField,
+                        unsetMask
+                    ));
+
+                    if (valAnnotation.hasDefault()) {
+                        constructDefaultBuilder
+                            .addStatement("case $S: $L = _spec.$L", fieldName, fieldName, fieldName)
+                            .addStatement(INDENT + "$L &= ~$L", unsetField, unsetMask)
+                            .addStatement(INDENT + "return true");
+                    }
+                    else
+                        constructDefaultBuilder.addStatement("case $S: return false", fieldName);
+                }
+                else if (leafField) {
+                    constructBody.add(CodeBlock.of(
+                        "$L = src == null ? null : src.unwrap($T.class)",
+                        fieldName,
+                        schemaFieldType.box()
+                    ));
+
+                    if (valAnnotation.hasDefault()) {
+                        constructDefaultBuilder
+                            .addStatement("case $S: $L = _spec.$L", fieldName, fieldName, fieldName)
+                            .addStatement(INDENT + "return true");
+                    }
+                    else
+                        constructDefaultBuilder.addStatement("case $S: return false", fieldName);
+                }
+                else if (namedListField) {
+                    copyMutableChildrenBuilder.addStatement(
+                        "if (!$L.frozen()) $L = $L.copy()",
+                        fieldName,
+                        fieldName,
+                        fieldName
+                    );
+
+                    constructBody.add(CodeBlock.of(
+                        "if (src == null) $L = new $T<>($T::new)",
+                        fieldName,
+                        NamedListNode.class,
+                        namedListParamType
+                    ));
+
+                    constructBody.add(CodeBlock.of("else src.descend($L = $L.copyOnWrite())", fieldName, fieldName));
+                }
+                else {
+                    copyMutableChildrenBuilder.addStatement(
+                        "if ($L != null && !$L.frozen()) $L = ($T)$L.copy()",
+                        fieldName,
+                        fieldName,
+                        fieldName,
+                        nodeFieldType,
+                        fieldName
+                    );
+
+                    constructBody.add(CodeBlock.of("if (src == null) $L = null", fieldName));
+
+                    constructBody.add(CodeBlock.of(
+                        "else src.descend($L = ($L == null ? new $T() : ($T)$L.copyOnWrite()))",
+                        fieldName,
+                        fieldName,
+                        nodeFieldType,
+                        nodeFieldType,
+                        fieldName
+                    ));
+                }
+
+                constructBody.add(CodeBlock.of("break"));
+
+                addCase(constructBuilder, CodeBlock.of("$S", fieldName), constructBody);
+
+                addCase(constructByOrdinalBuilder, CodeBlock.of("$L", fieldOrdinal), constructBody);
+            }
         }
 
         traverseChildBuilder
             .addStatement("default: throw new $T(key)", NoSuchElementException.class)
             .endControlFlow();
 
+        traverseChildByOrdinalBuilder
+            .addStatement("default: throw new $T(String.valueOf(ordinal))", NoSuchElementException.class)
+            .endControlFlow();
+
+        leafEqualsBuilder
+            .addStatement("default: throw new $T(String.valueOf(ordinal))", NoSuchElementException.class)
+            .endControlFlow();
+
+        readFlatBuilder
+            .addStatement("default: throw new $T(key)", NoSuchElementException.class)
+            .endControlFlow()
+            .endControlFlow();
+
+        ordinalBuilder
+            .addStatement("default: throw new $T(key)", NoSuchElementException.class)
+            .endControlFlow();
+
         constructBuilder
             .addStatement("default: throw new $T(key)", NoSuchElementException.class)
             .endControlFlow();
 
+        constructByOrdinalBuilder
+            .addStatement("default: throw new $T(String.valueOf(ordinal))", NoSuchElementException.class)
+            .endControlFlow();
+
         constructDefaultBuilder
             .addStatement("default: throw new $T(key)", NoSuchElementException.class)
             .endControlFlow();
 
+        if (!leafValidators.isEmpty())
+            addValidators(nodeClsBuilder, leafValidators, validatorsByField);
+
+        // Declared after "_spec", so that defaults are initialized when the descriptor is built.
+        nodeClsBuilder.addField(FieldSpec.builder(ClassName.get(SchemaDescriptor.class), "SCHEMA", PUBLIC, STATIC, FINAL)
+            .initializer(schemaBuilder.add("\n.build()").unindent().build())
+            .build()
+        );
+
+        for (int i = 0; i < primitiveIdx; i += Long.SIZE) {
+            // Bits of all primitive leaves in the bitmask.
+            long mask = primitiveIdx - i >= Long.SIZE ? -1L : (1L << (primitiveIdx - i)) - 1;
+
+            nodeClsBuilder.addField(FieldSpec.builder(TypeName.LONG, unsetField(i), PRIVATE)
+                .initializer("0x$LL", Long.toHexString(mask))
+                .build()
+            );
+        }
+
         nodeClsBuilder
             .addMethod(traverseChildrenBuilder.build())
             .addMethod(traverseChildBuilder.build())
+            .addMethod(traverseChildByOrdinalBuilder.build())
+            .addMethod(leafEqualsBuilder.build())
+            .addMethod(writeFlatBuilder.build())
+            .addMethod(readFlatBuilder.build())
+            .addMethod(ordinalBuilder.build())
             .addMethod(constructBuilder.build())
+            .addMethod(constructByOrdinalBuilder.build())
             .addMethod(constructDefaultBuilder.build())
+            .addMethod(copyMutableChildrenBuilder.build())
             .addMethod(schemaTypeBuilder.build());
 
         TypeSpec viewCls = viewClsBuilder.build();
@@ -921,6 +1377,61 @@ public class Processor extends AbstractProcessor {
         buildClass(nodeClsName.packageName(), nodeCls);
     }
 
+    /**
+     * Adds precomputed validators tables and {@link InnerNode#validators(String)} implementation to the node class.
+     *
+     * @param nodeClsBuilder Node class builder.
+     * @param leafValidators Code that creates validators.
+     * @param validatorsByField Indexes of validators to execute when the field is changed.
+     */
+    private static void addValidators(
+        TypeSpec.Builder nodeClsBuilder,
+        List<CodeBlock> leafValidators,
+        Map<String, List<Integer>> validatorsByField
+    ) {
+        ClassName leafValidatorCls = ClassName.get(LeafValidator.class);
+
+        TypeName validatorsListType = ParameterizedTypeName.get(ClassName.get(List.class), leafValidatorCls);
+
+        nodeClsBuilder.addField(FieldSpec.builder(ArrayTypeName.of(leafValidatorCls), "_validators", PRIVATE, STATIC, FINAL)
+            .initializer("{\n$>$L$<\n}", CodeBlock.join(leafValidators, ",\n"))
+            .build()
+        );
+
+        MethodSpec.Builder validatorsBuilder = MethodSpec.methodBuilder("validators")
+            .addAnnotation(Override.class)
+            .addJavadoc(INHERIT_DOC)
+            .addModifiers(PUBLIC)
+            .returns(validatorsListType)
+            .addParameter(ClassName.get(String.class), "key")
+            .beginControlFlow("switch (key)");
+
+        for (Map.Entry<String, List<Integer>> entry : validatorsByField.entrySet()) {
+            if (entry.getValue().isEmpty())
+                continue;
+
+            String fieldName = entry.getKey();
+            String listFieldName = "_" + fieldName + "Validators";
+
+            List<CodeBlock> elements = entry.getValue().stream()
+                .map(idx -> CodeBlock.of("_validators[$L]", idx))
+                .collect(Collectors.toList());
+
+            nodeClsBuilder.addField(FieldSpec.builder(validatorsListType, listFieldName, PRIVATE, STATIC, FINAL)
+                .initializer("$T.of($L)", List.class, CodeBlock.join(elements, ", "))
+                .build()
+            );
+
+            validatorsBuilder.addStatement("case $S: return $L", fieldName, listFieldName);
+        }
+
+        validatorsBuilder
+            .addStatement("default: return $T.emptyList()", Collections.class)
+            .endControlFlow();
+
+        nodeClsBuilder.addMethod(validatorsBuilder.build());
+    }
+
     /** */
     private void buildClass(String packageName, TypeSpec cls) {
         try {
@@ -934,6 +1445,22 @@ public class Processor extends AbstractProcessor {
         }
     }
 
+    /**
+     * @param primitiveIdx Index of the primitive leaf in the node class.
+     * @return Name of the node class field with the "unset" bit of the leaf.
+     */
+    private static String unsetField(int primitiveIdx) {
+        return primitiveIdx < Long.SIZE ? "_unset" : "_unset" + primitiveIdx / Long.SIZE;
+    }
+
+    /**
+     * @param primitiveIdx Index of the primitive leaf in the node class.
+     * @return Literal of the "unset" bit of the leaf in the {@link #unsetField(int)} bitmask.
+     */
+    private static String unsetMask(int primitiveIdx) {
+        return "0x" + Long.toHexString(1L << (primitiveIdx % Long.SIZE)) + "L";
+    }
+
     /** */
     private static String capitalize(String name) {
         return name.substring(0, 1).toUpperCase() + name.substring(1);
@@ -20,8 +20,8 @@ package org.apache.ignite.configuration.processor.internal.validation;
 import com.squareup.javapoet.CodeBlock;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import javax.lang.model.element.VariableElement;
 import javax.lang.model.type.MirroredTypesException;
 import javax.lang.model.type.TypeMirror;
@@ -46,13 +46,13 @@ public class ValidationGenerator {
     }
 
     /**
-     * Generate validation block.
+     * Generate validators of the field.
      *
      * @param variableElement Configuration field.
-     * @return Code block for field validation.
+     * @return Validators of the field, in the order of declaration.
      */
-    public static CodeBlock generateValidators(VariableElement variableElement) {
-        List<CodeBlock> validators = new ArrayList<>();
+    public static List<FieldValidatorSpec> generateValidators(VariableElement variableElement) {
+        List<FieldValidatorSpec> validators = new ArrayList<>();
 
         processMin(variableElement, validators);
 
@@ -62,11 +62,7 @@ public class ValidationGenerator {
 
         processCustomValidations(variableElement, validators);
 
-        String text = validators.stream().map(v -> "$L").collect(Collectors.joining(","));
-
-        final CodeBlock validatorsArguments = CodeBlock.builder().add(text, validators.toArray()).build();
-
-        return CodeBlock.builder().add("$T.asList($L)", Arrays.class, validatorsArguments).build();
+        return validators;
     }
 
     /**
@@ -74,7 +70,7 @@ public class ValidationGenerator {
      * @param variableElement Field.
      * @param validators Validators code blocks.
      */
-    private static void processMin(VariableElement variableElement, List<CodeBlock> validators) {
+    private static void processMin(VariableElement variableElement, List<FieldValidatorSpec> validators) {
         final Min minAnnotation = variableElement.getAnnotation(Min.class);
         if (minAnnotation != null) {
             final long minValue = minAnnotation.value();
@@ -82,7 +78,7 @@ public class ValidationGenerator {
             final CodeBlock build = CodeBlock.builder().add(
                 "new $T<$T<?, ?, ?>>($L, $S)", MinValidator.class, DynamicConfiguration.class, minValue, message
             ).build();
-            validators.add(build);
+            validators.add(new FieldValidatorSpec(build, Collections.emptyList()));
         }
     }
 
@@ -91,7 +87,7 @@ public class ValidationGenerator {
      * @param variableElement Field.
      * @param validators Validators code blocks.
      */
-    private static void processMax(VariableElement variableElement, List<CodeBlock> validators) {
+    private static void processMax(VariableElement variableElement, List<FieldValidatorSpec> validators) {
         final Max maxAnnotation = variableElement.getAnnotation(Max.class);
 
         if (maxAnnotation != null) {
@@ -103,7 +99,7 @@ public class ValidationGenerator {
                 "new $T<$T<?, ?, ?>>($L, $S)", MaxValidator.class, DynamicConfiguration.class, maxValue, message
             ).build();
 
-            validators.add(build);
+            validators.add(new FieldValidatorSpec(build, Collections.emptyList()));
         }
     }
 
@@ -112,7 +108,7 @@ public class ValidationGenerator {
      * @param variableElement Field.
      * @param validators Validators code blocks.
      */
-    private static void processNotNull(VariableElement variableElement, List<CodeBlock> validators) {
+    private static void processNotNull(VariableElement variableElement, List<FieldValidatorSpec> validators) {
         final NotNull notNull = variableElement.getAnnotation(NotNull.class);
 
         if (notNull != null) {
@@ -122,7 +118,7 @@ public class ValidationGenerator {
                 "new $T<$T<?, ?, ?>>($S)", NotNullValidator.class, DynamicConfiguration.class, message
             ).build();
 
-            validators.add(build);
+            validators.add(new FieldValidatorSpec(build, Collections.emptyList()));
         }
     }
 
@@ -131,7 +127,7 @@ public class ValidationGenerator {
      * @param variableElement Field.
      * @param validators Validators code blocks.
      */
-    private static void processCustomValidations(VariableElement variableElement, List<CodeBlock> validators) {
+    private static void processCustomValidations(VariableElement variableElement, List<FieldValidatorSpec> validators) {
         List<Validate> validateAnnotations = new ArrayList<>();
 
         // There can repeatable Validate annotation, hence Validate.List
@@ -166,9 +162,44 @@ public class ValidationGenerator {
             for (TypeMirror value : values) {
                 final String message = validateAnnotation.message();
                 final CodeBlock build = CodeBlock.builder().add("new $T($S)", value, message).build();
-                validators.add(build);
+                validators.add(new FieldValidatorSpec(build, Arrays.asList(validateAnnotation.dependsOn())));
             }
         }
     }
 
+    /**
+     * Generated validator of the field.
+     */
+    public static class FieldValidatorSpec {
+        /** Code that creates validator instance. */
+        private final CodeBlock code;
+
+        /** Names of other fields of the schema that validator depends on. */
+        private final List<String> dependsOn;
+
+        /**
+         * Constructor.
+         *
+         * @param code Code that creates validator instance.
+         * @param dependsOn Names of other fields of the schema that validator depends on.
+         */
+        public FieldValidatorSpec(CodeBlock code, List<String> dependsOn) {
+            this.code = code;
+            this.dependsOn = dependsOn;
+        }
+
+        /**
+         * @return Code that creates validator instance.
+         */
+        public CodeBlock getCode() {
+            return code;
+        }
+
+        /**
+         * @return Names of other fields of the schema that validator depends on.
+         */
+        public List<String> getDependsOn() {
+            return dependsOn;
+        }
+    }
 }
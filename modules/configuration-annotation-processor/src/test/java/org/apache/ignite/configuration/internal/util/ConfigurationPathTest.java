@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.internal.util;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/** */
+public class ConfigurationPathTest {
+    /** */
+    @Test
+    public void parse() {
+        assertEquals(List.of("foo"), ConfigurationPath.parse("foo"));
+
+        assertEquals(List.of(""), ConfigurationPath.parse(""));
+
+        assertEquals(List.of("a", "b.b", "c\\c", ""), ConfigurationPath.parse("a.b\\.b.c\\\\c."));
+
+        // Escaped backslash followed by a separator.
+        assertEquals(List.of("a\\", "b"), ConfigurationPath.parse("a\\\\.b"));
+
+        assertEquals(List.of(".."), ConfigurationPath.parse("\\.\\."));
+    }
+
+    /** */
+    @Test
+    public void escapedForm() {
+        ConfigurationPath path = ConfigurationPath.of("a", "b.b", "c\\c");
+
+        assertEquals("a.b\\.b.c\\\\c", path.toString());
+
+        assertSame(path.toString(), path.toString());
+
+        assertEquals(path, ConfigurationPath.parse(path.toString()));
+    }
+
+    /** */
+    @Test
+    public void listContract() {
+        ConfigurationPath path = ConfigurationPath.of("a", "b").append("c");
+
+        assertEquals(List.of("a", "b", "c"), path);
+        assertEquals(path, List.of("a", "b", "c"));
+        assertEquals(List.of("a", "b", "c").hashCode(), path.hashCode());
+
+        assertEquals(List.of("b", "c"), path.subList(1, 3));
+        assertSame(ConfigurationPath.EMPTY, path.subList(1, 1));
+        assertSame(path, path.subList(0, 3));
+
+        assertEquals("c", path.lastKey());
+
+        assertSame(path, ConfigurationPath.of(path));
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.internal.util;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import org.apache.ignite.configuration.annotation.Config;
+import org.apache.ignite.configuration.annotation.ConfigValue;
+import org.apache.ignite.configuration.annotation.NamedConfigValue;
+import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.internal.util.impl.JsonRootNode;
+import org.apache.ignite.configuration.tree.ConfigurationSource;
+import org.apache.ignite.configuration.tree.ConstructableTreeNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** */
+public class JsonConfigurationSourceTest {
+    /** */
+    @Config
+    public static class JsonRootConfigurationSchema {
+        /** */
+        @Value
+        public int intVal;
+
+        /** */
+        @Value
+        public long longVal;
+
+        /** */
+        @Value
+        public double doubleVal;
+
+        /** */
+        @Value
+        public boolean boolVal;
+
+        /** */
+        @Value
+        public String str;
+
+        /** */
+        @Value
+        public int[] ints;
+
+        /** */
+        @Value
+        public String[] strs;
+
+        /** */
+        @ConfigValue
+        private JsonChildConfigurationSchema child;
+
+        /** */
+        @NamedConfigValue
+        private JsonChildConfigurationSchema elements;
+    }
+
+    /** */
+    @Config
+    public static class JsonChildConfigurationSchema {
+        /** */
+        @Value
+        public String str;
+    }
+
+    /** */
+    @Test
+    public void json() {
+        JsonRootNode root = parse(new JsonRootNode(), "{\n" +
+            "  \"intVal\": -1,\n" +
+            "  \"longVal\": 10000000000,\n" +
+            "  \"doubleVal\": 1.5e3,\n" +
+            "  \"boolVal\": true,\n" +
+            "  \"str\": \"a\\\"b\\\\c\\u0041\\n\",\n" +
+            "  \"ints\": [1, 2, 3],\n" +
+            "  \"strs\": [\"x\", \"y\"],\n" +
+            "  \"child\": {\"str\": \"foo\"},\n" +
+            "  \"elements\": {\"a.b\": {\"str\": \"bar\"}, \"c\": {}}\n" +
+            "}"
+        );
+
+        assertEquals(-1, root.intVal());
+        assertEquals(10_000_000_000L, root.longVal());
+        assertEquals(1500d, root.doubleVal());
+        assertTrue(root.boolVal());
+        assertEquals("a\"b\\cA\n", root.str());
+        assertArrayEquals(new int[] {1, 2, 3}, root.ints());
+        assertArrayEquals(new String[] {"x", "y"}, root.strs());
+        assertEquals("foo", root.child().str());
+        assertEquals(Set.of("a.b", "c"), new HashSet<>(root.elements().namedListKeys()));
+        assertEquals("bar", root.elements().get("a.b").str());
+        assertNull(root.elements().get("c").str());
+    }
+
+    /** */
+    @Test
+    public void hocon() {
+        JsonRootNode root = parse(new JsonRootNode(), "# Comment.\n" +
+            "intVal = 1\n" +
+            "// Another comment.\n" +
+            "str = foo # Trailing comment.\n" +
+            "ints = [1\n2]\n" +
+            "child.str: bar\n" +
+            "elements {\n" +
+            "  \"a.b\" { str = baz }\n" +
+            "  c.str = qux\n" +
+            "}\n"
+        );
+
+        assertEquals(1, root.intVal());
+        assertEquals("foo", root.str());
+        assertArrayEquals(new int[] {1, 2}, root.ints());
+        assertEquals("bar", root.child().str());
+        assertEquals("baz", root.elements().get("a.b").str());
+        assertEquals("qux", root.elements().get("c").str());
+    }
+
+    /** */
+    @Test
+    public void nulls() {
+        JsonRootNode root = parse(new JsonRootNode(), "{str: foo, elements: {a: {str: bar}, b: {str: baz}}}");
+
+        root = parse(root, "{\"str\": null, \"elements\": {\"a\": null, \"b\": {\"str\": \"null\"}}}");
+
+        assertNull(root.str());
+        assertEquals(Set.of("b"), new HashSet<>(root.elements().namedListKeys()));
+        assertEquals("null", root.elements().get("b").str());
+    }
+
+    /** */
+    @Test
+    public void bufferBoundaries() {
+        StringBuilder sb = new StringBuilder("{\"elements\": {");
+
+        for (int i = 0; i < 10_000; i++) {
+            sb.append("\n  \"element").append(i).append("\": ")
+                .append("{\"str\": \"value\\u0041").append(i).append("\"}, // ").append(i);
+        }
+
+        JsonRootNode root = parse(new JsonRootNode(), sb.append("\n}}").toString());
+
+        assertEquals(10_000, root.elements().namedListKeys().size());
+        assertEquals("valueA9999", root.elements().get("element9999").str());
+    }
+
+    /** */
+    @Test
+    public void unconsumedValuesAreSkipped() {
+        List<String> keys = new ArrayList<>();
+
+        new JsonConfigurationSource(new StringReader(
+            "{\"skipped\": {\"a\": [1, {\"b\": \"}\"}], \"c\": {}}, \"taken\": \"value\", \"last\": 1}"
+        )).descend(new ConstructableTreeNode() {
+            /** {@inheritDoc} */
+            @Override public void construct(String key, ConfigurationSource src) throws NoSuchElementException {
+                keys.add(key);
+
+                if (key.equals("taken"))
+                    assertEquals("value", src.unwrap(String.class));
+            }
+
+            /** {@inheritDoc} */
+            @Override public boolean constructDefault(String key) throws NoSuchElementException {
+                throw new UnsupportedOperationException("constructDefault");
+            }
+
+            /** {@inheritDoc} */
+            @Override public ConstructableTreeNode copy() {
+                throw new UnsupportedOperationException("copy");
+            }
+        });
+
+        assertEquals(List.of("skipped", "taken", "last"), keys);
+    }
+
+    /** */
+    @Test
+    public void errors() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+            () -> parse(new JsonRootNode(), "{\n  \"intVal\": \"foo\"\n}"));
+
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+
+        assertThrows(IllegalArgumentException.class, () -> parse(new JsonRootNode(), "{\"str\": \"foo\""));
+
+        assertThrows(IllegalArgumentException.class, () -> parse(new JsonRootNode(), "{\"child\": 1}"));
+
+        assertThrows(IllegalArgumentException.class, () -> parse(new JsonRootNode(), "{\"str\" 1}"));
+
+        assertThrows(IllegalArgumentException.class, () -> parse(new JsonRootNode(), "{} {}"));
+
+        assertThrows(NoSuchElementException.class, () -> parse(new JsonRootNode(), "{\"unknown\": 1}"));
+    }
+
+    /**
+     * @param node Node to construct.
+     * @param text JSON or HOCON text.
+     * @return Constructed node.
+     */
+    private static JsonRootNode parse(JsonRootNode node, String text) {
+        new JsonConfigurationSource(new StringReader(text)).descend(node);
+
+        return node;
+    }
+}
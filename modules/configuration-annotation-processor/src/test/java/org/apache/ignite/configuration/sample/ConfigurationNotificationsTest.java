@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.sample;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import org.apache.ignite.configuration.ConfigurationProperty;
+import org.apache.ignite.configuration.ConfigurationRegistry;
+import org.apache.ignite.configuration.ConfigurationValue;
+import org.apache.ignite.configuration.PropertyListener;
+import org.apache.ignite.configuration.annotation.ConfigurationRoot;
+import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.internal.DynamicProperty;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.apache.ignite.configuration.validation.ConfigurationValidationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of property listeners notifications.
+ */
+public class ConfigurationNotificationsTest {
+    /** */
+    private ConfigurationRegistry registry;
+
+    /** */
+    private LocalConfiguration root;
+
+    /** */
+    @BeforeEach
+    public void before() throws Exception {
+        registry = new ConfigurationRegistry();
+
+        registry.registerRootKey(LocalConfiguration.KEY);
+
+        var storage = new TestConfigurationStorage();
+
+        // Auto adjust validators only accept positive timeouts while auto adjust is enabled.
+        storage.write(Map.of("local.baseline.autoAdjust.enabled", true), 0).get(1, SECONDS);
+
+        registry.registerStorage(storage);
+
+        root = registry.getConfiguration(LocalConfiguration.KEY);
+    }
+
+    /** */
+    @AfterEach
+    public void after() {
+        registry.stop();
+    }
+
+    /**
+     * Tests that only listeners of changed properties are notified, and that all three callbacks are invoked in order.
+     */
+    @Test
+    public void onlyChangedPropertiesAreNotified() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        addListener(root.baseline().autoAdjust().timeout(), new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public boolean beforeUpdate(Long oldVal, Long newVal, ConfigurationProperty<Long, Long> modifier) {
+                events.add("before " + oldVal + " " + newVal);
+
+                return true;
+            }
+
+            /** {@inheritDoc} */
+            @Override public void update(Long newVal, ConfigurationProperty<Long, Long> modifier) {
+                events.add("update " + newVal);
+            }
+
+            /** {@inheritDoc} */
+            @Override public void afterUpdate(Long newVal, ConfigurationProperty<Long, Long> modifier) {
+                events.add("after " + newVal);
+
+                if (newVal == 200L)
+                    latch.countDown();
+            }
+        });
+
+        addListener(root.baseline().autoAdjust().enabled(), new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(Boolean newVal, ConfigurationProperty<Boolean, Boolean> modifier) {
+                events.add("enabled " + newVal);
+            }
+        });
+
+        root.baseline().autoAdjust().timeout().update(100L).get(1, SECONDS);
+
+        // Same value, no notification expected.
+        root.baseline().autoAdjust().timeout().update(100L).get(1, SECONDS);
+
+        root.baseline().autoAdjust().timeout().update(200L).get(1, SECONDS);
+
+        assertTrue(latch.await(1, SECONDS));
+
+        assertEquals(
+            List.of("before null 100", "update 100", "after 100", "before 100 200", "update 200", "after 200"),
+            events
+        );
+    }
+
+    /**
+     * Tests that listener that collapses intermediate updates skips them if notifications are delivered slower than
+     * configuration is changed, while other listeners observe every update.
+     */
+    @Test
+    public void intermediateUpdatesAreCollapsed() throws Exception {
+        List<Long> allUpdates = new CopyOnWriteArrayList<>();
+        List<Long> collapsedUpdates = new CopyOnWriteArrayList<>();
+
+        CountDownLatch firstUpdate = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch lastUpdate = new CountDownLatch(1);
+
+        addListener(root.baseline().autoAdjust().timeout(), new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(Long newVal, ConfigurationProperty<Long, Long> modifier) {
+                allUpdates.add(newVal);
+
+                firstUpdate.countDown();
+
+                try {
+                    // Hold the notifications thread, so that following updates pile up.
+                    release.await(1, SECONDS);
+                }
+                catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+
+        addListener(root.baseline().autoAdjust().timeout(), new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(Long newVal, ConfigurationProperty<Long, Long> modifier) {
+                collapsedUpdates.add(newVal);
+
+                if (newVal == 3L)
+                    lastUpdate.countDown();
+            }
+
+            /** {@inheritDoc} */
+            @Override public boolean collapseIntermediateUpdates() {
+                return true;
+            }
+        });
+
+        root.baseline().autoAdjust().timeout().update(1L).get(1, SECONDS);
+
+        assertTrue(firstUpdate.await(1, SECONDS));
+
+        root.baseline().autoAdjust().timeout().update(2L).get(1, SECONDS);
+        root.baseline().autoAdjust().timeout().update(3L).get(1, SECONDS);
+
+        release.countDown();
+
+        assertTrue(lastUpdate.await(1, SECONDS));
+
+        assertEquals(List.of(1L, 2L, 3L), allUpdates);
+        assertEquals(List.of(1L, 3L), collapsedUpdates);
+    }
+
+    /**
+     * Tests that changes rejected by validators are not notified.
+     */
+    @Test
+    public void rejectedChangesAreNotNotified() throws Exception {
+        List<Long> updates = new CopyOnWriteArrayList<>();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        addListener(root.baseline().autoAdjust().timeout(), new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(Long newVal, ConfigurationProperty<Long, Long> modifier) {
+                updates.add(newVal);
+
+                if (newVal == 200L)
+                    latch.countDown();
+            }
+        });
+
+        root.baseline().autoAdjust().enabled().update(false).get(1, SECONDS);
+
+        // Positive timeout is rejected while auto adjust is disabled.
+        ExecutionException e = assertThrows(
+            ExecutionException.class,
+            () -> root.baseline().autoAdjust().timeout().update(100L).get(1, SECONDS)
+        );
+
+        assertTrue(e.getCause() instanceof ConfigurationValidationException);
+
+        assertNull(root.baseline().autoAdjust().timeout().value());
+
+        root.baseline().autoAdjust().enabled().update(true).get(1, SECONDS);
+
+        root.baseline().autoAdjust().timeout().update(200L).get(1, SECONDS);
+
+        assertTrue(latch.await(1, SECONDS));
+
+        assertEquals(List.of(200L), updates);
+    }
+
+    /** */
+    @ConfigurationRoot(rootName = "notifiedArray", storage = TestConfigurationStorage.class)
+    public static class NotifiedArrayConfigurationSchema {
+        /** */
+        @Value(hasDefault = true)
+        public String[] tags = {};
+    }
+
+    /**
+     * Tests that array value rewritten with the same contents is not notified.
+     */
+    @Test
+    public void unchangedArraysAreNotNotified() throws Exception {
+        var storage = new TestConfigurationStorage();
+
+        var arrayRegistry = new ConfigurationRegistry();
+
+        arrayRegistry.registerRootKey(NotifiedArrayConfiguration.KEY);
+
+        arrayRegistry.registerStorage(storage);
+
+        NotifiedArrayConfiguration arrayRoot = arrayRegistry.getConfiguration(NotifiedArrayConfiguration.KEY);
+
+        List<String> updates = new CopyOnWriteArrayList<>();
+
+        CountDownLatch latch = new CountDownLatch(1);
+
+        addListener(arrayRoot.tags(), new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(String[] newVal, ConfigurationProperty<String[], String[]> modifier) {
+                updates.add(Arrays.toString(newVal));
+
+                if (newVal.length == 2)
+                    latch.countDown();
+            }
+        });
+
+        arrayRoot.tags().update(new String[] {"a"}).get(1, SECONDS);
+
+        // Another writer of the storage rewrites the same contents.
+        storage.write(Map.of("notifiedArray.tags", new String[] {"a"}), storage.readAll().version()).get(1, SECONDS);
+
+        arrayRoot.tags().update(new String[] {"a", "b"}).get(1, SECONDS);
+
+        assertTrue(latch.await(1, SECONDS));
+
+        assertEquals(List.of("[a]", "[a, b]"), updates);
+
+        arrayRegistry.stop();
+    }
+
+    /** */
+    @SuppressWarnings("unchecked")
+    private static <T extends Serializable> void addListener(
+        ConfigurationValue<T> property,
+        PropertyListener<T, T> listener
+    ) {
+        ((DynamicProperty<T>)property).addListener(listener);
+    }
+}
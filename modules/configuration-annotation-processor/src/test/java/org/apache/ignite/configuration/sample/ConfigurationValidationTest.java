@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.sample;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.configuration.ConfigurationRegistry;
+import org.apache.ignite.configuration.annotation.Config;
+import org.apache.ignite.configuration.annotation.ConfigurationRoot;
+import org.apache.ignite.configuration.annotation.NamedConfigValue;
+import org.apache.ignite.configuration.annotation.Validate;
+import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.apache.ignite.configuration.validation.ConfigurationValidationException;
+import org.apache.ignite.configuration.validation.FieldValidator;
+import org.apache.ignite.configuration.validation.ValidationIssue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of incremental validation of configuration changes.
+ */
+public class ConfigurationValidationTest {
+    /** */
+    @ConfigurationRoot(rootName = "validated", storage = TestConfigurationStorage.class)
+    public static class ValidatedConfigurationSchema {
+        /** */
+        @Value
+        public int min;
+
+        /** */
+        @Value
+        @Validate(value = NotLessThanMinValidator.class, message = "Max is less than min", dependsOn = "min")
+        public int max;
+
+        /** */
+        @NamedConfigValue
+        private ValidatedElementConfigurationSchema elements;
+    }
+
+    /** */
+    @Config
+    public static class ValidatedElementConfigurationSchema {
+        /** */
+        @Value
+        @Validate(value = NonNegativeValidator.class, message = "Negative value")
+        public int val;
+    }
+
+    /** Validates that {@code max} is not less than {@code min}. */
+    public static class NotLessThanMinValidator extends FieldValidator<Integer, ValidatedConfiguration> {
+        /** Number of calls. */
+        static final AtomicInteger CALLS = new AtomicInteger();
+
+        /** Constructor. */
+        public NotLessThanMinValidator(String message) {
+            super(message);
+        }
+
+        /** {@inheritDoc} */
+        @Override public void validate(Integer value, ValidatedConfiguration newRoot, ValidatedConfiguration oldRoot) {
+            CALLS.incrementAndGet();
+
+            Integer min = newRoot.min().value();
+
+            if (min != null && value < min)
+                throw new ConfigurationValidationException(message);
+        }
+    }
+
+    /** Validates that value is not negative. */
+    public static class NonNegativeValidator extends FieldValidator<Integer, ValidatedConfiguration> {
+        /** Number of calls. */
+        static final AtomicInteger CALLS = new AtomicInteger();
+
+        /** Constructor. */
+        public NonNegativeValidator(String message) {
+            super(message);
+        }
+
+        /** {@inheritDoc} */
+        @Override public void validate(Integer value, ValidatedConfiguration newRoot, ValidatedConfiguration oldRoot) {
+            CALLS.incrementAndGet();
+
+            if (value < 0)
+                throw new ConfigurationValidationException(message);
+        }
+    }
+
+    /** */
+    private ConfigurationRegistry registry;
+
+    /** */
+    private ValidatedConfiguration root;
+
+    /** */
+    @BeforeEach
+    public void before() {
+        registry = new ConfigurationRegistry();
+
+        registry.registerRootKey(ValidatedConfiguration.KEY);
+
+        registry.registerStorage(new TestConfigurationStorage());
+
+        root = registry.getConfiguration(ValidatedConfiguration.KEY);
+
+        NonNegativeValidator.CALLS.set(0);
+        NotLessThanMinValidator.CALLS.set(0);
+    }
+
+    /** */
+    @AfterEach
+    public void after() {
+        registry.stop();
+    }
+
+    /**
+     * Tests that a single validator is executed when a single leaf of a large configuration is changed.
+     */
+    @Test
+    public void onlyChangedLeavesAreValidated() throws Exception {
+        int size = 1000;
+
+        root.change(validated -> validated.changeMin(0).changeMax(10).changeElements(elements -> {
+            for (int i = 0; i < size; i++) {
+                int val = i;
+
+                elements.create("el" + i, element -> element.initVal(val));
+            }
+        })).get(1, SECONDS);
+
+        // New elements are validated completely.
+        assertEquals(size, NonNegativeValidator.CALLS.get());
+
+        NonNegativeValidator.CALLS.set(0);
+        NotLessThanMinValidator.CALLS.set(0);
+
+        root.elements().get("el5").val().update(100).get(1, SECONDS);
+
+        assertEquals(1, NonNegativeValidator.CALLS.get());
+        assertEquals(0, NotLessThanMinValidator.CALLS.get());
+
+        ExecutionException e = assertThrows(
+            ExecutionException.class,
+            () -> root.elements().get("el5").val().update(-1).get(1, SECONDS)
+        );
+
+        assertTrue(e.getCause() instanceof ConfigurationValidationException);
+
+        List<ValidationIssue> issues = ((ConfigurationValidationException)e.getCause()).getIssues();
+
+        assertEquals(1, issues.size());
+        assertEquals("validated.elements.el5.val", issues.get(0).key());
+        assertEquals("Negative value", issues.get(0).message());
+
+        assertEquals(100, root.elements().get("el5").val().value());
+    }
+
+    /**
+     * Tests that validator is executed when the field it depends on is changed.
+     */
+    @Test
+    public void dependentValidatorsAreExecuted() throws Exception {
+        root.change(validated -> validated.changeMin(0).changeMax(10)).get(1, SECONDS);
+
+        NotLessThanMinValidator.CALLS.set(0);
+
+        ExecutionException e = assertThrows(
+            ExecutionException.class,
+            () -> root.min().update(20).get(1, SECONDS)
+        );
+
+        assertTrue(e.getCause() instanceof ConfigurationValidationException);
+
+        assertEquals("validated.max", ((ConfigurationValidationException)e.getCause()).getIssues().get(0).key());
+
+        root.min().update(5).get(1, SECONDS);
+
+        // Validator is executed once even if both fields are changed.
+        root.change(validated -> validated.changeMin(15).changeMax(20)).get(1, SECONDS);
+
+        assertEquals(3, NotLessThanMinValidator.CALLS.get());
+
+        assertEquals(15, root.min().value());
+        assertEquals(20, root.max().value());
+    }
+}
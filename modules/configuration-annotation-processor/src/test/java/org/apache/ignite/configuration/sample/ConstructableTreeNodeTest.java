@@ -32,6 +32,7 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -113,6 +114,36 @@ public class ConstructableTreeNodeTest {
         );
     }
 
+    /** */
+    @Test
+    public void constructByOrdinal() {
+        var childNode = new ChildNode();
+
+        childNode.construct(childNode.ordinal("strCfg"), new ConstantConfigurationSource("value"));
+
+        assertEquals("value", childNode.strCfg());
+
+        childNode.construct(childNode.ordinal("strCfg"), null);
+
+        assertNull(childNode.strCfg());
+
+        assertThrows(NoSuchElementException.class, () -> childNode.construct(Integer.MAX_VALUE, null));
+
+        var parentNode = new ParentNode();
+
+        parentNode.construct(parentNode.ordinal("child"), new ConfigurationSource() {
+            @Override public <T> T unwrap(Class<T> clazz) {
+                throw new UnsupportedOperationException("unwrap");
+            }
+
+            @Override public void descend(ConstructableTreeNode node) {
+                node.construct("strCfg", new ConstantConfigurationSource("value"));
+            }
+        });
+
+        assertEquals("value", parentNode.child().strCfg());
+    }
+
     /** */
     @Test
     public void descend() {
@@ -170,10 +201,97 @@ public class ConstructableTreeNodeTest {
 
         assertFalse(child.constructDefault("strCfg"));
 
-        assertThrows(NullPointerException.class, () -> child.intCfg());
+        // Unset leaf is resolved to its default value.
+        assertEquals(99, child.intCfg());
 
         assertTrue(child.constructDefault("intCfg"));
 
         assertEquals(99, child.intCfg());
     }
+
+    /** */
+    @Test
+    public void frozen() {
+        var parentNode = new ParentNode()
+            .initChild(child -> child.initStrCfg("value"))
+            .initElements(elements -> elements.create("name", element -> element.initStrCfg("value")));
+
+        // Mutable node is changed in place.
+        assertSame(parentNode, parentNode.copyOnWrite());
+
+        parentNode.freeze();
+
+        assertTrue(parentNode.frozen());
+        assertTrue(parentNode.child().frozen());
+        assertTrue(parentNode.elements().frozen());
+        assertTrue(parentNode.elements().get("name").frozen());
+
+        assertThrows(IllegalStateException.class, () -> parentNode.construct("child", null));
+        assertThrows(IllegalStateException.class, () -> parentNode.child().changeStrCfg("foo"));
+        assertThrows(IllegalStateException.class, () -> parentNode.elements().delete("name"));
+
+        // Copy shares children with the frozen node until they are changed.
+        var copy = (ParentNode)parentNode.copyOnWrite();
+
+        assertNotSame(parentNode, copy);
+        assertFalse(copy.frozen());
+        assertSame(parentNode.child(), copy.child());
+        assertSame(parentNode.elements(), copy.elements());
+
+        copy.changeChild(child -> child.changeStrCfg("foo"))
+            .changeElements(elements -> elements.update("name", element -> element.changeStrCfg("foo")));
+
+        assertNotSame(parentNode.child(), copy.child());
+        assertNotSame(parentNode.elements().get("name"), copy.elements().get("name"));
+
+        assertEquals("foo", copy.child().strCfg());
+        assertEquals("foo", copy.elements().get("name").strCfg());
+
+        assertEquals("value", parentNode.child().strCfg());
+        assertEquals("value", parentNode.elements().get("name").strCfg());
+
+        // Mutable nodes are not copied again.
+        ChildNode child = copy.child();
+
+        copy.construct("child", new ConfigurationSource() {
+            @Override public void descend(ConstructableTreeNode node) {
+                node.construct("strCfg", new ConstantConfigurationSource("bar"));
+            }
+        });
+
+        assertSame(child, copy.child());
+        assertEquals("bar", child.strCfg());
+    }
+
+    /** */
+    @Test
+    public void copyOfMutableNode() {
+        var parentNode = new ParentNode()
+            .initChild(child -> child.initStrCfg("value"))
+            .initElements(elements -> elements.create("name", element -> element.initStrCfg("value")));
+
+        var copy = (ParentNode)parentNode.copy();
+
+        // Node that hasn't been published is not frozen, its mutable children are copied instead.
+        assertFalse(parentNode.frozen());
+        assertFalse(parentNode.child().frozen());
+        assertFalse(parentNode.elements().frozen());
+        assertFalse(parentNode.elements().get("name").frozen());
+
+        assertNotSame(parentNode.child(), copy.child());
+        assertNotSame(parentNode.elements(), copy.elements());
+        assertNotSame(parentNode.elements().get("name"), copy.elements().get("name"));
+
+        copy.changeChild(child -> child.changeStrCfg("foo"))
+            .changeElements(elements -> elements.update("name", element -> element.changeStrCfg("foo")));
+
+        parentNode.changeChild(child -> child.changeStrCfg("bar"))
+            .changeElements(elements -> elements.update("name", element -> element.changeStrCfg("bar")));
+
+        assertEquals("foo", copy.child().strCfg());
+        assertEquals("foo", copy.elements().get("name").strCfg());
+
+        assertEquals("bar", parentNode.child().strCfg());
+        assertEquals("bar", parentNode.elements().get("name").strCfg());
+    }
 }
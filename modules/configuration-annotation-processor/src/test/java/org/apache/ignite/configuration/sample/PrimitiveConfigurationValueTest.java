@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.sample;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.ignite.configuration.ConfigurationRegistry;
+import org.apache.ignite.configuration.IntConfigurationValue;
+import org.apache.ignite.configuration.sample.impl.DiscoveryNode;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.junit.jupiter.api.Test;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.find;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of properties and nodes generated for the primitive leaves.
+ */
+public class PrimitiveConfigurationValueTest {
+    /**
+     * Tests that unset primitive leaf is distinguished from the default value of the primitive type.
+     */
+    @Test
+    public void unsetLeaves() {
+        DiscoveryNode node = new DiscoveryNode();
+
+        assertNull(find(List.of("joinTimeout"), node));
+        assertThrows(NullPointerException.class, node::joinTimeout);
+
+        node.initJoinTimeout(0);
+
+        assertEquals(0, find(List.of("joinTimeout"), node));
+        assertEquals(0, node.joinTimeout());
+
+        // Other leaf is still unset.
+        assertNull(find(List.of("failureDetectionTimeout"), node));
+
+        node.construct("joinTimeout", null);
+
+        assertNull(find(List.of("joinTimeout"), node));
+    }
+
+    /**
+     * Tests unboxed getter and listener of the {@code int} property.
+     */
+    @Test
+    public void intProperty() throws Exception {
+        ConfigurationRegistry registry = new ConfigurationRegistry();
+
+        registry.registerRootKey(NetworkConfiguration.KEY);
+
+        registry.registerStorage(new TestConfigurationStorage());
+
+        try {
+            IntConfigurationValue joinTimeout = registry.getConfiguration(NetworkConfiguration.KEY).discovery().joinTimeout();
+
+            assertNull(joinTimeout.value());
+            assertThrows(NullPointerException.class, joinTimeout::intValue);
+
+            AtomicInteger notified = new AtomicInteger();
+
+            CountDownLatch latch = new CountDownLatch(1);
+
+            joinTimeout.addListener(newVal -> {
+                notified.set(newVal);
+
+                latch.countDown();
+            });
+
+            joinTimeout.update(100).get(1, SECONDS);
+
+            assertEquals(100, joinTimeout.intValue());
+
+            assertTrue(latch.await(1, SECONDS));
+
+            assertEquals(100, notified.get());
+        }
+        finally {
+            registry.stop();
+        }
+    }
+}
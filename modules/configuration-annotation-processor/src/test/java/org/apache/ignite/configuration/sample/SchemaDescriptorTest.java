@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.sample;
+
+import java.util.List;
+import java.util.NoSuchElementException;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import org.apache.ignite.configuration.annotation.Config;
+import org.apache.ignite.configuration.annotation.ConfigValue;
+import org.apache.ignite.configuration.annotation.ConfigurationRoot;
+import org.apache.ignite.configuration.annotation.NamedConfigValue;
+import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.sample.impl.DescribedRootNode;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.apache.ignite.configuration.tree.SchemaDescriptor;
+import org.apache.ignite.configuration.tree.SchemaDescriptor.FieldKind;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test of the generated schema descriptors.
+ */
+public class SchemaDescriptorTest {
+    /** */
+    @ConfigurationRoot(rootName = "described", storage = TestConfigurationStorage.class)
+    public static class DescribedRootConfigurationSchema {
+        /** */
+        @Value(hasDefault = true)
+        @Min(1)
+        @Max(100)
+        public int size = 10;
+
+        /** */
+        @Value(immutable = true)
+        public String name;
+
+        /** */
+        @Value(hasDefault = true)
+        public String[] tags = {"a", "b"};
+
+        /** */
+        @ConfigValue
+        private DescribedChildConfigurationSchema child;
+
+        /** */
+        @NamedConfigValue
+        private DescribedChildConfigurationSchema elements;
+    }
+
+    /** */
+    @Config
+    public static class DescribedChildConfigurationSchema {
+        /** */
+        @Value
+        @Min(-5)
+        public long timeout;
+    }
+
+    /** */
+    @Test
+    public void leaves() {
+        SchemaDescriptor schema = DescribedRootConfiguration.KEY.schema();
+
+        assertSame(DescribedRootNode.SCHEMA, schema);
+        assertSame(DescribedRootConfigurationSchema.class, schema.schemaClass());
+        assertEquals(5, schema.size());
+
+        int size = schema.ordinal("size");
+
+        assertEquals(new DescribedRootNode().ordinal("size"), size);
+        assertEquals("size", schema.name(size));
+        assertEquals(FieldKind.LEAF, schema.kind(size));
+        assertSame(int.class, schema.type(size));
+        assertTrue(schema.hasDefault(size));
+        assertEquals(10, schema.defaultValue(size));
+        assertEquals(1, schema.min(size));
+        assertEquals(100, schema.max(size));
+        assertFalse(schema.immutable(size));
+        assertNull(schema.child(size));
+
+        int name = schema.ordinal("name");
+
+        assertSame(String.class, schema.type(name));
+        assertFalse(schema.hasDefault(name));
+        assertNull(schema.defaultValue(name));
+        assertEquals(Long.MIN_VALUE, schema.min(name));
+        assertEquals(Long.MAX_VALUE, schema.max(name));
+        assertTrue(schema.immutable(name));
+
+        int tags = schema.ordinal("tags");
+
+        assertSame(String[].class, schema.type(tags));
+        assertArrayEquals(new String[] {"a", "b"}, (String[])schema.defaultValue(tags));
+
+        assertThrows(NoSuchElementException.class, () -> schema.ordinal("unknown"));
+    }
+
+    /** */
+    @Test
+    public void children() {
+        SchemaDescriptor schema = DescribedRootConfiguration.KEY.schema();
+
+        int child = schema.ordinal("child");
+
+        assertEquals(FieldKind.INNER_NODE, schema.kind(child));
+        assertSame(DescribedChildConfigurationSchema.class, schema.type(child));
+
+        SchemaDescriptor childSchema = schema.child(child);
+
+        assertEquals(-5, childSchema.min(childSchema.ordinal("timeout")));
+
+        int elements = schema.ordinal("elements");
+
+        assertEquals(FieldKind.NAMED_LIST, schema.kind(elements));
+        assertSame(DescribedChildConfigurationSchema.class, schema.type(elements));
+        assertSame(childSchema, schema.child(elements));
+
+        // Paths are resolved without configuration nodes, named list keys are skipped.
+        assertSame(schema, schema.parentOf(List.of("size")));
+        assertSame(childSchema, schema.parentOf(List.of("child", "timeout")));
+        assertSame(childSchema, schema.parentOf(List.of("elements", "name", "timeout")));
+
+        assertThrows(NoSuchElementException.class, () -> schema.parentOf(List.of("size", "foo")));
+        assertThrows(NoSuchElementException.class, () -> schema.parentOf(List.of("elements", "name")));
+    }
+}
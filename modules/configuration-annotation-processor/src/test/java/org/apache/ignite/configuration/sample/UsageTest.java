@@ -17,14 +17,17 @@
 
 package org.apache.ignite.configuration.sample;
 
+import java.util.concurrent.ExecutionException;
 import org.apache.ignite.configuration.ConfigurationRegistry;
 import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.apache.ignite.configuration.validation.ConfigurationValidationException;
 import org.junit.jupiter.api.Test;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -65,6 +68,18 @@ public class UsageTest {
         assertFalse(root.baseline().autoAdjust().value().enabled());
         assertFalse(root.baseline().autoAdjust().enabled().value());
 
+        // Node validator doesn't allow to enable auto adjust of the node if it's disabled for the baseline.
+        ExecutionException e = assertThrows(
+            ExecutionException.class,
+            () -> root.baseline().nodes().get("node1").autoAdjustEnabled().update(true).get(1, SECONDS)
+        );
+
+        assertTrue(e.getCause() instanceof ConfigurationValidationException);
+
+        assertNull(root.baseline().nodes().get("node1").autoAdjustEnabled().value());
+
+        root.baseline().autoAdjust().enabled().update(true).get(1, SECONDS);
+
         root.baseline().nodes().get("node1").autoAdjustEnabled().update(true).get(1, SECONDS);
 
         assertTrue(root.value().baseline().nodes().get("node1").autoAdjustEnabled());
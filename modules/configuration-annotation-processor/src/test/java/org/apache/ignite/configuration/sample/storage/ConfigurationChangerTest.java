@@ -17,11 +17,20 @@
 package org.apache.ignite.configuration.sample.storage;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import org.apache.ignite.configuration.ConfigurationChangeException;
 import org.apache.ignite.configuration.ConfigurationChanger;
+import org.apache.ignite.configuration.ConfigurationChangerMetrics;
+import org.apache.ignite.configuration.ConfigurationExecutionMode;
 import org.apache.ignite.configuration.Configurator;
 import org.apache.ignite.configuration.annotation.Config;
 import org.apache.ignite.configuration.annotation.ConfigValue;
@@ -30,16 +39,24 @@ import org.apache.ignite.configuration.annotation.NamedConfigValue;
 import org.apache.ignite.configuration.annotation.Value;
 import org.apache.ignite.configuration.sample.storage.impl.ANode;
 import org.apache.ignite.configuration.sample.storage.impl.DefaultsNode;
+import org.apache.ignite.configuration.sample.storage.impl.SecondRootNode;
+import org.apache.ignite.configuration.storage.ConfigurationStorage;
 import org.apache.ignite.configuration.storage.Data;
 import org.apache.ignite.configuration.validation.ValidationIssue;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.apache.ignite.configuration.sample.storage.AConfiguration.KEY;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Test configuration changer.
@@ -220,6 +237,8 @@ public class ConfigurationChangerTest {
 
         changer.registerConfiguration(KEY, configurator);
 
+        ANode oldRoot = (ANode)changer.getRootNode(KEY);
+
         storage.fail(true);
 
         assertThrows(ExecutionException.class, () -> changer.change(Collections.singletonMap(KEY, data)).get(1, SECONDS));
@@ -232,7 +251,385 @@ public class ConfigurationChangerTest {
         assertEquals(0, dataMap.size());
 
         ANode newRoot = (ANode)changer.getRootNode(KEY);
-        assertNull(newRoot.child());
+        assertSame(oldRoot, newRoot);
+    }
+
+    /**
+     * Test that unexpected error of the storage fails the change, but doesn't stop processing of the next changes.
+     */
+    @Test
+    public void testUnexpectedWriteError() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+
+        changer.init(storage);
+
+        storage.writeError(new IllegalStateException("Unexpected"));
+
+        ExecutionException e = assertThrows(ExecutionException.class, () ->
+            changer.change(Collections.singletonMap(KEY, new ANode().initChild(child -> child.initStrCfg("1"))))
+                .get(1, SECONDS)
+        );
+
+        assertTrue(e.getCause() instanceof ConfigurationChangeException);
+
+        storage.writeError(null);
+
+        changer.change(Collections.singletonMap(KEY, new ANode().initChild(child -> child.initStrCfg("2"))))
+            .get(1, SECONDS);
+
+        assertEquals("2", ((ANode)changer.getRootNode(KEY)).child().strCfg());
+
+        assertEquals(0, changer.metrics().activeChanges());
+    }
+
+    /**
+     * Test that subtrees untouched by the change are shared between old and new roots.
+     */
+    @Test
+    public void testUnchangedSubtreesAreShared() throws Exception {
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+        changer.init(new TestConfigurationStorage());
+
+        changer.registerConfiguration(KEY, new ConfiguratorController().configurator());
+
+        ANode data = new ANode()
+            .initChild(init -> init.initIntCfg(1).initStrCfg("1"))
+            .initElements(change -> change.create("a", init -> init.initStrCfg("1")));
+
+        changer.change(Collections.singletonMap(KEY, data)).get(1, SECONDS);
+
+        ANode oldRoot = (ANode)changer.getRootNode(KEY);
+
+        changer.change(Collections.singletonMap(KEY, new ANode().changeChild(child -> child.changeStrCfg("2"))))
+            .get(1, SECONDS);
+
+        ANode newRoot = (ANode)changer.getRootNode(KEY);
+
+        assertNotSame(oldRoot, newRoot);
+        assertNotSame(oldRoot.child(), newRoot.child());
+
+        assertEquals("2", newRoot.child().strCfg());
+
+        assertSame(oldRoot.elements(), newRoot.elements());
+    }
+
+    /**
+     * Test that storage notifications and changes of the root that hasn't been accessed yet are applied to its raw
+     * values, and that the root is materialized with all of them on the first access.
+     */
+    @Test
+    public void testRootsAreMaterializedLazily() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        assertTrue(storage.write(new HashMap<>(Map.of("key.child.intCfg", 1)), 0).get());
+
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+
+        changer.init(storage);
+
+        changer.registerConfiguration(KEY, new ConfiguratorController().configurator());
+
+        assertTrue(storage.write(new HashMap<>(Map.of("key.child.intCfg", 2)), 1).get());
+
+        changer.change(Collections.singletonMap(KEY, new ANode().changeChild(child -> child.changeStrCfg("str"))))
+            .get(1, SECONDS);
+
+        ANode root = (ANode)changer.getRootNode(KEY);
+
+        assertEquals(2, root.child().intCfg());
+        assertEquals("str", root.child().strCfg());
+
+        assertSame(root, changer.getRootNode(KEY));
+
+        // Published roots are frozen and shared with the readers.
+        assertTrue(root.frozen());
+        assertThrows(IllegalStateException.class, () -> root.changeChild(child -> child.changeStrCfg("foo")));
+
+        // Materialized root is patched by the notifications.
+        assertTrue(storage.write(new HashMap<>(Map.of("key.child.intCfg", 3)), 3).get());
+
+        ANode newRoot = (ANode)changer.getRootNode(KEY);
+
+        assertEquals(3, newRoot.child().intCfg());
+        assertEquals("str", newRoot.child().strCfg());
+    }
+
+    /**
+     * Test that concurrent changes are written to the storage with a single write and that invalid changes are
+     * excluded from the batch.
+     */
+    @Test
+    public void testConcurrentChangesAreBatched() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+
+        changer.batchLinger(200, MILLISECONDS);
+
+        changer.init(storage);
+
+        ANode invalidData = new ANode().initElements(change -> change.create("invalid", init -> init.initStrCfg("1")));
+
+        final Configurator<?> configurator = Mockito.mock(Configurator.class);
+
+        Mockito.when(configurator.validateChanges(Mockito.same(invalidData)))
+            .thenReturn(Collections.singletonList(new ValidationIssue()));
+
+        changer.registerConfiguration(KEY, configurator);
+
+        long version = storage.readAll().version();
+
+        List<CompletableFuture<Long>> futs = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            String name = "a" + i;
+
+            ANode data = new ANode().initElements(change -> change.create(name, init -> init.initStrCfg(name)));
+
+            futs.add(changer.change(Collections.singletonMap(KEY, data)));
+        }
+
+        CompletableFuture<Long> invalidFut = changer.change(Collections.singletonMap(KEY, invalidData));
+
+        for (CompletableFuture<Long> fut : futs)
+            fut.get(1, SECONDS);
+
+        assertThrows(ExecutionException.class, () -> invalidFut.get(1, SECONDS));
+
+        assertEquals(version + 1, storage.readAll().version());
+
+        ANode newRoot = (ANode)changer.getRootNode(KEY);
+
+        for (int i = 0; i < 10; i++)
+            assertEquals("a" + i, newRoot.elements().get("a" + i).strCfg());
+
+        assertNull(newRoot.elements().get("invalid"));
+    }
+
+    /**
+     * Test that values equal to the current ones are not written to the storage.
+     */
+    @Test
+    public void testNoOpChangesAreNotWritten() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+
+        changer.init(storage);
+
+        changer.change(Collections.singletonMap(KEY, new ANode()
+            .initChild(init -> init.initIntCfg(1).initStrCfg("1"))
+            .initElements(change -> change.create("a", init -> init.initStrCfg("1")))
+        )).get(1, SECONDS);
+
+        Data data = storage.readAll();
+
+        ANode root = (ANode)changer.getRootNode(KEY);
+
+        // Full re-apply of the same values.
+        changer.change(Collections.singletonMap(KEY, new ANode()
+            .initChild(init -> init.initIntCfg(1).initStrCfg("1"))
+            .initElements(change -> change.create("a", init -> init.initStrCfg("1")))
+        )).get(1, SECONDS);
+
+        assertEquals(data.version(), storage.readAll().version());
+
+        assertSame(root, changer.getRootNode(KEY));
+
+        // Only the changed value is written.
+        changer.change(Collections.singletonMap(KEY, new ANode()
+            .initChild(init -> init.initIntCfg(1).initStrCfg("2"))
+            .initElements(change -> change.create("a", init -> init.initStrCfg("1")))
+        )).get(1, SECONDS);
+
+        assertEquals(data.version() + 1, storage.readAll().version());
+
+        assertEquals(Map.of("key.child.strCfg", "2"), storage.changesSince(data.version()).values());
+    }
+
+    /**
+     * Test that change returns the version of the storage, that can be awaited to read the change.
+     */
+    @Test
+    public void testAwaitVersion() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+
+        changer.init(storage);
+
+        long initVersion = storage.readAll().version();
+
+        long version = changer.change(Collections.singletonMap(KEY, new ANode()
+            .initChild(init -> init.initIntCfg(1).initStrCfg("1"))
+        )).get(1, SECONDS);
+
+        assertEquals(initVersion + 1, version);
+
+        changer.awaitVersion(TestConfigurationStorage.class, version).get(1, SECONDS);
+
+        assertEquals("1", ((ANode)changer.getRootNode(KEY)).child().strCfg());
+
+        // Re-applied value is already in the current version.
+        assertEquals(version, changer.change(Collections.singletonMap(KEY, new ANode()
+            .initChild(init -> init.initStrCfg("1"))
+        )).get(1, SECONDS));
+
+        // Waiter of the future version is completed by the write of that version.
+        CompletableFuture<Void> nextVersionFut = changer.awaitVersion(TestConfigurationStorage.class, version + 1);
+
+        assertFalse(nextVersionFut.isDone());
+
+        changer.change(Collections.singletonMap(KEY, new ANode()
+            .initChild(init -> init.initStrCfg("2"))
+        )).get(1, SECONDS);
+
+        nextVersionFut.get(1, SECONDS);
+
+        assertEquals("2", ((ANode)changer.getRootNode(KEY)).child().strCfg());
+
+        // Pending waiters are failed on stop.
+        CompletableFuture<Void> pendingFut = changer.awaitVersion(TestConfigurationStorage.class, version + 10);
+
+        changer.stop();
+
+        assertThrows(ExecutionException.class, () -> pendingFut.get(1, SECONDS));
+    }
+
+    /**
+     * Test that changes are written again without recalculation if concurrent modification of the storage doesn't
+     * conflict with them, and recalculated otherwise.
+     */
+    @Test
+    public void testConcurrentModificationConflicts() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        final AtomicReference<Map<String, Serializable>> concurrentValues = new AtomicReference<>();
+
+        final Configurator<?> configurator = Mockito.mock(Configurator.class);
+
+        // Validation happens right before the write, concurrent write makes the version of the changes obsolete.
+        Mockito.when(configurator.validateChanges(Mockito.any())).then(mock -> {
+            Map<String, Serializable> values = concurrentValues.getAndSet(null);
+
+            if (values != null)
+                storage.write(values, storage.readAll().version());
+
+            return Collections.emptyList();
+        });
+
+        final ConfigurationChanger changer = new ConfigurationChanger(KEY);
+        changer.init(storage);
+
+        changer.registerConfiguration(KEY, configurator);
+
+        changer.change(Collections.singletonMap(KEY, new ANode().initChild(init -> init.initIntCfg(1).initStrCfg("1"))))
+            .get(1, SECONDS);
+
+        Mockito.clearInvocations(configurator);
+
+        // Element of the named list is not touched by the change.
+        concurrentValues.set(Map.of("key.elements.b.strCfg", "b"));
+
+        changer.change(Collections.singletonMap(KEY, new ANode().changeChild(child -> child.changeStrCfg("2"))))
+            .get(1, SECONDS);
+
+        Mockito.verify(configurator, Mockito.times(1)).validateChanges(Mockito.any());
+
+        // Leaf of the changed node.
+        concurrentValues.set(Map.of("key.child.intCfg", 2));
+
+        changer.change(Collections.singletonMap(KEY, new ANode().changeChild(child -> child.changeStrCfg("3"))))
+            .get(1, SECONDS);
+
+        Mockito.verify(configurator, Mockito.times(3)).validateChanges(Mockito.any());
+
+        ANode newRoot = (ANode)changer.getRootNode(KEY);
+
+        assertEquals(2, newRoot.child().intCfg());
+        assertEquals("3", newRoot.child().strCfg());
+        assertEquals("b", newRoot.elements().get("b").strCfg());
+    }
+
+    /**
+     * Test that changes are processed in every execution mode and that metrics reflect the processing.
+     */
+    @Test
+    public void testExecutionModes() throws Exception {
+        for (ConfigurationExecutionMode mode : ConfigurationExecutionMode.values()) {
+            final ConfigurationChanger changer = new ConfigurationChanger(mode, KEY);
+            changer.init(new TestConfigurationStorage());
+
+            changer.registerConfiguration(KEY, new ConfiguratorController().configurator());
+
+            ANode data = new ANode().initChild(init -> init.initIntCfg(1).initStrCfg(mode.name()));
+
+            changer.change(Collections.singletonMap(KEY, data)).get(1, SECONDS);
+
+            ANode newRoot = (ANode)changer.getRootNode(KEY);
+
+            assertEquals(mode.name(), newRoot.child().strCfg());
+
+            ConfigurationChangerMetrics metrics = changer.metrics();
+
+            assertEquals(0, metrics.queueDepth());
+            assertEquals(0, metrics.activeChanges());
+            assertTrue(metrics.executedTasks() > 0);
+
+            changer.stop();
+
+            assertThrows(ExecutionException.class, () -> changer.change(Collections.singletonMap(KEY, data)).get(1, SECONDS));
+        }
+    }
+
+    /**
+     * Test that the caller processes any number of queued batches in {@link ConfigurationExecutionMode#CALLER_RUNS}
+     * mode without growing the stack.
+     */
+    @Test
+    public void testCallerRunsProcessesBatchesInLoop() throws Exception {
+        final TestConfigurationStorage storage = new TestConfigurationStorage();
+
+        final ConfigurationChanger changer = new ConfigurationChanger(ConfigurationExecutionMode.CALLER_RUNS, KEY);
+
+        changer.maxBatchSize(1);
+
+        changer.init(storage);
+
+        int changes = 10_000;
+
+        List<CompletableFuture<Long>> futs = new ArrayList<>();
+
+        AtomicBoolean queued = new AtomicBoolean();
+
+        // Changes are queued while the first change is being written, then the caller writes them one by one.
+        storage.addListener(data -> {
+            if (queued.compareAndSet(false, true)) {
+                for (int i = 0; i < changes; i++) {
+                    String val = "v" + i;
+
+                    futs.add(changer.change(Collections.singletonMap(KEY, new ANode().initChild(child ->
+                        child.initStrCfg(val)
+                    ))));
+                }
+            }
+        });
+
+        changer.change(Collections.singletonMap(KEY, new ANode().initChild(child -> child.initStrCfg("init"))))
+            .get(1, SECONDS);
+
+        assertEquals(changes, futs.size());
+
+        for (CompletableFuture<Long> fut : futs)
+            assertTrue(fut.isDone());
+
+        futs.get(changes - 1).get();
+
+        assertEquals("v" + (changes - 1), ((ANode)changer.getRootNode(KEY)).child().strCfg());
+
+        changer.stop();
     }
 
     /** */
@@ -282,6 +679,121 @@ public class ConfigurationChangerTest {
         assertEquals("bar", root.childsList().get("name").defStr());
     }
 
+    /**
+     * Test that defaults are resolved in memory and only explicitly set values are written to the storage, except for
+     * the named list element that has no explicit values.
+     */
+    @Test
+    public void defaultsAreNotPersisted() throws Exception {
+        var storage = new TestConfigurationStorage();
+
+        var changer = new ConfigurationChanger();
+
+        changer.addRootKey(DefaultsConfiguration.KEY);
+
+        changer.init(storage);
+
+        assertEquals(Map.of(), storage.readAll().values());
+
+        changer.change(Map.of(DefaultsConfiguration.KEY, new DefaultsNode()
+            .changeChild(child -> child.changeDefStr("baz"))
+            .changeChildsList(childs -> childs
+                .create("explicit", child -> child.initDefStr("qux"))
+                .create("empty", child -> {})
+            )
+        )).get(1, SECONDS);
+
+        assertEquals(
+            Map.of(
+                "def.child.defStr", "baz",
+                "def.childsList.explicit.defStr", "qux",
+                "def.childsList.empty.defStr", "bar"
+            ),
+            storage.readAll().values()
+        );
+
+        DefaultsNode root = (DefaultsNode)changer.getRootNode(DefaultsConfiguration.KEY);
+
+        assertEquals("foo", root.defStr());
+        assertEquals("baz", root.child().defStr());
+        assertEquals("qux", root.childsList().get("explicit").defStr());
+        assertEquals("bar", root.childsList().get("empty").defStr());
+    }
+
+    /**
+     * Test that value that is explicitly set to its default is written to the storage, unless it's already there.
+     */
+    @Test
+    public void explicitDefaultsArePersisted() throws Exception {
+        var storage = new TestConfigurationStorage();
+
+        var changer = new ConfigurationChanger();
+
+        changer.addRootKey(DefaultsConfiguration.KEY);
+
+        changer.init(storage);
+
+        changer.change(Map.of(DefaultsConfiguration.KEY, new DefaultsNode()
+            .changeChild(child -> child.changeDefStr("bar"))
+        )).get(1, SECONDS);
+
+        assertEquals(Map.of("def.child.defStr", "bar"), storage.readAll().values());
+
+        long version = storage.readAll().version();
+
+        changer.change(Map.of(DefaultsConfiguration.KEY, new DefaultsNode()
+            .changeChild(child -> child.changeDefStr("bar"))
+        )).get(1, SECONDS);
+
+        assertEquals(version, storage.readAll().version());
+
+        assertEquals("bar", ((DefaultsNode)changer.getRootNode(DefaultsConfiguration.KEY)).child().defStr());
+    }
+
+    /** Storage of another class, for the roots that are initialized concurrently with the test storage. */
+    public static class SecondTestConfigurationStorage extends TestConfigurationStorage {
+    }
+
+    /** */
+    @ConfigurationRoot(rootName = "second", storage = SecondTestConfigurationStorage.class)
+    public static class SecondRootConfigurationSchema {
+        /** */
+        @Value(hasDefault = true)
+        public String strCfg = "foo";
+    }
+
+    /**
+     * Test that storages are initialized together and failure of one storage doesn't affect the others.
+     */
+    @Test
+    public void testConcurrentInit() {
+        var storage = new TestConfigurationStorage();
+
+        var secondStorage = new SecondTestConfigurationStorage();
+
+        var changer = new ConfigurationChanger(KEY, SecondRootConfiguration.KEY);
+
+        Map<Class<? extends ConfigurationStorage>, Long> initTimes = changer.init(List.of(storage, secondStorage));
+
+        assertEquals(Set.of(TestConfigurationStorage.class, SecondTestConfigurationStorage.class), initTimes.keySet());
+
+        assertNotNull(changer.getRootNode(KEY));
+        assertEquals("foo", ((SecondRootNode)changer.getRootNode(SecondRootConfiguration.KEY)).strCfg());
+
+        changer.stop();
+
+        var failedChanger = new ConfigurationChanger(KEY, SecondRootConfiguration.KEY);
+
+        secondStorage.fail(true);
+
+        assertThrows(ConfigurationChangeException.class, () -> failedChanger.init(List.of(storage, secondStorage)));
+
+        assertNotNull(failedChanger.getRootNode(KEY));
+        assertNull(failedChanger.getRootNode(SecondRootConfiguration.KEY));
+
+        failedChanger.stop();
+    }
+
     /**
      * Wrapper for Configurator mock to control validation.
      */
@@ -21,31 +21,39 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import org.apache.ignite.configuration.storage.ConfigurationStorage;
+import org.apache.ignite.configuration.storage.ChangesTrackingConfigurationStorage;
 import org.apache.ignite.configuration.storage.ConfigurationStorageListener;
+import org.apache.ignite.configuration.storage.ConfigurationStorageListeners;
 import org.apache.ignite.configuration.storage.Data;
 import org.apache.ignite.configuration.storage.StorageException;
 
 /**
  * Test configuration storage.
  */
-public class TestConfigurationStorage implements ConfigurationStorage {
+public class TestConfigurationStorage implements ChangesTrackingConfigurationStorage {
     /** Map to store values. */
     private Map<String, Serializable> map = new ConcurrentHashMap<>();
 
     /** Change listeners. */
-    private List<ConfigurationStorageListener> listeners = new ArrayList<>();
+    private final ConfigurationStorageListeners listeners = new ConfigurationStorageListeners();
 
     /** Storage version. */
     private AtomicLong version = new AtomicLong(0);
 
+    /** Values written by every version, {@code i}-th element corresponds to version {@code i + 1}. */
+    private final List<Map<String, Serializable>> history = new ArrayList<>();
+
     /** Should fail on every operation. */
     private boolean fail = false;
 
+    /** Unexpected error to throw from the writes instead of returning a future, {@code null} if there's none. */
+    private RuntimeException writeError;
+
     /**
      * Set fail flag.
      * @param fail Fail flag.
@@ -54,6 +62,14 @@ public class TestConfigurationStorage implements ConfigurationStorage {
         this.fail = fail;
     }
 
+    /**
+     * Set unexpected error of the writes.
+     * @param writeError Error to throw from the writes or {@code null} to write normally.
+     */
+    public void writeError(RuntimeException writeError) {
+        this.writeError = writeError;
+    }
+
     /** {@inheritDoc} */
     @Override public synchronized Data readAll() throws StorageException {
         if (fail)
@@ -63,12 +79,23 @@ public class TestConfigurationStorage implements ConfigurationStorage {
     }
 
     /** {@inheritDoc} */
-    @Override public synchronized CompletableFuture<Boolean> write(Map<String, Serializable> newValues, long sentVersion) throws StorageException {
+    @Override public CompletableFuture<Boolean> write(Map<String, Serializable> newValues, long sentVersion) throws StorageException {
+        return writeVersioned(newValues, sentVersion).thenApply(Objects::nonNull);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized CompletableFuture<Long> writeVersioned(
+        Map<String, Serializable> newValues,
+        long sentVersion
+    ) throws StorageException {
+        if (writeError != null)
+            throw writeError;
+
         if (fail)
             return CompletableFuture.failedFuture(new StorageException("Failed to write data"));
 
         if (sentVersion != version.get())
-            return CompletableFuture.completedFuture(false);
+            return CompletableFuture.completedFuture(null);
 
         for (Map.Entry<String, Serializable> entry : newValues.entrySet()) {
             if (entry.getValue() != null)
@@ -77,11 +104,26 @@ public class TestConfigurationStorage implements ConfigurationStorage {
                 map.remove(entry.getKey());
         }
 
+        history.add(new HashMap<>(newValues));
+
         version.incrementAndGet();
 
-        listeners.forEach(listener -> listener.onEntriesChanged(new Data(newValues, version.get())));
+        listeners.notify(new Data(newValues, version.get()));
 
-        return CompletableFuture.completedFuture(true);
+        return CompletableFuture.completedFuture(version.get());
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data changesSince(long sentVersion) throws StorageException {
+        if (fail)
+            throw new StorageException("Failed to read data");
+
+        Map<String, Serializable> changes = new HashMap<>();
+
+        for (Map<String, Serializable> values : history.subList((int)sentVersion, history.size()))
+            changes.putAll(values);
+
+        return new Data(changes, version.get());
     }
 
     /** {@inheritDoc} */
@@ -94,7 +136,12 @@ public class TestConfigurationStorage implements ConfigurationStorage {
 
     /** {@inheritDoc} */
     @Override public void addListener(ConfigurationStorageListener listener) {
-        listeners.add(listener);
+        listeners.add("", listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(String prefix, ConfigurationStorageListener listener) {
+        listeners.add(prefix, listener);
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,109 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.sample.storage;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.apache.ignite.configuration.TreeDiff;
+import org.apache.ignite.configuration.sample.storage.impl.ANode;
+import org.junit.jupiter.api.Test;
+
+import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.patch;
+import static org.apache.ignite.configuration.sample.storage.AConfiguration.KEY;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test structural difference of the configuration trees.
+ */
+public class TreeDiffTest {
+    /** */
+    private static ANode data() {
+        return new ANode()
+            .initChild(init -> init.initIntCfg(1).initStrCfg("1"))
+            .initElements(change -> change
+                .create("a", init -> init.initStrCfg("a"))
+                .create("b", init -> init.initStrCfg("b"))
+                .create("c.d", init -> init.initStrCfg("c"))
+            );
+    }
+
+    /** */
+    @Test
+    public void equalTrees() {
+        ANode root = patch(new ANode(), data());
+
+        TreeDiff diff = TreeDiff.diff(KEY, root, patch(root, data()));
+
+        assertTrue(diff.isEmpty());
+        assertNull(diff.changes());
+        assertTrue(diff.values().isEmpty());
+    }
+
+    /** */
+    @Test
+    public void changedLeaf() {
+        ANode root = patch(new ANode(), data());
+
+        TreeDiff diff = TreeDiff.diff(KEY, root, patch(root, data().changeChild(change -> change.changeStrCfg("2"))));
+
+        assertEquals(Map.of("key.child.strCfg", "2"), diff.values());
+
+        ANode changes = (ANode)diff.changes();
+
+        assertEquals("2", changes.child().strCfg());
+        assertTrue(changes.elements().namedListKeys().isEmpty());
+    }
+
+    /** */
+    @Test
+    public void namedList() {
+        ANode root = patch(new ANode(), data());
+
+        ANode newRoot = patch(root, new ANode().changeElements(change -> change
+            .update("a", element -> element.changeStrCfg("a"))
+            .update("b", element -> element.changeStrCfg("bb"))
+            .delete("c.d")
+            .create("e", element -> element.initStrCfg("e"))
+        ));
+
+        TreeDiff diff = TreeDiff.diff(KEY, root, newRoot);
+
+        Map<String, String> expValues = new HashMap<>();
+
+        expValues.put("key.elements.b.strCfg", "bb");
+        expValues.put("key.elements.c\\.d.strCfg", null);
+        expValues.put("key.elements.e.strCfg", "e");
+
+        assertEquals(expValues, diff.values());
+        assertEquals(expValues.keySet(), diff.changedKeys());
+
+        ANode changes = (ANode)diff.changes();
+
+        assertEquals(Set.of("b", "c.d", "e"), changes.elements().namedListKeys());
+        assertEquals("bb", changes.elements().get("b").strCfg());
+        assertNull(changes.elements().get("c.d"));
+        assertEquals("e", changes.elements().get("e").strCfg());
+        assertNull(changes.child());
+
+        // Applying the minimal change to the old root gives the same tree.
+        assertTrue(TreeDiff.diff(KEY, newRoot, patch(root, changes)).isEmpty());
+    }
+}
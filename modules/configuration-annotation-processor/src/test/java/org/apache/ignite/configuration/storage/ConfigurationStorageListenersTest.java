@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests of the prefix dispatching of {@link ConfigurationStorageListeners}.
+ */
+public class ConfigurationStorageListenersTest {
+    /** */
+    private final ConfigurationStorageListeners listeners = new ConfigurationStorageListeners();
+
+    /**
+     * Tests that listener receives only the changes under its prefix, and isn't notified if there are none.
+     */
+    @Test
+    public void prefixListeners() {
+        List<Data> all = new ArrayList<>();
+        List<Data> tables = new ArrayList<>();
+        List<Data> table1 = new ArrayList<>();
+        List<Data> baseline = new ArrayList<>();
+
+        listeners.add("", all::add);
+        listeners.add("cluster.tables", tables::add);
+        listeners.add("cluster.tables.t1", table1::add);
+        listeners.add("local.baseline", baseline::add);
+
+        Data changes = new Data(
+            Map.of(
+                "cluster.tables.t1.replicas", 1,
+                "cluster.tables.t10.replicas", 2,
+                "cluster.tablesCount", 2
+            ),
+            1
+        );
+
+        listeners.notify(changes);
+
+        assertEquals(1, all.size());
+        assertSame(changes, all.get(0));
+
+        assertEquals(1, tables.size());
+        assertEquals(
+            Map.of("cluster.tables.t1.replicas", 1, "cluster.tables.t10.replicas", 2),
+            tables.get(0).values()
+        );
+        assertEquals(1, tables.get(0).version());
+
+        assertEquals(1, table1.size());
+        assertEquals(Map.of("cluster.tables.t1.replicas", 1), table1.get(0).values());
+
+        assertTrue(baseline.isEmpty());
+    }
+
+    /**
+     * Tests that dots in the escaped names of the named list elements don't split the keys.
+     */
+    @Test
+    public void escapedKeys() {
+        List<Data> received = new ArrayList<>();
+
+        listeners.add("cluster.tables.a\\.b", received::add);
+        listeners.add("cluster.tables.a.b", data -> { throw new AssertionError(data.values()); });
+
+        Map<String, Serializable> values = new HashMap<>();
+
+        values.put("cluster.tables.a\\.b.replicas", null);
+
+        listeners.notify(new Data(values, 2));
+
+        assertEquals(1, received.size());
+        assertEquals(values, received.get(0).values());
+    }
+
+    /**
+     * Tests that removed listener isn't notified anymore.
+     */
+    @Test
+    public void removeListener() {
+        List<Data> received = new ArrayList<>();
+
+        ConfigurationStorageListener listener = received::add;
+
+        listeners.add("cluster", listener);
+        listeners.add("local", listener);
+
+        listeners.remove(listener);
+
+        listeners.notify(new Data(Map.of("cluster.key", 1, "local.key", 2), 1));
+
+        assertTrue(received.isEmpty());
+    }
+
+    /**
+     * Tests that storage that only supports listeners of all the changes filters the changes of the prefix listener.
+     */
+    @Test
+    public void defaultPrefixListener() {
+        ConfigurationStorage storage = Mockito.mock(ConfigurationStorage.class, Mockito.CALLS_REAL_METHODS);
+
+        List<Data> received = new ArrayList<>();
+
+        storage.addListener("cluster.tables", received::add);
+
+        ArgumentCaptor<ConfigurationStorageListener> captor =
+            ArgumentCaptor.forClass(ConfigurationStorageListener.class);
+
+        verify(storage).addListener(captor.capture());
+
+        captor.getValue().onEntriesChanged(new Data(Map.of("local.key", 1), 1));
+
+        assertTrue(received.isEmpty());
+
+        captor.getValue().onEntriesChanged(new Data(
+            Map.of("cluster.tables.t1.replicas", 1, "cluster.tablesCount", 1, "local.key", 2),
+            2
+        ));
+
+        assertEquals(1, received.size());
+        assertEquals(Map.of("cluster.tables.t1.replicas", 1), received.get(0).values());
+        assertEquals(2, received.get(0).version());
+    }
+}
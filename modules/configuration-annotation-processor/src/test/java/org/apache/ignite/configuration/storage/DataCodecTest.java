@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for {@link DataCodec}.
+ */
+public class DataCodecTest {
+    /**
+     * Tests that values of all supported types are decoded as they were.
+     */
+    @Test
+    public void allTypes() {
+        Map<String, Serializable> values = new HashMap<>();
+
+        values.put("root.bool", true);
+        values.put("root.int", Integer.MIN_VALUE);
+        values.put("root.long", Long.MAX_VALUE);
+        values.put("root.double", -0.5d);
+        values.put("root.str", "multi-byte \u00e9\u4e2d");
+        values.put("root.removed", null);
+        values.put("root.arrays.bool", new boolean[] {true, false});
+        values.put("root.arrays.int", new int[] {-1, 0, 300});
+        values.put("root.arrays.long", new long[] {Long.MIN_VALUE, 1L << 40});
+        values.put("root.arrays.double", new double[] {Double.NaN, 1e300});
+        values.put("root.arrays.str", new String[] {"", "a.b"});
+        values.put("root.named\\.key.val", 1);
+
+        Data data = DataCodec.decode(DataCodec.encode(new Data(values, 42)));
+
+        assertEquals(42, data.version());
+        assertEquals(values.size(), data.values().size());
+
+        for (Map.Entry<String, Serializable> entry : values.entrySet()) {
+            assertTrue(data.values().containsKey(entry.getKey()), entry.getKey());
+
+            Serializable val = entry.getValue();
+
+            if (val instanceof boolean[])
+                assertArrayEquals((boolean[])val, (boolean[])data.get(entry.getKey()));
+            else if (val instanceof int[])
+                assertArrayEquals((int[])val, (int[])data.get(entry.getKey()));
+            else if (val instanceof long[])
+                assertArrayEquals((long[])val, (long[])data.get(entry.getKey()));
+            else if (val instanceof double[])
+                assertArrayEquals((double[])val, (double[])data.get(entry.getKey()));
+            else if (val instanceof String[])
+                assertArrayEquals((String[])val, (String[])data.get(entry.getKey()));
+            else
+                assertEquals(val, data.get(entry.getKey()));
+        }
+
+        assertNull(data.get("root.absent"));
+
+        // Sorted layout.
+        String[] keys = data.values().keySet().toArray(new String[0]);
+
+        String[] sortedKeys = keys.clone();
+
+        Arrays.sort(sortedKeys);
+
+        assertArrayEquals(sortedKeys, keys);
+    }
+
+    /**
+     * Tests that encoded data is much smaller than Java serialization of the same map.
+     */
+    @Test
+    public void compactness() throws Exception {
+        Map<String, Serializable> values = new HashMap<>();
+
+        for (int i = 0; i < 1000; i++) {
+            values.put("local.baseline.nodes.node" + i + ".consistentId", "node" + i);
+            values.put("local.baseline.nodes.node" + i + ".port", 3000 + i);
+        }
+
+        byte[] encoded = DataCodec.encode(values, 1);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(values);
+        }
+
+        assertTrue(encoded.length * 3 < bytes.size(), encoded.length + " " + bytes.size());
+
+        assertEquals(values, DataCodec.decode(encoded).values());
+    }
+
+    /**
+     * Tests that malformed data is rejected.
+     */
+    @Test
+    public void malformedData() {
+        byte[] encoded = DataCodec.encode(Map.of("a.b", "c"), 1);
+
+        assertThrows(StorageException.class, () -> DataCodec.decode(encoded, 0, encoded.length - 1));
+
+        assertThrows(StorageException.class, () -> DataCodec.decode(Arrays.copyOf(encoded, encoded.length + 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> DataCodec.encode(Map.of("a", 'c'), 1));
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> DataCodec.encode(Map.of("a", new String[] {"b", null}), 1)
+        );
+    }
+
+    /**
+     * Tests that changes are merged into the data with a sorted flat layout, including removals.
+     */
+    @Test
+    public void sortedPatch() {
+        Data data = Data.sorted(new TreeMap<>(Map.of("a", 1, "c", 3, "e", 5)), 1);
+
+        TreeMap<String, Serializable> changes = new TreeMap<>();
+
+        changes.put("0", 0);
+        changes.put("c", null);
+        changes.put("d", 4);
+        changes.put("e", 6);
+        changes.put("x", null);
+        changes.put("z", 26);
+
+        Data patched = data.patch(changes, 2);
+
+        assertEquals(2, patched.version());
+        assertEquals(Map.of("0", 0, "a", 1, "d", 4, "e", 6, "z", 26), patched.values());
+        assertEquals(4, patched.get("d"));
+        assertNull(patched.get("c"));
+
+        // Original data is not modified.
+        assertEquals(Map.of("a", 1, "c", 3, "e", 5), data.values());
+    }
+}
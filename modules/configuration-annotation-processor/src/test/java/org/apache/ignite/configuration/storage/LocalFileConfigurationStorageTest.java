@@ -0,0 +1,308 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.apache.ignite.configuration.storage.LocalFileConfigurationStorage.LOG_FILE_NAME;
+import static org.apache.ignite.configuration.storage.LocalFileConfigurationStorage.SNAPSHOT_FILE_NAME;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Crash recovery tests for {@link LocalFileConfigurationStorage}.
+ */
+public class LocalFileConfigurationStorageTest {
+    /** */
+    @TempDir
+    Path dir;
+
+    /**
+     * Tests that acknowledged writes are recovered, and that write with a stale version is rejected.
+     */
+    @Test
+    public void writesAreRecovered() throws Exception {
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            List<Data> notifications = new CopyOnWriteArrayList<>();
+
+            storage.addListener(notifications::add);
+
+            assertTrue(write(storage, Map.of("local.a", 1, "local.b", "b"), 0));
+            assertTrue(write(storage, mapOf("local.a", 2, "local.b", null), 1));
+
+            assertFalse(write(storage, Map.of("local.a", 3), 1));
+
+            assertEquals(2, notifications.size());
+            assertEquals(2, notifications.get(1).version());
+
+            assertEquals(mapOf("local.a", 2, "local.b", null), storage.changesSince(1).values());
+        }
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            Data data = storage.readAll();
+
+            assertEquals(2, data.version());
+            assertEquals(Map.of("local.a", 2), data.values());
+
+            // Log has been replayed, so its changes are known.
+            assertEquals(mapOf("local.a", 2, "local.b", null), storage.changesSince(0).values());
+
+            assertTrue(write(storage, Map.of("local.c", true), 2));
+        }
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(3, storage.readAll().version());
+            assertEquals(Map.of("local.a", 2, "local.c", true), storage.readAll().values());
+        }
+    }
+
+    /**
+     * Tests that partially written record, i.e. crash during the write, is discarded on recovery.
+     */
+    @Test
+    public void tornRecordIsDiscarded() throws Exception {
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertTrue(write(storage, Map.of("local.a", 1), 0));
+            assertTrue(write(storage, Map.of("local.a", 2), 1));
+        }
+
+        Path log = dir.resolve(LOG_FILE_NAME);
+
+        try (FileChannel ch = FileChannel.open(log, WRITE)) {
+            ch.truncate(ch.size() - 3);
+        }
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(1, storage.readAll().version());
+            assertEquals(Map.of("local.a", 1), storage.readAll().values());
+
+            // Torn record is truncated, so new records are not hidden behind it.
+            assertTrue(write(storage, Map.of("local.a", 3), 1));
+        }
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(2, storage.readAll().version());
+            assertEquals(Map.of("local.a", 3), storage.readAll().values());
+        }
+    }
+
+    /**
+     * Tests that record with a wrong checksum and all following records are discarded on recovery.
+     */
+    @Test
+    public void corruptedRecordIsDiscarded() throws Exception {
+        long firstRecordEnd;
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertTrue(write(storage, Map.of("local.a", 1), 0));
+
+            firstRecordEnd = Files.size(dir.resolve(LOG_FILE_NAME));
+
+            assertTrue(write(storage, Map.of("local.a", 2), 1));
+            assertTrue(write(storage, Map.of("local.a", 3), 2));
+        }
+
+        Path log = dir.resolve(LOG_FILE_NAME);
+
+        byte[] bytes = Files.readAllBytes(log);
+
+        bytes[(int)firstRecordEnd + 10] ^= 1;
+
+        Files.write(log, bytes);
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(1, storage.readAll().version());
+            assertEquals(Map.of("local.a", 1), storage.readAll().values());
+        }
+
+        assertEquals(firstRecordEnd, Files.size(log));
+    }
+
+    /**
+     * Tests recovery from the snapshot, including crash between writing the snapshot and truncating the log.
+     */
+    @Test
+    public void snapshotCompaction() throws Exception {
+        byte[] logBeforeCompaction;
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            for (int i = 0; i < 10; i++)
+                assertTrue(write(storage, Map.of("local.key" + i, i, "local.last", i), i));
+
+            logBeforeCompaction = Files.readAllBytes(dir.resolve(LOG_FILE_NAME));
+
+            storage.compact();
+
+            assertEquals(0, Files.size(dir.resolve(LOG_FILE_NAME)));
+            assertTrue(Files.exists(dir.resolve(SNAPSHOT_FILE_NAME)));
+
+            assertTrue(write(storage, Map.of("local.last", 10), 10));
+        }
+
+        Map<String, Serializable> expected = new HashMap<>();
+
+        for (int i = 0; i < 10; i++)
+            expected.put("local.key" + i, i);
+
+        expected.put("local.last", 10);
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(11, storage.readAll().version());
+            assertEquals(expected, storage.readAll().values());
+
+            // Changes before the snapshot are not known anymore.
+            assertNull(storage.changesSince(5));
+        }
+
+        // Log that hasn't been truncated after the snapshot has been written.
+        Files.write(dir.resolve(LOG_FILE_NAME), logBeforeCompaction);
+
+        expected.put("local.last", 9);
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(10, storage.readAll().version());
+            assertEquals(expected, storage.readAll().values());
+        }
+    }
+
+    /**
+     * Tests that log is compacted automatically when it grows over the threshold.
+     */
+    @Test
+    public void automaticCompaction() throws Exception {
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir, 1024)) {
+            for (int i = 0; i < 100; i++)
+                assertTrue(write(storage, Map.of("local.value", "value" + i), i));
+
+            assertTrue(Files.size(dir.resolve(LOG_FILE_NAME)) <= 1024);
+        }
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(100, storage.readAll().version());
+            assertEquals(Map.of("local.value", "value99"), storage.readAll().values());
+        }
+    }
+
+    /**
+     * Tests that range reads return only the keys under the prefix, and that prefix listeners are only notified about
+     * the changes under their prefixes.
+     */
+    @Test
+    public void rangeReads() throws Exception {
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            List<Data> notifications = new CopyOnWriteArrayList<>();
+
+            storage.addListener("local.b", notifications::add);
+
+            assertTrue(write(storage, Map.of("local.a.x", 1, "local.b.x", 2, "local.b.y", 3, "local.bb", 4), 0));
+            assertTrue(write(storage, Map.of("local.a.x", 5), 1));
+
+            assertEquals(Map.of("local.b.x", 2, "local.b.y", 3), storage.readRange("local.b").values());
+            assertEquals(Map.of("local.bb", 4), storage.readRange("local.bb").values());
+            assertEquals(4, storage.readRange("").values().size());
+            assertEquals(2, storage.readRange("local.b").version());
+
+            assertEquals(1, notifications.size());
+            assertEquals(Map.of("local.b.x", 2, "local.b.y", 3), notifications.get(0).values());
+        }
+    }
+
+    /**
+     * Tests that concurrent writers that retry on version conflicts don't lose each other's writes.
+     */
+    @Test
+    public void concurrentWrites() throws Exception {
+        int threads = 8;
+        int writesPerThread = 50;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            List<Future<?>> futs = new ArrayList<>();
+
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+
+                futs.add(executor.submit(() -> {
+                    for (int i = 0; i < writesPerThread; i++) {
+                        String key = "local.t" + thread + ".k" + i;
+
+                        while (true) {
+                            Data changes = storage.changesSince(0);
+
+                            if (write(storage, Map.of(key, i), changes.version()))
+                                break;
+                        }
+                    }
+
+                    return null;
+                }));
+            }
+
+            for (Future<?> fut : futs)
+                fut.get(10, SECONDS);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir)) {
+            assertEquals(threads * writesPerThread, storage.readAll().version());
+            assertEquals(threads * writesPerThread, storage.readAll().values().size());
+        }
+    }
+
+    /** */
+    private static boolean write(
+        LocalFileConfigurationStorage storage,
+        Map<String, ? extends Serializable> values,
+        long version
+    ) throws Exception {
+        CompletableFuture<Boolean> fut = storage.write(new HashMap<>(values), version);
+
+        return fut.get(10, SECONDS);
+    }
+
+    /** Map that allows {@code null} values. */
+    private static Map<String, Serializable> mapOf(String k1, Serializable v1, String k2, Serializable v2) {
+        Map<String, Serializable> map = new HashMap<>();
+
+        map.put(k1, v1);
+        map.put(k2, v2);
+
+        return map;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.tree;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+import org.apache.ignite.configuration.annotation.Config;
+import org.apache.ignite.configuration.annotation.ConfigValue;
+import org.apache.ignite.configuration.annotation.NamedConfigValue;
+import org.apache.ignite.configuration.annotation.Value;
+import org.apache.ignite.configuration.tree.impl.FlatRootNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Test for the generated flat serializers of the nodes.
+ */
+public class FlatCursorTest {
+    /** */
+    @Config
+    public static class FlatRootConfigurationSchema {
+        /** */
+        @Value
+        public int intVal;
+
+        /** */
+        @Value
+        public double doubleVal;
+
+        /** */
+        @Value
+        public String str;
+
+        /** */
+        @Value
+        public int[] ints;
+
+        /** */
+        @ConfigValue
+        private FlatChildConfigurationSchema child;
+
+        /** */
+        @NamedConfigValue
+        private FlatChildConfigurationSchema elements;
+    }
+
+    /** */
+    @Config
+    public static class FlatChildConfigurationSchema {
+        /** */
+        @Value
+        public String str;
+
+        /** */
+        @Value
+        public long longVal;
+    }
+
+    /** */
+    private static FlatRootNode data() {
+        return new FlatRootNode()
+            .initIntVal(1)
+            .initDoubleVal(0.5)
+            .initStr("foo")
+            .initInts(new int[] {1, 2})
+            .initChild(child -> child.initStr("bar").initLongVal(2))
+            .initElements(elements -> elements
+                .create("a.b", element -> element.initStr("a"))
+                .create("c", element -> element.initLongVal(3))
+            );
+    }
+
+    /** */
+    @Test
+    public void writeFlat() {
+        Map<String, Serializable> values = write(null, data());
+
+        assertEquals(1, values.get("root.intVal"));
+        assertEquals(0.5, values.get("root.doubleVal"));
+        assertEquals("foo", values.get("root.str"));
+        assertArrayEquals(new int[] {1, 2}, (int[])values.get("root.ints"));
+        assertEquals("bar", values.get("root.child.str"));
+        assertEquals(2L, values.get("root.child.longVal"));
+        assertEquals("a", values.get("root.elements.a\\.b.str"));
+        assertEquals(3L, values.get("root.elements.c.longVal"));
+
+        // Unset leaves are not written.
+        assertEquals(8, values.size());
+    }
+
+    /** */
+    @Test
+    public void roundTrip() {
+        FlatRootNode root = read(new FlatRootNode(), write(null, data()));
+
+        assertEquals(1, root.intVal());
+        assertEquals(0.5, root.doubleVal());
+        assertEquals("foo", root.str());
+        assertArrayEquals(new int[] {1, 2}, root.ints());
+        assertEquals("bar", root.child().str());
+        assertEquals(2L, root.child().longVal());
+        assertEquals(Set.of("a.b", "c"), root.elements().namedListKeys());
+        assertEquals("a", root.elements().get("a.b").str());
+        assertThrows(NullPointerException.class, () -> root.elements().get("a.b").longVal());
+        assertEquals(3L, root.elements().get("c").longVal());
+    }
+
+    /** */
+    @Test
+    public void changes() {
+        FlatRootNode cur = read(new FlatRootNode(), write(null, data()));
+
+        FlatRootNode change = new FlatRootNode()
+            .changeStr("baz")
+            .changeElements(elements -> elements
+                .delete("a.b")
+                .update("c", element -> element.changeStr("c"))
+            );
+
+        Map<String, Serializable> values = write(cur, change);
+
+        assertTrue(values.containsKey("root.elements.a\\.b.str"));
+        assertNull(values.get("root.elements.a\\.b.str"));
+        assertEquals(3, values.size());
+
+        // Null resets the leaf.
+        values.put("root.intVal", null);
+
+        FlatRootNode patched = read((FlatRootNode)cur.copy(), values);
+
+        assertEquals("baz", patched.str());
+        assertThrows(NullPointerException.class, patched::intVal);
+        assertEquals(Set.of("c"), patched.elements().namedListKeys());
+        assertEquals("c", patched.elements().get("c").str());
+        assertEquals(3L, patched.elements().get("c").longVal());
+
+        // Current node is not modified.
+        assertEquals("foo", cur.str());
+        assertEquals(Set.of("a.b", "c"), cur.elements().namedListKeys());
+        assertNull(cur.elements().get("c").str());
+    }
+
+    /** */
+    @Test
+    public void errors() {
+        assertThrows(NoSuchElementException.class, () -> read(new FlatRootNode(), Map.of("root.unknown", 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> read(new FlatRootNode(), Map.of("root.child", 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> read(new FlatRootNode(), Map.of("root.str.foo", 1)));
+
+        assertThrows(IllegalArgumentException.class, () -> read(new FlatRootNode(), Map.of("other.str", "foo")));
+    }
+
+    /**
+     * @param cur Current node.
+     * @param node Node to write.
+     * @return Sorted values.
+     */
+    private static NavigableMap<String, Serializable> write(FlatRootNode cur, FlatRootNode node) {
+        NavigableMap<String, Serializable> values = new TreeMap<>();
+
+        node.writeFlat("root.", cur, values::put);
+
+        return values;
+    }
+
+    /**
+     * @param node Node to read into.
+     * @param values Values.
+     * @return Same node.
+     */
+    private static FlatRootNode read(FlatRootNode node, Map<String, ? extends Serializable> values) {
+        new FlatCursor(new TreeMap<>(values), "root.").read(node);
+
+        return node;
+    }
+}
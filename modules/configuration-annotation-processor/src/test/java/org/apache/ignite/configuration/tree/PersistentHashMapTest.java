@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.tree;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** */
+public class PersistentHashMapTest {
+    /** */
+    @Test
+    public void persistence() {
+        PersistentHashMap<String, Integer> map0 = PersistentHashMap.empty();
+
+        PersistentHashMap<String, Integer> map1 = map0.put("a", 1);
+        PersistentHashMap<String, Integer> map2 = map1.put("a", 2).put("b", null);
+
+        assertEquals(0, map0.size());
+        assertNull(map0.get("a"));
+
+        assertEquals(Map.of("a", 1), toMap(map1));
+
+        assertEquals(2, map2.size());
+        assertEquals(2, map2.get("a"));
+        assertTrue(map2.containsKey("b"));
+        assertNull(map2.get("b"));
+
+        assertSame(map2, map2.put("b", null));
+        assertSame(map2, map2.remove("c"));
+
+        assertSame(PersistentHashMap.empty(), map1.remove("a"));
+    }
+
+    /** */
+    @Test
+    public void hashCollisions() {
+        // "Aa" and "BB" have equal hash codes.
+        PersistentHashMap<String, Integer> map = PersistentHashMap.<String, Integer>empty()
+            .put("Aa", 1)
+            .put("BB", 2)
+            .put("AaAa", 3)
+            .put("BBBB", 4)
+            .put("AaBB", 5);
+
+        assertEquals(Map.of("Aa", 1, "BB", 2, "AaAa", 3, "BBBB", 4, "AaBB", 5), toMap(map));
+
+        map = map.remove("Aa").remove("AaAa").put("BB", 6);
+
+        assertEquals(Map.of("BB", 6, "BBBB", 4, "AaBB", 5), toMap(map));
+
+        assertFalse(map.containsKey("Aa"));
+    }
+
+    /** */
+    @Test
+    public void randomOperations() {
+        Random rnd = new Random(0);
+
+        Map<String, Integer> expected = new HashMap<>();
+
+        PersistentHashMap<String, Integer> map = PersistentHashMap.empty();
+
+        for (int i = 0; i < 100_000; i++) {
+            String key = String.valueOf(rnd.nextInt(10_000));
+
+            if (rnd.nextInt(3) == 0) {
+                expected.remove(key);
+
+                map = map.remove(key);
+            }
+            else {
+                expected.put(key, i);
+
+                map = map.put(key, i);
+            }
+
+            assertEquals(expected.get(key), map.get(key));
+            assertEquals(expected.size(), map.size());
+        }
+
+        assertEquals(expected, toMap(map));
+
+        assertEquals(expected.keySet(), map.keySet());
+    }
+
+    /**
+     * @param map Persistent map.
+     * @return Regular map with the same content.
+     */
+    private static <K, V> Map<K, V> toMap(PersistentHashMap<K, V> map) {
+        Map<K, V> res = new HashMap<>();
+
+        for (K key : map.keySet())
+            res.put(key, map.get(key));
+
+        assertEquals(map.size(), res.size());
+
+        return res;
+    }
+}
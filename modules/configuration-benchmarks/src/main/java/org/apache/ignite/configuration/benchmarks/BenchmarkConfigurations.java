@@ -0,0 +1,97 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.util.List;
+import org.apache.ignite.configuration.sample.LocalChange;
+import org.apache.ignite.configuration.sample.impl.LocalNode;
+
+/**
+ * Builders of the sample "local" configuration trees used by all benchmarks.
+ */
+class BenchmarkConfigurations {
+    /**
+     * Paths to the nodes of different depth inside of the "local" root, indexed by depth. Named list element path
+     * refers to the first element of the list.
+     */
+    static final List<List<String>> PATHS = List.of(
+        List.of(),
+        List.of("baseline"),
+        List.of("baseline", "autoAdjust"),
+        List.of("baseline", "autoAdjust", "timeout"),
+        List.of("baseline", "nodes", nodeName(0)),
+        List.of("baseline", "nodes", nodeName(0), "port")
+    );
+
+    /** */
+    private BenchmarkConfigurations() {
+    }
+
+    /**
+     * @param idx Index of the element.
+     * @return Name of the {@code baseline.nodes} named list element.
+     */
+    static String nodeName(int idx) {
+        return "node" + idx;
+    }
+
+    /**
+     * @param size Named list size.
+     * @return Names of the {@code baseline.nodes} named list elements.
+     */
+    static String[] nodeNames(int size) {
+        String[] names = new String[size];
+
+        for (int i = 0; i < size; i++)
+            names[i] = nodeName(i);
+
+        return names;
+    }
+
+    /**
+     * Fills the change object with all the leaves of the "local" root and {@code size} named list elements.
+     *
+     * @param change Change object.
+     * @param size Named list size.
+     * @return Same change object.
+     */
+    static LocalChange fill(LocalChange change, int size) {
+        return change.changeBaseline(baseline -> baseline
+            .changeAutoAdjust(autoAdjust -> autoAdjust.changeEnabled(true).changeTimeout(30_000L))
+            .changeNodes(nodes -> {
+                for (int i = 0; i < size; i++) {
+                    int port = 10_000 + i;
+
+                    nodes.create(nodeName(i), node -> node
+                        .initConsistentId(nodeName(port))
+                        .initPort(port)
+                        .initAutoAdjustEnabled(true)
+                    );
+                }
+            })
+        );
+    }
+
+    /**
+     * @param size Named list size.
+     * @return Completely filled "local" root node.
+     */
+    static LocalNode localRoot(int size) {
+        return (LocalNode)fill(new LocalNode(), size);
+    }
+}
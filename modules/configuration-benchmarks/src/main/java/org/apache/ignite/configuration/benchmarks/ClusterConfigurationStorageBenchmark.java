@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.ignite.network.MessageHandlerHolder;
+import org.apache.ignite.network.NetworkCluster;
+import org.apache.ignite.network.NetworkClusterFactory;
+import org.apache.ignite.network.configuration.ClusterConfigurationStorage;
+import org.apache.ignite.network.scalecube.ScaleCubeMemberResolver;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Changes of the {@link ClusterConfigurationStorage} with several in-process members on the loopback interface.
+ * Writes are issued by the member that is not the leader, so every change includes the request to the leader, the
+ * replication round with the flushes of the members state and the commit notification. Concurrent writers
+ * ({@code -t} option) compete for the same version of the storage, so every conflict costs them an additional round
+ * trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ClusterConfigurationStorageBenchmark {
+    /** First port of the members. */
+    private static final int PORT = 3544;
+
+    /** Number of members. */
+    @Param({"3", "5"})
+    public int members;
+
+    /** */
+    private final List<NetworkCluster> clusters = new ArrayList<>();
+
+    /** */
+    private final List<ClusterConfigurationStorage> storages = new ArrayList<>();
+
+    /** Storage of the last member, it's the last one to campaign for the leadership. */
+    private ClusterConfigurationStorage storage;
+
+    /** Directory of the members state. */
+    private Path dir;
+
+    /** */
+    @Setup
+    public void setUp() throws Exception {
+        List<String> addresses = IntStream.range(0, members)
+            .mapToObj(i -> "localhost:" + (PORT + i))
+            .collect(Collectors.toList());
+
+        List<String> memberNames = IntStream.range(0, members)
+            .mapToObj(i -> "member" + i)
+            .collect(Collectors.toList());
+
+        dir = Files.createTempDirectory("cluster-config-storage");
+
+        for (int i = 0; i < members; i++) {
+            NetworkCluster cluster = new NetworkClusterFactory("member" + i, PORT + i, addresses)
+                .startScaleCubeBasedCluster(new ScaleCubeMemberResolver(), new MessageHandlerHolder());
+
+            clusters.add(cluster);
+
+            storages.add(new ClusterConfigurationStorage(cluster, memberNames, dir.resolve("member" + i)));
+        }
+
+        while (!clusters.stream().allMatch(c -> c.allMembers().size() == members))
+            Thread.sleep(50);
+
+        storage = storages.get(members - 1);
+    }
+
+    /** */
+    @TearDown
+    public void tearDown() throws Exception {
+        for (ClusterConfigurationStorage storage : storages)
+            storage.close();
+
+        for (NetworkCluster cluster : clusters)
+            cluster.shutdown();
+
+        try (var files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /** Single key change, repeated with the new version if another thread has changed the storage concurrently. */
+    @Benchmark
+    public boolean change() throws Exception {
+        while (true) {
+            long ver = storage.readAll().version();
+
+            Map<String, Serializable> values = new HashMap<>();
+
+            values.put("cluster.key" + Thread.currentThread().getId(), ver);
+
+            if (storage.write(values, ver).get())
+                return true;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmarks jar. Accepts standard JMH command line options and always enables GC profiler, so
+ * that {@code gc.alloc.rate.norm} is reported next to the throughput.
+ */
+public class ConfigurationBenchmarkRunner {
+    /**
+     * @param args JMH command line arguments.
+     * @throws Exception If failed.
+     */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cmdOpts = new CommandLineOptions(args);
+
+        ChainedOptionsBuilder opts = new OptionsBuilder()
+            .parent(cmdOpts)
+            .addProfiler(GCProfiler.class);
+
+        if (cmdOpts.getIncludes().isEmpty())
+            opts.include(ConfigurationBenchmarkRunner.class.getPackageName() + ".*Benchmark");
+
+        new Runner(opts.build()).run();
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.ConfigurationChanger;
+import org.apache.ignite.configuration.ConfigurationExecutionMode;
+import org.apache.ignite.configuration.sample.impl.LocalNode;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.localRoot;
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.nodeNames;
+import static org.apache.ignite.configuration.sample.LocalConfiguration.KEY;
+
+/**
+ * Round trip of a single leaf change through {@link ConfigurationChanger#change(Map)}: validation, flat map
+ * conversion, storage write and storage listener notification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigurationChangerBenchmark {
+    /** Size of the {@code baseline.nodes} named list. */
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    /** */
+    @Param({"ORDERED", "THREAD_PER_CHANGE", "CALLER_RUNS"})
+    public ConfigurationExecutionMode executionMode;
+
+    /** */
+    private ConfigurationChanger changer;
+
+    /** */
+    private String[] names;
+
+    /** Counter used to produce distinct values and to pick named list elements. */
+    private int cnt;
+
+    /** */
+    @Setup
+    public void setUp() throws Exception {
+        changer = new ConfigurationChanger(executionMode, KEY);
+
+        changer.init(new TestConfigurationStorage());
+
+        changer.change(Map.of(KEY, localRoot(listSize))).get();
+
+        names = nodeNames(listSize);
+    }
+
+    /** */
+    @TearDown
+    public void tearDown() {
+        changer.stop();
+    }
+
+    /** Changes the leaf that doesn't belong to the named list. */
+    @Benchmark
+    public void changeLeaf() throws Exception {
+        long timeout = ++cnt;
+
+        LocalNode change = new LocalNode().changeBaseline(baseline ->
+            baseline.changeAutoAdjust(autoAdjust -> autoAdjust.changeTimeout(timeout))
+        );
+
+        changer.change(Map.of(KEY, change)).get();
+    }
+
+    /** Changes the leaf of a single named list element, elements are picked in a round-robin fashion. */
+    @Benchmark
+    public void changeNamedListElement() throws Exception {
+        int port = ++cnt;
+
+        String name = names[port % listSize];
+
+        LocalNode change = new LocalNode().changeBaseline(baseline ->
+            baseline.changeNodes(nodes -> nodes.update(name, node -> node.changePort(port)))
+        );
+
+        changer.change(Map.of(KEY, change)).get();
+    }
+}
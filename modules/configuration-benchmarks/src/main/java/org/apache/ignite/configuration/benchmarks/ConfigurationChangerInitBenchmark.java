@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.ConfigurationChanger;
+import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
+import org.apache.ignite.configuration.sample.impl.LocalNode;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.apache.ignite.configuration.tree.TraversableTreeNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.localRoot;
+import static org.apache.ignite.configuration.sample.LocalConfiguration.KEY;
+
+/**
+ * Initialization of the {@link ConfigurationChanger} with the storage that contains a big root. Roots are materialized
+ * lazily, so {@link #init()} only measures reading of the raw values, while {@link #initAndAccess()} includes building
+ * of the root tree on the first access.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigurationChangerInitBenchmark {
+    /** Size of the {@code baseline.nodes} named list. */
+    @Param({"1000", "100000"})
+    public int listSize;
+
+    /** Flat values of the root. */
+    private Map<String, Serializable> values;
+
+    /** Fresh storage for every invocation, so that listeners of previous changers don't pile up. */
+    private TestConfigurationStorage storage;
+
+    /** */
+    private ConfigurationChanger changer;
+
+    /** */
+    @Setup
+    public void setUp() {
+        values = ConfigurationUtil.nodeToFlatMap(KEY, new LocalNode(), localRoot(listSize));
+    }
+
+    /** */
+    @Setup(Level.Invocation)
+    public void setUpInvocation() throws Exception {
+        storage = new TestConfigurationStorage();
+
+        storage.write(new HashMap<>(values), 0).get();
+
+        changer = new ConfigurationChanger(KEY);
+    }
+
+    /** */
+    @TearDown(Level.Invocation)
+    public void tearDownInvocation() {
+        changer.stop();
+    }
+
+    /** Initialization without access to the root. */
+    @Benchmark
+    public ConfigurationChanger init() {
+        changer.init(storage);
+
+        return changer;
+    }
+
+    /** Initialization and the first access to the root. */
+    @Benchmark
+    public TraversableTreeNode initAndAccess() {
+        changer.init(storage);
+
+        return changer.getRootNode(KEY);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
+import org.apache.ignite.configuration.sample.impl.LocalNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.PATHS;
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.localRoot;
+
+/**
+ * {@link ConfigurationUtil#find(List, org.apache.ignite.configuration.tree.TraversableTreeNode)} for nodes of
+ * different depth. Happens every time public configuration object observes a new root.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigurationFindBenchmark {
+    /** Depth of the node, see {@link BenchmarkConfigurations#PATHS}. */
+    @Param({"1", "2", "3", "4", "5"})
+    public int depth;
+
+    /** Size of the {@code baseline.nodes} named list. */
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    /** */
+    private LocalNode root;
+
+    /** */
+    private List<String> path;
+
+    /** */
+    @Setup
+    public void setUp() {
+        root = localRoot(listSize);
+
+        path = PATHS.get(depth);
+    }
+
+    /** */
+    @Benchmark
+    public Object find() {
+        return ConfigurationUtil.find(path, root);
+    }
+}
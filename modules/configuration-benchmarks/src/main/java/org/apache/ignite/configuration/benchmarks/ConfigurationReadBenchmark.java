@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.ConfigurationRegistry;
+import org.apache.ignite.configuration.ConfigurationValue;
+import org.apache.ignite.configuration.LongConfigurationValue;
+import org.apache.ignite.configuration.NamedConfigurationTree;
+import org.apache.ignite.configuration.sample.AutoAdjustConfiguration;
+import org.apache.ignite.configuration.sample.AutoAdjustView;
+import org.apache.ignite.configuration.sample.LocalConfiguration;
+import org.apache.ignite.configuration.sample.NodeChange;
+import org.apache.ignite.configuration.sample.NodeConfiguration;
+import org.apache.ignite.configuration.sample.NodeInit;
+import org.apache.ignite.configuration.sample.NodeView;
+import org.apache.ignite.configuration.sample.storage.TestConfigurationStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.fill;
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.nodeNames;
+
+/**
+ * Steady state reads of the public configuration objects, i.e. reads that happen while configuration doesn't change.
+ * Such reads of the properties and configuration nodes must not allocate: {@code gc.alloc.rate.norm} reported by the
+ * GC profiler is expected to be {@code 0} for {@link #leafValue()}, {@link #leafLongValue()},
+ * {@link #namedListElementLeafValue()} and {@link #configurationValue()}, both in single-threaded and in concurrent runs ({@code -t} option).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigurationReadBenchmark {
+    /** Size of the {@code baseline.nodes} named list. */
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    /** */
+    private ConfigurationRegistry registry;
+
+    /** {@code local.baseline.autoAdjust.timeout} property. */
+    private LongConfigurationValue timeout;
+
+    /** {@code local.baseline.nodes.node0.port} property. */
+    private ConfigurationValue<Integer> port;
+
+    /** {@code local.baseline.autoAdjust} configuration. */
+    private AutoAdjustConfiguration autoAdjust;
+
+    /** {@code local.baseline.nodes} named list. */
+    private NamedConfigurationTree<NodeConfiguration, NodeView, NodeChange, NodeInit> nodes;
+
+    /** */
+    private String[] names;
+
+    /** Index of the next named list element to read. */
+    private int idx;
+
+    /** */
+    @Setup
+    public void setUp() throws Exception {
+        registry = new ConfigurationRegistry();
+
+        registry.registerRootKey(LocalConfiguration.KEY);
+
+        registry.registerStorage(new TestConfigurationStorage());
+
+        LocalConfiguration root = registry.getConfiguration(LocalConfiguration.KEY);
+
+        root.change(local -> fill(local, listSize)).get();
+
+        names = nodeNames(listSize);
+
+        autoAdjust = root.baseline().autoAdjust();
+
+        timeout = autoAdjust.timeout();
+
+        nodes = root.baseline().nodes();
+
+        port = nodes.get(names[0]).port();
+    }
+
+    /** */
+    @TearDown
+    public void tearDown() {
+        registry.stop();
+    }
+
+    /** {@code DynamicProperty.value()} of the leaf outside of the named list. */
+    @Benchmark
+    public Long leafValue() {
+        return timeout.value();
+    }
+
+    /** {@code LongDynamicProperty.longValue()} of the leaf outside of the named list. */
+    @Benchmark
+    public long leafLongValue() {
+        return timeout.longValue();
+    }
+
+    /** {@code DynamicProperty.value()} of the named list element leaf. */
+    @Benchmark
+    public Integer namedListElementLeafValue() {
+        return port.value();
+    }
+
+    /** {@code DynamicConfiguration.value()} of the inner node. */
+    @Benchmark
+    public AutoAdjustView configurationValue() {
+        return autoAdjust.value();
+    }
+
+    /** {@code NamedListConfiguration.get()}, elements are picked in a round-robin fashion. */
+    @Benchmark
+    public NodeConfiguration namedListGet() {
+        String name = names[idx];
+
+        if (++idx == listSize)
+            idx = 0;
+
+        return nodes.get(name);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
+import org.apache.ignite.configuration.sample.impl.LocalNode;
+import org.apache.ignite.configuration.tree.FlatCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.localRoot;
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.nodeName;
+import static org.apache.ignite.configuration.sample.LocalConfiguration.KEY;
+
+/**
+ * Conversions between configuration trees, flat maps and prefix maps, as well as patching of the whole tree with a
+ * single leaf change. All of them are performed on every configuration change or storage notification.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ConfigurationUtilBenchmark {
+    /** Size of the {@code baseline.nodes} named list. */
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    /** Completely filled root. */
+    private LocalNode root;
+
+    /** Empty root. */
+    private LocalNode emptyRoot;
+
+    /** Change of a single named list element leaf. */
+    private LocalNode change;
+
+    /** Flat representation of {@link #root}, same as the one from the storage. */
+    private Map<String, Serializable> flatMap;
+
+    /** Same as {@link #flatMap}, but sorted like the storage data. */
+    private SortedMap<String, Serializable> sortedFlatMap;
+
+    /** Prefix map of the {@link #root} content. */
+    private Map<String, ?> rootPrefixMap;
+
+    /** */
+    @Setup
+    public void setUp() {
+        root = localRoot(listSize);
+
+        // Same as the published root, patch shares its subtrees.
+        root.freeze();
+
+        emptyRoot = new LocalNode();
+
+        change = new LocalNode().changeBaseline(baseline ->
+            baseline.changeNodes(nodes -> nodes.update(nodeName(0), node -> node.changePort(1)))
+        );
+
+        flatMap = ConfigurationUtil.nodeToFlatMap(KEY, emptyRoot, root);
+
+        sortedFlatMap = new TreeMap<>(flatMap);
+
+        rootPrefixMap = (Map<String, ?>)ConfigurationUtil.toPrefixMap(flatMap).get(KEY.key());
+    }
+
+    /** */
+    @Benchmark
+    public Map<String, ?> toPrefixMap() {
+        return ConfigurationUtil.toPrefixMap(flatMap);
+    }
+
+    /** */
+    @Benchmark
+    public LocalNode fillFromPrefixMap() {
+        LocalNode node = new LocalNode();
+
+        ConfigurationUtil.fillFromPrefixMap(node, rootPrefixMap);
+
+        return node;
+    }
+
+    /** */
+    @Benchmark
+    public LocalNode readFlat() {
+        LocalNode node = new LocalNode();
+
+        new FlatCursor(sortedFlatMap, KEY.key() + '.').read(node);
+
+        return node;
+    }
+
+    /** */
+    @Benchmark
+    public Map<String, Serializable> nodeToFlatMap() {
+        return ConfigurationUtil.nodeToFlatMap(KEY, emptyRoot, root);
+    }
+
+    /** */
+    @Benchmark
+    public LocalNode patch() {
+        return ConfigurationUtil.patch(root, change);
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.apache.ignite.configuration.storage.Data;
+import org.apache.ignite.configuration.storage.LocalFileConfigurationStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Durable writes and recovery of {@link LocalFileConfigurationStorage}. Concurrent runs of {@link #write(WriteState)}
+ * ({@code -t} option) show the effect of the group fsync: writers that arrive while the log is being flushed share
+ * the next flush. {@link #startup(StartupState)} measures recovery of the storage with a million of keys, either from
+ * the log or from the compacted snapshot.
+ */
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class LocalFileConfigurationStorageBenchmark {
+    /** */
+    @State(Scope.Benchmark)
+    public static class WriteState {
+        /** */
+        private Path dir;
+
+        /** */
+        private LocalFileConfigurationStorage storage;
+
+        /** */
+        @Setup
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("config-storage-write");
+
+            storage = new LocalFileConfigurationStorage(dir);
+        }
+
+        /** */
+        @TearDown
+        public void tearDown() throws IOException {
+            storage.close();
+
+            delete(dir);
+        }
+    }
+
+    /** */
+    @State(Scope.Benchmark)
+    public static class StartupState {
+        /** Number of keys in the storage. */
+        @Param({"1000000"})
+        public int keys;
+
+        /** Whether the storage is recovered from the snapshot, or by replaying the log. */
+        @Param({"true", "false"})
+        public boolean compacted;
+
+        /** */
+        private Path dir;
+
+        /** */
+        @Setup
+        public void setUp() throws Exception {
+            dir = Files.createTempDirectory("config-storage-startup");
+
+            try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(dir, Long.MAX_VALUE)) {
+                int batchSize = 1000;
+
+                for (int i = 0; i < keys; i += batchSize) {
+                    Map<String, Serializable> batch = new HashMap<>();
+
+                    for (int j = i; j < Math.min(i + batchSize, keys); j++)
+                        batch.put("local.baseline.nodes.node" + j + ".port", j);
+
+                    storage.write(batch, i / batchSize).get();
+                }
+
+                if (compacted)
+                    storage.compact();
+            }
+        }
+
+        /** */
+        @TearDown
+        public void tearDown() throws IOException {
+            delete(dir);
+        }
+    }
+
+    /** Single key write that completes after the change is durable. */
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public boolean write(WriteState state) throws Exception {
+        LocalFileConfigurationStorage storage = state.storage;
+
+        while (true) {
+            // Version of the latest accepted write, including the ones that aren't durable yet.
+            Data changes = storage.changesSince(storage.readAll().version());
+
+            if (changes == null)
+                continue;
+
+            long ver = changes.version();
+
+            if (storage.write(new HashMap<>(Map.of("local.baseline.autoAdjust.timeout", ver)), ver).get())
+                return true;
+        }
+    }
+
+    /** Opens the storage and reads all of its data. */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 10)
+    public Data startup(StartupState state) throws Exception {
+        try (LocalFileConfigurationStorage storage = new LocalFileConfigurationStorage(state.dir)) {
+            return storage.readAll();
+        }
+    }
+
+    /** Deletes the directory recursively. */
+    private static void delete(Path dir) throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            for (Path path : (Iterable<Path>)paths.sorted(Comparator.reverseOrder())::iterator)
+                Files.delete(path);
+        }
+    }
+}
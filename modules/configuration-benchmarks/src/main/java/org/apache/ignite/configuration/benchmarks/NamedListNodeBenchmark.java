@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.sample.impl.NodeNode;
+import org.apache.ignite.configuration.tree.ConfigurationSource;
+import org.apache.ignite.configuration.tree.ConstructableTreeNode;
+import org.apache.ignite.configuration.tree.NamedListNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.nodeName;
+import static org.apache.ignite.configuration.benchmarks.BenchmarkConfigurations.nodeNames;
+
+/**
+ * Copy-on-write update of a single named list element, exactly as it's done by the generated {@code construct} method
+ * of the parent node. Cost of the update shouldn't noticeably depend on the size of the list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class NamedListNodeBenchmark {
+    /** Source that changes the {@code port} leaf of the named list element. */
+    private static final ConfigurationSource PORT_SRC = new ConfigurationSource() {
+        /** {@inheritDoc} */
+        @Override public void descend(ConstructableTreeNode node) {
+            node.construct("port", new ConfigurationSource() {
+                /** {@inheritDoc} */
+                @Override public <T> T unwrap(Class<T> clazz) {
+                    return clazz.cast(1);
+                }
+            });
+        }
+    };
+
+    /** Size of the named list. */
+    @Param({"10", "1000", "100000"})
+    public int listSize;
+
+    /** Named list node with the same content as {@code local.baseline.nodes}. */
+    private NamedListNode<NodeNode> nodes;
+
+    /** */
+    private String[] names;
+
+    /** Index of the next named list element to update. */
+    private int idx;
+
+    /** */
+    @Setup
+    public void setUp() {
+        names = nodeNames(listSize);
+
+        nodes = new NamedListNode<>(NodeNode::new);
+
+        for (int i = 0; i < listSize; i++) {
+            int port = 10_000 + i;
+
+            nodes.create(names[i], node -> node.initConsistentId(nodeName(port)).initPort(port));
+        }
+
+        // Same as the published configuration, elements are shared with the copies.
+        nodes.freeze();
+    }
+
+    /** Copy of the list with a single element updated, elements are picked in a round-robin fashion. */
+    @Benchmark
+    public NamedListNode<NodeNode> updateElement() {
+        NamedListNode<NodeNode> copy = nodes.copy();
+
+        copy.construct(nextName(), PORT_SRC);
+
+        return copy;
+    }
+
+    /** Copy of the list with a single element removed, elements are picked in a round-robin fashion. */
+    @Benchmark
+    public NamedListNode<NodeNode> removeElement() {
+        NamedListNode<NodeNode> copy = nodes.copy();
+
+        copy.construct(nextName(), null);
+
+        return copy;
+    }
+
+    /** Lookup of the element, elements are picked in a round-robin fashion. */
+    @Benchmark
+    public NodeNode get() {
+        return nodes.get(nextName());
+    }
+
+    /**
+     * @return Name of the next element.
+     */
+    private String nextName() {
+        String name = names[idx];
+
+        if (++idx == listSize)
+            idx = 0;
+
+        return name;
+    }
+}
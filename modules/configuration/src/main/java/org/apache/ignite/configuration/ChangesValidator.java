@@ -0,0 +1,259 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.configuration.internal.validation.LeafValidator;
+import org.apache.ignite.configuration.tree.ConfigurationVisitor;
+import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.NamedListNode;
+import org.apache.ignite.configuration.tree.TraversableTreeNode;
+import org.apache.ignite.configuration.validation.ConfigurationValidationException;
+import org.apache.ignite.configuration.validation.ValidationIssue;
+
+import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.escape;
+
+/**
+ * Validates configuration changes incrementally. Only the change tree is walked, and only validators of the changed
+ * leaves are executed, together with validators of other leaves of the same node that
+ * {@link org.apache.ignite.configuration.annotation.Validate#dependsOn() depend} on them. Nodes and named list
+ * elements that didn't exist before the change are validated completely.
+ * <p/>
+ * Public configuration roots passed to the validators are only created if there's at least one validator to execute.
+ */
+final class ChangesValidator {
+    /** Visitor that returns child node or leaf value. */
+    private static final ConfigurationVisitor<Object> CHILD_VISITOR = new ConfigurationVisitor<>() {
+        /** {@inheritDoc} */
+        @Override public Object visitLeafNode(String key, Serializable val) {
+            return val;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Object visitInnerNode(String key, InnerNode node) {
+            return node;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <N extends InnerNode> Object visitNamedListNode(String key, NamedListNode<N> node) {
+            return node;
+        }
+    };
+
+    /** Roots before the change. */
+    private final Map<RootKey<?>, InnerNode> oldRoots;
+
+    /** Roots after the change. */
+    private final Map<RootKey<?>, InnerNode> newRoots;
+
+    /** Lazily created public roots over {@link #oldRoots}. */
+    private Map<RootKey<?>, ConfigurationTree<?, ?>> oldPublicRoots;
+
+    /** Lazily created public roots over {@link #newRoots}. */
+    private Map<RootKey<?>, ConfigurationTree<?, ?>> newPublicRoots;
+
+    /** Found issues. */
+    private final List<ValidationIssue> issues = new ArrayList<>();
+
+    /**
+     * @param oldRoots Roots before the change.
+     * @param newRoots Roots after the change.
+     */
+    ChangesValidator(Map<RootKey<?>, InnerNode> oldRoots, Map<RootKey<?>, InnerNode> newRoots) {
+        this.oldRoots = oldRoots;
+        this.newRoots = newRoots;
+    }
+
+    /**
+     * Validates the changes.
+     *
+     * @param changes Map of changes by root key.
+     * @return List of issues, empty if changes are valid.
+     */
+    List<ValidationIssue> validate(Map<RootKey<?>, ? extends TraversableTreeNode> changes) {
+        for (Map.Entry<RootKey<?>, ? extends TraversableTreeNode> entry : changes.entrySet()) {
+            RootKey<?> rootKey = entry.getKey();
+
+            assert entry.getValue() instanceof InnerNode : entry.getValue();
+
+            validateNode(
+                rootKey,
+                escape(rootKey.key()),
+                (InnerNode)entry.getValue(),
+                oldRoots.get(rootKey),
+                newRoots.get(rootKey)
+            );
+        }
+
+        return issues;
+    }
+
+    /**
+     * Validates changed leaves of the node and continues with changed children.
+     *
+     * @param rootKey Root key.
+     * @param path Escaped dot-separated path to the node.
+     * @param changes Changes of the node.
+     * @param oldNode Node before the change, {@code null} if node has been created.
+     * @param newNode Node after the change.
+     */
+    private void validateNode(RootKey<?> rootKey, String path, InnerNode changes, InnerNode oldNode, InnerNode newNode) {
+        if (newNode == null)
+            return;
+
+        // Every leaf of the new node is validated, including nulls.
+        boolean created = oldNode == null;
+
+        List<LeafValidator> executed = new ArrayList<>(0);
+
+        (created ? newNode : changes).traverseChildren(new ConfigurationVisitor<Void>() {
+            /** {@inheritDoc} */
+            @Override public Void visitLeafNode(String key, Serializable val) {
+                if (val == null && !created)
+                    return null;
+
+                for (LeafValidator validator : newNode.validators(key)) {
+                    // Validator depends on several fields that have been changed together.
+                    if (executed.contains(validator))
+                        continue;
+
+                    executed.add(validator);
+
+                    Serializable leafVal = (Serializable)newNode.traverseChild(validator.key(), CHILD_VISITOR);
+
+                    if (leafVal != null || validator.acceptsNull())
+                        validateLeaf(rootKey, path, validator, leafVal);
+                }
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public Void visitInnerNode(String key, InnerNode changesNode) {
+                if (changesNode != null) {
+                    validateNode(
+                        rootKey,
+                        path + '.' + escape(key),
+                        changesNode,
+                        (InnerNode)child(oldNode, key),
+                        (InnerNode)child(newNode, key)
+                    );
+                }
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public <N extends InnerNode> Void visitNamedListNode(String key, NamedListNode<N> changesList) {
+                NamedListNode<?> oldList = (NamedListNode<?>)child(oldNode, key);
+                NamedListNode<?> newList = (NamedListNode<?>)child(newNode, key);
+
+                for (String elementKey : changesList.namedListKeys()) {
+                    N changesElement = changesList.get(elementKey);
+
+                    // Deleted element.
+                    if (changesElement == null)
+                        continue;
+
+                    validateNode(
+                        rootKey,
+                        path + '.' + escape(key) + '.' + escape(elementKey),
+                        changesElement,
+                        oldList == null ? null : oldList.get(elementKey),
+                        newList.get(elementKey)
+                    );
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * Executes single validator.
+     *
+     * @param rootKey Root key.
+     * @param path Escaped dot-separated path to the node of the leaf.
+     * @param validator Validator.
+     * @param val Value of the leaf.
+     */
+    private void validateLeaf(RootKey<?> rootKey, String path, LeafValidator validator, Serializable val) {
+        if (newPublicRoots == null) {
+            newPublicRoots = new HashMap<>();
+            oldPublicRoots = new HashMap<>();
+        }
+
+        ConfigurationTree<?, ?> newRoot = newPublicRoots.computeIfAbsent(
+            rootKey,
+            k -> k.createPublicRoot(new SnapshotChanger(newRoots))
+        );
+
+        ConfigurationTree<?, ?> oldRoot = oldPublicRoots.computeIfAbsent(
+            rootKey,
+            k -> k.createPublicRoot(new SnapshotChanger(oldRoots))
+        );
+
+        try {
+            validator.validate(val, newRoot, oldRoot);
+        }
+        catch (ConfigurationValidationException e) {
+            issues.add(new ValidationIssue(path + '.' + escape(validator.key()), e.getMessage()));
+        }
+    }
+
+    /**
+     * @param node Inner node or {@code null}.
+     * @param key Key of the child.
+     * @return Child node, leaf value or {@code null}.
+     */
+    private static Object child(InnerNode node, String key) {
+        return node == null ? null : node.traverseChild(key, CHILD_VISITOR);
+    }
+
+    /**
+     * Read-only changer that provides fixed roots to the public configuration trees passed to the validators.
+     */
+    private static final class SnapshotChanger extends ConfigurationChanger {
+        /** Roots. */
+        private final Map<RootKey<?>, InnerNode> roots;
+
+        /**
+         * @param roots Roots.
+         */
+        SnapshotChanger(Map<RootKey<?>, InnerNode> roots) {
+            this.roots = roots;
+        }
+
+        /** {@inheritDoc} */
+        @Override public RootHolder rootHolder(RootKey<?> rootKey) {
+            return new RootHolder(roots.get(rootKey));
+        }
+
+        /** {@inheritDoc} */
+        @Override public CompletableFuture<Long> change(Map<RootKey<?>, ? extends TraversableTreeNode> changes) {
+            return CompletableFuture.failedFuture(
+                new ConfigurationChangeException("Configuration can't be changed during validation.")
+            );
+        }
+    }
+}
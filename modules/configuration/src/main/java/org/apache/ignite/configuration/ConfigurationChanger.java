@@ -19,37 +19,79 @@ package org.apache.ignite.configuration;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import org.apache.ignite.configuration.internal.ConfigurationNotifier;
 import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
+import org.apache.ignite.configuration.storage.ChangesTrackingConfigurationStorage;
 import org.apache.ignite.configuration.storage.ConfigurationStorage;
 import org.apache.ignite.configuration.storage.Data;
 import org.apache.ignite.configuration.storage.StorageException;
 import org.apache.ignite.configuration.tree.ConfigurationSource;
 import org.apache.ignite.configuration.tree.ConfigurationVisitor;
+import org.apache.ignite.configuration.tree.FlatCursor;
 import org.apache.ignite.configuration.tree.InnerNode;
 import org.apache.ignite.configuration.tree.NamedListNode;
+import org.apache.ignite.configuration.tree.PersistentHashMap;
 import org.apache.ignite.configuration.tree.TraversableTreeNode;
 import org.apache.ignite.configuration.validation.ConfigurationValidationException;
 import org.apache.ignite.configuration.validation.ValidationIssue;
 
-import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.nodeToFlatMap;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Class that handles configuration changes, by validating them, passing to storage and listening to storage updates.
  */
 public class ConfigurationChanger {
+    /** Maximal delay in milliseconds between attempts to write conflicting changes. */
+    private static final long MAX_RETRY_BACKOFF_MILLIS = 128;
+
+    /** Default maximal number of change requests that are merged into a single storage write. */
+    public static final int DFLT_MAX_BATCH_SIZE = 64;
+
+    /** Execution mode of the changes. */
+    private final ConfigurationExecutionMode executionMode;
+
+    /** Executors created by the changer, to be shut down on {@link #stop()}. */
+    private final Queue<ExecutorService> executors = new ConcurrentLinkedQueue<>();
+
     /** */
-    private final ForkJoinPool pool = new ForkJoinPool(2);
+    private final ConfigurationChangerMetrics metrics = new ConfigurationChangerMetrics();
+
+    /** Notifier of property listeners. */
+    private final ConfigurationNotifier notifier = new ConfigurationNotifier();
+
+    /** Whether {@link #stop()} has been called. */
+    private volatile boolean stopped;
+
+    /** Maximal number of change requests that are merged into a single storage write. */
+    private volatile int maxBatchSize = DFLT_MAX_BATCH_SIZE;
+
+    /** Time in milliseconds that changes wait for other concurrent changes before being written to the storage. */
+    private volatile long batchLingerMillis;
+
+    /** Whether roots are materialized in the background right after the initialization of their storage. */
+    private volatile boolean backgroundWarmUp;
 
     /** Map of configurations' configurators. */
     @Deprecated
@@ -61,31 +103,287 @@ public class ConfigurationChanger {
     /** Map that has all the trees in accordance to their storages. */
     private final Map<Class<? extends ConfigurationStorage>, StorageRoots> storagesRootsMap = new ConcurrentHashMap<>();
 
+    /**
+     * Mutex that serializes publishing of the new {@link StorageRoots} together with the updates of the
+     * {@link RootHolder}s, so that root materialized by a reader never overrides the newer root from the storage.
+     */
+    private final Object publishMux = new Object();
+
     /**
      * Immutable data container to store version and all roots associated with the specific storage.
+     * Subsequent versions of roots share all unchanged subtrees by reference, only nodes on the paths to the changed
+     * values are copied. So, if a node in the new version is the same object as in the old one then nothing has
+     * changed in its subtree.
+     * <p/>
+     * Roots are materialized lazily, on the first access. Until then, root is represented by its raw storage values in
+     * the sorted flat layout, and storage notifications only patch these values.
+     * <p/>
+     * Roots are {@link InnerNode#freeze() frozen} when they are published, so views that are returned to the users
+     * are shared without copying, and the next version of the root is built from the copies of the changed nodes.
      */
     public static class StorageRoots {
-        /** Immutable forest, so to say. */
+        /** Immutable forest, so to say. Only contains materialized roots. */
         private final Map<RootKey<?>, InnerNode> roots;
 
+        /** Raw values of the roots that haven't been materialized yet. */
+        private final Map<RootKey<?>, Data> rawRoots;
+
+        /**
+         * Keys of the values that are in the storage, i.e. of the explicitly set ones, mapped to {@code true}. Roots
+         * are completed with defaults, so they don't tell whether a value that is equal to the default is stored.
+         */
+        private final PersistentHashMap<String, Boolean> storedKeys;
+
         /** Version associated with the currently known storage state. */
         private final long version;
 
         /** */
-        private StorageRoots(Map<RootKey<?>, InnerNode> roots, long version) {
+        private StorageRoots(
+            Map<RootKey<?>, InnerNode> roots,
+            Map<RootKey<?>, Data> rawRoots,
+            PersistentHashMap<String, Boolean> storedKeys,
+            long version
+        ) {
+            // Only the nodes that have been created or copied since the previous version are visited.
+            for (InnerNode root : roots.values())
+                root.freeze();
+
             this.roots = Collections.unmodifiableMap(roots);
+            this.rawRoots = Collections.unmodifiableMap(rawRoots);
+            this.storedKeys = storedKeys;
             this.version = version;
         }
     }
 
+    /** Holders of the latest roots by root keys. */
+    private final Map<RootKey<?>, RootHolder> rootHolders = new ConcurrentHashMap<>();
+
+    /**
+     * Holder of the latest version of a single root. Instance is obtained once by every public configuration object
+     * of the root, so that reading the latest root is a single volatile read without map lookups. Root is replaced
+     * atomically, together with the {@link StorageRoots} it belongs to.
+     */
+    public static final class RootHolder {
+        /** Latest root, {@code null} if it hasn't been materialized yet. */
+        private volatile InnerNode root;
+
+        /** Materializes the root on the first access, {@code null} if root can't be materialized lazily. */
+        private final Supplier<InnerNode> loader;
+
+        /**
+         * @param root Initial root.
+         */
+        RootHolder(InnerNode root) {
+            this(root, null);
+        }
+
+        /**
+         * @param root Initial root.
+         * @param loader Materializes the root on the first access.
+         */
+        private RootHolder(InnerNode root, Supplier<InnerNode> loader) {
+            this.root = root;
+            this.loader = loader;
+        }
+
+        /**
+         * @return Latest root, {@code null} if storage of the root hasn't been initialized yet.
+         */
+        public InnerNode root() {
+            InnerNode root = this.root;
+
+            if (root == null && loader != null)
+                root = loader.get();
+
+            return root;
+        }
+    }
+
     /** Storage instances by their classes. Comes in handy when all you have is {@link RootKey}. */
-    private final Map<Class<? extends ConfigurationStorage>, ConfigurationStorage> storageInstances = new HashMap<>();
+    private final Map<Class<? extends ConfigurationStorage>, ConfigurationStorage> storageInstances =
+        new ConcurrentHashMap<>();
+
+    /** Queues of pending changes by storage classes. */
+    private final Map<Class<? extends ConfigurationStorage>, ChangesQueue> changesQueues = new ConcurrentHashMap<>();
+
+    /** Queues of listener notifications by storage classes. */
+    private final Map<Class<? extends ConfigurationStorage>, ConfigurationNotifier.NotificationsQueue> notificationsQueues =
+        new ConcurrentHashMap<>();
+
+    /** Waiters of the storage versions by storage classes. */
+    private final Map<Class<? extends ConfigurationStorage>, VersionWaiters> versionWaiters = new ConcurrentHashMap<>();
+
+    /**
+     * Change request waiting in the {@link ChangesQueue}.
+     */
+    private static final class ChangeRequest {
+        /** Map of changes by root key. */
+        private final Map<RootKey<?>, ? extends TraversableTreeNode> changes;
+
+        /** Future, that must be completed with the version of the storage after changes are written to it. */
+        private final CompletableFuture<Long> fut;
+
+        /** Whether the request has been completed by the queue. Only accessed by the steps of the batch processing. */
+        private boolean completed;
+
+        /** */
+        private ChangeRequest(Map<RootKey<?>, ? extends TraversableTreeNode> changes, CompletableFuture<Long> fut) {
+            this.changes = changes;
+            this.fut = fut;
+        }
+    }
+
+    /**
+     * Futures waiting for the storage roots of a single storage to reach the required versions. Waiters are ordered by
+     * version, so every storage notification only touches the waiters that it completes.
+     */
+    private static final class VersionWaiters {
+        /** Pending waiters, the one with the lowest version is the head. */
+        private final PriorityQueue<VersionWaiter> waiters = new PriorityQueue<>();
+
+        /** Version of the published storage roots. */
+        private long version;
+
+        /** Error to fail new waiters with, if the changer has been stopped. */
+        private Throwable err;
+
+        /**
+         * @param version Initial version of the storage roots.
+         */
+        VersionWaiters(long version) {
+            this.version = version;
+        }
+
+        /**
+         * @param version Required version.
+         * @return Future that is completed when storage roots of the required or a later version are published.
+         */
+        synchronized CompletableFuture<Void> await(long version) {
+            if (err != null)
+                return CompletableFuture.failedFuture(err);
+
+            if (version <= this.version)
+                return CompletableFuture.completedFuture(null);
+
+            CompletableFuture<Void> fut = new CompletableFuture<>();
+
+            waiters.add(new VersionWaiter(version, fut));
+
+            return fut;
+        }
+
+        /**
+         * Updates the version of the published storage roots. Returned futures must be completed by the caller
+         * without holding any locks, because they run the dependent stages.
+         *
+         * @param version New version.
+         * @return Futures of the waiters that are done, possibly empty.
+         */
+        synchronized List<CompletableFuture<Void>> advance(long version) {
+            this.version = Math.max(this.version, version);
+
+            List<CompletableFuture<Void>> done = new ArrayList<>();
+
+            while (!waiters.isEmpty() && waiters.peek().version <= this.version)
+                done.add(waiters.poll().fut);
+
+            return done;
+        }
+
+        /**
+         * Fails all pending and future waiters.
+         *
+         * @param err Error.
+         * @return Futures of the pending waiters.
+         */
+        synchronized List<CompletableFuture<Void>> stop(Throwable err) {
+            this.err = err;
+
+            List<CompletableFuture<Void>> pending = new ArrayList<>(waiters.size());
+
+            for (VersionWaiter waiter : waiters)
+                pending.add(waiter.fut);
+
+            waiters.clear();
+
+            return pending;
+        }
+    }
+
+    /** Future waiting for the version of the storage roots. */
+    private static final class VersionWaiter implements Comparable<VersionWaiter> {
+        /** Required version. */
+        private final long version;
+
+        /** Future to complete. */
+        private final CompletableFuture<Void> fut;
+
+        /** */
+        private VersionWaiter(long version, CompletableFuture<Void> fut) {
+            this.version = version;
+            this.fut = fut;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(VersionWaiter o) {
+            return Long.compare(version, o.version);
+        }
+    }
 
     /** Constructor. */
     public ConfigurationChanger(RootKey<?>... rootKeys) {
+        this(ConfigurationExecutionMode.ORDERED, rootKeys);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executionMode Execution mode of the changes.
+     * @param rootKeys Root keys.
+     */
+    public ConfigurationChanger(ConfigurationExecutionMode executionMode, RootKey<?>... rootKeys) {
+        this.executionMode = executionMode;
+
         this.rootKeys.addAll(Arrays.asList(rootKeys));
     }
 
+    /**
+     * Sets maximal number of concurrent change requests that are merged into a single storage write.
+     *
+     * @param maxBatchSize Maximal batch size, {@code 1} effectively disables batching.
+     */
+    public void maxBatchSize(int maxBatchSize) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Batch size must be positive: " + maxBatchSize);
+
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Enables materialization of the roots in the background right after the initialization of their storage. Roots
+     * are materialized on the first access otherwise. Only affects storages that are initialized after the call.
+     *
+     * @param backgroundWarmUp Whether roots are materialized in the background.
+     */
+    public void backgroundWarmUp(boolean backgroundWarmUp) {
+        this.backgroundWarmUp = backgroundWarmUp;
+    }
+
+    /**
+     * Sets the time that change request waits for other concurrent change requests before the whole batch is written
+     * to the storage. Zero by default, meaning that only requests that have been queued while the previous batch was
+     * being written get into the batch.
+     *
+     * @param linger Linger time.
+     * @param unit Time unit of the linger time.
+     */
+    public void batchLinger(long linger, TimeUnit unit) {
+        if (linger < 0)
+            throw new IllegalArgumentException("Linger time must not be negative: " + linger);
+
+        batchLingerMillis = unit.toMillis(linger);
+    }
+
     /** */
     public void addRootKey(RootKey<?> rootKey) {
         assert !storageInstances.containsKey(rootKey.getStorageType());
@@ -94,7 +392,79 @@ public class ConfigurationChanger {
     }
 
     /**
-     * Initialize changer.
+     * Initializes storages concurrently, each one in its own thread unless changes are processed in
+     * {@link ConfigurationExecutionMode#CALLER_RUNS} mode. Storages don't depend on each other, so initialization takes
+     * as long as the slowest storage rather than all of them together.
+     *
+     * @param storages Storages of different classes.
+     * @return Initialization times in nanoseconds by storage classes, in the order of the storages.
+     * @throws ConfigurationChangeException If failed to initialize any of the storages. Other storages are
+     *      initialized anyway, their errors are suppressed by the thrown exception.
+     */
+    public Map<Class<? extends ConfigurationStorage>, Long> init(
+        Collection<? extends ConfigurationStorage> storages
+    ) throws ConfigurationChangeException {
+        Map<Class<? extends ConfigurationStorage>, CompletableFuture<Long>> futs = new LinkedHashMap<>();
+
+        List<ExecutorService> initExecutors = new ArrayList<>();
+
+        try {
+            for (ConfigurationStorage storage : storages) {
+                assert !futs.containsKey(storage.getClass()) : storage.getClass();
+
+                Executor executor = executionMode.createExecutor("config-init-" + storage.getClass().getSimpleName());
+
+                if (executor instanceof ExecutorService)
+                    initExecutors.add((ExecutorService)executor);
+
+                futs.put(storage.getClass(), CompletableFuture.supplyAsync(() -> {
+                    long start = System.nanoTime();
+
+                    init(storage);
+
+                    return System.nanoTime() - start;
+                }, executor));
+            }
+
+            Map<Class<? extends ConfigurationStorage>, Long> initTimes = new LinkedHashMap<>();
+
+            ConfigurationChangeException err = null;
+
+            for (Map.Entry<Class<? extends ConfigurationStorage>, CompletableFuture<Long>> entry : futs.entrySet()) {
+                try {
+                    initTimes.put(entry.getKey(), entry.getValue().join());
+                }
+                catch (CompletionException e) {
+                    Throwable cause = e.getCause();
+
+                    ConfigurationChangeException storageErr = cause instanceof ConfigurationChangeException
+                        ? (ConfigurationChangeException)cause
+                        : new ConfigurationChangeException(
+                            "Failed to initialize configuration: " + cause.getMessage(),
+                            cause
+                        );
+
+                    if (err == null)
+                        err = storageErr;
+                    else
+                        err.addSuppressed(storageErr);
+                }
+            }
+
+            if (err != null)
+                throw err;
+
+            return initTimes;
+        }
+        finally {
+            for (ExecutorService executor : initExecutors)
+                executor.shutdown();
+        }
+    }
+
+    /**
+     * Initialize changer. Storages of different classes may be initialized concurrently, see
+     * {@link #init(Collection)}.
      */
     // ConfigurationChangeException, really?
     public void init(ConfigurationStorage configurationStorage) throws ConfigurationChangeException {
@@ -107,61 +477,142 @@ public class ConfigurationChanger {
         Data data;
 
         try {
-            data = configurationStorage.readAll();
+            // Only the keys of the registered roots, all of them from the same version of the storage.
+            data = configurationStorage.readRoots(storageRootKeys);
         }
         catch (StorageException e) {
             throw new ConfigurationChangeException("Failed to initialize configuration: " + e.getMessage(), e);
         }
 
-        Map<RootKey<?>, InnerNode> storageRootsMap = new HashMap<>();
-        // Map to collect defaults for not initialized configurations.
-        Map<RootKey<?>, InnerNode> storageDefaultsMap = new HashMap<>();
+        NavigableMap<String, Serializable> values = data.values() instanceof NavigableMap
+            ? (NavigableMap<String, Serializable>)data.values()
+            : new TreeMap<>(data.values());
 
-        Map<String, ?> dataValuesPrefixMap = ConfigurationUtil.toPrefixMap(data.values());
+        // Roots are only materialized on the first access, see "materialize".
+        Map<RootKey<?>, Data> rawRoots = new HashMap<>();
 
-        for (RootKey<?> rootKey : storageRootKeys) {
-            Map<String, ?> rootPrefixMap = (Map<String, ?>)dataValuesPrefixMap.get(rootKey.key());
+        for (RootKey<?> rootKey : storageRootKeys)
+            rawRoots.put(rootKey, Data.sorted(rootRange(values, rootKey), data.version()));
 
-            InnerNode rootNode = rootKey.createRootNode();
+        PersistentHashMap<String, Boolean> storedKeys = PersistentHashMap.empty();
 
-            if (rootPrefixMap != null)
-                ConfigurationUtil.fillFromPrefixMap(rootNode, rootPrefixMap);
+        for (String key : values.keySet())
+            storedKeys = storedKeys.put(key, Boolean.TRUE);
 
-            // Collecting defaults requires fresh new root.
-            InnerNode defaultsNode = rootKey.createRootNode();
+        storagesRootsMap.put(
+            configurationStorage.getClass(),
+            new StorageRoots(new HashMap<>(), rawRoots, storedKeys, data.version())
+        );
 
-            addDefaults(rootNode, defaultsNode);
+        changesQueues.put(configurationStorage.getClass(), new ChangesQueue(configurationStorage));
 
-            storageRootsMap.put(rootKey, rootNode);
-            storageDefaultsMap.put(rootKey, defaultsNode);
-        }
+        versionWaiters.put(configurationStorage.getClass(), new VersionWaiters(data.version()));
 
-        storagesRootsMap.put(configurationStorage.getClass(), new StorageRoots(storageRootsMap, data.version()));
+        notificationsQueues.put(
+            configurationStorage.getClass(),
+            notifier.createQueue(createExecutor("config-notifier-" + configurationStorage.getClass().getSimpleName()))
+        );
 
         configurationStorage.addListener(changedEntries -> updateFromListener(
             configurationStorage.getClass(),
             changedEntries
         ));
 
-        // Do this strictly after adding listeners, otherwise we can lose these changes.
-        try {
-            //TODO IGNITE-14183 Do not write defaults that have not been validated. This can ruin everything.
-            change(storageDefaultsMap).get();
+        if (backgroundWarmUp) {
+            Executor warmUpExecutor = executionMode.createExecutor(
+                "config-warm-up-" + configurationStorage.getClass().getSimpleName()
+            );
+
+            // Roots don't depend on each other, so they are materialized concurrently if executor allows it.
+            for (RootKey<?> rootKey : storageRootKeys)
+                warmUpExecutor.execute(() -> materialize(rootKey));
+
+            // Submitted roots are still materialized, threads are released as soon as the warm-up is over.
+            if (warmUpExecutor instanceof ExecutorService)
+                ((ExecutorService)warmUpExecutor).shutdown();
         }
-        catch (InterruptedException | ExecutionException e) {
-            throw new ConfigurationChangeException("too bad", e);
+    }
+
+    /**
+     * Materializes the root and publishes it, unless it has already been materialized.
+     *
+     * @param rootKey Root key.
+     * @return Latest root or {@code null} if storage of the root hasn't been initialized yet.
+     */
+    private InnerNode materialize(RootKey<?> rootKey) {
+        Class<? extends ConfigurationStorage> storageType = rootKey.getStorageType();
+
+        while (true) {
+            StorageRoots storageRoots = storagesRootsMap.get(storageType);
+
+            if (storageRoots == null)
+                return null;
+
+            InnerNode rootNode = storageRoots.roots.get(rootKey);
+
+            if (rootNode != null)
+                return rootNode;
+
+            Data rawRoot = storageRoots.rawRoots.get(rootKey);
+
+            if (rawRoot == null)
+                return null;
+
+            // Tree is built without the lock, it's discarded if storage notification has changed the roots meanwhile.
+            rootNode = buildRoot(rootKey, rawRoot);
+
+            synchronized (publishMux) {
+                if (storagesRootsMap.get(storageType) != storageRoots)
+                    continue;
+
+                Map<RootKey<?>, InnerNode> roots = new HashMap<>(storageRoots.roots);
+                Map<RootKey<?>, Data> rawRoots = new HashMap<>(storageRoots.rawRoots);
+
+                roots.put(rootKey, rootNode);
+                rawRoots.remove(rootKey);
+
+                storagesRootsMap.put(storageType, new StorageRoots(roots, rawRoots, storageRoots.storedKeys, storageRoots.version));
+
+                rootHolder(rootKey).root = rootNode;
+
+                return rootNode;
+            }
         }
     }
 
+    /**
+     * Builds the root node from the storage values and completes it with defaults.
+     *
+     * @param rootKey Root key.
+     * @param rawRoot Storage values of the root.
+     * @return Root node.
+     */
+    private InnerNode buildRoot(RootKey<?> rootKey, Data rawRoot) {
+        InnerNode rootNode = rootKey.createRootNode();
+
+        new FlatCursor(rawRoot.values(), rootKey.key() + '.').read(rootNode);
+
+        // Defaults are only resolved in memory, storage keeps explicitly set values.
+        addDefaults(rootNode, null, rootNode);
+
+        return rootNode;
+    }
+
     /**
      * Fill {@code dst} node with default values, required to complete {@code src} node.
      * These two objects can be the same, this would mean that all {@code null} values of {@code scr} will be
      * replaced with defaults if it's possible.
+     * <p/>
+     * If {@code changes} tree is passed then only subtrees of {@code src} that are touched by the changes are
+     * processed. Every other subtree is known to be already completed with defaults, so {@code dst} receives only
+     * O(size of the changes) nodes.
      *
      * @param src Source node.
+     * @param changes Changes that have been applied to the source node, or {@code null} if the whole {@code src}
+     *      node has to be processed.
      * @param dst Destination node.
      */
-    private void addDefaults(InnerNode src, InnerNode dst) {
+    private void addDefaults(InnerNode src, InnerNode changes, InnerNode dst) {
         src.traverseChildren(new ConfigurationVisitor<>() {
             @Override public Object visitLeafNode(String key, Serializable val) {
                 // If source value is null then inititalise the same value on the destination node.
@@ -172,6 +623,16 @@ public class ConfigurationChanger {
             }
 
             @Override public Object visitInnerNode(String key, InnerNode srcNode) {
+                InnerNode changesNode = changes == null ? null : changes.traverseChild(key, new ConfigurationVisitor<>() {
+                    @Override public InnerNode visitInnerNode(String key, InnerNode changesNode) {
+                        return changesNode;
+                    }
+                });
+
+                // Untouched subtree, shared with the previous version of the tree.
+                if (changes != null && changesNode == null && srcNode != null)
+                    return null;
+
                 // Instantiate field in destination node before doing something else.
                 // Not a big deal if it wasn't null.
                 dst.construct(key, new ConfigurationSource() {});
@@ -186,12 +647,25 @@ public class ConfigurationChanger {
                 // "dstNode" is guaranteed to not be null even if "src" and "dst" match.
                 // Null in "srcNode" means that we should initialize everything that we can in "dstNode"
                 // unconditionally. It's only possible if we pass it as a source as well.
-                addDefaults(srcNode == null ? dstNode : srcNode, dstNode);
+                if (srcNode == null)
+                    addDefaults(dstNode, null, dstNode);
+                else
+                    addDefaults(srcNode, changesNode, dstNode);
 
                 return null;
             }
 
             @Override public <N extends InnerNode> Object visitNamedListNode(String key, NamedListNode<N> srcNamedList) {
+                NamedListNode<?> changesNamedList = changes == null ? null : changes.traverseChild(key, new ConfigurationVisitor<>() {
+                    @Override public <N extends InnerNode> NamedListNode<?> visitNamedListNode(String key, NamedListNode<N> changesNode) {
+                        return changesNode;
+                    }
+                });
+
+                // Untouched named list, its elements are already completed with defaults.
+                if (changes != null && changesNamedList == null)
+                    return null;
+
                 // Here we don't need to preemptively initialise corresponsing field, because it can never be null.
                 NamedListNode<?> dstNamedList = dst.traverseChild(key, new ConfigurationVisitor<>() {
                     @Override public <N extends InnerNode> NamedListNode<?> visitNamedListNode(String key, NamedListNode<N> dstNode) {
@@ -199,12 +673,27 @@ public class ConfigurationChanger {
                     }
                 });
 
-                for (String namedListKey : srcNamedList.namedListKeys()) {
+                // Only elements mentioned in the changes have to be processed.
+                Set<String> namedListKeys = changes == null
+                    ? srcNamedList.namedListKeys()
+                    : changesNamedList.namedListKeys();
+
+                for (String namedListKey : namedListKeys) {
+                    N srcElement = srcNamedList.get(namedListKey);
+
+                    // Deleted element.
+                    if (srcElement == null)
+                        continue;
+
                     // But, in order to get non-null value from "dstNamedList.get(namedListKey)" we must explicitly
                     // ensure its existance.
                     dstNamedList.construct(namedListKey, new ConfigurationSource() {});
 
-                    addDefaults(srcNamedList.get(namedListKey), dstNamedList.get(namedListKey));
+                    addDefaults(
+                        srcElement,
+                        changesNamedList == null ? null : changesNamedList.get(namedListKey),
+                        dstNamedList.get(namedListKey)
+                    );
                 }
 
                 return null;
@@ -229,16 +718,80 @@ public class ConfigurationChanger {
      * @param rootKey Root key.
      */
     public TraversableTreeNode getRootNode(RootKey<?> rootKey) {
-        return this.storagesRootsMap.get(rootKey.getStorageType()).roots.get(rootKey);
+        return rootHolder(rootKey).root();
+    }
+
+    /**
+     * Returns holder of the latest version of the root. Same instance is returned for the same root key.
+     *
+     * @param rootKey Root key.
+     * @return Root holder.
+     */
+    public RootHolder rootHolder(RootKey<?> rootKey) {
+        return rootHolders.computeIfAbsent(rootKey, k -> new RootHolder(null, () -> materialize(k)));
+    }
+
+    /**
+     * @return Notifier of property listeners.
+     */
+    public ConfigurationNotifier notifier() {
+        return notifier;
+    }
+
+    /**
+     * @return Metrics of the changer.
+     */
+    public ConfigurationChangerMetrics metrics() {
+        return metrics;
+    }
+
+    /**
+     * Stops the changer: fails all pending changes and shuts down executors. Changes that are being written to the
+     * storage at the moment may never be completed.
+     */
+    public void stop() {
+        stopped = true;
+
+        for (ChangesQueue queue : changesQueues.values())
+            queue.stop();
+
+        ConfigurationChangeException err = new ConfigurationChangeException("Configuration changer is stopped.");
+
+        for (VersionWaiters waiters : versionWaiters.values()) {
+            for (CompletableFuture<Void> fut : waiters.stop(err))
+                fut.completeExceptionally(err);
+        }
+
+        for (ExecutorService executor : executors)
+            executor.shutdownNow();
+    }
+
+    /**
+     * Creates executor according to the execution mode and registers it to be shut down on {@link #stop()}.
+     *
+     * @param threadName Name of the threads.
+     * @return Executor.
+     */
+    private Executor createExecutor(String threadName) {
+        Executor executor = executionMode.createExecutor(threadName);
+
+        if (executor instanceof ExecutorService)
+            executors.add((ExecutorService)executor);
+
+        return executor;
     }
 
     /**
-     * Change configuration.
+     * Change configuration. Returned future is completed when changes are written to the storage, storage roots
+     * returned by {@link #getRootNode(RootKey)} may still be older. Pass the version to
+     * {@link #awaitVersion(Class, long)} to read the changes.
+     *
      * @param changes Map of changes by root key.
+     * @return Future with the version of the storage that contains the changes, {@code 0} if there are no changes.
      */
-    public CompletableFuture<Void> change(Map<RootKey<?>, ? extends TraversableTreeNode> changes) {
+    public CompletableFuture<Long> change(Map<RootKey<?>, ? extends TraversableTreeNode> changes) {
         if (changes.isEmpty())
-            return CompletableFuture.completedFuture(null);
+            return CompletableFuture.completedFuture(0L);
 
         Set<Class<? extends ConfigurationStorage>> storagesTypes = changes.keySet().stream()
             .map(RootKey::getStorageType)
@@ -254,80 +807,522 @@ public class ConfigurationChanger {
 
         Class<? extends ConfigurationStorage> storageType = storagesTypes.iterator().next();
 
-        ConfigurationStorage storage = storageInstances.get(storageType);
+        if (stopped)
+            return CompletableFuture.failedFuture(new ConfigurationChangeException("Configuration changer is stopped."));
 
-        CompletableFuture<Void> fut = new CompletableFuture<>();
+        CompletableFuture<Long> fut = new CompletableFuture<>();
 
-        pool.execute(() -> change0(changes, storage, fut));
+        changesQueues.get(storageType).add(new ChangeRequest(changes, fut));
 
         return fut;
     }
 
     /**
-     * Internal configuration change method that completes provided future.
+     * Waits for the roots of the storage to reach the version, e.g. the one returned by {@link #change(Map)}. Roots
+     * are updated on storage notifications, listeners of the properties may be notified later.
+     *
+     * @param storageType Storage class.
+     * @param version Version of the storage.
+     * @return Future that is completed when roots of the storage of the version or a later one are published.
+     */
+    public CompletableFuture<Void> awaitVersion(Class<? extends ConfigurationStorage> storageType, long version) {
+        VersionWaiters waiters = versionWaiters.get(storageType);
+
+        if (waiters == null) {
+            return CompletableFuture.failedFuture(
+                new ConfigurationChangeException("Storage is not initialized: " + storageType.getName())
+            );
+        }
+
+        return waiters.await(version);
+    }
+
+    /**
+     * Applies changes to the roots and collects all the values that have to be written to the storage. Only the values
+     * that actually differ from the current ones are written, roots that the changes don't modify are skipped. Values
+     * that are explicitly set to their current values are only written if they are not in the storage yet, i.e. if the
+     * current values are defaults.
+     *
+     * @param roots Roots to apply changes to. Not modified.
+     * @param storedKeys Keys of the values that are in the storage.
      * @param changes Map of changes by root key.
-     * @param storage Storage instance.
-     * @param fut Future, that must be completed after changes are written to the storage.
+     * @param allChanges Sorted flat map to put values that have to be written. Defaults are not written, except for
+     *      the named list elements that would have no values in the storage otherwise.
+     * @param diffs Map to put minimal changes of the modified roots to.
+     * @return Patched roots by root key.
      */
-    private void change0(
+    private Map<RootKey<?>, InnerNode> patchRoots(
+        Map<RootKey<?>, InnerNode> roots,
+        PersistentHashMap<String, Boolean> storedKeys,
         Map<RootKey<?>, ? extends TraversableTreeNode> changes,
-        ConfigurationStorage storage,
-        CompletableFuture<?> fut
+        NavigableMap<String, Serializable> allChanges,
+        Map<RootKey<?>, InnerNode> diffs
     ) {
-        StorageRoots storageRoots = storagesRootsMap.get(storage.getClass());
-
-        Map<String, Serializable> allChanges = new HashMap<>();
+        Map<RootKey<?>, InnerNode> patchedRoots = new HashMap<>();
 
         for (Map.Entry<RootKey<?>, ? extends TraversableTreeNode> entry : changes.entrySet()) {
             RootKey<?> rootKey = entry.getKey();
             TraversableTreeNode change = entry.getValue();
 
-            // It's important to get the root from "roots" object rather then "storageRootMap" or "getRootNode(...)".
-            InnerNode currentRootNode = storageRoots.roots.get(rootKey);
+            InnerNode currentRootNode = roots.get(rootKey);
+
+            // Patched root shares all untouched subtrees with the current root, so the diff only visits the patch.
+            InnerNode patchedRootNode = ConfigurationUtil.patch(currentRootNode, change);
+
+            TreeDiff diff = TreeDiff.diff(rootKey, currentRootNode, patchedRootNode);
+
+            // Explicitly set defaults keep the values of the root, but they have to be stored, so that they don't
+            // follow the defaults of the schema anymore. Walk is proportional to the size of the change.
+            ((InnerNode)change).writeFlat(rootKey.key() + '.', currentRootNode, (key, val) -> {
+                if (val != null && !storedKeys.containsKey(key) && !diff.changedKeys().contains(key))
+                    allChanges.put(key, val);
+            });
+
+            // Re-applied values, nothing to validate.
+            if (diff.isEmpty())
+                continue;
+
+            InnerNode minimalChange = diff.changes();
 
-            // These are changes explicitly provided by the client.
-            allChanges.putAll(nodeToFlatMap(rootKey, currentRootNode, change));
+            // These are the values that differ from the current ones.
+            allChanges.putAll(diff.values());
 
             // It is necessary to reinitialize default values every time.
             // Possible use case that explicitly requires it: creation of the same named list entry with slightly
             // different set of values and different dynamic defaults at the same time.
-            InnerNode patchedRootNode = ConfigurationUtil.patch(currentRootNode, change);
+            // Only the subtrees touched by the minimal change are visited during defaults calculation.
             InnerNode defaultsNode = rootKey.createRootNode();
 
-            addDefaults(patchedRootNode, defaultsNode);
+            addDefaults(patchedRootNode, minimalChange, defaultsNode);
+
+            // Defaults are resolved in memory and never written, but the named list element that is created
+            // without explicit values has to be written with its defaults, otherwise it won't exist in the storage.
+            List<String> createdElements = new ArrayList<>();
+
+            collectCreatedElements(rootKey.key() + ".", currentRootNode, minimalChange, createdElements);
+
+            if (!createdElements.isEmpty()) {
+                NavigableMap<String, Serializable> defaults = new TreeMap<>();
+
+                defaultsNode.writeFlat(rootKey.key() + '.', patchedRootNode, defaults::put);
+
+                // Both maps are sorted, so only the keys of the element itself are visited.
+                for (String prefix : createdElements) {
+                    String end = prefix + Character.MAX_VALUE;
+
+                    if (allChanges.subMap(prefix, end).isEmpty())
+                        allChanges.putAll(defaults.subMap(prefix, end));
+                }
+            }
 
-            // These are default values for non-initialized values, required to complete the configuration.
-            //TODO IGNITE-14183 Take these defaults into account during validation.
-            allChanges.putAll(nodeToFlatMap(rootKey, patchedRootNode, defaultsNode));
+            // Validation and later requests of the batch have to see the defaults as well.
+            patchedRoots.put(rootKey, ConfigurationUtil.patch(patchedRootNode, defaultsNode));
+
+            diffs.put(rootKey, minimalChange);
         }
 
-        // Unlikely but still possible.
-        if (allChanges.isEmpty()) {
-            fut.complete(null);
+        return patchedRoots;
+    }
+
+    /**
+     * Collects key prefixes of named list elements that are created by the changes. Nested elements precede the
+     * elements that contain them.
+     *
+     * @param prefix Key prefix of the nodes, ending with a dot.
+     * @param cur Current node, or {@code null} if it doesn't exist yet.
+     * @param changes Changes of the node.
+     * @param res List to put prefixes to.
+     */
+    private static void collectCreatedElements(String prefix, InnerNode cur, InnerNode changes, List<String> res) {
+        changes.traverseChildren(new ConfigurationVisitor<Void>() {
+            /** {@inheritDoc} */
+            @Override public Void visitInnerNode(String key, InnerNode changesNode) {
+                if (changesNode != null)
+                    collectCreatedElements(prefix + key + ".", cur == null ? null : innerChild(cur, key), changesNode, res);
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public <N extends InnerNode> Void visitNamedListNode(String key, NamedListNode<N> changesList) {
+                NamedListNode<?> curList = cur == null ? null : cur.traverseChild(key, new ConfigurationVisitor<>() {
+                    @Override public <M extends InnerNode> NamedListNode<?> visitNamedListNode(
+                        String key,
+                        NamedListNode<M> node
+                    ) {
+                        return node;
+                    }
+                });
+
+                for (String namedListKey : changesList.namedListKeys()) {
+                    N changesElement = changesList.get(namedListKey);
+
+                    // Deleted element.
+                    if (changesElement == null)
+                        continue;
+
+                    InnerNode curElement = curList == null ? null : curList.get(namedListKey);
+
+                    String elementPrefix = prefix + key + "." + ConfigurationUtil.escape(namedListKey) + ".";
+
+                    collectCreatedElements(elementPrefix, curElement, changesElement, res);
+
+                    if (curElement == null)
+                        res.add(elementPrefix);
+                }
+
+                return null;
+            }
+        });
+    }
+
+    /**
+     * @param node Inner node.
+     * @param key Key of the inner child node.
+     * @return Inner child node.
+     */
+    private static InnerNode innerChild(InnerNode node, String key) {
+        return node.traverseChild(key, new ConfigurationVisitor<>() {
+            @Override public InnerNode visitInnerNode(String key, InnerNode child) {
+                return child;
+            }
+        });
+    }
+
+    /**
+     * Queue of change requests for a single storage. Requests are processed in batches: all pending requests (up to
+     * {@link #maxBatchSize}) are applied one after another to the same roots and written to the storage with a single
+     * CAS. Requests that fail validation are excluded from the batch and failed individually. Only one batch per
+     * storage is processed at a time, so concurrent writers of the same storage don't compete with each other.
+     */
+    private final class ChangesQueue {
+        /** Storage instance. */
+        private final ConfigurationStorage storage;
+
+        /** Pending requests. */
+        private final Queue<ChangeRequest> queue = new ConcurrentLinkedQueue<>();
+
+        /** Whether there's a batch being processed or scheduled for processing. */
+        private final AtomicBoolean processing = new AtomicBoolean();
+
+        /** Executor of all the processing steps. */
+        private final Executor executor;
+
+        /**
+         * @param storage Storage instance.
+         */
+        ChangesQueue(ConfigurationStorage storage) {
+            this.storage = storage;
+
+            Executor executor = createExecutor("config-changer-" + storage.getClass().getSimpleName());
+
+            this.executor = metrics.instrument(executor);
+        }
+
+        /**
+         * Enqueues change request.
+         *
+         * @param req Change request.
+         */
+        void add(ChangeRequest req) {
+            metrics.onEnqueued();
+
+            queue.add(req);
+
+            schedule();
+        }
+
+        /**
+         * Fails all pending requests.
+         */
+        void stop() {
+            for (ChangeRequest req; (req = queue.poll()) != null; ) {
+                metrics.onDequeued();
+
+                complete(req, 0, new ConfigurationChangeException("Configuration changer is stopped."));
+            }
+        }
+
+        /**
+         * Schedules processing of the next batch if there are pending requests and no batch is being processed.
+         */
+        private void schedule() {
+            if (queue.isEmpty() || !processing.compareAndSet(false, true))
+                return;
+
+            long linger = batchLingerMillis;
+
+            executor(linger).execute(this::processNextBatch);
+        }
+
+        /**
+         * Polls pending requests and writes them to the storage. Schedules the next batch when the write is complete.
+         */
+        private void processNextBatch() {
+            int maxSize = maxBatchSize;
+
+            List<ChangeRequest> batch = new ArrayList<>(Math.min(maxSize, queue.size()));
+
+            for (ChangeRequest req; batch.size() < maxSize && (req = queue.poll()) != null; ) {
+                metrics.onDequeued();
+
+                batch.add(req);
+            }
+
+            if (batch.isEmpty()) {
+                processing.set(false);
+
+                // Request could have been enqueued after the last poll, but before the flag was reset.
+                schedule();
+            }
+            else
+                writeBatch(batch, 0);
+        }
+
+        /**
+         * Applies all requests of the batch to the current roots and writes the result to the storage. Repeats the
+         * process if storage has been concurrently modified. Unexpected errors fail the requests of the batch that
+         * haven't been completed yet, so the queue proceeds to the next batch anyway.
+         *
+         * @param batch Batch of requests.
+         * @param attempt Number of failed attempts to write the batch.
+         */
+        private void writeBatch(List<ChangeRequest> batch, int attempt) {
+            try {
+                writeBatch0(batch, attempt);
+            }
+            catch (RuntimeException e) {
+                complete(batch, 0, new ConfigurationChangeException("Failed to change configuration", e));
+
+                executor.execute(this::processNextBatch);
+            }
+        }
+
+        /**
+         * Applies all requests of the batch to the current roots and writes the result to the storage.
+         *
+         * @param batch Batch of requests.
+         * @param attempt Number of failed attempts to write the batch.
+         */
+        private void writeBatch0(List<ChangeRequest> batch, int attempt) {
+            StorageRoots storageRoots = storagesRootsMap.get(storage.getClass());
+
+            // It's important to get the roots from "storageRoots" object rather then "getRootNode(...)".
+            Map<RootKey<?>, InnerNode> roots = new HashMap<>(storageRoots.roots);
+
+            // Changed roots that haven't been materialized yet are built for the batch only. Storage notification
+            // about the write will patch their raw values, like for any other write.
+            for (ChangeRequest req : batch) {
+                for (RootKey<?> rootKey : req.changes.keySet()) {
+                    Data rawRoot = storageRoots.rawRoots.get(rootKey);
+
+                    if (rawRoot != null && !roots.containsKey(rootKey))
+                        roots.put(rootKey, buildRoot(rootKey, rawRoot));
+                }
+            }
+
+            Map<String, Serializable> allChanges = new HashMap<>();
 
-            return;
+            List<ChangeRequest> accepted = new ArrayList<>(batch.size());
+
+            for (ChangeRequest req : batch) {
+                NavigableMap<String, Serializable> reqChanges = new TreeMap<>();
+
+                Map<RootKey<?>, InnerNode> reqDiffs = new HashMap<>();
+
+                Map<RootKey<?>, InnerNode> patchedRoots;
+
+                List<ValidationIssue> validationIssues;
+
+                try {
+                    patchedRoots = patchRoots(roots, storageRoots.storedKeys, req.changes, reqChanges, reqDiffs);
+
+                    // Leaves that keep their values don't have to be validated again.
+                    validationIssues = validate(roots, patchedRoots, reqDiffs, req.changes).issues();
+                }
+                catch (RuntimeException e) {
+                    complete(req, 0, new ConfigurationChangeException("Failed to change configuration", e));
+
+                    continue;
+                }
+
+                if (!validationIssues.isEmpty()) {
+                    complete(req, 0, new ConfigurationValidationException(validationIssues));
+
+                    continue;
+                }
+
+                // Later requests of the batch override values of the earlier ones.
+                roots.putAll(patchedRoots);
+                allChanges.putAll(reqChanges);
+
+                accepted.add(req);
+            }
+
+            // Nothing to write, e.g. all requests re-apply current values, that are already in the known version.
+            if (allChanges.isEmpty()) {
+                complete(accepted, storageRoots.version, null);
+
+                executor.execute(this::processNextBatch);
+
+                return;
+            }
+
+            write(accepted, allChanges, storageRoots.version, attempt);
+        }
+
+        /**
+         * Writes already calculated changes of the batch to the storage.
+         *
+         * @param batch Batch of requests.
+         * @param allChanges Values to write.
+         * @param version Version of the storage that changes have been calculated for.
+         * @param attempt Number of failed attempts to write the batch.
+         */
+        private void write(List<ChangeRequest> batch, Map<String, Serializable> allChanges, long version, int attempt) {
+            CompletableFuture<Long> writeFut;
+
+            try {
+                writeFut = storage.writeVersioned(allChanges, version);
+            }
+            catch (RuntimeException e) {
+                // Not only StorageException, any error of the storage fails the batch rather than the queue.
+                writeFut = CompletableFuture.failedFuture(e);
+            }
+
+            writeFut.whenCompleteAsync((newVersion, throwable) -> {
+                if (throwable != null)
+                    complete(batch, 0, new ConfigurationChangeException("Failed to change configuration", throwable));
+                else if (newVersion != null)
+                    complete(batch, newVersion, null);
+                else {
+                    retry(batch, allChanges, version, attempt + 1);
+
+                    return;
+                }
+
+                processNextBatch();
+            }, executor);
         }
 
-        ValidationResult validationResult = validate(storageRoots, changes);
+        /**
+         * Repeats the write that failed because the storage has been concurrently modified. If storage tracks its
+         * changes and concurrent modifications don't intersect with the batch then the same values are written with
+         * the new version right away. Otherwise changes are recalculated after the backoff.
+         *
+         * @param batch Batch of requests.
+         * @param allChanges Values that have failed to be written.
+         * @param version Version of the storage that changes have been calculated for.
+         * @param attempt Number of failed attempts to write the batch.
+         */
+        private void retry(List<ChangeRequest> batch, Map<String, Serializable> allChanges, long version, int attempt) {
+            if (storage instanceof ChangesTrackingConfigurationStorage) {
+                Data concurrentChanges;
+
+                try {
+                    concurrentChanges = ((ChangesTrackingConfigurationStorage)storage).changesSince(version);
+                }
+                catch (RuntimeException ignored) {
+                    concurrentChanges = null;
+                }
+
+                // Validators only depend on the changed leaves and their siblings, and concurrent changes of those
+                // are conflicts, so validation doesn't have to be repeated either.
+                if (concurrentChanges != null && !conflicts(allChanges.keySet(), concurrentChanges.values().keySet())) {
+                    write(batch, allChanges, concurrentChanges.version(), attempt);
 
-        List<ValidationIssue> validationIssues = validationResult.issues();
+                    return;
+                }
+            }
 
-        if (!validationIssues.isEmpty()) {
-            fut.completeExceptionally(new ConfigurationValidationException(validationIssues));
+            long backoff = attempt == 1 ? 0 : Math.min(1L << (attempt - 2), MAX_RETRY_BACKOFF_MILLIS);
 
-            return;
+            executor(backoff).execute(() -> writeBatch(batch, attempt));
+        }
+
+        /**
+         * @param batch Batch of requests.
+         * @param version Version of the storage that contains the changes, ignored if requests have failed.
+         * @param err Error to fail requests with or {@code null} if requests have been completed successfully.
+         */
+        private void complete(List<ChangeRequest> batch, long version, Throwable err) {
+            for (ChangeRequest req : batch)
+                complete(req, version, err);
         }
 
-        CompletableFuture<Boolean> writeFut = storage.write(allChanges, storageRoots.version);
+        /**
+         * @param req Request.
+         * @param version Version of the storage that contains the changes, ignored if request has failed.
+         * @param err Error to fail the request with or {@code null} if request has been completed successfully.
+         *      Ignored if request has already been completed.
+         */
+        private void complete(ChangeRequest req, long version, Throwable err) {
+            if (req.completed)
+                return;
+
+            req.completed = true;
 
-        writeFut.whenCompleteAsync((casResult, throwable) -> {
-            if (throwable != null)
-                fut.completeExceptionally(new ConfigurationChangeException("Failed to change configuration", throwable));
-            else if (casResult)
-                fut.complete(null);
+            metrics.onCompleted();
+
+            if (err == null)
+                req.fut.complete(version);
             else
-                change0(changes, storage, fut);
-        }, pool);
+                req.fut.completeExceptionally(err);
+        }
+
+        /**
+         * @param delay Delay in milliseconds.
+         * @return Executor that executes tasks after the delay.
+         */
+        private Executor executor(long delay) {
+            return delay > 0 ? CompletableFuture.delayedExecutor(delay, MILLISECONDS, executor) : executor;
+        }
+    }
+
+    /**
+     * Checks whether concurrently changed keys conflict with the keys of the change. Change reads all the nodes on the
+     * paths to the written leaves (to patch them and to calculate defaults), so the conflict is either a write of the
+     * same key or a write of any leaf of such node. Changes of other leaves, named list elements and roots don't
+     * affect the change.
+     *
+     * @param writtenKeys Escaped keys written by the change.
+     * @param changedKeys Escaped keys changed concurrently.
+     * @return {@code true} if keys conflict.
+     */
+    private static boolean conflicts(Set<String> writtenKeys, Set<String> changedKeys) {
+        Set<String> readKeys = new HashSet<>();
+
+        for (String key : writtenKeys) {
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+
+                if (c == '\\')
+                    i++;
+                else if (c == '.')
+                    readKeys.add(key.substring(0, i));
+            }
+        }
+
+        for (String key : changedKeys) {
+            if (writtenKeys.contains(key))
+                return true;
+
+            int lastDot = -1;
+
+            for (int i = 0; i < key.length(); i++) {
+                char c = key.charAt(i);
+
+                if (c == '\\')
+                    i++;
+                else if (c == '.')
+                    lastDot = i;
+            }
+
+            if (lastDot >= 0 && readKeys.contains(key.substring(0, lastDot)))
+                return true;
+        }
+
+        return false;
     }
 
     /**
@@ -338,82 +1333,146 @@ public class ConfigurationChanger {
     private void updateFromListener(
         Class<? extends ConfigurationStorage> storageType,
         Data changedEntries
+    ) {
+        synchronized (publishMux) {
+            updateFromListener0(storageType, changedEntries);
+        }
+
+        // Waiters are completed after the roots are published, so they read the changes of the version.
+        for (CompletableFuture<Void> fut : versionWaiters.get(storageType).advance(changedEntries.version()))
+            fut.complete(null);
+    }
+
+    /**
+     * Update configuration from storage listener, called under the {@link #publishMux}.
+     * @param storageType Type of the storage that propagated these changes.
+     * @param changedEntries Changed data.
+     */
+    private void updateFromListener0(
+        Class<? extends ConfigurationStorage> storageType,
+        Data changedEntries
     ) {
         StorageRoots oldStorageRoots = this.storagesRootsMap.get(storageType);
 
+        // Old roots for the notifier, including the ones that are materialized by this update.
+        Map<RootKey<?>, InnerNode> oldRoots = new HashMap<>(oldStorageRoots.roots);
+
         Map<RootKey<?>, InnerNode> storageRootsMap = new HashMap<>(oldStorageRoots.roots);
 
-        Map<String, ?> dataValuesPrefixMap = ConfigurationUtil.toPrefixMap(changedEntries.values());
+        Map<RootKey<?>, Data> rawRoots = new HashMap<>(oldStorageRoots.rawRoots);
+
+        NavigableMap<String, Serializable> sortedChanges = new TreeMap<>(changedEntries.values());
+
+        for (Map.Entry<RootKey<?>, Data> entry : oldStorageRoots.rawRoots.entrySet()) {
+            RootKey<?> rootKey = entry.getKey();
+
+            NavigableMap<String, Serializable> rootChanges = rootRange(sortedChanges, rootKey);
+
+            if (rootChanges.isEmpty())
+                continue;
+
+            // Listeners need the old root to compare with, root nobody listens to only has its raw values patched.
+            if (notifier.hasListeners(rootKey.key())) {
+                InnerNode rootNode = buildRoot(rootKey, entry.getValue());
+
+                oldRoots.put(rootKey, rootNode);
+                storageRootsMap.put(rootKey, rootNode);
+
+                rawRoots.remove(rootKey);
+            }
+            else
+                rawRoots.put(rootKey, entry.getValue().patch(rootChanges, changedEntries.version()));
+        }
+
+        for (RootKey<?> rootKey : oldRoots.keySet()) {
+            NavigableMap<String, Serializable> rootChanges = rootRange(sortedChanges, rootKey);
 
-        compressDeletedEntries(dataValuesPrefixMap);
+            if (!rootChanges.isEmpty()) {
+                // Shallow copy of the frozen root, "readFlat" only copies nodes on the changed paths. Named list
+                // elements with null values are deleted.
+                InnerNode rootNode = oldRoots.get(rootKey).copy();
 
-        for (RootKey<?> rootKey : oldStorageRoots.roots.keySet()) {
-            Map<String, ?> rootPrefixMap = (Map<String, ?>)dataValuesPrefixMap.get(rootKey.key());
+                new FlatCursor(rootChanges, rootKey.key() + '.').read(rootNode);
 
-            if (rootPrefixMap != null) {
-                InnerNode rootNode = oldStorageRoots.roots.get(rootKey).copy();
+                // Changed subtrees have to be completed with defaults, because they are not in the storage. Nodes on
+                // the changed paths are already copied, so they can be completed in place.
+                InnerNode changesNode = rootKey.createRootNode();
 
-                ConfigurationUtil.fillFromPrefixMap(rootNode, rootPrefixMap);
+                new FlatCursor(rootChanges, rootKey.key() + '.').read(changesNode);
+
+                addDefaults(rootNode, changesNode, rootNode);
 
                 storageRootsMap.put(rootKey, rootNode);
             }
         }
 
-        StorageRoots storageRoots = new StorageRoots(storageRootsMap, changedEntries.version());
+        PersistentHashMap<String, Boolean> storedKeys = oldStorageRoots.storedKeys;
+
+        for (Map.Entry<String, Serializable> entry : changedEntries.values().entrySet()) {
+            storedKeys = entry.getValue() == null
+                ? storedKeys.remove(entry.getKey())
+                : storedKeys.put(entry.getKey(), Boolean.TRUE);
+        }
+
+        StorageRoots storageRoots = new StorageRoots(storageRootsMap, rawRoots, storedKeys, changedEntries.version());
 
         storagesRootsMap.put(storageType, storageRoots);
 
-        //TODO IGNITE-14180 Notify listeners.
+        storageRootsMap.forEach((rootKey, rootNode) -> {
+            RootHolder holder = rootHolder(rootKey);
+
+            if (holder.root != rootNode)
+                holder.root = rootNode;
+        });
+
+        notificationsQueues.get(storageType).enqueue(oldRoots, storageRoots.roots, storageRoots.version);
     }
 
     /**
-     * "Compress" prefix map - this means that deleted named list elements will be represented as a single {@code null}
-     * objects instead of a number of nullified configuration leaves.
-     *
-     * @param prefixMap Prefix map, constructed from the storage notification data or its subtree.
-     */
-    private void compressDeletedEntries(Map<String, ?> prefixMap) {
-        // Here we basically assume that if prefix subtree contains single null child then all its childrens are nulls.
-        Set<String> keysForRemoval = prefixMap.entrySet().stream()
-            .filter(entry ->
-                entry.getValue() instanceof Map && ((Map<?, ?>)entry.getValue()).containsValue(null)
-            )
-            .map(Map.Entry::getKey)
-            .collect(Collectors.toSet());
-
-        // Replace all such elements will nulls, signifying that these are deleted named list elements.
-        for (String key : keysForRemoval)
-            prefixMap.put(key, null);
+     * @param values Sorted values.
+     * @param rootKey Root key.
+     * @return View of the values of the root.
+     */
+    private static NavigableMap<String, Serializable> rootRange(
+        NavigableMap<String, Serializable> values,
+        RootKey<?> rootKey
+    ) {
+        String prefix = rootKey.key();
 
-        // Continue recursively.
-        for (Object value : prefixMap.values()) {
-            if (value instanceof Map)
-                compressDeletedEntries((Map<String, ?>)value);
-        }
+        // '/' follows '.', so the range contains exactly the keys of the root.
+        return values.subMap(prefix + '.', true, prefix + '/', false);
     }
 
     /**
-     * Validate configuration changes.
+     * Validate configuration changes. Only the changed leaves are validated, see {@link ChangesValidator}.
      *
-     * @param storageRoots Storage roots.
-     * @param changes Configuration changes.
+     * @param oldRoots Roots before the changes.
+     * @param patchedRoots Changed roots.
+     * @param diffs Minimal changes of the changed roots.
+     * @param changes Configuration changes as requested, for the configurators.
      * @return Validation results.
      */
-    // Will be used in the future, I promise (IGNITE-14183).
-    @SuppressWarnings("unused")
     private ValidationResult validate(
-        StorageRoots storageRoots,
+        Map<RootKey<?>, InnerNode> oldRoots,
+        Map<RootKey<?>, InnerNode> patchedRoots,
+        Map<RootKey<?>, InnerNode> diffs,
         Map<RootKey<?>, ? extends TraversableTreeNode> changes
     ) {
-        List<ValidationIssue> issues = new ArrayList<>();
+        Map<RootKey<?>, InnerNode> newRoots = new HashMap<>(oldRoots);
+
+        newRoots.putAll(patchedRoots);
+
+        List<ValidationIssue> issues = new ChangesValidator(oldRoots, newRoots).validate(diffs);
 
         for (Map.Entry<RootKey<?>, ? extends TraversableTreeNode> entry : changes.entrySet()) {
             RootKey<?> rootKey = entry.getKey();
             TraversableTreeNode changesForRoot = entry.getValue();
 
+            if (!diffs.containsKey(rootKey))
+                continue;
+
             final Configurator<?> configurator = configurators.get(rootKey);
 
-            // TODO IGNITE-14183 This will be fixed later
             if (configurator != null) {
                 List<ValidationIssue> list = configurator.validateChanges(changesForRoot);
                 issues.addAll(list);
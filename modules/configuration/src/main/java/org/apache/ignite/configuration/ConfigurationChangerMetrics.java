@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Metrics of the {@link ConfigurationChanger}, aggregated over all storages. Helps to choose
+ * {@link ConfigurationExecutionMode} and batching parameters.
+ */
+public final class ConfigurationChangerMetrics {
+    /** */
+    private final AtomicInteger queueDepth = new AtomicInteger();
+
+    /** */
+    private final AtomicInteger activeChanges = new AtomicInteger();
+
+    /** */
+    private final LongAdder executedTasks = new LongAdder();
+
+    /** */
+    private final LongAdder executionTimeNanos = new LongAdder();
+
+    /** */
+    private final AtomicLong maxExecutionTimeNanos = new AtomicLong();
+
+    /** Package-private constructor, metrics are only created by the changer. */
+    ConfigurationChangerMetrics() {
+    }
+
+    /**
+     * @return Number of change requests waiting to be taken into a batch.
+     */
+    public int queueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return Number of change requests that have been taken into a batch, but not completed yet.
+     */
+    public int activeChanges() {
+        return activeChanges.get();
+    }
+
+    /**
+     * @return Number of tasks executed by the executors of the changer.
+     */
+    public long executedTasks() {
+        return executedTasks.sum();
+    }
+
+    /**
+     * @return Total execution time of all tasks in nanoseconds. Doesn't include time spent waiting for the storage.
+     */
+    public long executionTimeNanos() {
+        return executionTimeNanos.sum();
+    }
+
+    /**
+     * @return Maximal execution time of a single task in nanoseconds.
+     */
+    public long maxExecutionTimeNanos() {
+        return maxExecutionTimeNanos.get();
+    }
+
+    /**
+     * Called when change request is enqueued.
+     */
+    void onEnqueued() {
+        queueDepth.incrementAndGet();
+    }
+
+    /**
+     * Called when change request is taken into a batch.
+     */
+    void onDequeued() {
+        queueDepth.decrementAndGet();
+        activeChanges.incrementAndGet();
+    }
+
+    /**
+     * Called when change request is completed.
+     */
+    void onCompleted() {
+        activeChanges.decrementAndGet();
+    }
+
+    /**
+     * @param executor Executor.
+     * @return Executor that measures execution time of the tasks.
+     */
+    Executor instrument(Executor executor) {
+        return task -> executor.execute(() -> {
+            long start = System.nanoTime();
+
+            try {
+                task.run();
+            }
+            finally {
+                long time = System.nanoTime() - start;
+
+                executedTasks.increment();
+                executionTimeNanos.add(time);
+                maxExecutionTimeNanos.accumulateAndGet(time, Math::max);
+            }
+        });
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Defines threads that process configuration changes of a single storage: prepare and validate changes, write them to
+ * the storage and complete futures returned by {@link ConfigurationChanger#change(java.util.Map)}. Changes of a
+ * storage are never processed concurrently and never reordered regardless of the mode.
+ */
+public enum ConfigurationExecutionMode {
+    /** Dedicated thread per storage. Default mode. */
+    ORDERED {
+        /** {@inheritDoc} */
+        @Override Executor createExecutor(String threadName) {
+            return Executors.newSingleThreadExecutor(daemonThreadFactory(threadName));
+        }
+    },
+
+    /**
+     * New thread for every processing step, virtual one if JVM supports virtual threads. Suitable for storages with
+     * blocking I/O.
+     */
+    THREAD_PER_CHANGE {
+        /** {@inheritDoc} */
+        @Override Executor createExecutor(String threadName) {
+            try {
+                // Virtual threads are only available since Java 21.
+                return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            }
+            catch (ReflectiveOperationException ignored) {
+                return Executors.newCachedThreadPool(daemonThreadFactory(threadName));
+            }
+        }
+    },
+
+    /**
+     * Changes are processed by the thread that calls {@link ConfigurationChanger#change(java.util.Map)} or completes
+     * the storage write. No thread hand-offs, but the caller may end up processing changes of concurrent callers as
+     * well. Processing steps scheduled by a step are run after it rather than nested in it, so the stack doesn't grow
+     * with the number of batches processed by the caller. Suitable for latency sensitive embedded usage.
+     */
+    CALLER_RUNS {
+        /** {@inheritDoc} */
+        @Override Executor createExecutor(String threadName) {
+            return new TrampolineExecutor();
+        }
+    };
+
+    /**
+     * Creates executor for the storage. Executor is shut down by {@link ConfigurationChanger#stop()} if it's an
+     * {@link ExecutorService}.
+     *
+     * @param threadName Name of the threads.
+     * @return Executor.
+     */
+    abstract Executor createExecutor(String threadName);
+
+    /**
+     * Executor that runs tasks in the calling thread. Tasks submitted by the task that is being executed are queued and
+     * run in a loop after it completes.
+     */
+    private static final class TrampolineExecutor implements Executor {
+        /** Tasks queued by the current thread, {@code null} if it doesn't execute tasks of this executor. */
+        private final ThreadLocal<Queue<Runnable>> pending = new ThreadLocal<>();
+
+        /** {@inheritDoc} */
+        @Override public void execute(Runnable task) {
+            Queue<Runnable> queue = pending.get();
+
+            if (queue != null) {
+                queue.add(task);
+
+                return;
+            }
+
+            queue = new ArrayDeque<>();
+
+            pending.set(queue);
+
+            RuntimeException err = null;
+
+            try {
+                // Failure of one task doesn't prevent execution of the tasks it has queued.
+                for (Runnable next = task; next != null; next = queue.poll()) {
+                    try {
+                        next.run();
+                    }
+                    catch (RuntimeException e) {
+                        if (err == null)
+                            err = e;
+                        else
+                            err.addSuppressed(e);
+                    }
+                }
+            }
+            finally {
+                pending.remove();
+            }
+
+            if (err != null)
+                throw err;
+        }
+    }
+
+    /**
+     * @param threadName Name of the threads.
+     * @return Factory of daemon threads with given name.
+     */
+    private static ThreadFactory daemonThreadFactory(String threadName) {
+        return r -> {
+            Thread thread = new Thread(r, threadName);
+
+            thread.setDaemon(true);
+
+            return thread;
+        };
+    }
+}
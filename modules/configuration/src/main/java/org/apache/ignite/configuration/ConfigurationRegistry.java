@@ -17,15 +17,22 @@
 
 package org.apache.ignite.configuration;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 import org.apache.ignite.configuration.annotation.ConfigurationRoot;
 import org.apache.ignite.configuration.internal.DynamicConfiguration;
 import org.apache.ignite.configuration.internal.RootKeyImpl;
 import org.apache.ignite.configuration.storage.ConfigurationStorage;
+import org.apache.ignite.configuration.tree.ConfigurationSource;
+import org.apache.ignite.configuration.tree.ConstructableTreeNode;
 import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.SchemaDescriptor;
 
 /** */
 public class ConfigurationRegistry {
@@ -33,7 +40,24 @@ public class ConfigurationRegistry {
     private final Map<String, DynamicConfiguration<?, ?, ?>> configs = new HashMap<>();
 
     /** */
-    private final ConfigurationChanger changer = new ConfigurationChanger();
+    private final Map<String, RootKey<?>> rootKeys = new HashMap<>();
+
+    /** */
+    private final ConfigurationChanger changer;
+
+    /** Constructor. Changes are processed in {@link ConfigurationExecutionMode#ORDERED} mode. */
+    public ConfigurationRegistry() {
+        this(ConfigurationExecutionMode.ORDERED);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param executionMode Execution mode of the configuration changes.
+     */
+    public ConfigurationRegistry(ConfigurationExecutionMode executionMode) {
+        changer = new ConfigurationChanger(executionMode);
+    }
 
     /** */
     public void registerRootKey(RootKey<?> rootKey) {
@@ -41,6 +65,8 @@ public class ConfigurationRegistry {
 
         configs.put(rootKey.key(), (DynamicConfiguration<?, ?, ?>)rootKey.createPublicRoot(changer));
 
+        rootKeys.put(rootKey.key(), rootKey);
+
         //TODO IGNITE-14180 link these two entities.
     }
 
@@ -49,11 +75,80 @@ public class ConfigurationRegistry {
         changer.init(configurationStorage);
     }
 
+    /**
+     * Registers storages and initializes them concurrently, so startup is bounded by the slowest storage. Roots of the
+     * storages must be registered beforehand.
+     *
+     * @param storages Storages of different classes.
+     * @return Initialization times in nanoseconds by storage classes.
+     * @throws ConfigurationChangeException If failed to initialize any of the storages.
+     */
+    public Map<Class<? extends ConfigurationStorage>, Long> registerStorages(
+        ConfigurationStorage... storages
+    ) throws ConfigurationChangeException {
+        return changer.init(List.of(storages));
+    }
+
     /** */
     public <V, C, T extends ConfigurationTree<V, C>> T getConfiguration(RootKey<T> rootKey) {
         return (T)configs.get(rootKey.key());
     }
 
+    /**
+     * Applies changes from the source to the registered roots. Top level keys of the source are root names, values
+     * of unknown roots are ignored. Roots are changed in one request per storage.
+     *
+     * @param src Configuration source, {@link org.apache.ignite.configuration.internal.util.JsonConfigurationSource}
+     *      for example.
+     * @return Future that is completed when changes of all storages are applied and can be read from the registered
+     *      configurations.
+     */
+    public CompletableFuture<Void> change(ConfigurationSource src) {
+        RootsNode changes = new RootsNode(rootKeys);
+
+        src.descend(changes);
+
+        Map<Class<? extends ConfigurationStorage>, Map<RootKey<?>, InnerNode>> byStorage = new HashMap<>();
+
+        changes.roots.forEach((rootKey, node) ->
+            byStorage.computeIfAbsent(rootKey.getStorageType(), t -> new HashMap<>()).put(rootKey, node)
+        );
+
+        List<CompletableFuture<Void>> futs = new ArrayList<>();
+
+        byStorage.forEach((storageType, storageChanges) ->
+            futs.add(changer.change(storageChanges).thenCompose(version -> changer.awaitVersion(storageType, version)))
+        );
+
+        return CompletableFuture.allOf(futs.toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * Waits until the configurations of the storage reflect the version, so that the writer of the changes reads them
+     * without polling. Listeners of the configurations may be notified later.
+     *
+     * @param storageType Storage class.
+     * @param version Version of the storage, e.g. the one of the written changes.
+     * @return Future that is completed when configurations of the storage are updated to the version or a later one.
+     */
+    public CompletableFuture<Void> awaitVersion(Class<? extends ConfigurationStorage> storageType, long version) {
+        return changer.awaitVersion(storageType, version);
+    }
+
+    /**
+     * @return Metrics of the configuration changes processing.
+     */
+    public ConfigurationChangerMetrics changerMetrics() {
+        return changer.metrics();
+    }
+
+    /**
+     * Stops processing of the configuration changes and releases its threads.
+     */
+    public void stop() {
+        changer.stop();
+    }
+
     /**
      * Method to instantiate a new {@link RootKey} for your configuration root. Invoked in generated code only.
      * Does not register this root anywhere, used for static object initialization only.
@@ -61,14 +156,63 @@ public class ConfigurationRegistry {
      * @param rootName Name of the root as described in {@link ConfigurationRoot#rootName()}.
      * @param storageType Storage class as described in {@link ConfigurationRoot#storage()}.
      * @param rootSupplier Closure to instantiate internal configuration tree roots.
+     * @param schema Descriptor of the root schema.
      * @param publicRootCreator Function to create public user-facing tree instance.
      */
     public static <T extends ConfigurationTree<?, ?>> RootKey<T> newRootKey(
         String rootName,
         Class<? extends ConfigurationStorage> storageType,
         Supplier<InnerNode> rootSupplier,
+        SchemaDescriptor schema,
         BiFunction<RootKey<T>, ConfigurationChanger, T> publicRootCreator
     ) {
-        return new RootKeyImpl<>(rootName, storageType, rootSupplier, publicRootCreator);
+        return new RootKeyImpl<>(rootName, storageType, rootSupplier, schema, publicRootCreator);
+    }
+
+    /**
+     * Node whose keys are names of the registered roots and values are changes of the roots. Sources of unknown roots
+     * are ignored.
+     */
+    private static class RootsNode implements ConstructableTreeNode {
+        /** Registered root keys by names. */
+        private final Map<String, RootKey<?>> rootKeys;
+
+        /** Changes of the roots, created with {@link RootKey#createRootNode()} on first access. */
+        private final Map<RootKey<?>, InnerNode> roots = new HashMap<>();
+
+        /**
+         * @param rootKeys Registered root keys by names.
+         */
+        RootsNode(Map<String, RootKey<?>> rootKeys) {
+            this.rootKeys = rootKeys;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void construct(String key, ConfigurationSource src) {
+            RootKey<?> rootKey = rootKeys.get(key);
+
+            if (rootKey == null)
+                return;
+
+            if (src == null)
+                throw new IllegalArgumentException("Configuration root cannot be removed: " + key);
+
+            src.descend(roots.computeIfAbsent(rootKey, RootKey::createRootNode));
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean constructDefault(String key) throws NoSuchElementException {
+            // Roots are inner nodes, not leaves, so there are no default values on this level.
+            throw new NoSuchElementException(key);
+        }
+
+        /** {@inheritDoc} */
+        @Override public RootsNode copy() {
+            RootsNode copy = new RootsNode(rootKeys);
+
+            roots.forEach((rootKey, node) -> copy.roots.put(rootKey, node.copy()));
+
+            return copy;
+        }
     }
 }
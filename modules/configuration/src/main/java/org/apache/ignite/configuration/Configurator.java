@@ -19,19 +19,15 @@ package org.apache.ignite.configuration;
 
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 import org.apache.ignite.configuration.internal.DynamicConfiguration;
 import org.apache.ignite.configuration.internal.DynamicProperty;
-import org.apache.ignite.configuration.internal.validation.MemberKey;
 import org.apache.ignite.configuration.tree.TraversableTreeNode;
-import org.apache.ignite.configuration.validation.FieldValidator;
 import org.apache.ignite.configuration.validation.ValidationIssue;
 
 /**
- * Convenient wrapper for configuration root. Provides access to configuration tree, stores validators, performs actions
+ * Convenient wrapper for configuration root. Provides access to configuration tree, performs actions
  * on configuration such as initialized, change and view.
  * @param <T> Type of configuration root.
  */
@@ -39,9 +35,6 @@ public class Configurator<T extends DynamicConfiguration<?, ?, ?>> {
     /** Root of the configuration tree. */
     private final T root;
 
-    /** Configuration property validators. */
-    private final Map<MemberKey, List<FieldValidator<? extends Serializable, T>>> fieldValidators = new HashMap<>();
-
     /**
      *
      * @param rootBuilder
@@ -69,30 +62,6 @@ public class Configurator<T extends DynamicConfiguration<?, ?, ?>> {
         root = (T) built;
     }
 
-    /**
-     *
-     * @param aClass
-     * @param key
-     * @param validators
-     * @param <PROP>
-     */
-    public <PROP extends Serializable> void addValidations(
-        Class<? extends ConfigurationTree<?, ?>> aClass,
-        String key,
-        List<FieldValidator<? super PROP, ? extends ConfigurationTree<?, ?>>> validators
-    ) {
-        fieldValidators.put(new MemberKey(aClass, key), (List) validators);
-    }
-
-    /**
-     * Get all validators for given member key (class + field).
-     * @param key Member key.
-     * @return Validators.
-     */
-    public List<FieldValidator<? extends Serializable, T>> validators(MemberKey key) {
-        return fieldValidators.getOrDefault(key, Collections.emptyList());
-    }
-
     /**
      * Get configuration root.
      * @return Configuration root.
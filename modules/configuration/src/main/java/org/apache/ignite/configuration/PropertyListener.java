@@ -27,7 +27,8 @@ import java.io.Serializable;
  */
 public interface PropertyListener<VIEW extends Serializable, CHANGE extends Serializable> {
     /**
-     * Called before property value is updated.
+     * Called before property value is updated. Listeners are notified after the change has been written to the
+     * storage, so the result is ignored by the configuration engine.
      *
      * @param oldValue Previous value.
      * @param newValue New value.
@@ -58,4 +59,14 @@ public interface PropertyListener<VIEW extends Serializable, CHANGE extends Seri
         /* No-op */
     }
 
+    /**
+     * If several updates of the configuration are waiting to be delivered to listeners, then listener that collapses
+     * intermediate updates is notified only once, with the value before the first update and the value after the last
+     * one. Such listener never observes values that have already been overwritten.
+     *
+     * @return {@code true} if intermediate updates should be skipped.
+     */
+    default boolean collapseIntermediateUpdates() {
+        return false;
+    }
 }
@@ -19,6 +19,7 @@ package org.apache.ignite.configuration;
 
 import org.apache.ignite.configuration.storage.ConfigurationStorage;
 import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.SchemaDescriptor;
 
 /** */
 public abstract class RootKey<T extends ConfigurationTree<?, ?>> {
@@ -31,6 +32,11 @@ public abstract class RootKey<T extends ConfigurationTree<?, ?>> {
     /** */
     protected abstract InnerNode createRootNode();
 
+    /**
+     * @return Descriptor of the root schema, generated at compile time.
+     */
+    public abstract SchemaDescriptor schema();
+
     /** */
     protected abstract T createPublicRoot(ConfigurationChanger changer);
 }
@@ -0,0 +1,418 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.apache.ignite.configuration.tree.ConfigurationSource;
+import org.apache.ignite.configuration.tree.ConfigurationVisitor;
+import org.apache.ignite.configuration.tree.ConstructableTreeNode;
+import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.NamedListNode;
+
+import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.escape;
+
+/**
+ * Structural difference between two versions of the configuration root: a minimal change tree that turns the old root
+ * into the new one, and the flat map of the changed values in the storage format.
+ * <p/>
+ * Subtrees that are shared by both versions are skipped by reference, so the cost of the diff of a patched root is
+ * proportional to the size of the patch. Leaves are compared by the generated {@link InnerNode#leafEquals} without
+ * boxing. Elements that are removed from the named lists are deleted in the change tree, and all their leaves are
+ * {@code null} in the flat map.
+ */
+public final class TreeDiff {
+    /** Visitor that returns the inner node. */
+    private static final ConfigurationVisitor<InnerNode> INNER_NODE = new ConfigurationVisitor<>() {
+        /** {@inheritDoc} */
+        @Override public InnerNode visitInnerNode(String key, InnerNode node) {
+            return node;
+        }
+    };
+
+    /** Visitor that returns the named list node. */
+    private static final ConfigurationVisitor<NamedListNode<?>> NAMED_LIST_NODE = new ConfigurationVisitor<>() {
+        /** {@inheritDoc} */
+        @Override public <N extends InnerNode> NamedListNode<?> visitNamedListNode(String key, NamedListNode<N> node) {
+            return node;
+        }
+    };
+
+    /** Minimal change tree, {@code null} if the trees are equal. */
+    private final InnerNode changes;
+
+    /** Changed values by escaped dot-separated keys, {@code null} values for the removed leaves. */
+    private final Map<String, Serializable> values;
+
+    /**
+     * @param changes Minimal change tree.
+     * @param values Changed values.
+     */
+    private TreeDiff(InnerNode changes, Map<String, Serializable> values) {
+        this.changes = changes;
+        this.values = values;
+    }
+
+    /**
+     * Computes the difference between two versions of the root.
+     *
+     * @param rootKey Root key.
+     * @param oldRoot Old version of the root.
+     * @param newRoot New version of the root.
+     * @return Difference.
+     */
+    public static TreeDiff diff(RootKey<?> rootKey, InnerNode oldRoot, InnerNode newRoot) {
+        if (oldRoot == newRoot)
+            return new TreeDiff(null, Collections.emptyMap());
+
+        Map<String, Serializable> values = new HashMap<>();
+
+        InnerNode changes = rootKey.createRootNode();
+
+        boolean changed = diff(rootKey.key() + ".", oldRoot, newRoot, changes, values);
+
+        return new TreeDiff(changed ? changes : null, values);
+    }
+
+    /**
+     * @return {@code true} if the trees are equal.
+     */
+    public boolean isEmpty() {
+        return changes == null;
+    }
+
+    /**
+     * @return Minimal change tree, {@code null} if the trees are equal.
+     */
+    public InnerNode changes() {
+        return changes;
+    }
+
+    /**
+     * @return Changed values by escaped dot-separated keys, {@code null} values for the removed leaves. Can be empty
+     *      even if the trees are not, if the only difference is a named list element without values.
+     */
+    public Map<String, Serializable> values() {
+        return Collections.unmodifiableMap(values);
+    }
+
+    /**
+     * @return Escaped dot-separated keys of the changed leaves.
+     */
+    public Set<String> changedKeys() {
+        return Collections.unmodifiableSet(values.keySet());
+    }
+
+    /**
+     * Writes the difference of two nodes of the same class into the empty node.
+     *
+     * @param prefix Key prefix of the nodes, ending with a dot.
+     * @param oldNode Old node, {@code null} if the node is new.
+     * @param newNode New node.
+     * @param dst Empty node to construct the changes in.
+     * @param values Map to put the changed values to.
+     * @return {@code true} if there's any difference.
+     */
+    private static boolean diff(
+        String prefix,
+        InnerNode oldNode,
+        InnerNode newNode,
+        ConstructableTreeNode dst,
+        Map<String, Serializable> values
+    ) {
+        assert oldNode == null || oldNode.getClass() == newNode.getClass();
+
+        var visitor = new ConfigurationVisitor<Void>() {
+            /** Ordinal of the visited child. */
+            int ordinal;
+
+            /** */
+            boolean changed;
+
+            /** {@inheritDoc} */
+            @Override public Void visitLeafNode(String key, Serializable val) {
+                int i = ordinal++;
+
+                if (oldNode == null ? val == null : oldNode.leafEquals(i, newNode))
+                    return null;
+
+                dst.construct(key, val == null ? null : new LeafSource(val));
+
+                values.put(prefix + key, val);
+
+                changed = true;
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public Void visitInnerNode(String key, InnerNode node) {
+                InnerNode oldChild = oldNode == null ? null : oldNode.traverseChild(ordinal, INNER_NODE);
+
+                ordinal++;
+
+                if (equal(oldChild, node))
+                    return null;
+
+                // Inner nodes are never removed by changes, this only cleans up the leaves.
+                if (node == null)
+                    putNulls(prefix + key + ".", oldChild, values);
+                else
+                    dst.construct(key, new DiffSource(prefix + key + ".", oldChild, node, values));
+
+                changed = true;
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public <N extends InnerNode> Void visitNamedListNode(String key, NamedListNode<N> node) {
+                NamedListNode<?> oldList = oldNode == null ? null : oldNode.traverseChild(ordinal, NAMED_LIST_NODE);
+
+                ordinal++;
+
+                if (equal(oldList, node))
+                    return null;
+
+                dst.construct(key, new NamedListDiffSource(prefix + key + ".", oldList, node, values));
+
+                changed = true;
+
+                return null;
+            }
+        };
+
+        newNode.traverseChildren(visitor);
+
+        return visitor.changed;
+    }
+
+    /**
+     * Checks two nodes of the same class for equality.
+     *
+     * @param a First node.
+     * @param b Second node.
+     * @return {@code true} if nodes are equal.
+     */
+    private static boolean equal(InnerNode a, InnerNode b) {
+        if (a == b)
+            return true;
+
+        if (a == null || b == null)
+            return false;
+
+        var visitor = new ConfigurationVisitor<Void>() {
+            /** Ordinal of the visited child. */
+            int ordinal;
+
+            /** Remaining children are not compared once the difference is found. */
+            boolean equal = true;
+
+            /** {@inheritDoc} */
+            @Override public Void visitLeafNode(String key, Serializable val) {
+                int i = ordinal++;
+
+                if (equal)
+                    equal = a.leafEquals(i, b);
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public Void visitInnerNode(String key, InnerNode node) {
+                int i = ordinal++;
+
+                if (equal)
+                    equal = equal(a.traverseChild(i, INNER_NODE), node);
+
+                return null;
+            }
+
+            /** {@inheritDoc} */
+            @Override public <N extends InnerNode> Void visitNamedListNode(String key, NamedListNode<N> node) {
+                int i = ordinal++;
+
+                if (equal)
+                    equal = equal(a.traverseChild(i, NAMED_LIST_NODE), node);
+
+                return null;
+            }
+        };
+
+        b.traverseChildren(visitor);
+
+        return visitor.equal;
+    }
+
+    /**
+     * Checks two named lists of the same element class for equality.
+     *
+     * @param a First named list.
+     * @param b Second named list.
+     * @return {@code true} if named lists are equal.
+     */
+    private static boolean equal(NamedListNode<?> a, NamedListNode<?> b) {
+        if (a == b)
+            return true;
+
+        if (a == null || b == null || !a.namedListKeys().equals(b.namedListKeys()))
+            return false;
+
+        for (String key : b.namedListKeys()) {
+            if (!equal(a.get(key), b.get(key)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Puts {@code null} values for all the leaves of the removed node.
+     *
+     * @param prefix Key prefix of the node, ending with a dot.
+     * @param node Removed node.
+     * @param values Map to put the values to.
+     */
+    private static void putNulls(String prefix, InnerNode node, Map<String, Serializable> values) {
+        node.writeFlat(prefix, null, (key, val) -> values.put(key, null));
+    }
+
+    /** */
+    private static class LeafSource implements ConfigurationSource {
+        /** */
+        private final Serializable val;
+
+        /**
+         * @param val Value.
+         */
+        LeafSource(Serializable val) {
+            this.val = val;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <T> T unwrap(Class<T> clazz) {
+            assert clazz.isInstance(val);
+
+            return clazz.cast(val);
+        }
+
+        /** {@inheritDoc} */
+        @Override public void descend(ConstructableTreeNode node) {
+            throw new UnsupportedOperationException("descend");
+        }
+    }
+
+    /** Source that constructs the difference of two inner nodes. */
+    private static class DiffSource implements ConfigurationSource {
+        /** */
+        private final String prefix;
+
+        /** */
+        private final InnerNode oldNode;
+
+        /** */
+        private final InnerNode newNode;
+
+        /** */
+        private final Map<String, Serializable> values;
+
+        /**
+         * @param prefix Key prefix of the nodes, ending with a dot.
+         * @param oldNode Old node, {@code null} if the node is new.
+         * @param newNode New node.
+         * @param values Map to put the changed values to.
+         */
+        DiffSource(String prefix, InnerNode oldNode, InnerNode newNode, Map<String, Serializable> values) {
+            this.prefix = prefix;
+            this.oldNode = oldNode;
+            this.newNode = newNode;
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void descend(ConstructableTreeNode node) {
+            diff(prefix, oldNode, newNode, node, values);
+        }
+    }
+
+    /** Source that constructs the difference of two named lists. */
+    private static class NamedListDiffSource implements ConfigurationSource {
+        /** */
+        private final String prefix;
+
+        /** */
+        private final NamedListNode<?> oldList;
+
+        /** */
+        private final NamedListNode<?> newList;
+
+        /** */
+        private final Map<String, Serializable> values;
+
+        /**
+         * @param prefix Key prefix of the named lists, ending with a dot.
+         * @param oldList Old named list, {@code null} if the parent node is new.
+         * @param newList New named list.
+         * @param values Map to put the changed values to.
+         */
+        NamedListDiffSource(
+            String prefix,
+            NamedListNode<?> oldList,
+            NamedListNode<?> newList,
+            Map<String, Serializable> values
+        ) {
+            this.prefix = prefix;
+            this.oldList = oldList;
+            this.newList = newList;
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override public void descend(ConstructableTreeNode node) {
+            NamedListNode<?> dst = (NamedListNode<?>)node;
+
+            Set<String> newKeys = newList.namedListKeys();
+
+            for (String key : newKeys) {
+                InnerNode oldElement = oldList == null ? null : oldList.get(key);
+                InnerNode newElement = newList.get(key);
+
+                if (newElement == null || equal(oldElement, newElement))
+                    continue;
+
+                dst.construct(key, new DiffSource(prefix + escape(key) + ".", oldElement, newElement, values));
+            }
+
+            if (oldList == null)
+                return;
+
+            for (String key : oldList.namedListKeys()) {
+                InnerNode oldElement = oldList.get(key);
+
+                if (oldElement != null && (!newKeys.contains(key) || newList.get(key) == null)) {
+                    dst.delete(key);
+
+                    putNulls(prefix + escape(key) + ".", oldElement, values);
+                }
+            }
+        }
+    }
+}
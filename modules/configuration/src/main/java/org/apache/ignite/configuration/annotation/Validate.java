@@ -43,6 +43,17 @@ import static java.lang.annotation.RetentionPolicy.SOURCE;
  *     private String value;
  * }
  * </pre>
+ *
+ * Validators that read other fields of the configuration must declare them in {@link #dependsOn()}:
+ * <pre name="code" class="java">
+ * public class ConfSchema {
+ *     {@literal @}Value
+ *     private int min;
+ *
+ *     {@literal @}Validate(value = NotLessThanMinValidator.class, dependsOn = "min")
+ *     private int max;
+ * }
+ * </pre>
  */
 @Target({ FIELD })
 @Retention(SOURCE)
@@ -59,6 +70,14 @@ public @interface Validate {
      */
     String message() default "";
 
+    /**
+     * Names of other fields of the same schema that the validator reads. Validator is executed not only when the
+     * annotated field is changed, but also when any of these fields is changed.
+     *
+     * @return Names of the fields.
+     */
+    String[] dependsOn() default {};
+
     /**
      * Defines several {@link Validate} annotations on the same element.
      *
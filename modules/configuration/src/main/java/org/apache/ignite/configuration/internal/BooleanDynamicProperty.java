@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.configuration.internal;
+
+import java.util.List;
+import org.apache.ignite.configuration.ConfigurationChanger;
+import org.apache.ignite.configuration.ConfigurationProperty;
+import org.apache.ignite.configuration.BooleanConfigurationValue;
+import org.apache.ignite.configuration.BooleanPropertyListener;
+import org.apache.ignite.configuration.PropertyListener;
+import org.apache.ignite.configuration.RootKey;
+
+/**
+ * Holder for {@code boolean} property value.
+ */
+public class BooleanDynamicProperty extends DynamicProperty<Boolean> implements BooleanConfigurationValue {
+    /**
+     * Constructor.
+     * @param prefix Property prefix.
+     * @param key Property name.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} for roots and named list elements.
+     * @param rootKey Root key.
+     * @param changer Configuration changer.
+     */
+    public BooleanDynamicProperty(
+        List<String> prefix,
+        String key,
+        int ordinal,
+        RootKey<?> rootKey,
+        ConfigurationChanger changer
+    ) {
+        super(prefix, key, ordinal, rootKey, changer);
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean booleanValue() {
+        return refreshValue();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(BooleanPropertyListener listener) {
+        addListener(new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(Boolean newValue, ConfigurationProperty<Boolean, Boolean> modifier) {
+                if (newValue != null)
+                    listener.update(newValue);
+            }
+        });
+    }
+}
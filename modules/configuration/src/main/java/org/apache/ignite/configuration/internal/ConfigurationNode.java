@@ -17,21 +17,55 @@
 
 package org.apache.ignite.configuration.internal;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 import org.apache.ignite.configuration.ConfigurationChanger;
 import org.apache.ignite.configuration.RootKey;
+import org.apache.ignite.configuration.internal.util.ConfigurationPath;
 import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
 import org.apache.ignite.configuration.internal.util.KeyNotFoundException;
-import org.apache.ignite.configuration.tree.TraversableTreeNode;
+import org.apache.ignite.configuration.tree.ConfigurationSource;
+import org.apache.ignite.configuration.tree.ConfigurationVisitor;
+import org.apache.ignite.configuration.tree.ConstructableTreeNode;
+import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.NamedListNode;
 
 /**
  * Super class for dynamic configuration tree nodes. Has all common data and value retrieving algorithm in it.
  */
 public abstract class ConfigurationNode<VIEW> {
-    /** Full path to the current node. */
-    protected final List<String> keys;
+    /** Updater of the {@link #cached} field. */
+    @SuppressWarnings("unchecked")
+    private static final AtomicReferenceFieldUpdater<ConfigurationNode<?>, CachedValue> CACHED =
+        AtomicReferenceFieldUpdater.newUpdater(
+            (Class<ConfigurationNode<?>>)(Class<?>)ConfigurationNode.class,
+            CachedValue.class,
+            "cached"
+        );
+
+    /** Visitor that returns child node or leaf value. */
+    private static final ConfigurationVisitor<Object> CHILD_VISITOR = new ConfigurationVisitor<>() {
+        /** {@inheritDoc} */
+        @Override public Object visitLeafNode(String key, Serializable val) {
+            return val;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Object visitInnerNode(String key, InnerNode node) {
+            return node;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <N extends InnerNode> Object visitNamedListNode(String key, NamedListNode<N> node) {
+            return node;
+        }
+    };
+
+    /** Full path to the current node, with ordinals of the inner nodes' children if they are known. */
+    protected final ConfigurationPath keys;
 
     /** Name of the current node. Same as last element of {@link #keys}. */
     protected final String key;
@@ -42,94 +76,213 @@ public abstract class ConfigurationNode<VIEW> {
     /** Configuration changer instance to get latest value of the root. */
     protected final ConfigurationChanger changer;
 
+    /** Holder of the latest root, obtained once to avoid lookups on every read. */
+    private final ConfigurationChanger.RootHolder rootHolder;
+
     /**
-     * Cached value of current trees root. Useful to determine whether you have the latest configuration value or not.
+     * Ordinals of the inner nodes' children on the path from the root. Element {@code i} corresponds to the key
+     * {@code i + 1} of the {@link #keys}, it's {@code -1} for the keys of named list elements. Generated configuration
+     * classes pass ordinals to constructors, ordinals that are still unknown are resolved lazily on the first access.
+     * Racy resolution is fine, every thread writes the same values.
      */
-    private volatile TraversableTreeNode cachedRootNode;
-
-    /** Cached configuration value. Immutable. */
-    private VIEW val;
+    private final int[] ordinals;
 
     /**
-     * Validity flag. Configuration is declared invalid if it's a part of named list configuration and corresponding
-     * entry is already removed.
+     * Cached value together with the root it has been read from. Replaced as a whole, so it can be published without
+     * locks. Roots are immutable, so the root instance serves as a version of the value.
      */
-    private boolean invalid;
+    private volatile CachedValue cached = CachedValue.EMPTY;
 
     /**
      * Constructor.
      *
      * @param prefix Configuration prefix.
      * @param key Configuration key.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} for roots and named list elements.
      * @param rootKey Root key.
      * @param changer Configuration changer.
      */
-    protected ConfigurationNode(List<String> prefix, String key, RootKey<?> rootKey, ConfigurationChanger changer) {
-        this.keys = ConfigurationUtil.appendKey(prefix, key);
+    protected ConfigurationNode(
+        List<String> prefix,
+        String key,
+        int ordinal,
+        RootKey<?> rootKey,
+        ConfigurationChanger changer
+    ) {
+        this.keys = ConfigurationPath.of(prefix).append(key, ordinal);
         this.key = key;
         this.rootKey = rootKey;
         this.changer = changer;
 
         assert Objects.equals(rootKey.key(), keys.get(0));
+
+        rootHolder = changer.rootHolder(rootKey);
+
+        ordinals = new int[keys.size() - 1];
+
+        for (int i = 1; i < keys.size(); i++)
+            ordinals[i - 1] = keys.ordinal(i);
     }
 
     /**
-     * Returns latest value of the configuration or throws exception.
+     * Returns latest value of the configuration or throws exception. Steady state read, i.e. read of the unchanged
+     * root, consists of two volatile reads and doesn't allocate.
      *
      * @return Latest configuration value.
      * @throws NoSuchElementException If configuration is a part of already deleted named list configuration entry.
      */
+    @SuppressWarnings("unchecked")
     protected final VIEW refreshValue() throws NoSuchElementException {
-        if (invalid)
-            throw noSuchElementException();
+        while (true) {
+            CachedValue cached = this.cached;
 
-        TraversableTreeNode newRootNode = changer.getRootNode(rootKey);
-        TraversableTreeNode oldRootNode = cachedRootNode;
+            if (cached == CachedValue.INVALID)
+                throw noSuchElementException();
 
-        if (oldRootNode == newRootNode)
-            return val;
+            InnerNode root = rootHolder.root();
 
-        try {
-            VIEW newVal = (VIEW)ConfigurationUtil.find(keys.subList(1, keys.size()), newRootNode);
+            // Storage of the root hasn't been initialized yet.
+            if (root == null)
+                throw noSuchElementException();
 
-            synchronized (this) {
-                if (cachedRootNode == oldRootNode) {
-                    cachedRootNode = newRootNode;
+            if (cached.root == root)
+                return (VIEW)cached.val;
 
-                    beforeRefreshValue(newVal);
+            CachedValue newCached;
 
-                    return val = newVal;
-                }
-                else {
-                    if (invalid)
-                        throw noSuchElementException();
+            try {
+                newCached = new CachedValue(root, resolve(root));
+            }
+            catch (KeyNotFoundException e) {
+                newCached = CachedValue.INVALID;
+            }
 
-                    return val;
+            // Unchanged subtrees are shared between versions of the root, same node means no changes. Only the root
+            // has to be updated then, there's no need to block concurrent readers.
+            if (newCached.val == cached.val) {
+                if (CACHED.compareAndSet(this, cached, newCached))
+                    return (VIEW)newCached.val;
+            }
+            else {
+                synchronized (this) {
+                    // Callbacks must observe values in the order of root versions, stale value is never published.
+                    if (this.cached == cached && rootHolder.root() == root) {
+                        if (newCached != CachedValue.INVALID)
+                            beforeRefreshValue((VIEW)newCached.val);
+
+                        this.cached = newCached;
+                    }
                 }
             }
         }
-        catch (KeyNotFoundException e) {
-            synchronized (this) {
-                invalid = true;
+    }
+
+    /**
+     * Finds the value of the current node in the root, using ordinals instead of string keys where possible.
+     *
+     * @param root Root node.
+     * @return Value of the node, {@code null} if it's an absent named list element or a part of an absent inner node.
+     * @throws KeyNotFoundException If node is not found, e.g. it's a part of an absent named list element.
+     */
+    private Object resolve(InnerNode root) throws KeyNotFoundException {
+        Object node = root;
+
+        for (int i = 1; i < keys.size(); i++) {
+            // Inner node that hasn't been initialized yet, all its children are absent too.
+            if (node == null)
+                return null;
+
+            if (node instanceof InnerNode) {
+                InnerNode innerNode = (InnerNode)node;
 
-                cachedRootNode = newRootNode;
+                int ordinal = ordinals[i - 1];
+
+                try {
+                    if (ordinal < 0)
+                        ordinals[i - 1] = ordinal = innerNode.ordinal(keys.get(i));
+
+                    node = innerNode.traverseChild(ordinal, CHILD_VISITOR);
+                }
+                catch (NoSuchElementException e) {
+                    throw keyNotFoundException(i);
+                }
             }
+            else if (node instanceof NamedListNode) {
+                node = ((NamedListNode<?>)node).get(keys.get(i));
 
-            throw noSuchElementException();
+                if (node == null && i < keys.size() - 1)
+                    throw keyNotFoundException(i);
+            }
+            else
+                throw keyNotFoundException(i);
         }
+
+        return node;
+    }
+
+    /**
+     * Constructs the child of the node on the path to the current node. Child of the inner node is constructed by its
+     * ordinal if it's known.
+     *
+     * @param node Node on the path, its key is {@code level - 1}.
+     * @param level Index of the child's key.
+     * @param src Configuration source for the child.
+     */
+    protected final void constructChild(ConstructableTreeNode node, int level, ConfigurationSource src) {
+        int ordinal = ordinals[level - 1];
+
+        if (ordinal < 0)
+            node.construct(keys.get(level), src);
+        else
+            ((InnerNode)node).construct(ordinal, src);
+    }
+
+    /**
+     * @param i Index of the key that's not found.
+     * @return Exception instance with a proper error message.
+     */
+    private KeyNotFoundException keyNotFoundException(int i) {
+        return new KeyNotFoundException("Configuration '" + ConfigurationUtil.join(keys.subList(0, i + 1)) + "' is not found");
     }
 
     /**
      * @return Exception instance with a proper error message.
      */
     private NoSuchElementException noSuchElementException() {
-        return new NoSuchElementException(ConfigurationUtil.join(keys));
+        return new NoSuchElementException(keys.toString());
     }
 
     /**
-     * Callback from {@link #refreshValue()} that's called right before the update. Synchronized.
+     * Callback from {@link #refreshValue()} that's called right before the update. Synchronized. Not called if the
+     * node is the same object as before, because it means that its subtree hasn't changed.
      *
      * @param newValue New configuration value.
      */
     protected abstract void beforeRefreshValue(VIEW newValue);
+
+    /**
+     * Immutable pair of the root and the value read from it.
+     */
+    private static final class CachedValue {
+        /** Initial value that doesn't match any root. */
+        static final CachedValue EMPTY = new CachedValue(null, null);
+
+        /** Value of the configuration that has been deleted. */
+        static final CachedValue INVALID = new CachedValue(null, new Object());
+
+        /** Root. */
+        final InnerNode root;
+
+        /** Value. */
+        final Object val;
+
+        /**
+         * @param root Root.
+         * @param val Value.
+         */
+        CachedValue(InnerNode root, Object val) {
+            this.root = root;
+            this.val = val;
+        }
+    }
 }
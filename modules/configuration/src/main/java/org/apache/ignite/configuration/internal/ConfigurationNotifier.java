@@ -0,0 +1,406 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.internal;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.ignite.configuration.ConfigurationProperty;
+import org.apache.ignite.configuration.PropertyListener;
+import org.apache.ignite.configuration.RootKey;
+import org.apache.ignite.configuration.tree.ConfigurationVisitor;
+import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.NamedListNode;
+import org.apache.ignite.configuration.tree.TraversableTreeNode;
+
+/**
+ * Notifies property listeners about configuration updates. Listeners are kept in a trie of configuration keys, so that
+ * only listeners registered on the changed paths are visited. Trie is walked in parallel with the old and the new
+ * trees of the update, and subtrees that are the same objects in both trees are skipped, because subsequent versions of
+ * the roots share all unchanged subtrees.
+ * <p/>
+ * Listeners are notified asynchronously and strictly in the order of storage versions. If updates arrive faster than
+ * listeners consume them then all pending updates are delivered as a single batch. Listeners that
+ * {@link PropertyListener#collapseIntermediateUpdates() opt in} receive a single notification for the whole batch.
+ */
+public class ConfigurationNotifier {
+    /** Visitor that returns child node or leaf value. */
+    private static final ConfigurationVisitor<Object> CHILD_VISITOR = new ConfigurationVisitor<>() {
+        /** {@inheritDoc} */
+        @Override public Object visitLeafNode(String key, Serializable val) {
+            return val;
+        }
+
+        /** {@inheritDoc} */
+        @Override public Object visitInnerNode(String key, InnerNode node) {
+            return node;
+        }
+
+        /** {@inheritDoc} */
+        @Override public <N extends InnerNode> Object visitNamedListNode(String key, NamedListNode<N> node) {
+            return node;
+        }
+    };
+
+    /** Root of the listeners trie. Its children correspond to configuration roots. */
+    private final ListenersNode listeners = new ListenersNode();
+
+    /**
+     * Registers property listener.
+     *
+     * @param path Full path to the property.
+     * @param property Property itself, passed to the listener as a modifier.
+     * @param listener Listener.
+     */
+    public synchronized <T extends Serializable> void addListener(
+        List<String> path,
+        ConfigurationProperty<T, T> property,
+        PropertyListener<T, T> listener
+    ) {
+        ListenersNode node = listeners;
+
+        for (String key : path)
+            node = node.children.computeIfAbsent(key, k -> new ListenersNode());
+
+        node.registrations.add(new Registration<>(property, listener));
+    }
+
+    /**
+     * @param rootName Name of the configuration root.
+     * @return Whether there are listeners of the root or of any of its properties.
+     */
+    public boolean hasListeners(String rootName) {
+        return listeners.children.containsKey(rootName);
+    }
+
+    /**
+     * Creates queue of notifications for a single storage.
+     *
+     * @param executor Executor to deliver notifications with.
+     * @return Notifications queue.
+     */
+    public NotificationsQueue createQueue(Executor executor) {
+        return new NotificationsQueue(executor);
+    }
+
+    /**
+     * Queue of notifications for a single storage. Only one batch of notifications is delivered at a time.
+     */
+    public final class NotificationsQueue {
+        /** Executor. */
+        private final Executor executor;
+
+        /** Pending updates in the order of versions. */
+        private final Queue<RootsUpdate> queue = new ConcurrentLinkedQueue<>();
+
+        /** Whether there's a batch being delivered or scheduled for delivery. */
+        private final AtomicBoolean delivering = new AtomicBoolean();
+
+        /** Version of the last enqueued update. */
+        private volatile long lastVersion = Long.MIN_VALUE;
+
+        /**
+         * @param executor Executor.
+         */
+        private NotificationsQueue(Executor executor) {
+            this.executor = executor;
+        }
+
+        /**
+         * Enqueues notification about the new version of the roots. Must be called in the order of versions.
+         *
+         * @param oldRoots Previous roots.
+         * @param newRoots New roots.
+         * @param version Version of the new roots.
+         */
+        public void enqueue(Map<RootKey<?>, InnerNode> oldRoots, Map<RootKey<?>, InnerNode> newRoots, long version) {
+            assert version > lastVersion : "Versions are out of order [last=" + lastVersion + ", new=" + version + ']';
+
+            lastVersion = version;
+
+            queue.add(new RootsUpdate(oldRoots, newRoots));
+
+            schedule();
+        }
+
+        /**
+         * Schedules delivery of the next batch if there are pending updates and no batch is being delivered.
+         */
+        private void schedule() {
+            if (!queue.isEmpty() && delivering.compareAndSet(false, true))
+                executor.execute(this::deliverNextBatch);
+        }
+
+        /**
+         * Delivers all pending updates.
+         */
+        private void deliverNextBatch() {
+            try {
+                List<RootsUpdate> batch = new ArrayList<>();
+
+                for (RootsUpdate update; (update = queue.poll()) != null; )
+                    batch.add(update);
+
+                if (!batch.isEmpty())
+                    deliver(batch);
+            }
+            finally {
+                delivering.set(false);
+
+                // Update could have been enqueued after the last poll, but before the flag was reset.
+                schedule();
+            }
+        }
+    }
+
+    /**
+     * Delivers batch of updates. Listeners that collapse intermediate updates are notified together with the last
+     * update of the batch, with the old value taken from the first update.
+     *
+     * @param batch Batch of updates, in the order of versions.
+     */
+    private void deliver(List<RootsUpdate> batch) {
+        RootsUpdate last = batch.get(batch.size() - 1);
+
+        for (RootsUpdate update : batch) {
+            List<Event> events = new ArrayList<>();
+
+            if (batch.size() == 1)
+                collectEvents(update.oldRoots, update.newRoots, null, events);
+            else {
+                collectEvents(update.oldRoots, update.newRoots, Boolean.FALSE, events);
+
+                if (update == last) {
+                    // Roots are materialized lazily, so root may be missing from the old roots of the first update.
+                    Map<RootKey<?>, InnerNode> oldRoots = new HashMap<>();
+
+                    for (RootsUpdate u : batch)
+                        u.oldRoots.forEach(oldRoots::putIfAbsent);
+
+                    collectEvents(oldRoots, last.newRoots, Boolean.TRUE, events);
+                }
+            }
+
+            fire(events);
+        }
+    }
+
+    /**
+     * Collects events for the listeners of changed properties.
+     *
+     * @param oldRoots Old roots.
+     * @param newRoots New roots.
+     * @param collapsing Only listeners with this value of {@link PropertyListener#collapseIntermediateUpdates()} are
+     *      notified, or {@code null} if all of them are.
+     * @param events List to put events to.
+     */
+    private void collectEvents(
+        Map<RootKey<?>, InnerNode> oldRoots,
+        Map<RootKey<?>, InnerNode> newRoots,
+        Boolean collapsing,
+        List<Event> events
+    ) {
+        for (Map.Entry<RootKey<?>, InnerNode> entry : newRoots.entrySet()) {
+            ListenersNode node = listeners.children.get(entry.getKey().key());
+
+            if (node != null)
+                collectEvents(node, oldRoots.get(entry.getKey()), entry.getValue(), collapsing, events);
+        }
+    }
+
+    /**
+     * Walks listeners trie in parallel with the old and the new trees.
+     *
+     * @param node Listeners node.
+     * @param oldVal Old node or leaf value.
+     * @param newVal New node or leaf value.
+     * @param collapsing Required value of {@link PropertyListener#collapseIntermediateUpdates()} or {@code null}.
+     * @param events List to put events to.
+     */
+    private static void collectEvents(
+        ListenersNode node,
+        Object oldVal,
+        Object newVal,
+        Boolean collapsing,
+        List<Event> events
+    ) {
+        // Unchanged subtree is shared by both versions.
+        if (oldVal == newVal)
+            return;
+
+        if (!(newVal instanceof TraversableTreeNode) && !(oldVal instanceof TraversableTreeNode)) {
+            // Array leaves are compared by their contents, storage notifications always bring new instances.
+            if (Objects.deepEquals(oldVal, newVal))
+                return;
+
+            for (Registration<?> registration : node.registrations) {
+                if (collapsing == null || collapsing == registration.listener.collapseIntermediateUpdates())
+                    events.add(new Event(registration, (Serializable)oldVal, (Serializable)newVal));
+            }
+
+            return;
+        }
+
+        for (Map.Entry<String, ListenersNode> entry : node.children.entrySet()) {
+            String key = entry.getKey();
+
+            collectEvents(entry.getValue(), child(oldVal, key), child(newVal, key), collapsing, events);
+        }
+    }
+
+    /**
+     * @param node Inner node, named list node or {@code null}.
+     * @param key Key of the child.
+     * @return Child node, leaf value or {@code null}.
+     */
+    private static Object child(Object node, String key) {
+        if (node instanceof InnerNode)
+            return ((InnerNode)node).traverseChild(key, CHILD_VISITOR);
+
+        if (node instanceof NamedListNode)
+            return ((NamedListNode<?>)node).get(key);
+
+        return null;
+    }
+
+    /**
+     * Fires events of a single version: {@code beforeUpdate} of all listeners, then {@code update} of all listeners
+     * and then {@code afterUpdate}. Changes are already written to the storage at this point, so the result of
+     * {@code beforeUpdate} is ignored. Exception thrown by a listener doesn't affect other listeners and is passed to
+     * the uncaught exception handler of the current thread.
+     *
+     * @param events Events.
+     */
+    private static void fire(List<Event> events) {
+        for (Event event : events)
+            safeRun(() -> event.registration.beforeUpdate(event.oldVal, event.newVal));
+
+        for (Event event : events)
+            safeRun(() -> event.registration.update(event.newVal));
+
+        for (Event event : events)
+            safeRun(() -> event.registration.afterUpdate(event.newVal));
+    }
+
+    /**
+     * @param r Listener invocation.
+     */
+    private static void safeRun(Runnable r) {
+        try {
+            r.run();
+        }
+        catch (RuntimeException e) {
+            Thread thread = Thread.currentThread();
+
+            thread.getUncaughtExceptionHandler().uncaughtException(thread, e);
+        }
+    }
+
+    /**
+     * Node of the listeners trie.
+     */
+    private static final class ListenersNode {
+        /** Children by configuration keys. */
+        private final Map<String, ListenersNode> children = new ConcurrentHashMap<>();
+
+        /** Listeners registered on this path. */
+        private final List<Registration<?>> registrations = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Listener together with its property.
+     */
+    private static final class Registration<T extends Serializable> {
+        /** */
+        private final ConfigurationProperty<T, T> property;
+
+        /** */
+        private final PropertyListener<T, T> listener;
+
+        /** */
+        private Registration(ConfigurationProperty<T, T> property, PropertyListener<T, T> listener) {
+            this.property = property;
+            this.listener = listener;
+        }
+
+        /** */
+        @SuppressWarnings("unchecked")
+        private void beforeUpdate(Serializable oldVal, Serializable newVal) {
+            listener.beforeUpdate((T)oldVal, (T)newVal, property);
+        }
+
+        /** */
+        @SuppressWarnings("unchecked")
+        private void update(Serializable newVal) {
+            listener.update((T)newVal, property);
+        }
+
+        /** */
+        @SuppressWarnings("unchecked")
+        private void afterUpdate(Serializable newVal) {
+            listener.afterUpdate((T)newVal, property);
+        }
+    }
+
+    /**
+     * Pending notification of a single listener.
+     */
+    private static final class Event {
+        /** */
+        private final Registration<?> registration;
+
+        /** */
+        private final Serializable oldVal;
+
+        /** */
+        private final Serializable newVal;
+
+        /** */
+        private Event(Registration<?> registration, Serializable oldVal, Serializable newVal) {
+            this.registration = registration;
+            this.oldVal = oldVal;
+            this.newVal = newVal;
+        }
+    }
+
+    /**
+     * New version of the roots of a storage.
+     */
+    private static final class RootsUpdate {
+        /** */
+        private final Map<RootKey<?>, InnerNode> oldRoots;
+
+        /** */
+        private final Map<RootKey<?>, InnerNode> newRoots;
+
+        /** */
+        private RootsUpdate(Map<RootKey<?>, InnerNode> oldRoots, Map<RootKey<?>, InnerNode> newRoots) {
+            this.oldRoots = oldRoots;
+            this.newRoots = newRoots;
+        }
+    }
+}
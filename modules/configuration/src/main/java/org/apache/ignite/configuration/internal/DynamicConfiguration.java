@@ -17,7 +17,6 @@
 
 package org.apache.ignite.configuration.internal;
 
-import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -34,7 +33,6 @@ import org.apache.ignite.configuration.tree.ConfigurationSource;
 import org.apache.ignite.configuration.tree.ConstructableTreeNode;
 import org.apache.ignite.configuration.tree.InnerNode;
 import org.apache.ignite.configuration.validation.ConfigurationValidationException;
-import org.apache.ignite.configuration.validation.FieldValidator;
 
 /**
  * This class represents configuration root or node.
@@ -48,16 +46,18 @@ public abstract class DynamicConfiguration<VIEW, INIT, CHANGE> extends Configura
      * Constructor.
      * @param prefix Configuration prefix.
      * @param key Configuration key.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} for roots and named list elements.
      * @param rootKey Root key.
      * @param changer Configuration changer.
      */
     protected DynamicConfiguration(
         List<String> prefix,
         String key,
+        int ordinal,
         RootKey<?> rootKey,
         ConfigurationChanger changer
     ) {
-        super(prefix, key, rootKey, changer);
+        super(prefix, key, ordinal, rootKey, changer);
     }
 
     /**
@@ -69,23 +69,6 @@ public abstract class DynamicConfiguration<VIEW, INIT, CHANGE> extends Configura
         members.put(member.key(), member);
     }
 
-    /**
-     * Add new configuration member with validators.
-     * @param member Configuration member (leaf or node).
-     * @param validators Validators for new member.
-     * @param <PROP> Type of {@link DynamicProperty}.
-     * @param <M> Type of member.
-     */
-    protected <PROP extends Serializable, M extends DynamicProperty<PROP>> void add(
-        M member,
-        List<FieldValidator<? super PROP, ? extends ConfigurationTree<?, ?>>> validators
-    ) {
-        members.put(member.key(), member);
-
-        //TODO IGNITE-14183
-//        configurator.addValidations((Class<? extends ConfigurationTree<?, ?>>) getClass(), member.key(), validators);
-    }
-
     /** {@inheritDoc} */
     @Override public Future<Void> change(Consumer<CHANGE> change) throws ConfigurationValidationException {
         Objects.requireNonNull(change, "Configuration consumer cannot be null.");
@@ -99,21 +82,22 @@ public abstract class DynamicConfiguration<VIEW, INIT, CHANGE> extends Configura
         else {
             assert keys instanceof RandomAccess;
 
-            // Transform inner node closure into update tree.
-            rootNodeChange.construct(keys.get(1), new ConfigurationSource() {
+            // Transform inner node closure into update tree, children of inner nodes are constructed by ordinals.
+            constructChild(rootNodeChange, 1, new ConfigurationSource() {
                 private int level = 1;
 
                 @Override public void descend(ConstructableTreeNode node) {
                     if (++level == keys.size())
                         change.accept((CHANGE)node);
                     else
-                        node.construct(keys.get(level), this);
+                        constructChild(node, level, this);
                 }
             });
         }
 
-        // Use resulting tree as update request for the storage.
-        return changer.change(Map.of(rootKey, rootNodeChange));
+        // Use resulting tree as update request for the storage, value is read after the future is completed.
+        return changer.change(Map.of(rootKey, rootNodeChange))
+            .thenCompose(version -> changer.awaitVersion(((RootKeyImpl<?>)rootKey).getStorageType(), version));
     }
 
     /** {@inheritDoc} */
@@ -18,7 +18,6 @@
 package org.apache.ignite.configuration.internal;
 
 import java.io.Serializable;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -38,31 +37,31 @@ import org.apache.ignite.configuration.validation.ConfigurationValidationExcepti
  * Holder for property value. Expected to be used with numbers, strings and other immutable objects, e.g. IP addresses.
  */
 public class DynamicProperty<T extends Serializable> extends ConfigurationNode<T> implements ConfigurationProperty<T, T>, ConfigurationValue<T> {
-    /** Listeners of property update. */
-    private final List<PropertyListener<T, T>> updateListeners = new ArrayList<>();
-
     /**
      * Constructor.
      * @param prefix Property prefix.
      * @param key Property name.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} for roots and named list elements.
      * @param rootKey Root key.
      * @param changer Configuration changer.
      */
     public DynamicProperty(
         List<String> prefix,
         String key,
+        int ordinal,
         RootKey<?> rootKey,
         ConfigurationChanger changer
     ) {
-        super(prefix, key, rootKey, changer);
+        super(prefix, key, ordinal, rootKey, changer);
     }
 
     /**
-     * Add change listener to this property.
+     * Add change listener to this property. Listener is notified asynchronously after the change of the property is
+     * written to the storage.
      * @param listener Property change listener.
      */
     public void addListener(PropertyListener<T, T> listener) {
-        updateListeners.add(listener);
+        changer.notifier().addListener(keys, this, listener);
     }
 
     /** {@inheritDoc} */
@@ -79,14 +78,14 @@ public class DynamicProperty<T extends Serializable> extends ConfigurationNode<T
         assert keys instanceof RandomAccess;
         assert !keys.isEmpty();
 
-        // Transform leaf value into update tree.
-        rootNodeChange.construct(keys.get(1), new ConfigurationSource() {
+        // Transform leaf value into update tree, children of inner nodes are constructed by ordinals.
+        constructChild(rootNodeChange, 1, new ConfigurationSource() {
             private int level = 1;
 
             @Override public void descend(ConstructableTreeNode node) {
                 assert level < keys.size() - 1;
 
-                node.construct(keys.get(++level), this);
+                constructChild(node, ++level, this);
             }
 
             @Override public <T> T unwrap(Class<T> clazz) {
@@ -98,8 +97,9 @@ public class DynamicProperty<T extends Serializable> extends ConfigurationNode<T
             }
         });
 
-        // Use resulting tree as update request for the storage.
-        return changer.change(Map.of(rootKey, rootNodeChange));
+        // Use resulting tree as update request for the storage, value is read after the future is completed.
+        return changer.change(Map.of(rootKey, rootNodeChange))
+            .thenCompose(version -> changer.awaitVersion(((RootKeyImpl<?>)rootKey).getStorageType(), version));
     }
 
     /** {@inheritDoc} */
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.configuration.internal;
+
+import java.util.List;
+import org.apache.ignite.configuration.ConfigurationChanger;
+import org.apache.ignite.configuration.ConfigurationProperty;
+import org.apache.ignite.configuration.LongConfigurationValue;
+import org.apache.ignite.configuration.LongPropertyListener;
+import org.apache.ignite.configuration.PropertyListener;
+import org.apache.ignite.configuration.RootKey;
+
+/**
+ * Holder for {@code long} property value.
+ */
+public class LongDynamicProperty extends DynamicProperty<Long> implements LongConfigurationValue {
+    /**
+     * Constructor.
+     * @param prefix Property prefix.
+     * @param key Property name.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} for roots and named list elements.
+     * @param rootKey Root key.
+     * @param changer Configuration changer.
+     */
+    public LongDynamicProperty(
+        List<String> prefix,
+        String key,
+        int ordinal,
+        RootKey<?> rootKey,
+        ConfigurationChanger changer
+    ) {
+        super(prefix, key, ordinal, rootKey, changer);
+    }
+
+    /** {@inheritDoc} */
+    @Override public long longValue() {
+        return refreshValue();
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(LongPropertyListener listener) {
+        addListener(new PropertyListener<>() {
+            /** {@inheritDoc} */
+            @Override public void update(Long newValue, ConfigurationProperty<Long, Long> modifier) {
+                if (newValue != null)
+                    listener.update(newValue);
+            }
+        });
+    }
+}
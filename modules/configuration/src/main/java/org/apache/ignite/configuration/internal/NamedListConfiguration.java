@@ -46,6 +46,7 @@ public class NamedListConfiguration<T extends ConfigurationProperty<VIEW, CHANGE
      * Constructor.
      * @param prefix Configuration prefix.
      * @param key Configuration key.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} for roots and named list elements.
      * @param rootKey Root key.
      * @param changer Configuration changer.
      * @param creator Underlying configuration creator function.
@@ -53,10 +54,11 @@ public class NamedListConfiguration<T extends ConfigurationProperty<VIEW, CHANGE
     public NamedListConfiguration(
         List<String> prefix,
         String key,
+        int ordinal,
         RootKey<?> rootKey,
         ConfigurationChanger changer,
         BiFunction<List<String>, String, T> creator) {
-        super(prefix, key, rootKey, changer);
+        super(prefix, key, ordinal, rootKey, changer);
         this.creator = creator;
     }
 
@@ -24,6 +24,7 @@ import org.apache.ignite.configuration.ConfigurationTree;
 import org.apache.ignite.configuration.RootKey;
 import org.apache.ignite.configuration.storage.ConfigurationStorage;
 import org.apache.ignite.configuration.tree.InnerNode;
+import org.apache.ignite.configuration.tree.SchemaDescriptor;
 
 /** */
 public class RootKeyImpl<T extends ConfigurationTree<?, ?>> extends RootKey<T> {
@@ -36,6 +37,9 @@ public class RootKeyImpl<T extends ConfigurationTree<?, ?>> extends RootKey<T> {
     /** */
     private final Supplier<InnerNode> rootSupplier;
 
+    /** */
+    private final SchemaDescriptor schema;
+
     /** */
     private final BiFunction<RootKey<T>, ConfigurationChanger, T> publicRootCreator;
 
@@ -44,11 +48,13 @@ public class RootKeyImpl<T extends ConfigurationTree<?, ?>> extends RootKey<T> {
         String rootName,
         Class<? extends ConfigurationStorage> storageType,
         Supplier<InnerNode> rootSupplier,
+        SchemaDescriptor schema,
         BiFunction<RootKey<T>, ConfigurationChanger, T> publicRootCreator
     ) {
         this.rootName = rootName;
         this.storageType = storageType;
         this.rootSupplier = rootSupplier;
+        this.schema = schema;
         this.publicRootCreator = publicRootCreator;
     }
 
@@ -67,6 +73,11 @@ public class RootKeyImpl<T extends ConfigurationTree<?, ?>> extends RootKey<T> {
         return rootSupplier.get();
     }
 
+    /** {@inheritDoc} */
+    @Override public SchemaDescriptor schema() {
+        return schema;
+    }
+
     /** {@inheritDoc} */
     @Override protected T createPublicRoot(ConfigurationChanger changer) {
         return publicRootCreator.apply(this, changer);
@@ -0,0 +1,317 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.internal.util;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Immutable path to the configuration node, i.e. a list of unescaped keys starting with the root name. Serves as a
+ * random access list, so it can be passed anywhere the list of keys is expected.
+ * <p/>
+ * Escaped form of the path (see {@link ConfigurationUtil#escape(String)}) is used as a key in configuration storages.
+ * It is returned by {@link #toString()} and parsed by {@link #parse(String)}. Both escaped form and hash code are
+ * calculated once and cached.
+ * <p/>
+ * Path may also hold ordinals of the keys (see {@link org.apache.ignite.configuration.tree.InnerNode#ordinal(String)}),
+ * so that it's resolved in the tree without comparing strings. Ordinals are not a part of the path identity.
+ */
+public final class ConfigurationPath extends AbstractList<String> implements RandomAccess {
+    /** Path without any keys. */
+    public static final ConfigurationPath EMPTY = new ConfigurationPath(new String[0]);
+
+    /** Unescaped keys. */
+    private final String[] keys;
+
+    /** Ordinals of the keys, {@code -1} for unknown ones, or {@code null} if all of them are unknown. */
+    private final int[] ordinals;
+
+    /** Cached hash code, {@code 0} if not calculated yet. Benign data race, same as in {@link String}. */
+    private int hash;
+
+    /** Cached escaped form, {@code null} if not calculated yet. Benign data race. */
+    private String escaped;
+
+    /**
+     * @param keys Unescaped keys. Array is not copied.
+     */
+    private ConfigurationPath(String[] keys) {
+        this(keys, null);
+    }
+
+    /**
+     * @param keys Unescaped keys. Array is not copied.
+     * @param ordinals Ordinals of the keys or {@code null}. Array is not copied.
+     */
+    private ConfigurationPath(String[] keys, int[] ordinals) {
+        this.keys = keys;
+        this.ordinals = ordinals;
+    }
+
+    /**
+     * @param keys Unescaped keys.
+     * @return Path with given keys.
+     */
+    public static ConfigurationPath of(String... keys) {
+        for (String key : keys)
+            Objects.requireNonNull(key, "key");
+
+        return keys.length == 0 ? EMPTY : new ConfigurationPath(keys.clone());
+    }
+
+    /**
+     * @param keys List of unescaped keys.
+     * @return Path with given keys, or {@code keys} itself if it's already a path.
+     */
+    public static ConfigurationPath of(List<String> keys) {
+        if (keys instanceof ConfigurationPath)
+            return (ConfigurationPath)keys;
+
+        return of(keys.toArray(new String[0]));
+    }
+
+    /**
+     * Splits string using unescaped {@code .} character as a separator and unescapes every key. Single pass, no regular
+     * expressions involved.
+     *
+     * @param escaped Qualified key where escaped subkeys are joined with dots.
+     * @return Path with unescaped keys.
+     * @see ConfigurationUtil#unescape(String)
+     */
+    public static ConfigurationPath parse(String escaped) {
+        int len = escaped.length();
+
+        int cnt = 1;
+
+        for (int i = 0; i < len; i++) {
+            char c = escaped.charAt(i);
+
+            if (c == '\\')
+                i++;
+            else if (c == '.')
+                cnt++;
+        }
+
+        String[] keys = new String[cnt];
+
+        int idx = 0;
+
+        // Builder is only used for keys with escaped characters.
+        StringBuilder sb = null;
+
+        int start = 0;
+
+        for (int i = 0; i < len; i++) {
+            char c = escaped.charAt(i);
+
+            if (c == '\\' && i + 1 < len && isSpecial(escaped.charAt(i + 1))) {
+                if (sb == null)
+                    sb = new StringBuilder(len);
+
+                sb.append(escaped, start, i);
+
+                start = ++i;
+            }
+            else if (c == '\\')
+                i++;
+            else if (c == '.') {
+                keys[idx++] = key(escaped, start, i, sb);
+
+                start = i + 1;
+
+                if (sb != null)
+                    sb.setLength(0);
+            }
+        }
+
+        keys[idx] = key(escaped, start, len, sb);
+
+        return new ConfigurationPath(keys);
+    }
+
+    /**
+     * @param escaped Escaped string.
+     * @param start Start of the unprocessed tail of the key.
+     * @param end End of the key.
+     * @param sb Builder with already unescaped head of the key, possibly {@code null} or empty.
+     * @return Unescaped key.
+     */
+    private static String key(String escaped, int start, int end, StringBuilder sb) {
+        if (sb == null || sb.length() == 0)
+            return escaped.substring(start, end);
+
+        return sb.append(escaped, start, end).toString();
+    }
+
+    /**
+     * @param c Character.
+     * @return {@code true} if character must be escaped.
+     */
+    static boolean isSpecial(char c) {
+        return c == '.' || c == '\\';
+    }
+
+    /**
+     * @param key Unescaped key.
+     * @return New path, that has all keys of the current path and given key at the end.
+     */
+    public ConfigurationPath append(String key) {
+        return append(key, -1);
+    }
+
+    /**
+     * @param key Unescaped key.
+     * @param ordinal Ordinal of the key in the parent node, or {@code -1} if it's unknown, e.g. for the named list
+     *      elements.
+     * @return New path, that has all keys of the current path and given key at the end.
+     */
+    public ConfigurationPath append(String key, int ordinal) {
+        Objects.requireNonNull(key, "key");
+
+        String[] newKeys = Arrays.copyOf(keys, keys.length + 1);
+
+        newKeys[keys.length] = key;
+
+        int[] newOrdinals = null;
+
+        if (ordinals != null || ordinal >= 0) {
+            if (ordinals == null) {
+                newOrdinals = new int[keys.length + 1];
+
+                Arrays.fill(newOrdinals, -1);
+            }
+            else
+                newOrdinals = Arrays.copyOf(ordinals, keys.length + 1);
+
+            newOrdinals[keys.length] = ordinal;
+        }
+
+        return new ConfigurationPath(newKeys, newOrdinals);
+    }
+
+    /**
+     * @param idx Index of the key.
+     * @return Ordinal of the key in the parent node, or {@code -1} if it's unknown.
+     * @throws IndexOutOfBoundsException If index is out of bounds.
+     */
+    public int ordinal(int idx) {
+        Objects.checkIndex(idx, keys.length);
+
+        return ordinals == null ? -1 : ordinals[idx];
+    }
+
+    /**
+     * @return Last key of the path.
+     * @throws IndexOutOfBoundsException If path is empty.
+     */
+    public String lastKey() {
+        return keys[keys.length - 1];
+    }
+
+    /** {@inheritDoc} */
+    @Override public String get(int idx) {
+        return keys[idx];
+    }
+
+    /** {@inheritDoc} */
+    @Override public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Returns a path rather than a view, which is indistinguishable from a view since both are immutable.
+     * <p/>
+     * {@inheritDoc}
+     */
+    @Override public ConfigurationPath subList(int fromIdx, int toIdx) {
+        Objects.checkFromToIndex(fromIdx, toIdx, keys.length);
+
+        if (fromIdx == 0 && toIdx == keys.length)
+            return this;
+
+        if (fromIdx == toIdx)
+            return EMPTY;
+
+        return new ConfigurationPath(
+            Arrays.copyOfRange(keys, fromIdx, toIdx),
+            ordinals == null ? null : Arrays.copyOfRange(ordinals, fromIdx, toIdx)
+        );
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean equals(Object o) {
+        if (o == this)
+            return true;
+
+        if (o instanceof ConfigurationPath) {
+            ConfigurationPath path = (ConfigurationPath)o;
+
+            return hashCode() == path.hashCode() && Arrays.equals(keys, path.keys);
+        }
+
+        return super.equals(o);
+    }
+
+    /**
+     * Same as {@link List#hashCode()}, but calculated once.
+     * <p/>
+     * {@inheritDoc}
+     */
+    @Override public int hashCode() {
+        int h = hash;
+
+        if (h == 0)
+            hash = h = Arrays.hashCode(keys);
+
+        return h;
+    }
+
+    /**
+     * Returns escaped keys joined with dots. This is the form of the key that's used in configuration storages.
+     *
+     * @return Escaped path.
+     * @see #parse(String)
+     */
+    @Override public String toString() {
+        String s = escaped;
+
+        if (s == null) {
+            if (keys.length == 1)
+                s = ConfigurationUtil.escape(keys[0]);
+            else {
+                StringBuilder sb = new StringBuilder();
+
+                for (int i = 0; i < keys.length; i++) {
+                    if (i != 0)
+                        sb.append('.');
+
+                    ConfigurationUtil.appendEscaped(sb, keys[i]);
+                }
+
+                s = sb.toString();
+            }
+
+            escaped = s;
+        }
+
+        return s;
+    }
+}
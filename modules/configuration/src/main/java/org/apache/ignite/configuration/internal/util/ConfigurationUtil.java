@@ -18,14 +18,12 @@
 package org.apache.ignite.configuration.internal.util;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.NoSuchElementException;
 import java.util.RandomAccess;
-import java.util.stream.Collectors;
 import org.apache.ignite.configuration.RootKey;
 import org.apache.ignite.configuration.tree.ConfigurationSource;
 import org.apache.ignite.configuration.tree.ConfigurationVisitor;
@@ -43,7 +41,37 @@ public class ConfigurationUtil {
      * @return Escaped string.
      */
     public static String escape(String key) {
-        return key.replaceAll("([.\\\\])", "\\\\$1");
+        int len = key.length();
+
+        for (int i = 0; i < len; i++) {
+            if (ConfigurationPath.isSpecial(key.charAt(i)))
+                return appendEscaped(new StringBuilder(len + 1), key).toString();
+        }
+
+        return key;
+    }
+
+    /**
+     * Appends escaped version of the key to the string builder.
+     *
+     * @param sb String builder.
+     * @param key Unescaped string.
+     * @return Same string builder.
+     * @see #escape(String)
+     */
+    public static StringBuilder appendEscaped(StringBuilder sb, String key) {
+        int len = key.length();
+
+        for (int i = 0; i < len; i++) {
+            char c = key.charAt(i);
+
+            if (ConfigurationPath.isSpecial(c))
+                sb.append('\\');
+
+            sb.append(c);
+        }
+
+        return sb;
     }
 
     /**
@@ -53,7 +81,25 @@ public class ConfigurationUtil {
      * @return Unescaped string.
      */
     public static String unescape(String key) {
-        return key.replaceAll("\\\\([.\\\\])", "$1");
+        int len = key.length();
+
+        int idx = key.indexOf('\\');
+
+        if (idx < 0)
+            return key;
+
+        StringBuilder sb = new StringBuilder(len).append(key, 0, idx);
+
+        for (int i = idx; i < len; i++) {
+            char c = key.charAt(i);
+
+            if (c == '\\' && i + 1 < len && ConfigurationPath.isSpecial(key.charAt(i + 1)))
+                c = key.charAt(++i);
+
+            sb.append(c);
+        }
+
+        return sb.toString();
     }
 
     /**
@@ -63,14 +109,10 @@ public class ConfigurationUtil {
      * @return Random access list of unescaped subkeys.
      * @see #unescape(String)
      * @see #join(List)
+     * @see ConfigurationPath#parse(String)
      */
     public static List<String> split(String keys) {
-        String[] split = keys.split("(?<!\\\\)[.]", -1);
-
-        for (int i = 0; i < split.length; i++)
-            split[i] = unescape(split[i]);
-
-        return Arrays.asList(split);
+        return ConfigurationPath.parse(keys);
     }
 
     /**
@@ -80,13 +122,51 @@ public class ConfigurationUtil {
      * @return Escaped keys joined with dots.
      * @see #escape(String)
      * @see #split(String)
+     * @see ConfigurationPath#toString()
      */
     public static String join(List<String> keys) {
-        return keys.stream().map(ConfigurationUtil::escape).collect(Collectors.joining("."));
+        return ConfigurationPath.of(keys).toString();
     }
 
     /**
-     * Search for the configuration node by the list of keys.
+     * @param key Escaped key.
+     * @param prefix Escaped key prefix, or empty string for all the keys.
+     * @return {@code true} if the key is equal to the prefix or starts with the prefix followed by a dot.
+     */
+    public static boolean inRange(String key, String prefix) {
+        if (prefix.isEmpty())
+            return true;
+
+        return key.startsWith(prefix) && (key.length() == prefix.length() || key.charAt(prefix.length()) == '.');
+    }
+
+    /**
+     * Copies values under the prefix: the value of the key that is equal to the prefix and values of the keys that
+     * start with the prefix followed by a dot.
+     *
+     * @param src Sorted values.
+     * @param prefix Escaped key prefix, or empty string for all the keys.
+     * @param dst Map to copy values to.
+     */
+    public static <V> void copyRange(NavigableMap<String, V> src, String prefix, Map<String, V> dst) {
+        if (prefix.isEmpty()) {
+            dst.putAll(src);
+
+            return;
+        }
+
+        V val = src.get(prefix);
+
+        if (val != null)
+            dst.put(prefix, val);
+
+        // '/' follows '.', so the range contains exactly the keys that start with the prefix followed by a dot.
+        dst.putAll(src.subMap(prefix + '.', true, prefix + '/', false));
+    }
+
+    /**
+     * Search for the configuration node by the list of keys. Children of inner nodes are accessed by ordinals if keys
+     * are a {@link ConfigurationPath} that has them.
      *
      * @param keys Random access list with keys.
      * @param node Node where method will search for subnode.
@@ -96,6 +176,8 @@ public class ConfigurationUtil {
     public static Object find(List<String> keys, TraversableTreeNode node) throws KeyNotFoundException {
         assert keys instanceof RandomAccess : keys.getClass();
 
+        ConfigurationPath path = keys instanceof ConfigurationPath ? (ConfigurationPath)keys : null;
+
         var visitor = new ConfigurationVisitor<>() {
             /** */
             private int i;
@@ -114,7 +196,11 @@ public class ConfigurationUtil {
                     throw new KeyNotFoundException("Configuration node '" + join(keys.subList(0, i)) + "' is null");
                 else {
                     try {
-                        return node.traverseChild(keys.get(i++), this);
+                        int ordinal = path == null ? -1 : path.ordinal(i);
+
+                        String childKey = keys.get(i++);
+
+                        return ordinal < 0 ? node.traverseChild(childKey, this) : node.traverseChild(ordinal, this);
                     }
                     catch (NoSuchElementException e) {
                         throw new KeyNotFoundException("Configuration '" + join(keys.subList(0, i)) + "' is not found");
@@ -147,11 +233,7 @@ public class ConfigurationUtil {
         Map<String, Object> res = new HashMap<>();
 
         for (Map.Entry<String, Serializable> entry : rawConfig.entrySet()) {
-            List<String> keys = split(entry.getKey());
-
-            assert keys instanceof RandomAccess : keys.getClass();
-
-            insert(res, keys, 0, entry.getValue());
+            insert(res, ConfigurationPath.parse(entry.getKey()), 0, entry.getValue());
         }
 
         return res;
@@ -165,7 +247,7 @@ public class ConfigurationUtil {
      * @param idx Starting position in the {@code keys} list.
      * @param val Value to be inserted.
      */
-    private static void insert(Map<String, Object> map, List<String> keys, int idx, Serializable val) {
+    private static void insert(Map<String, Object> map, ConfigurationPath keys, int idx, Serializable val) {
         String key = keys.get(idx);
 
         if (keys.size() == idx + 1) {
@@ -280,156 +362,37 @@ public class ConfigurationUtil {
      * @param curRoot Current root tree.
      * @param updates Tree with updates.
      * @return Map of changes.
+     * @see InnerNode#writeFlat(String, InnerNode, java.util.function.BiConsumer)
      */
     public static Map<String, Serializable> nodeToFlatMap(
         RootKey<?> rootKey,
         TraversableTreeNode curRoot,
         TraversableTreeNode updates
     ) {
-        return updates.accept(rootKey.key(), new ConfigurationVisitor<>() {
-            /** Resulting flat map. */
-            private Map<String, Serializable> values = new HashMap<>();
-
-            /** Current key, aggregated by visitor. */
-            private StringBuilder currentKey = new StringBuilder();
-
-            /** Current keys list, almost the same as {@link #currentKey}. */
-            private List<String> currentPath = new ArrayList<>();
-
-            /** Write nulls instead of actual values. Makes sense for deletions from named lists. */
-            private boolean writeNulls;
+        Map<String, Serializable> values = new HashMap<>();
 
-            /** {@inheritDoc} */
-            @Override public Map<String, Serializable> visitLeafNode(String key, Serializable val) {
-                if (val != null)
-                    values.put(currentKey.toString() + key, writeNulls ? null : val);
-
-                return values;
-            }
-
-            /** {@inheritDoc} */
-            @Override public Map<String, Serializable> visitInnerNode(String key, InnerNode node) {
-                if (node == null)
-                    return null;
-
-                int previousKeyLength = startVisit(key, false);
-
-                node.traverseChildren(this);
-
-                endVisit(previousKeyLength);
-
-                return values;
-            }
-
-            /** {@inheritDoc} */
-            @Override public <N extends InnerNode> Map<String, Serializable> visitNamedListNode(String key, NamedListNode<N> node) {
-                int previousKeyLength = startVisit(key, false);
-
-                for (String namedListKey : node.namedListKeys()) {
-                    int loopPreviousKeyLength = startVisit(namedListKey, true);
-
-                    N namedElement = node.get(namedListKey);
-
-                    if (namedElement == null)
-                        visitDeletedNamedListElement();
-                    else
-                        namedElement.traverseChildren(this);
-
-                    endVisit(loopPreviousKeyLength);
-                }
-
-                endVisit(previousKeyLength);
-
-                return values;
-            }
-
-            /**
-             * Prepares values of {@link #currentKey} and {@link #currentPath} for further processing.
-             *
-             * @param key Key.
-             * @param escape Whether we need to escape the key before appending it to {@link #currentKey}.
-             * @return Previous length of {@link #currentKey} so it can be passed to {@link #endVisit(int)} later.
-             */
-            private int startVisit(String key, boolean escape) {
-                int previousKeyLength = currentKey.length();
-
-                currentKey.append(escape ? ConfigurationUtil.escape(key) : key).append('.');
+        ((InnerNode)updates).writeFlat(rootKey.key() + '.', (InnerNode)curRoot, values::put);
 
-                if (!writeNulls)
-                    currentPath.add(key);
-
-                return previousKeyLength;
-            }
-
-            /**
-             * Puts {@link #currentKey} and {@link #currentPath} in the same state as they were before
-             * {@link #startVisit(String, boolean)}.
-             *
-             * @param previousKeyLength Value return by corresponding {@link #startVisit(String, boolean)} invocation.
-             */
-            private void endVisit(int previousKeyLength) {
-                currentKey.setLength(previousKeyLength);
-
-                if (!writeNulls)
-                    currentPath.remove(currentPath.size() - 1);
-            }
-
-            /**
-             * Here we must list all joined keys belonging to deleted element. The only way to do it is to traverse
-             * cached configuration tree and write {@code null} into all values.
-             */
-            private void visitDeletedNamedListElement() {
-                // It must be impossible to delete something inside of the element that we're currently deleting.
-                assert !writeNulls;
-
-                Object originalNamedElement = null;
-
-                try {
-                    // This code can in fact be better optimized for deletion scenario,
-                    // but there's no point in doing that, since the operation is so rare and it will
-                    // complicate code even more.
-                    originalNamedElement = find(currentPath.subList(1, currentPath.size()), curRoot);
-                }
-                catch (KeyNotFoundException ignore) {
-                    // May happen, not a big deal. This means that element never existed in the first place.
-                }
-
-                if (originalNamedElement != null) {
-                    assert originalNamedElement instanceof InnerNode : currentPath;
-
-                    writeNulls = true;
-
-                    ((InnerNode)originalNamedElement).traverseChildren(this);
-
-                    writeNulls = false;
-                }
-            }
-        });
+        return values;
     }
 
     /**
-     * Creates new list that is a conjunction of given list and element.
+     * Creates new path that is a conjunction of given list and element.
      *
      * @param prefix Head of the new list.
      * @param key Tail element of the new list.
-     * @return New list.
+     * @return New path.
      */
-    public static List<String> appendKey(List<String> prefix, String key) {
-        if (prefix.isEmpty())
-            return List.of(key);
-
-        List<String> res = new ArrayList<>(prefix.size() + 1);
-        res.addAll(prefix);
-        res.add(key);
-
-        return res;
+    public static ConfigurationPath appendKey(List<String> prefix, String key) {
+        return ConfigurationPath.of(prefix).append(key);
     }
 
     /**
      * Apply changes on top of existing node. Creates completely new object while reusing parts of the original tree
-     * that weren't modified.
+     * that weren't modified. Frozen subtrees of the root are shared with the result, and only the nodes on the changed
+     * paths are copied. Root isn't changed.
      *
-     * @param root Immutable configuration node.
+     * @param root Configuration node.
      * @param changes Change or Init object to be applied.
      */
     public static <C extends ConstructableTreeNode> C patch(C root, TraversableTreeNode changes) {
@@ -0,0 +1,705 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.internal.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.ignite.configuration.tree.ConfigurationSource;
+import org.apache.ignite.configuration.tree.ConstructableTreeNode;
+
+/**
+ * Configuration source that reads JSON text token by token and constructs configuration nodes directly, without
+ * intermediate maps. Input is consumed in a single pass, memory usage is proportional to the depth of the tree.
+ * <p/>
+ * Parser is lenient and also accepts the subset of HOCON that is used in configuration files:
+ * <ul>
+ *     <li>{@code #} and {@code //} comments;</li>
+ *     <li>unquoted keys and string values;</li>
+ *     <li>{@code =} as a key-value separator and no separator before an object value;</li>
+ *     <li>dotted key paths like {@code a.b.c = 1};</li>
+ *     <li>commas are optional;</li>
+ *     <li>braces around the root object are optional.</li>
+ * </ul>
+ * Substitutions, includes, value concatenations and multi-line strings are not supported.
+ * <p/>
+ * {@code null} value of a key is passed to the node as {@code construct(key, null)}. Values that are never requested
+ * by the node are skipped, so top level keys unknown to the consumer are ignored.
+ * <p/>
+ * Source is single-use: {@link #descend(ConstructableTreeNode)} may be called once, the reader is not closed.
+ */
+public class JsonConfigurationSource implements ConfigurationSource {
+    /** Tokenizer shared by all sources created from the same input. */
+    private final Lexer lexer;
+
+    /** Remaining segments of a dotted key that have to be descended into before the value is reached. */
+    private final List<String> path;
+
+    /** Index of the first remaining segment in {@link #path}. */
+    private final int pathIdx;
+
+    /** Unquoted value that has already been read from the input, {@code null} if value is not read yet. */
+    private final String word;
+
+    /** Whether braces around the object may be omitted. */
+    private final boolean root;
+
+    /** Whether the value of the source has been consumed. */
+    private boolean consumed;
+
+    /**
+     * Creates a source for the whole document.
+     *
+     * @param reader Reader of the JSON or HOCON text.
+     */
+    public JsonConfigurationSource(Reader reader) {
+        this(new Lexer(reader), null, 0, null, true);
+    }
+
+    /**
+     * @param lexer Tokenizer.
+     * @param path Key path segments.
+     * @param pathIdx Index of the first remaining path segment.
+     * @param word Already read unquoted value.
+     * @param root Whether braces around the object may be omitted.
+     */
+    private JsonConfigurationSource(Lexer lexer, List<String> path, int pathIdx, String word, boolean root) {
+        this.lexer = lexer;
+        this.path = path;
+        this.pathIdx = pathIdx;
+        this.word = word;
+        this.root = root;
+    }
+
+    /** {@inheritDoc} */
+    @Override public <T> T unwrap(Class<T> clazz) {
+        consume();
+
+        if (path != null && pathIdx < path.size())
+            throw lexer.error("Leaf value expected but key \"" + path.get(pathIdx) + "\" found");
+
+        if (word != null)
+            return convert(word, clazz);
+
+        if (clazz.isArray())
+            return clazz.cast(readArray(clazz.getComponentType()));
+
+        return convert(readScalar(), clazz);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void descend(ConstructableTreeNode node) {
+        consume();
+
+        if (path != null && pathIdx < path.size()) {
+            constructMember(node, path, pathIdx);
+
+            return;
+        }
+
+        if (word != null)
+            throw lexer.error("Object expected but \"" + word + "\" found");
+
+        boolean braces = !root || lexer.peek() == '{';
+
+        if (braces)
+            lexer.expect('{');
+
+        while (true) {
+            int c = lexer.peek();
+
+            if (braces ? c == '}' : c == -1)
+                break;
+
+            List<String> key = lexer.readKey();
+
+            if (lexer.peek() != '{')
+                lexer.expectSeparator();
+
+            constructMember(node, key, 0);
+        }
+
+        if (braces)
+            lexer.expect('}');
+
+        if (root && lexer.peek() != -1)
+            throw lexer.error("End of input expected");
+    }
+
+    /**
+     * Constructs the member of the node that corresponds to the path segment at {@code idx}.
+     *
+     * @param node Node to construct.
+     * @param key Key path segments.
+     * @param idx Index of the segment.
+     */
+    private void constructMember(ConstructableTreeNode node, List<String> key, int idx) {
+        String name = key.get(idx);
+
+        boolean last = idx == key.size() - 1;
+
+        String val = null;
+
+        if (last) {
+            int c = lexer.peek();
+
+            if (c != '{' && c != '[' && c != '"') {
+                val = lexer.readWord();
+
+                if ("null".equals(val)) {
+                    node.construct(name, null);
+
+                    return;
+                }
+            }
+        }
+
+        JsonConfigurationSource src = new JsonConfigurationSource(lexer, last ? null : key, idx + 1, val, false);
+
+        node.construct(name, src);
+
+        if (!src.consumed)
+            src.skip();
+    }
+
+    /**
+     * Skips the value of the source.
+     */
+    private void skip() {
+        consume();
+
+        if (word == null)
+            lexer.skipValue();
+    }
+
+    /**
+     * Marks the source as consumed.
+     *
+     * @throws IllegalStateException If the source has already been consumed.
+     */
+    private void consume() {
+        if (consumed)
+            throw new IllegalStateException("Configuration source has already been consumed.");
+
+        consumed = true;
+    }
+
+    /**
+     * Reads a scalar value from the input.
+     *
+     * @return Quoted or unquoted value.
+     */
+    private String readScalar() {
+        int c = lexer.peek();
+
+        if (c == '"')
+            return lexer.readQuoted();
+
+        if (c == '{' || c == '[')
+            throw lexer.error("Leaf value expected");
+
+        return lexer.readWord();
+    }
+
+    /**
+     * Reads an array value from the input.
+     *
+     * @param componentType Array component type.
+     * @return Array instance.
+     */
+    private Object readArray(Class<?> componentType) {
+        Class<?> boxed = box(componentType);
+
+        List<Object> list = new ArrayList<>();
+
+        lexer.expect('[');
+
+        while (lexer.peek() != ']') {
+            String val = readScalar();
+
+            if (componentType.isPrimitive() && lexer.unquoted && "null".equals(val))
+                throw lexer.error("Null element in the array of primitives");
+
+            list.add(lexer.unquoted && "null".equals(val) ? null : convert(val, boxed));
+        }
+
+        lexer.expect(']');
+
+        Object arr = Array.newInstance(componentType, list.size());
+
+        for (int i = 0; i < list.size(); i++)
+            Array.set(arr, i, list.get(i));
+
+        return arr;
+    }
+
+    /**
+     * Converts textual value to the requested type.
+     *
+     * @param val Value.
+     * @param clazz Requested class.
+     * @return Converted value.
+     */
+    private <T> T convert(String val, Class<T> clazz) {
+        try {
+            if (clazz == String.class)
+                return clazz.cast(val);
+
+            if (clazz == Integer.class)
+                return clazz.cast(Integer.valueOf(val));
+
+            if (clazz == Long.class)
+                return clazz.cast(Long.valueOf(val));
+
+            if (clazz == Double.class)
+                return clazz.cast(Double.valueOf(val));
+
+            if (clazz == Boolean.class) {
+                if ("true".equals(val) || "false".equals(val))
+                    return clazz.cast(Boolean.valueOf(val));
+
+                throw lexer.error("Boolean value expected but \"" + val + "\" found");
+            }
+
+            if (clazz == Float.class)
+                return clazz.cast(Float.valueOf(val));
+
+            if (clazz == Short.class)
+                return clazz.cast(Short.valueOf(val));
+
+            if (clazz == Byte.class)
+                return clazz.cast(Byte.valueOf(val));
+
+            if (clazz == Character.class) {
+                if (val.length() == 1)
+                    return clazz.cast(val.charAt(0));
+
+                throw lexer.error("Single character expected but \"" + val + "\" found");
+            }
+        }
+        catch (NumberFormatException e) {
+            throw lexer.error(clazz.getSimpleName() + " value expected but \"" + val + "\" found");
+        }
+
+        throw lexer.error("Unsupported value type: " + clazz.getName());
+    }
+
+    /**
+     * @param cls Class.
+     * @return Boxed class for primitives, same class otherwise.
+     */
+    private static Class<?> box(Class<?> cls) {
+        if (!cls.isPrimitive())
+            return cls;
+
+        if (cls == int.class)
+            return Integer.class;
+
+        if (cls == long.class)
+            return Long.class;
+
+        if (cls == double.class)
+            return Double.class;
+
+        if (cls == boolean.class)
+            return Boolean.class;
+
+        if (cls == float.class)
+            return Float.class;
+
+        if (cls == short.class)
+            return Short.class;
+
+        if (cls == byte.class)
+            return Byte.class;
+
+        assert cls == char.class : cls;
+
+        return Character.class;
+    }
+
+    /**
+     * Buffered tokenizer. Whitespace, commas and comments are skipped by {@link #peek()}.
+     */
+    private static class Lexer {
+        /** */
+        private final Reader reader;
+
+        /** */
+        private final char[] buf = new char[8192];
+
+        /** Position of the next character in the buffer. */
+        private int pos;
+
+        /** Number of valid characters in the buffer. */
+        private int limit;
+
+        /** Current line, for error messages. */
+        private int line = 1;
+
+        /** Position of the current line start relative to the buffer, for error messages. */
+        private int lineStart;
+
+        /** Reusable builder for strings. */
+        private final StringBuilder sb = new StringBuilder();
+
+        /** Whether the last scalar value has been read without quotes. */
+        private boolean unquoted;
+
+        /**
+         * @param reader Reader.
+         */
+        Lexer(Reader reader) {
+            this.reader = reader;
+        }
+
+        /**
+         * Skips whitespace, commas and comments.
+         *
+         * @return Next significant character or {@code -1} if the end of input is reached.
+         */
+        int peek() {
+            while (true) {
+                if (pos == limit && !fill())
+                    return -1;
+
+                char c = buf[pos];
+
+                if (c == '\n') {
+                    pos++;
+
+                    line++;
+
+                    lineStart = pos;
+                }
+                else if (c == ' ' || c == '\t' || c == '\r' || c == ',' || c == '\uFEFF')
+                    pos++;
+                else if (c == '#' || c == '/' && charAt(1) == '/')
+                    skipLine();
+                else
+                    return c;
+            }
+        }
+
+        /**
+         * @param c Expected character.
+         */
+        void expect(char c) {
+            if (peek() != c)
+                throw error("'" + c + "' expected");
+
+            pos++;
+        }
+
+        /**
+         * Consumes the separator between the key and the value.
+         */
+        void expectSeparator() {
+            int c = peek();
+
+            if (c != ':' && c != '=')
+                throw error("':' or '=' expected");
+
+            pos++;
+        }
+
+        /**
+         * Reads the key of an object member. Unquoted keys are split by dots into path segments.
+         *
+         * @return Key path segments.
+         */
+        List<String> readKey() {
+            List<String> segments = new ArrayList<>(1);
+
+            while (true) {
+                if (charAt(0) == '"')
+                    segments.add(readQuoted());
+                else {
+                    String segment = readWord(true);
+
+                    if (segment.isEmpty())
+                        throw error("Key expected");
+
+                    segments.add(segment);
+                }
+
+                if (charAt(0) != '.')
+                    return segments;
+
+                pos++;
+            }
+        }
+
+        /**
+         * Reads an unquoted value.
+         *
+         * @return Value.
+         */
+        String readWord() {
+            peek();
+
+            String word = readWord(false);
+
+            if (word.isEmpty())
+                throw error(pos == limit ? "Unexpected end of input" : "Unexpected character");
+
+            unquoted = true;
+
+            return word;
+        }
+
+        /**
+         * Reads a quoted string starting at the current position.
+         *
+         * @return Unescaped string.
+         */
+        String readQuoted() {
+            peek();
+
+            pos++;
+
+            sb.setLength(0);
+
+            while (true) {
+                if (pos == limit && !fill())
+                    throw error("Unterminated string");
+
+                char c = buf[pos++];
+
+                if (c == '"')
+                    break;
+
+                if (c == '\n')
+                    throw error("Unterminated string");
+
+                if (c == '\\')
+                    sb.append(readEscaped());
+                else
+                    sb.append(c);
+            }
+
+            unquoted = false;
+
+            return sb.toString();
+        }
+
+        /**
+         * Skips the next value, including nested objects and arrays.
+         */
+        void skipValue() {
+            int depth = 0;
+
+            do {
+                int c = peek();
+
+                if (c == -1)
+                    throw error("Unexpected end of input");
+
+                if (c == '{' || c == '[') {
+                    pos++;
+
+                    depth++;
+                }
+                else if (c == '}' || c == ']') {
+                    pos++;
+
+                    depth--;
+                }
+                else if (c == ':' || c == '=')
+                    pos++;
+                else if (c == '"')
+                    readQuoted();
+                else
+                    readWord();
+            }
+            while (depth > 0);
+        }
+
+        /**
+         * @param msg Error description.
+         * @return Exception with the current position in the message.
+         */
+        IllegalArgumentException error(String msg) {
+            return new IllegalArgumentException(msg + " at line " + line + ", column " + (pos - lineStart + 1));
+        }
+
+        /**
+         * @param key Whether the word is a key, keys are also terminated by dots.
+         * @return Unquoted word starting at the current position, may be empty.
+         */
+        private String readWord(boolean key) {
+            sb.setLength(0);
+
+            while (true) {
+                if (pos == limit && !fill())
+                    break;
+
+                char c = buf[pos];
+
+                if (isDelimiter(c) || key && c == '.' || c == '/' && charAt(1) == '/')
+                    break;
+
+                sb.append(c);
+
+                pos++;
+            }
+
+            return sb.toString();
+        }
+
+        /**
+         * Reads the escape sequence after a backslash.
+         *
+         * @return Unescaped character.
+         */
+        private char readEscaped() {
+            if (pos == limit && !fill())
+                throw error("Unterminated string");
+
+            char c = buf[pos++];
+
+            switch (c) {
+                case '"':
+                case '\\':
+                case '/':
+                    return c;
+
+                case 'b':
+                    return '\b';
+
+                case 'f':
+                    return '\f';
+
+                case 'n':
+                    return '\n';
+
+                case 'r':
+                    return '\r';
+
+                case 't':
+                    return '\t';
+
+                case 'u':
+                    int code = 0;
+
+                    for (int i = 0; i < 4; i++) {
+                        if (pos == limit && !fill())
+                            throw error("Unterminated string");
+
+                        int digit = Character.digit(buf[pos++], 16);
+
+                        if (digit < 0)
+                            throw error("Invalid unicode escape sequence");
+
+                        code = (code << 4) | digit;
+                    }
+
+                    return (char)code;
+
+                default:
+                    throw error("Invalid escape sequence");
+            }
+        }
+
+        /**
+         * Skips characters up to the end of the line.
+         */
+        private void skipLine() {
+            while (true) {
+                if (pos == limit && !fill())
+                    return;
+
+                if (buf[pos] == '\n')
+                    return;
+
+                pos++;
+            }
+        }
+
+        /**
+         * @param off Offset relative to the current position.
+         * @return Character at the offset or {@code -1} if the end of input is reached.
+         */
+        private int charAt(int off) {
+            if (pos + off >= limit)
+                fill();
+
+            return pos + off < limit ? buf[pos + off] : -1;
+        }
+
+        /**
+         * Reads more characters, keeping the unread ones in the buffer.
+         *
+         * @return {@code false} if no characters have been read because the end of input is reached.
+         */
+        private boolean fill() {
+            int unread = limit - pos;
+
+            System.arraycopy(buf, pos, buf, 0, unread);
+
+            lineStart -= pos;
+
+            pos = 0;
+
+            limit = unread;
+
+            try {
+                int read = reader.read(buf, limit, buf.length - limit);
+
+                if (read <= 0)
+                    return false;
+
+                limit += read;
+
+                return true;
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * @param c Character.
+         * @return Whether the character terminates an unquoted word.
+         */
+        private static boolean isDelimiter(char c) {
+            switch (c) {
+                case ' ':
+                case '\t':
+                case '\r':
+                case '\n':
+                case ',':
+                case ':':
+                case '=':
+                case '{':
+                case '}':
+                case '[':
+                case ']':
+                case '"':
+                case '#':
+                    return true;
+
+                default:
+                    return false;
+            }
+        }
+    }
+}
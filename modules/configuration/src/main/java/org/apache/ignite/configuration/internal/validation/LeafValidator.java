@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.internal.validation;
+
+import java.io.Serializable;
+import org.apache.ignite.configuration.ConfigurationTree;
+import org.apache.ignite.configuration.validation.ConfigurationValidationException;
+import org.apache.ignite.configuration.validation.FieldValidator;
+
+/**
+ * Field validator bound to the leaf it validates. Instances are created once per schema class by the generated code.
+ */
+public final class LeafValidator {
+    /** Key of the validated leaf. */
+    private final String key;
+
+    /** Validator. */
+    private final FieldValidator<?, ?> validator;
+
+    /**
+     * Constructor.
+     *
+     * @param key Key of the validated leaf.
+     * @param validator Validator.
+     */
+    public LeafValidator(String key, FieldValidator<?, ?> validator) {
+        this.key = key;
+        this.validator = validator;
+    }
+
+    /**
+     * @return Key of the validated leaf.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return Whether validator must be executed for {@code null} values as well. Same as in Bean Validation,
+     *      {@code null} is a valid value for every constraint but {@link NotNullValidator}.
+     */
+    public boolean acceptsNull() {
+        return validator instanceof NotNullValidator;
+    }
+
+    /**
+     * Validates the value.
+     *
+     * @param val Value of the leaf.
+     * @param newRoot New configuration root.
+     * @param oldRoot Old configuration root.
+     * @throws ConfigurationValidationException If validation failed.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void validate(
+        Serializable val,
+        ConfigurationTree<?, ?> newRoot,
+        ConfigurationTree<?, ?> oldRoot
+    ) throws ConfigurationValidationException {
+        ((FieldValidator)validator).validate(val, newRoot, oldRoot);
+    }
+}
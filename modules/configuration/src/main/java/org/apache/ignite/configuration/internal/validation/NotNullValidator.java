@@ -36,6 +36,6 @@ public class NotNullValidator<C extends DynamicConfiguration<?, ?, ?>> extends F
     /** {@inheritDoc} */
     @Override public void validate(Serializable value, C newRoot, C oldRoot) throws ConfigurationValidationException {
         if (value == null)
-            throw new ConfigurationValidationException("");
+            throw new ConfigurationValidationException(message);
     }
 }
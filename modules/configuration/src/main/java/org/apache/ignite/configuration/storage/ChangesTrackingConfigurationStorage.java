@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+/**
+ * Configuration storage that keeps track of the changes made by each version. Allows writers to detect whether
+ * concurrent modification of the storage actually conflicts with their changes, so that failed
+ * {@link #write(java.util.Map, long)} can be repeated with a newer version instead of recalculating the changes.
+ */
+public interface ChangesTrackingConfigurationStorage extends ConfigurationStorage {
+    /**
+     * Get all values that have been changed since the given version.
+     * @param version Version of the storage.
+     * @return Values changed by all the versions after the given one ({@code null} values for removed keys) and the
+     *      current version of the storage, or {@code null} if changes made after the given version are not known
+     *      anymore.
+     * @throws StorageException If failed to retrieve data.
+     */
+    Data changesSince(long version) throws StorageException;
+}
@@ -17,9 +17,14 @@
 package org.apache.ignite.configuration.storage;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
+import org.apache.ignite.configuration.RootKey;
+import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
 
 /**
  * Common interface for configuration storage.
@@ -32,6 +37,42 @@ public interface ConfigurationStorage {
      */
     Data readAll() throws StorageException;
 
+    /**
+     * Read configuration values under the prefix and current storage version. Key is under the prefix if it's equal
+     * to the prefix or starts with the prefix followed by a dot.
+     * @param prefix Escaped key prefix, like {@code root.list.element}, or empty string for all the keys.
+     * @return Values sorted by key and version.
+     * @throws StorageException If failed to retrieve data.
+     */
+    default Data readRange(String prefix) throws StorageException {
+        Data data = readAll();
+
+        NavigableMap<String, Serializable> range = new TreeMap<>();
+
+        ConfigurationUtil.copyRange(new TreeMap<>(data.values()), prefix, range);
+
+        return new Data(range, data.version());
+    }
+
+    /**
+     * Read configuration values of the roots, all of them belong to the same version of the storage.
+     * @param rootKeys Root keys.
+     * @return Values sorted by key and version.
+     * @throws StorageException If failed to retrieve data.
+     */
+    default Data readRoots(Set<RootKey<?>> rootKeys) throws StorageException {
+        Data data = readAll();
+
+        NavigableMap<String, Serializable> all = new TreeMap<>(data.values());
+
+        NavigableMap<String, Serializable> roots = new TreeMap<>();
+
+        for (RootKey<?> rootKey : rootKeys)
+            ConfigurationUtil.copyRange(all, rootKey.key(), roots);
+
+        return new Data(roots, data.version());
+    }
+
     /**
      * Write key-value pairs into the storage with last known version.
      * @param newValues Key-value pairs.
@@ -41,6 +82,20 @@ public interface ConfigurationStorage {
      */
     CompletableFuture<Boolean> write(Map<String, Serializable> newValues, long version);
 
+    /**
+     * Same as {@link #write(Map, long)}, but reports the version of the storage that contains the written values, so
+     * that the writer can wait for the listeners to be notified of it. Default implementation reads the version after
+     * the write, it may be later than the version of the write itself if the storage has been modified concurrently.
+     * Storages override it to report the exact version.
+     * @param newValues Key-value pairs.
+     * @param version Last known version.
+     * @return Future that gives you the version that contains the written values, {@code null} if version of the
+     *      storage is different from the passed argument and {@link StorageException} if failed to write data.
+     */
+    default CompletableFuture<Long> writeVersioned(Map<String, Serializable> newValues, long version) {
+        return write(newValues, version).thenApply(written -> written ? readAll().version() : null);
+    }
+
     /**
      * Get all the keys of the configuration storage.
      * @return Set of keys.
@@ -55,7 +110,36 @@ public interface ConfigurationStorage {
     void addListener(ConfigurationStorageListener listener);
 
     /**
-     * Remove storage listener.
+     * Add listener to the storage that notifies of changes under the prefix, see {@link #readRange(String)}. Listener
+     * is only notified if the changes contain keys under the prefix, and it receives only these keys. Default
+     * implementation filters the changes of a listener that is registered through
+     * {@link #addListener(ConfigurationStorageListener)}, so it can't be removed by {@link #removeListener}. Storages
+     * override it to dispatch the changes by prefixes, see {@link ConfigurationStorageListeners}.
+     * @param prefix Escaped key prefix, like {@code root.list.element}, or empty string for all the keys.
+     * @param listener Listener.
+     */
+    default void addListener(String prefix, ConfigurationStorageListener listener) {
+        if (prefix.isEmpty()) {
+            addListener(listener);
+
+            return;
+        }
+
+        addListener(changedEntries -> {
+            Map<String, Serializable> values = new HashMap<>();
+
+            for (Map.Entry<String, Serializable> entry : changedEntries.values().entrySet()) {
+                if (ConfigurationUtil.inRange(entry.getKey(), prefix))
+                    values.put(entry.getKey(), entry.getValue());
+            }
+
+            if (!values.isEmpty())
+                listener.onEntriesChanged(new Data(values, changedEntries.version()));
+        });
+    }
+
+    /**
+     * Remove storage listener from all the prefixes.
      * @param listener Listener.
      */
     void removeListener(ConfigurationStorageListener listener);
@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Listeners of the configuration storage, registered by key prefixes. Prefixes are kept in a trie of the key
+ * segments, so the notification is dispatched by walking the trie along every changed key, and only listeners whose
+ * prefixes contain at least one of the changed keys are notified. Listener receives only the changed values under its
+ * prefix, listeners of the empty prefix receive all the changes.
+ * <p/>
+ * Listeners can be added and removed concurrently with the notifications.
+ */
+public class ConfigurationStorageListeners {
+    /** Root of the trie, corresponds to the empty prefix. */
+    private final Node root = new Node();
+
+    /**
+     * Adds the listener.
+     *
+     * @param prefix Escaped key prefix, like {@code root.list.element}, or empty string for all the keys.
+     * @param listener Listener.
+     */
+    public synchronized void add(String prefix, ConfigurationStorageListener listener) {
+        Node node = root;
+
+        for (int start = 0; start < prefix.length(); ) {
+            int end = separator(prefix, start);
+
+            node = node.children.computeIfAbsent(prefix.substring(start, end), segment -> new Node());
+
+            start = end + 1;
+        }
+
+        node.listeners.add(listener);
+    }
+
+    /**
+     * Removes the listener from all the prefixes.
+     *
+     * @param listener Listener.
+     */
+    public synchronized void remove(ConfigurationStorageListener listener) {
+        remove(root, listener);
+    }
+
+    /**
+     * Notifies listeners about the changes.
+     *
+     * @param changedEntries Changed entries, key-value pairs and new version of the storage.
+     */
+    public void notify(Data changedEntries) {
+        for (ConfigurationStorageListener listener : root.listeners)
+            listener.onEntriesChanged(changedEntries);
+
+        if (root.children.isEmpty())
+            return;
+
+        // Changed values by the trie nodes that have listeners, in the order of the first match.
+        Map<Node, Map<String, Serializable>> matches = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Serializable> entry : changedEntries.values().entrySet()) {
+            String key = entry.getKey();
+
+            Node node = root;
+
+            for (int start = 0; start < key.length(); ) {
+                int end = separator(key, start);
+
+                node = node.children.get(key.substring(start, end));
+
+                if (node == null)
+                    break;
+
+                if (!node.listeners.isEmpty())
+                    matches.computeIfAbsent(node, n -> new HashMap<>()).put(key, entry.getValue());
+
+                start = end + 1;
+            }
+        }
+
+        for (Map.Entry<Node, Map<String, Serializable>> match : matches.entrySet()) {
+            Data data = new Data(match.getValue(), changedEntries.version());
+
+            for (ConfigurationStorageListener listener : match.getKey().listeners)
+                listener.onEntriesChanged(data);
+        }
+    }
+
+    /**
+     * Removes the listener from the subtree and prunes the nodes that don't have listeners anymore.
+     *
+     * @param node Subtree root.
+     * @param listener Listener.
+     * @return Whether the node has neither listeners nor children after the removal.
+     */
+    private static boolean remove(Node node, ConfigurationStorageListener listener) {
+        node.listeners.remove(listener);
+
+        node.children.values().removeIf(child -> remove(child, listener));
+
+        return node.listeners.isEmpty() && node.children.isEmpty();
+    }
+
+    /**
+     * @param key Escaped key.
+     * @param start Start of the segment.
+     * @return Index of the unescaped dot that ends the segment, or the key length for the last segment.
+     */
+    private static int separator(String key, int start) {
+        for (int i = start; i < key.length(); i++) {
+            char c = key.charAt(i);
+
+            if (c == '\\')
+                i++;
+            else if (c == '.')
+                return i;
+        }
+
+        return key.length();
+    }
+
+    /** Trie node, corresponds to the key prefix. */
+    private static class Node {
+        /** Children by the escaped key segment. */
+        final Map<String, Node> children = new ConcurrentHashMap<>();
+
+        /** Listeners of the prefix. */
+        final List<ConfigurationStorageListener> listeners = new CopyOnWriteArrayList<>();
+    }
+}
@@ -18,6 +18,8 @@ package org.apache.ignite.configuration.storage;
 
 import java.io.Serializable;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * Represents data in configuration storage.
@@ -39,6 +41,54 @@ public class Data {
         this.version = version;
     }
 
+    /**
+     * Creates data with a sorted flat layout: keys and values are kept in two arrays, lookups by key use binary search.
+     * Such data is cheap to build from the encoded form, see {@link DataCodec}.
+     *
+     * @param keys Keys in natural order, without duplicates.
+     * @param values Values, {@code i}-th value corresponds to the {@code i}-th key.
+     * @param version Version.
+     * @return Data.
+     */
+    public static Data sorted(String[] keys, Serializable[] values, long version) {
+        return new Data(new SortedValuesMap(keys, values), version);
+    }
+
+    /**
+     * Creates data with a sorted flat layout from the sorted map.
+     *
+     * @param values Values sorted by key, without {@code null} values.
+     * @param version Version.
+     * @return Data.
+     * @see #sorted(String[], Serializable[], long)
+     */
+    public static Data sorted(SortedMap<String, Serializable> values, long version) {
+        return sorted(values.keySet().toArray(new String[0]), values.values().toArray(new Serializable[0]), version);
+    }
+
+    /**
+     * Applies changes to the values. Data with a sorted flat layout is merged with the changes in a single pass.
+     *
+     * @param changes Changes sorted by key, {@code null} values are removals.
+     * @param version Version of the result.
+     * @return New data with a sorted flat layout, this data is not modified.
+     */
+    public Data patch(SortedMap<String, Serializable> changes, long version) {
+        if (values instanceof SortedValuesMap)
+            return new Data(((SortedValuesMap)values).patch(changes), version);
+
+        SortedMap<String, Serializable> patched = new TreeMap<>(values);
+
+        changes.forEach((key, val) -> {
+            if (val == null)
+                patched.remove(key);
+            else
+                patched.put(key, val);
+        });
+
+        return sorted(patched, version);
+    }
+
     /**
      * Get values.
      * @return Values.
@@ -47,6 +97,15 @@ public class Data {
         return values;
     }
 
+    /**
+     * Get value by key.
+     * @param key Key.
+     * @return Value or {@code null} if there's no such key.
+     */
+    public Serializable get(String key) {
+        return values.get(key);
+    }
+
     /**
      * Get version.
      * @return version.
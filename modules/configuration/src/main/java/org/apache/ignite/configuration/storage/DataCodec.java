@@ -0,0 +1,580 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of the {@link Data}, for storages that persist or transfer configuration. Supports all the
+ * types of configuration leaves: {@code boolean}, {@code int}, {@code long}, {@code double}, {@link String} and arrays
+ * of them, and {@code null} for removed keys. Format:
+ * <pre>
+ * data    := FORMAT_VERSION varlong(version) varint(size) entry*
+ * entry   := varint(segmentsCount) segment* value
+ * segment := varint(0) string | varint(1 + idx)
+ * value   := tag payload
+ * </pre>
+ * Keys are split into dot-separated segments, every distinct segment is written once and then referenced by its index
+ * in the order of appearance. Entries are written in the natural order of keys, so that decoded data has the
+ * {@link Data#sorted(String[], Serializable[], long) sorted flat layout} without sorting. Integer numbers are written
+ * as zigzag varints, strings as varint length followed by UTF-8 bytes.
+ */
+public final class DataCodec {
+    /** Version of the format. */
+    private static final byte FORMAT_VERSION = 1;
+
+    /** */
+    private static final byte NULL = 0;
+
+    /** */
+    private static final byte FALSE = 1;
+
+    /** */
+    private static final byte TRUE = 2;
+
+    /** */
+    private static final byte INT = 3;
+
+    /** */
+    private static final byte LONG = 4;
+
+    /** */
+    private static final byte DOUBLE = 5;
+
+    /** */
+    private static final byte STRING = 6;
+
+    /** */
+    private static final byte BOOLEAN_ARRAY = 7;
+
+    /** */
+    private static final byte INT_ARRAY = 8;
+
+    /** */
+    private static final byte LONG_ARRAY = 9;
+
+    /** */
+    private static final byte DOUBLE_ARRAY = 10;
+
+    /** */
+    private static final byte STRING_ARRAY = 11;
+
+    /** */
+    private DataCodec() {
+    }
+
+    /**
+     * Encodes the data.
+     *
+     * @param data Data.
+     * @return Encoded data.
+     * @throws IllegalArgumentException If data contains values of unsupported types.
+     */
+    public static byte[] encode(Data data) {
+        return encode(data.values(), data.version());
+    }
+
+    /**
+     * Encodes the values and the version.
+     *
+     * @param values Values, {@code null} values are allowed.
+     * @param version Version.
+     * @return Encoded data.
+     * @throws IllegalArgumentException If there are values of unsupported types.
+     */
+    public static byte[] encode(Map<String, ? extends Serializable> values, long version) {
+        String[] keys = values.keySet().toArray(new String[0]);
+
+        Arrays.sort(keys);
+
+        Output out = new Output(keys.length * 16 + 16);
+
+        out.writeByte(FORMAT_VERSION);
+        out.writeVarLong(version);
+        out.writeVarLong(keys.length);
+
+        Map<String, Integer> dictionary = new HashMap<>();
+
+        List<String> segments = new ArrayList<>();
+
+        for (String key : keys) {
+            split(key, segments);
+
+            out.writeVarLong(segments.size());
+
+            for (String segment : segments) {
+                Integer idx = dictionary.putIfAbsent(segment, dictionary.size());
+
+                if (idx == null) {
+                    out.writeVarLong(0);
+                    out.writeString(segment);
+                }
+                else
+                    out.writeVarLong(idx + 1);
+            }
+
+            writeValue(out, key, values.get(key));
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Decodes the data.
+     *
+     * @param bytes Encoded data.
+     * @return Data with the {@link Data#sorted(String[], Serializable[], long) sorted flat layout}.
+     * @throws StorageException If data is malformed.
+     */
+    public static Data decode(byte[] bytes) throws StorageException {
+        return decode(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Decodes the data.
+     *
+     * @param bytes Array with encoded data.
+     * @param off Offset of the encoded data in the array.
+     * @param len Length of the encoded data.
+     * @return Data with the {@link Data#sorted(String[], Serializable[], long) sorted flat layout}.
+     * @throws StorageException If data is malformed.
+     */
+    public static Data decode(byte[] bytes, int off, int len) throws StorageException {
+        Input in = new Input(bytes, off, off + len);
+
+        try {
+            byte formatVer = in.readByte();
+
+            if (formatVer != FORMAT_VERSION)
+                throw new StorageException("Unsupported format version of configuration data: " + formatVer);
+
+            long version = in.readVarLong();
+
+            int size = in.readLength();
+
+            String[] keys = new String[size];
+            Serializable[] values = new Serializable[size];
+
+            List<String> dictionary = new ArrayList<>();
+
+            StringBuilder keyBuilder = new StringBuilder();
+
+            for (int i = 0; i < size; i++) {
+                keyBuilder.setLength(0);
+
+                int segmentsCnt = in.readLength();
+
+                for (int j = 0; j < segmentsCnt; j++) {
+                    long ref = in.readVarLong();
+
+                    String segment;
+
+                    if (ref == 0)
+                        dictionary.add(segment = in.readString());
+                    else if (ref <= dictionary.size())
+                        segment = dictionary.get((int)ref - 1);
+                    else
+                        throw new StorageException("Malformed key segment reference in configuration data: " + ref);
+
+                    if (j > 0)
+                        keyBuilder.append('.');
+
+                    keyBuilder.append(segment);
+                }
+
+                keys[i] = keyBuilder.toString();
+                values[i] = readValue(in);
+
+                if (i > 0 && keys[i - 1].compareTo(keys[i]) >= 0)
+                    throw new StorageException("Keys of configuration data are not sorted: " + keys[i]);
+            }
+
+            if (in.pos != in.end)
+                throw new StorageException("Unexpected bytes after the end of configuration data");
+
+            return Data.sorted(keys, values, version);
+        }
+        catch (IndexOutOfBoundsException e) {
+            throw new StorageException("Malformed configuration data", e);
+        }
+    }
+
+    /**
+     * Splits the key into dot-separated segments. Escaped dots are split too, key is restored by joining segments.
+     *
+     * @param key Key.
+     * @param segments List to put the segments into.
+     */
+    private static void split(String key, List<String> segments) {
+        segments.clear();
+
+        int start = 0;
+
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) == '.') {
+                segments.add(key.substring(start, i));
+
+                start = i + 1;
+            }
+        }
+
+        segments.add(key.substring(start));
+    }
+
+    /**
+     * @param out Output.
+     * @param key Key of the value, for error messages.
+     * @param val Value.
+     */
+    private static void writeValue(Output out, String key, Serializable val) {
+        if (val == null)
+            out.writeByte(NULL);
+        else if (val instanceof Boolean)
+            out.writeByte((Boolean)val ? TRUE : FALSE);
+        else if (val instanceof Integer) {
+            out.writeByte(INT);
+            out.writeZigzag((Integer)val);
+        }
+        else if (val instanceof Long) {
+            out.writeByte(LONG);
+            out.writeZigzag((Long)val);
+        }
+        else if (val instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeDouble((Double)val);
+        }
+        else if (val instanceof String) {
+            out.writeByte(STRING);
+            out.writeString((String)val);
+        }
+        else if (val instanceof boolean[]) {
+            boolean[] arr = (boolean[])val;
+
+            out.writeByte(BOOLEAN_ARRAY);
+            out.writeVarLong(arr.length);
+
+            for (boolean b : arr)
+                out.writeByte(b ? TRUE : FALSE);
+        }
+        else if (val instanceof int[]) {
+            int[] arr = (int[])val;
+
+            out.writeByte(INT_ARRAY);
+            out.writeVarLong(arr.length);
+
+            for (int i : arr)
+                out.writeZigzag(i);
+        }
+        else if (val instanceof long[]) {
+            long[] arr = (long[])val;
+
+            out.writeByte(LONG_ARRAY);
+            out.writeVarLong(arr.length);
+
+            for (long l : arr)
+                out.writeZigzag(l);
+        }
+        else if (val instanceof double[]) {
+            double[] arr = (double[])val;
+
+            out.writeByte(DOUBLE_ARRAY);
+            out.writeVarLong(arr.length);
+
+            for (double d : arr)
+                out.writeDouble(d);
+        }
+        else if (val instanceof String[]) {
+            String[] arr = (String[])val;
+
+            out.writeByte(STRING_ARRAY);
+            out.writeVarLong(arr.length);
+
+            for (String s : arr) {
+                if (s == null) {
+                    throw new IllegalArgumentException(
+                        "Null elements of configuration arrays are not supported [key=" + key + ']'
+                    );
+                }
+
+                out.writeString(s);
+            }
+        }
+        else
+            throw new IllegalArgumentException(
+                "Unsupported type of configuration value [key=" + key + ", type=" + val.getClass().getName() + ']'
+            );
+    }
+
+    /**
+     * @param in Input.
+     * @return Value.
+     * @throws StorageException If value is malformed.
+     */
+    private static Serializable readValue(Input in) throws StorageException {
+        byte tag = in.readByte();
+
+        switch (tag) {
+            case NULL:
+                return null;
+
+            case FALSE:
+                return Boolean.FALSE;
+
+            case TRUE:
+                return Boolean.TRUE;
+
+            case INT:
+                return (int)in.readZigzag();
+
+            case LONG:
+                return in.readZigzag();
+
+            case DOUBLE:
+                return in.readDouble();
+
+            case STRING:
+                return in.readString();
+
+            case BOOLEAN_ARRAY: {
+                boolean[] arr = new boolean[in.readLength()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = in.readByte() == TRUE;
+
+                return arr;
+            }
+
+            case INT_ARRAY: {
+                int[] arr = new int[in.readLength()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = (int)in.readZigzag();
+
+                return arr;
+            }
+
+            case LONG_ARRAY: {
+                long[] arr = new long[in.readLength()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = in.readZigzag();
+
+                return arr;
+            }
+
+            case DOUBLE_ARRAY: {
+                double[] arr = new double[in.readLength()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = in.readDouble();
+
+                return arr;
+            }
+
+            case STRING_ARRAY: {
+                String[] arr = new String[in.readLength()];
+
+                for (int i = 0; i < arr.length; i++)
+                    arr[i] = in.readString();
+
+                return arr;
+            }
+
+            default:
+                throw new StorageException("Unknown type of configuration value: " + tag);
+        }
+    }
+
+    /**
+     * Growable byte array output.
+     */
+    private static final class Output {
+        /** Buffer. */
+        private byte[] buf;
+
+        /** Position. */
+        private int pos;
+
+        /**
+         * @param cap Initial capacity.
+         */
+        Output(int cap) {
+            buf = new byte[cap];
+        }
+
+        /** */
+        void writeByte(byte b) {
+            ensureCapacity(1);
+
+            buf[pos++] = b;
+        }
+
+        /** Writes unsigned varint. */
+        void writeVarLong(long val) {
+            ensureCapacity(10);
+
+            while ((val & ~0x7FL) != 0) {
+                buf[pos++] = (byte)((val & 0x7F) | 0x80);
+
+                val >>>= 7;
+            }
+
+            buf[pos++] = (byte)val;
+        }
+
+        /** Writes signed varint, small absolute values take less bytes. */
+        void writeZigzag(long val) {
+            writeVarLong((val << 1) ^ (val >> 63));
+        }
+
+        /** */
+        void writeDouble(double val) {
+            ensureCapacity(8);
+
+            long bits = Double.doubleToRawLongBits(val);
+
+            for (int i = 0; i < 8; i++)
+                buf[pos++] = (byte)(bits >>> (i * 8));
+        }
+
+        /** */
+        void writeString(String val) {
+            byte[] bytes = val.getBytes(StandardCharsets.UTF_8);
+
+            writeVarLong(bytes.length);
+
+            ensureCapacity(bytes.length);
+
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+
+            pos += bytes.length;
+        }
+
+        /** */
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        /**
+         * @param len Number of bytes to be written.
+         */
+        private void ensureCapacity(int len) {
+            if (pos + len > buf.length)
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + len));
+        }
+    }
+
+    /**
+     * Byte array input. Reads past the end throw {@link IndexOutOfBoundsException}.
+     */
+    private static final class Input {
+        /** Buffer. */
+        private final byte[] buf;
+
+        /** Position. */
+        private int pos;
+
+        /** End of the data in the buffer. */
+        private final int end;
+
+        /**
+         * @param buf Buffer.
+         * @param pos Start of the data in the buffer.
+         * @param end End of the data in the buffer.
+         */
+        Input(byte[] buf, int pos, int end) {
+            this.buf = buf;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        /** */
+        byte readByte() {
+            if (pos >= end)
+                throw new IndexOutOfBoundsException(pos);
+
+            return buf[pos++];
+        }
+
+        /** Reads unsigned varint. */
+        long readVarLong() {
+            long res = 0;
+
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = readByte();
+
+                res |= (long)(b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0)
+                    return res;
+            }
+
+            throw new StorageException("Malformed varint in configuration data");
+        }
+
+        /**
+         * Reads length of a sequence. Every element takes at least one byte, so valid length never exceeds the number
+         * of remaining bytes.
+         */
+        int readLength() {
+            long len = readVarLong();
+
+            if (len < 0 || len > end - pos)
+                throw new StorageException("Malformed length in configuration data: " + len);
+
+            return (int)len;
+        }
+
+        /** Reads signed varint. */
+        long readZigzag() {
+            long val = readVarLong();
+
+            return (val >>> 1) ^ -(val & 1);
+        }
+
+        /** */
+        double readDouble() {
+            long bits = 0;
+
+            for (int i = 0; i < 8; i++)
+                bits |= (readByte() & 0xFFL) << (i * 8);
+
+            return Double.longBitsToDouble(bits);
+        }
+
+        /** */
+        String readString() {
+            int len = readLength();
+
+            if (len > end - pos)
+                throw new IndexOutOfBoundsException(pos + len);
+
+            String res = new String(buf, pos, len, StandardCharsets.UTF_8);
+
+            pos += len;
+
+            return res;
+        }
+    }
+}
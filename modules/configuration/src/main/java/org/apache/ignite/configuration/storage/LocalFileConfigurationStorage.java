@@ -0,0 +1,635 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.apache.ignite.configuration.RootKey;
+import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.channels.FileChannel.MapMode.READ_WRITE;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Durable node-local configuration storage.
+ * <p/>
+ * Every accepted {@link #write(Map, long) write} is appended to the change log as a single record:
+ * {@code int(length) int(crc32) payload}, where payload is the batch of values encoded by {@link DataCodec} together
+ * with its version. Writes are acknowledged and listeners are notified only after the record is flushed to the disk.
+ * Records appended by concurrent writes while the previous flush is in progress share the next flush.
+ * <p/>
+ * When the log grows over the compaction threshold, all values are written to the snapshot file in the sorted
+ * encoded form, and the log is truncated. Recovery reads the snapshot and then the log sequentially, a torn or
+ * corrupted record at the end of the log is the result of a crash during the write, so it's discarded together with
+ * everything after it.
+ */
+public class LocalFileConfigurationStorage implements ChangesTrackingConfigurationStorage, AutoCloseable {
+    /** Name of the change log file. */
+    public static final String LOG_FILE_NAME = "config.log";
+
+    /** Name of the snapshot file. */
+    public static final String SNAPSHOT_FILE_NAME = "config.snapshot";
+
+    /** Default size of the log in bytes that triggers compaction. */
+    public static final long DFLT_COMPACTION_THRESHOLD = 16 * 1024 * 1024;
+
+    /** Maximal number of the latest batches that are kept in memory for {@link #changesSince(long)}. */
+    private static final int MAX_HISTORY_SIZE = 1024;
+
+    /** Size of the record header: length and checksum. */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /** Magic number of the snapshot file. */
+    private static final int SNAPSHOT_MAGIC = 0x49434653;
+
+    /** Directory of the storage. */
+    private final Path dir;
+
+    /** Size of the log in bytes that triggers compaction. */
+    private final long compactionThreshold;
+
+    /** Change log. */
+    private final FileChannel log;
+
+    /** Executor that flushes the log and completes the writes. */
+    private final ExecutorService flusher;
+
+    /** Durable values, sorted for the range reads. */
+    private final NavigableMap<String, Serializable> values = new TreeMap<>();
+
+    /** Version of the durable values. */
+    private long version;
+
+    /** Version of the latest accepted write, it's greater than {@link #version} while writes wait for the flush. */
+    private long acceptedVersion;
+
+    /** Latest accepted batches, including the ones that wait for the flush. */
+    private final Deque<Data> history = new ArrayDeque<>();
+
+    /** Writes appended to the log and waiting for the flush. */
+    private List<PendingWrite> pending = new ArrayList<>();
+
+    /** Whether flush of {@link #pending} writes has been scheduled. */
+    private boolean flushScheduled;
+
+    /** Error that made the log unusable, all following writes fail. */
+    private IOException failure;
+
+    /** Change listeners. */
+    private final ConfigurationStorageListeners listeners = new ConfigurationStorageListeners();
+
+    /**
+     * Accepted write that waits for the flush.
+     */
+    private static final class PendingWrite {
+        /** Written values and their version. */
+        final Data data;
+
+        /** Future to complete with the version after the flush. */
+        final CompletableFuture<Long> fut = new CompletableFuture<>();
+
+        /**
+         * @param data Written values and their version.
+         */
+        PendingWrite(Data data) {
+            this.data = data;
+        }
+    }
+
+    /**
+     * Constructor. Recovers the state of the storage from the directory.
+     *
+     * @param dir Directory of the storage, created if doesn't exist.
+     * @throws StorageException If failed to recover the storage.
+     */
+    public LocalFileConfigurationStorage(Path dir) throws StorageException {
+        this(dir, DFLT_COMPACTION_THRESHOLD);
+    }
+
+    /**
+     * Constructor. Recovers the state of the storage from the directory.
+     *
+     * @param dir Directory of the storage, created if doesn't exist.
+     * @param compactionThreshold Size of the log in bytes that triggers compaction.
+     * @throws StorageException If failed to recover the storage.
+     */
+    public LocalFileConfigurationStorage(Path dir, long compactionThreshold) throws StorageException {
+        this.dir = dir;
+        this.compactionThreshold = compactionThreshold;
+
+        try {
+            Files.createDirectories(dir);
+
+            readSnapshot();
+
+            log = FileChannel.open(dir.resolve(LOG_FILE_NAME), CREATE, READ, WRITE);
+
+            try {
+                readLog();
+            }
+            catch (IOException | RuntimeException e) {
+                log.close();
+
+                throw e;
+            }
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to recover configuration storage: " + dir, e);
+        }
+
+        acceptedVersion = version;
+
+        flusher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "config-storage-flusher-" + dir.getFileName());
+
+            thread.setDaemon(true);
+
+            return thread;
+        });
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data readAll() throws StorageException {
+        return new Data(new HashMap<>(values), version);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data readRange(String prefix) throws StorageException {
+        Map<String, Serializable> range = new TreeMap<>();
+
+        ConfigurationUtil.copyRange(values, prefix, range);
+
+        return new Data(range, version);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data readRoots(Set<RootKey<?>> rootKeys) throws StorageException {
+        Map<String, Serializable> roots = new TreeMap<>();
+
+        for (RootKey<?> rootKey : rootKeys)
+            ConfigurationUtil.copyRange(values, rootKey.key(), roots);
+
+        return new Data(roots, version);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Boolean> write(Map<String, Serializable> newValues, long sentVersion) {
+        return writeVersioned(newValues, sentVersion).thenApply(Objects::nonNull);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized CompletableFuture<Long> writeVersioned(
+        Map<String, Serializable> newValues,
+        long sentVersion
+    ) {
+        if (failure != null)
+            return CompletableFuture.failedFuture(new StorageException("Configuration log is unusable", failure));
+
+        if (sentVersion != acceptedVersion)
+            return CompletableFuture.completedFuture(null);
+
+        Data batch = new Data(new HashMap<>(newValues), acceptedVersion + 1);
+
+        byte[] payload = DataCodec.encode(batch);
+
+        try {
+            ByteBuffer buf = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length)
+                .putInt(payload.length)
+                .putInt(crc(payload, 0, payload.length))
+                .put(payload)
+                .flip();
+
+            while (buf.hasRemaining())
+                log.write(buf);
+        }
+        catch (IOException e) {
+            // Partially written record would hide all the following ones from the recovery.
+            failure = e;
+
+            return CompletableFuture.failedFuture(new StorageException("Failed to write configuration log", e));
+        }
+
+        acceptedVersion++;
+
+        history.addLast(batch);
+
+        if (history.size() > MAX_HISTORY_SIZE)
+            history.removeFirst();
+
+        PendingWrite write = new PendingWrite(batch);
+
+        pending.add(write);
+
+        if (!flushScheduled) {
+            flushScheduled = true;
+
+            flusher.execute(this::flush);
+        }
+
+        return write.fut;
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data changesSince(long sentVersion) throws StorageException {
+        if (sentVersion > acceptedVersion)
+            return null;
+
+        Map<String, Serializable> changes = new HashMap<>();
+
+        Iterator<Data> it = history.descendingIterator();
+
+        long expectedVer = acceptedVersion;
+
+        while (expectedVer > sentVersion) {
+            // Changes made after the given version are not known anymore.
+            if (!it.hasNext())
+                return null;
+
+            Data batch = it.next();
+
+            assert batch.version() == expectedVer;
+
+            // Later batches override earlier ones. Null values are removals, so "putIfAbsent" can't be used.
+            for (Map.Entry<String, Serializable> entry : batch.values().entrySet()) {
+                if (!changes.containsKey(entry.getKey()))
+                    changes.put(entry.getKey(), entry.getValue());
+            }
+
+            expectedVer--;
+        }
+
+        return new Data(changes, acceptedVersion);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Set<String> keys() throws StorageException {
+        return new HashSet<>(values.keySet());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(ConfigurationStorageListener listener) {
+        listeners.add("", listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(String prefix, ConfigurationStorageListener listener) {
+        listeners.add(prefix, listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void removeListener(ConfigurationStorageListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Writes all durable values to the snapshot and truncates the log. Called automatically when the log grows over
+     * the compaction threshold. Writes are blocked during compaction.
+     *
+     * @throws StorageException If failed to compact the storage.
+     */
+    public void compact() throws StorageException {
+        CompletableFuture<Void> fut = new CompletableFuture<>();
+
+        // Executed by the flusher, so that records are not flushed concurrently.
+        flusher.execute(() -> {
+            try {
+                while (true) {
+                    flush();
+
+                    synchronized (this) {
+                        if (failure != null)
+                            throw failure;
+
+                        // New writes may have been accepted after the flush.
+                        if (acceptedVersion == version) {
+                            doCompact();
+
+                            break;
+                        }
+                    }
+                }
+
+                fut.complete(null);
+            }
+            catch (IOException e) {
+                fut.completeExceptionally(e);
+            }
+        });
+
+        try {
+            fut.join();
+        }
+        catch (RuntimeException e) {
+            throw new StorageException("Failed to compact configuration storage: " + dir, e.getCause());
+        }
+    }
+
+    /**
+     * Stops the flusher and closes the log. Writes that are waiting for the flush are completed first.
+     */
+    @Override public void close() {
+        flusher.shutdown();
+
+        try {
+            flusher.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            log.close();
+        }
+        catch (IOException ignored) {
+            // No-op.
+        }
+    }
+
+    /**
+     * Flushes the log and completes all the pending writes, repeats while there are new pending writes.
+     */
+    private void flush() {
+        while (true) {
+            List<PendingWrite> writes;
+
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    flushScheduled = false;
+
+                    return;
+                }
+
+                writes = pending;
+
+                pending = new ArrayList<>();
+            }
+
+            IOException err = null;
+
+            try {
+                log.force(false);
+            }
+            catch (IOException e) {
+                err = e;
+            }
+
+            synchronized (this) {
+                if (err == null) {
+                    for (PendingWrite write : writes)
+                        apply(write.data);
+
+                    try {
+                        if (acceptedVersion == version && log.size() > compactionThreshold)
+                            doCompact();
+                    }
+                    catch (IOException e) {
+                        // Compaction is not required for correctness, the log is still consistent.
+                    }
+                }
+                else if (failure == null)
+                    failure = err;
+            }
+
+            for (PendingWrite write : writes) {
+                if (err == null) {
+                    listeners.notify(write.data);
+
+                    write.fut.complete(write.data.version());
+                }
+                else
+                    write.fut.completeExceptionally(new StorageException("Failed to flush configuration log", err));
+            }
+        }
+    }
+
+    /**
+     * Applies flushed batch to the durable values.
+     *
+     * @param batch Batch.
+     */
+    private void apply(Data batch) {
+        assert batch.version() == version + 1 : batch.version() + " " + version;
+
+        for (Map.Entry<String, Serializable> entry : batch.values().entrySet()) {
+            if (entry.getValue() != null)
+                values.put(entry.getKey(), entry.getValue());
+            else
+                values.remove(entry.getKey());
+        }
+
+        version = batch.version();
+    }
+
+    /**
+     * Writes the snapshot and truncates the log. Must be called under the lock with all accepted writes flushed.
+     *
+     * @throws IOException If failed.
+     */
+    private void doCompact() throws IOException {
+        assert Thread.holdsLock(this);
+        assert acceptedVersion == version;
+
+        byte[] payload = DataCodec.encode(values, version);
+
+        Path tmp = dir.resolve(SNAPSHOT_FILE_NAME + ".tmp");
+
+        try (FileChannel ch = FileChannel.open(tmp, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            MappedByteBuffer buf = ch.map(READ_WRITE, 0, 4 + RECORD_HEADER_SIZE + payload.length);
+
+            buf.putInt(SNAPSHOT_MAGIC)
+                .putInt(payload.length)
+                .putInt(crc(payload, 0, payload.length))
+                .put(payload);
+
+            buf.force();
+        }
+
+        Files.move(tmp, dir.resolve(SNAPSHOT_FILE_NAME), ATOMIC_MOVE, REPLACE_EXISTING);
+
+        syncDirectory();
+
+        // Crash before the truncation is fine, records that are already in the snapshot are skipped by recovery.
+        log.truncate(0);
+
+        log.force(true);
+    }
+
+    /**
+     * Reads the snapshot, if it exists.
+     *
+     * @throws IOException If failed.
+     * @throws StorageException If snapshot is corrupted.
+     */
+    private void readSnapshot() throws IOException, StorageException {
+        Files.deleteIfExists(dir.resolve(SNAPSHOT_FILE_NAME + ".tmp"));
+
+        Path snapshot = dir.resolve(SNAPSHOT_FILE_NAME);
+
+        if (!Files.exists(snapshot))
+            return;
+
+        try (FileChannel ch = FileChannel.open(snapshot, READ)) {
+            MappedByteBuffer buf = ch.map(READ_ONLY, 0, ch.size());
+
+            // Snapshot is atomically renamed after it's fully written, so it can't be torn.
+            if (buf.remaining() < 4 + RECORD_HEADER_SIZE || buf.getInt() != SNAPSHOT_MAGIC)
+                throw new StorageException("Configuration snapshot is corrupted: " + snapshot);
+
+            int len = buf.getInt();
+            int crc = buf.getInt();
+
+            if (len != buf.remaining())
+                throw new StorageException("Configuration snapshot is corrupted: " + snapshot);
+
+            byte[] payload = new byte[len];
+
+            buf.get(payload);
+
+            if (crc(payload, 0, len) != crc)
+                throw new StorageException("Configuration snapshot is corrupted: " + snapshot);
+
+            Data data = DataCodec.decode(payload);
+
+            values.putAll(data.values());
+
+            version = data.version();
+        }
+    }
+
+    /**
+     * Replays the log in a single sequential read and truncates torn or corrupted records at its end.
+     *
+     * @throws IOException If failed.
+     */
+    private void readLog() throws IOException {
+        long size = log.size();
+
+        if (size > Integer.MAX_VALUE)
+            throw new StorageException("Configuration log is too large: " + size);
+
+        MappedByteBuffer buf = log.map(READ_ONLY, 0, size);
+
+        long validEnd = 0;
+
+        while (buf.remaining() >= RECORD_HEADER_SIZE) {
+            int len = buf.getInt();
+            int crc = buf.getInt();
+
+            if (len <= 0 || len > buf.remaining())
+                break;
+
+            byte[] payload = new byte[len];
+
+            buf.get(payload);
+
+            if (crc(payload, 0, len) != crc)
+                break;
+
+            Data batch;
+
+            try {
+                batch = DataCodec.decode(payload);
+            }
+            catch (StorageException e) {
+                break;
+            }
+
+            // Already in the snapshot.
+            if (batch.version() <= version) {
+                validEnd = buf.position();
+
+                continue;
+            }
+
+            if (batch.version() != version + 1)
+                break;
+
+            apply(batch);
+
+            history.addLast(batch);
+
+            if (history.size() > MAX_HISTORY_SIZE)
+                history.removeFirst();
+
+            validEnd = buf.position();
+        }
+
+        if (validEnd < size) {
+            log.truncate(validEnd);
+
+            log.force(true);
+        }
+
+        log.position(validEnd);
+    }
+
+    /**
+     * Flushes the directory entries, so that renamed files survive the crash. Not supported on some platforms, where
+     * it's not required either.
+     */
+    private void syncDirectory() {
+        try (FileChannel ch = FileChannel.open(dir, READ)) {
+            ch.force(true);
+        }
+        catch (IOException ignored) {
+            // No-op.
+        }
+    }
+
+    /**
+     * @param bytes Bytes.
+     * @param off Offset.
+     * @param len Length.
+     * @return CRC32 checksum.
+     */
+    private static int crc(byte[] bytes, int off, int len) {
+        CRC32 crc = new CRC32();
+
+        crc.update(bytes, off, len);
+
+        return (int)crc.getValue();
+    }
+}
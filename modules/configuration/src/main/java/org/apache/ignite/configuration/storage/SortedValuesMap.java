@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.apache.ignite.configuration.storage;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+
+/**
+ * Immutable map over the sorted array of keys and the array of corresponding values. Lookups use binary search.
+ */
+class SortedValuesMap extends AbstractMap<String, Serializable> {
+    /** Keys in natural order. */
+    private final String[] keys;
+
+    /** Values. */
+    private final Serializable[] values;
+
+    /**
+     * @param keys Keys in natural order, without duplicates.
+     * @param values Values, {@code i}-th value corresponds to the {@code i}-th key.
+     */
+    SortedValuesMap(String[] keys, Serializable[] values) {
+        assert keys.length == values.length;
+
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Serializable get(Object key) {
+        int idx = indexOf(key);
+
+        return idx < 0 ? null : values[idx];
+    }
+
+    /** {@inheritDoc} */
+    @Override public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override public int size() {
+        return keys.length;
+    }
+
+    /** {@inheritDoc} */
+    @Override public Set<Entry<String, Serializable>> entrySet() {
+        return new AbstractSet<>() {
+            /** {@inheritDoc} */
+            @Override public Iterator<Entry<String, Serializable>> iterator() {
+                return new Iterator<>() {
+                    /** Index of the next entry. */
+                    private int idx;
+
+                    /** {@inheritDoc} */
+                    @Override public boolean hasNext() {
+                        return idx < keys.length;
+                    }
+
+                    /** {@inheritDoc} */
+                    @Override public Entry<String, Serializable> next() {
+                        if (!hasNext())
+                            throw new NoSuchElementException();
+
+                        Entry<String, Serializable> entry = new SimpleImmutableEntry<>(keys[idx], values[idx]);
+
+                        idx++;
+
+                        return entry;
+                    }
+                };
+            }
+
+            /** {@inheritDoc} */
+            @Override public int size() {
+                return keys.length;
+            }
+        };
+    }
+
+    /**
+     * Merges the changes into the copy of this map, both are traversed once in the order of keys.
+     *
+     * @param changes Changes sorted by key, {@code null} values are removals.
+     * @return New map.
+     */
+    SortedValuesMap patch(SortedMap<String, Serializable> changes) {
+        String[] newKeys = new String[keys.length + changes.size()];
+        Serializable[] newValues = new Serializable[newKeys.length];
+
+        int size = 0;
+        int idx = 0;
+
+        for (Entry<String, Serializable> change : changes.entrySet()) {
+            String key = change.getKey();
+
+            while (idx < keys.length && keys[idx].compareTo(key) < 0) {
+                newKeys[size] = keys[idx];
+                newValues[size++] = values[idx++];
+            }
+
+            // Changed value replaces the old one.
+            if (idx < keys.length && keys[idx].equals(key))
+                idx++;
+
+            if (change.getValue() != null) {
+                newKeys[size] = key;
+                newValues[size++] = change.getValue();
+            }
+        }
+
+        int tail = keys.length - idx;
+
+        System.arraycopy(keys, idx, newKeys, size, tail);
+        System.arraycopy(values, idx, newValues, size, tail);
+
+        size += tail;
+
+        return new SortedValuesMap(Arrays.copyOf(newKeys, size), Arrays.copyOf(newValues, size));
+    }
+
+    /**
+     * @param key Key.
+     * @return Index of the key or a negative value if there's no such key.
+     */
+    private int indexOf(Object key) {
+        return key instanceof String ? Arrays.binarySearch(keys, key) : -1;
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.tree;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+
+import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.unescape;
+
+/**
+ * Cursor over the flat representation of the configuration, that is read by the generated
+ * {@link InnerNode#readFlat(FlatCursor)} methods. Keys are escaped and joined with dots, entries must be sorted by keys,
+ * so that all entries of any subtree go one after another. In this case the tree is read in a single pass without
+ * building intermediate maps or splitting keys into lists.
+ */
+public final class FlatCursor {
+    /** Iterator over the sorted entries. */
+    private final Iterator<? extends Map.Entry<String, ? extends Serializable>> it;
+
+    /** Key of the current entry, {@code null} if there are no entries left. */
+    private String key;
+
+    /** Value of the current entry. */
+    private Serializable val;
+
+    /** Keys of the entries that were current when nodes on the path were entered. */
+    private String[] prefixKeys = new String[8];
+
+    /** Lengths of the prefixes of the nodes on the path, including the trailing dot. */
+    private int[] prefixLens = new int[8];
+
+    /** Depth of the current node, root has depth {@code 0}. */
+    private int depth;
+
+    /** End of the key segment that was returned by the last {@link #name()} call. */
+    private int segmentEnd;
+
+    /** Whether the last {@link #name()} call returned the name of the leaf. */
+    private boolean leaf;
+
+    /** Number of visited leaves with {@code null} values. */
+    private int nulls;
+
+    /**
+     * @param values Values sorted by keys, like in {@link org.apache.ignite.configuration.storage.Data}.
+     * @param prefix Escaped prefix of the root node including the trailing dot, all keys must start with it.
+     */
+    public FlatCursor(Map<String, ? extends Serializable> values, String prefix) {
+        it = values.entrySet().iterator();
+
+        prefixKeys[0] = prefix;
+        prefixLens[0] = prefix.length();
+
+        advance();
+    }
+
+    /**
+     * Reads all entries into the node.
+     *
+     * @param root Root node.
+     * @throws IllegalArgumentException If there are entries that don't start with the root prefix or don't match
+     *      the shape of the tree.
+     */
+    public void read(InnerNode root) {
+        root.readFlat(this);
+
+        if (key != null)
+            throw new IllegalArgumentException("Unexpected configuration key: " + key);
+    }
+
+    /**
+     * Moves to the next child of the current node. Must be called before any other method of the cursor.
+     *
+     * @return Unescaped name of the child, or {@code null} if all entries of the current node have been read.
+     */
+    public String name() {
+        if (leaf) {
+            leaf = false;
+
+            advance();
+        }
+
+        int start = prefixLens[depth];
+
+        if (key == null || key.length() <= start || !key.regionMatches(0, prefixKeys[depth], 0, start))
+            return null;
+
+        segmentEnd = segmentEnd(key, start);
+
+        leaf = segmentEnd == key.length();
+
+        if (leaf && val == null)
+            nulls++;
+
+        return unescape(key.substring(start, segmentEnd));
+    }
+
+    /**
+     * @return {@code true} if the current child is a leaf with {@code null} value.
+     * @throws IllegalArgumentException If the current child is not a leaf.
+     */
+    public boolean isNull() {
+        checkLeaf();
+
+        return val == null;
+    }
+
+    /**
+     * @param cls Class of the leaf value.
+     * @return Value of the current child, it may be {@code null}.
+     * @throws IllegalArgumentException If the current child is not a leaf.
+     * @throws ClassCastException If the value has an unexpected type.
+     */
+    public <T> T leaf(Class<T> cls) {
+        checkLeaf();
+
+        return cls.cast(val);
+    }
+
+    /**
+     * Reads the current child into the inner node. {@code null} value in place of the node counts as a {@code null}
+     * leaf and is ignored.
+     *
+     * @param node Inner node.
+     */
+    public void descend(InnerNode node) {
+        if (enter()) {
+            node.readFlat(this);
+
+            depth--;
+        }
+    }
+
+    /**
+     * Reads the current child into the named list node.
+     *
+     * @param node Named list node.
+     * @see #descend(InnerNode)
+     */
+    public void descend(NamedListNode<?> node) {
+        if (enter()) {
+            node.readFlat(this);
+
+            depth--;
+        }
+    }
+
+    /**
+     * @return Number of visited leaves with {@code null} values. Subtree that contains such leaves is a deleted element
+     *      of the named list.
+     */
+    public int nulls() {
+        return nulls;
+    }
+
+    /**
+     * Makes the current child the current node.
+     *
+     * @return {@code false} if the child is a {@code null} leaf and there's nothing to read.
+     */
+    private boolean enter() {
+        if (leaf) {
+            if (val != null)
+                throw new IllegalArgumentException("Configuration node expected: " + key);
+
+            return false;
+        }
+
+        if (++depth == prefixLens.length) {
+            prefixKeys = Arrays.copyOf(prefixKeys, depth * 2);
+            prefixLens = Arrays.copyOf(prefixLens, depth * 2);
+        }
+
+        prefixKeys[depth] = key;
+        prefixLens[depth] = segmentEnd + 1;
+
+        return true;
+    }
+
+    /** */
+    private void checkLeaf() {
+        if (!leaf)
+            throw new IllegalArgumentException("Configuration leaf expected: " + key);
+    }
+
+    /** Moves to the next entry. */
+    private void advance() {
+        if (it.hasNext()) {
+            Map.Entry<String, ? extends Serializable> entry = it.next();
+
+            key = entry.getKey();
+            val = entry.getValue();
+        }
+        else {
+            key = null;
+            val = null;
+        }
+    }
+
+    /**
+     * @param key Escaped key.
+     * @param start Start of the segment.
+     * @return Position of the first unescaped dot after the start, or the length of the key if there's none.
+     */
+    private static int segmentEnd(String key, int start) {
+        int len = key.length();
+
+        for (int i = start; i < len; i++) {
+            char c = key.charAt(i);
+
+            if (c == '\\')
+                i++;
+            else if (c == '.')
+                return i;
+        }
+
+        return len;
+    }
+}
@@ -17,10 +17,44 @@
 
 package org.apache.ignite.configuration.tree;
 
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.BiConsumer;
+import org.apache.ignite.configuration.internal.validation.LeafValidator;
 
-/** */
+/**
+ * Base class for the generated configuration nodes.
+ * <p/>
+ * Node is {@link #freeze() frozen} once it becomes a part of the published configuration root. Frozen nodes are
+ * immutable, so they're returned as views and shared between versions of the root without defensive copies. Node is
+ * changed through its {@link #copyOnWrite() mutable copy}, that shares all its children with the frozen node until
+ * they're changed as well.
+ */
 public abstract class InnerNode implements TraversableTreeNode, ConstructableTreeNode, Cloneable {
+    /** Visitor that freezes children of the node. */
+    private static final ConfigurationVisitor<Void> FREEZE_VISITOR = new ConfigurationVisitor<>() {
+        @Override public Void visitInnerNode(String key, InnerNode node) {
+            if (node != null)
+                node.freeze();
+
+            return null;
+        }
+
+        @Override public <N extends InnerNode> Void visitNamedListNode(String key, NamedListNode<N> node) {
+            node.freeze();
+
+            return null;
+        }
+    };
+
+    /**
+     * Whether the node is frozen. Not volatile, frozen nodes are published through volatile writes of the roots, or
+     * are confined to the thread that has frozen them.
+     */
+    private boolean frozen;
+
     /** {@inheritDoc} */
     @Override public final <T> T accept(String key, ConfigurationVisitor<T> visitor) {
         return visitor.visitInnerNode(key, this);
@@ -79,23 +113,167 @@ public abstract class InnerNode implements TraversableTreeNode, ConstructableTre
      */
     public abstract <T> T traverseChild(String key, ConfigurationVisitor<T> visitor) throws NoSuchElementException;
 
+    /**
+     * Method with auto-generated implementation. Same as {@link #traverseChild(String, ConfigurationVisitor)}, but the
+     * child is identified by its {@link #ordinal(String) ordinal}. Must look like this:
+     * <pre>{@code
+     * @Override public void traverseChild(int ordinal, ConfigurationVisitor visitor) throws NoSuchElementException {
+     *     switch (ordinal) {
+     *         case 0:
+     *             return visitor.visitInnerNode("pojoField1", this.pojoField1);
+     *
+     *         case 1:
+     *             return visitor.visitNamedListNode("pojoField2", this.pojoField2);
+     *
+     *         default:
+     *             throw new NoSuchElementException(String.valueOf(ordinal));
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param ordinal Ordinal of the child.
+     * @param visitor Configuration visitor.
+     * @throws NoSuchElementException If there's no field with given ordinal.
+     */
+    public abstract <T> T traverseChild(int ordinal, ConfigurationVisitor<T> visitor) throws NoSuchElementException;
+
+    /**
+     * Method with auto-generated implementation. Compares the leaf with the same leaf of another node of the same
+     * class without boxing, unset leaves are only equal to unset ones. Must look like this:
+     * <pre>{@code
+     * @Override public boolean leafEquals(int ordinal, InnerNode other) throws NoSuchElementException {
+     *     Foo that = (Foo)other;
+     *
+     *     switch (ordinal) {
+     *         case 2:
+     *             return (_unset & 0x1L) == (that._unset & 0x1L) && primitiveField1 == that.primitiveField1;
+     *
+     *         case 3:
+     *             return Objects.equals(primitiveField2, that.primitiveField2);
+     *
+     *         default:
+     *             throw new NoSuchElementException(String.valueOf(ordinal));
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param ordinal Ordinal of the leaf.
+     * @param other Node of the same class.
+     * @return {@code true} if leaves are equal.
+     * @throws NoSuchElementException If there's no leaf with given ordinal.
+     */
+    public abstract boolean leafEquals(int ordinal, InnerNode other) throws NoSuchElementException;
+
+    /**
+     * Method with auto-generated implementation. Writes all values of the node to the sink, using escaped keys that are
+     * precomputed for every field. Nulls are written for the leaves of deleted named list elements, these leaves are
+     * found in the current node. Must look like this:
+     * <pre>{@code
+     * @Override public void writeFlat(String prefix, InnerNode cur, BiConsumer<String, Serializable> sink) {
+     *     Foo that = (Foo)cur;
+     *
+     *     if (pojoField1 != null)
+     *         pojoField1.writeFlat(prefix + "pojoField1.", that == null ? null : that.pojoField1, sink);
+     *
+     *     pojoField2.writeFlat(prefix + "pojoField2.", that == null ? null : that.pojoField2, sink);
+     *
+     *     if ((_unset & 0x1L) == 0)
+     *         sink.accept(prefix + "primitiveField1", primitiveField1);
+     *
+     *     if (primitiveField2 != null)
+     *         sink.accept(prefix + "primitiveField2", primitiveField2);
+     * }
+     * }</pre>
+     *
+     * @param prefix Escaped prefix of the node including the trailing dot.
+     * @param cur Same node in the current configuration, or {@code null} if there's none.
+     * @param sink Consumer of the escaped keys and values.
+     */
+    public abstract void writeFlat(String prefix, InnerNode cur, BiConsumer<String, Serializable> sink);
+
+    /**
+     * Method with auto-generated implementation. Reads values of the node from the cursor, {@code null} value resets
+     * the leaf. Must look like this:
+     * <pre>{@code
+     * @Override public void readFlat(FlatCursor cursor) throws NoSuchElementException {
+     *     checkMutable();
+     *
+     *     for (String key; (key = cursor.name()) != null; ) {
+     *         switch (key) {
+     *             case "pojoField1":
+     *                 cursor.descend(pojoField1 = (pojoField1 == null ? new Bar() : (Bar)pojoField1.copyOnWrite()));
+     *                 break;
+     *
+     *             case "pojoField2":
+     *                 cursor.descend(pojoField2 = pojoField2.copyOnWrite());
+     *                 break;
+     *
+     *             case "primitiveField1":
+     *                 primitiveField1 = cursor.isNull() ? 0 : cursor.leaf(Integer.class);
+     *                 _unset = cursor.isNull() ? _unset | 0x1L : _unset & ~0x1L;
+     *                 break;
+     *
+     *             case "primitiveField2":
+     *                 primitiveField2 = cursor.leaf(String.class);
+     *                 break;
+     *
+     *             default:
+     *                 throw new NoSuchElementException(key);
+     *         }
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param cursor Cursor positioned at the first entry of the node.
+     * @throws NoSuchElementException If there's an unknown key.
+     * @see FlatCursor
+     */
+    public abstract void readFlat(FlatCursor cursor) throws NoSuchElementException;
+
+    /**
+     * Method with auto-generated implementation. Returns ordinal of the field, which is its position in the
+     * configuration schema. Ordinals are the same for all instances of the class, so they can be resolved once and
+     * then used to access children of any of them. Must look like this:
+     * <pre>{@code
+     * @Override public int ordinal(String key) throws NoSuchElementException {
+     *     switch (key) {
+     *         case "pojoField1":
+     *             return 0;
+     *
+     *         case "pojoField2":
+     *             return 1;
+     *
+     *         default:
+     *             throw new NoSuchElementException(key);
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param key Name of the child.
+     * @return Ordinal of the child.
+     * @throws NoSuchElementException If field {@code key} is not found.
+     */
+    public abstract int ordinal(String key) throws NoSuchElementException;
+
     /**
      * Method with auto-generated implementation. Must look like this:
      * <pre>{@code
      * @Override public abstract void construct(String key, ConfigurationSource src) throws NoSuchElementException {
+     *     checkMutable();
+     *
      *     switch (key) {
      *         case "namedList":
      *             if (src == null)
      *                 namedList = new NamedListNode<>(Foo::new);
      *             else
-     *                 src.descend(namedList = namedList.copy());
+     *                 src.descend(namedList = namedList.copyOnWrite());
      *             break;
      *
      *         case "innerNode":
      *             if (src == null)
      *                 innerNode = null;
      *             else
-     *                 src.descend(innerNode = (innerNode == null ? new Bar() : (Bar)innerNode.copy()));
+     *                 src.descend(innerNode = (innerNode == null ? new Bar() : (Bar)innerNode.copyOnWrite()));
      *             break;
      *
      *         case "leaf":
@@ -110,16 +288,132 @@ public abstract class InnerNode implements TraversableTreeNode, ConstructableTre
      */
     @Override public abstract void construct(String key, ConfigurationSource src) throws NoSuchElementException;
 
+    /**
+     * Method with auto-generated implementation. Same as {@link #construct(String, ConfigurationSource)}, but the
+     * child is identified by its {@link #ordinal(String) ordinal}. Must look like this:
+     * <pre>{@code
+     * @Override public void construct(int ordinal, ConfigurationSource src) throws NoSuchElementException {
+     *     checkMutable();
+     *
+     *     switch (ordinal) {
+     *         case 0:
+     *             if (src == null)
+     *                 namedList = new NamedListNode<>(Foo::new);
+     *             else
+     *                 src.descend(namedList = namedList.copyOnWrite());
+     *             break;
+     *
+     *         default: throw new NoSuchElementException(String.valueOf(ordinal));
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param ordinal Ordinal of the child.
+     * @param src Source that provides value for the child, {@code null} resets it.
+     * @throws NoSuchElementException If there's no field with given ordinal.
+     */
+    public abstract void construct(int ordinal, ConfigurationSource src) throws NoSuchElementException;
+
+    /**
+     * Method with auto-generated implementation for schemas with validated fields. Returns validators that must be
+     * executed when the field is changed: validators of the field itself, followed by validators of other fields that
+     * depend on it. Lists are precomputed once per schema class. Must look like this:
+     * <pre>{@code
+     * @Override public List<LeafValidator> validators(String key) {
+     *     switch (key) {
+     *         case "min":
+     *             return _minValidators;
+     *
+     *         case "max":
+     *             return _maxValidators;
+     *
+     *         default:
+     *             return Collections.emptyList();
+     *     }
+     * }
+     * }</pre>
+     *
+     * @param key Name of the leaf.
+     * @return Validators to execute.
+     */
+    public List<LeafValidator> validators(String key) {
+        return Collections.emptyList();
+    }
+
     /** */
     public abstract Class<?> schemaType();
 
-    /** {@inheritDoc} */
+    /**
+     * Freezes the node together with all its children. Frozen subtrees are skipped, so only the nodes that have been
+     * copied or created since the previous freeze are visited.
+     */
+    public final void freeze() {
+        if (frozen)
+            return;
+
+        frozen = true;
+
+        traverseChildren(FREEZE_VISITOR);
+    }
+
+    /**
+     * @return {@code true} if the node is frozen and can't be changed.
+     */
+    public final boolean frozen() {
+        return frozen;
+    }
+
+    /**
+     * Called by the generated methods that change the node.
+     *
+     * @throws IllegalStateException If the node is frozen.
+     */
+    protected final void checkMutable() {
+        if (frozen)
+            throw new IllegalStateException("Frozen configuration node can't be changed: " + getClass().getSimpleName());
+    }
+
+    /**
+     * @return This node if it's not frozen, otherwise its mutable {@link #copy() copy}.
+     */
+    public final InnerNode copyOnWrite() {
+        return frozen ? copy() : this;
+    }
+
+    /**
+     * Creates a mutable copy of the node. Frozen children are shared between the node and the copy, and are copied on
+     * write. Mutable children are copied right away, so the node itself is not frozen, and copying a frozen node
+     * doesn't depend on the size of its subtree.
+     *
+     * @return Mutable copy of the node.
+     */
     @Override public InnerNode copy() {
+        InnerNode copy;
+
         try {
-            return (InnerNode)clone();
+            copy = (InnerNode)clone();
         }
         catch (CloneNotSupportedException e) {
             throw new IllegalStateException(e);
         }
+
+        if (frozen)
+            copy.frozen = false;
+        else
+            copy.copyMutableChildren();
+
+        return copy;
     }
+
+    /**
+     * Method with auto-generated implementation. Called on the shallow copy of the mutable node, replaces children that
+     * are not frozen with their {@link #copy() copies}, frozen children stay shared. Must look like this:
+     * <pre>{@code
+     * @Override protected void copyMutableChildren() {
+     *     if (!namedList.frozen()) namedList = namedList.copy();
+     *     if (innerNode != null && !innerNode.frozen()) innerNode = (Bar)innerNode.copy();
+     * }
+     * }</pre>
+     */
+    protected abstract void copyMutableChildren();
 }
@@ -17,21 +17,38 @@
 
 package org.apache.ignite.configuration.tree;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Map;
+import java.io.Serializable;
+import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-/** */
+import static org.apache.ignite.configuration.internal.util.ConfigurationUtil.escape;
+
+/**
+ * Named list of inner nodes. Same as {@link InnerNode}, the list is {@link #freeze() frozen} once it becomes a part of
+ * the published configuration root, and its elements are copied on write.
+ */
 public final class NamedListNode<N extends InnerNode> implements NamedListView<N>, NamedListChange<N, N>, TraversableTreeNode, ConstructableTreeNode {
     /** */
     public final Supplier<N> valSupplier;
 
-    /** */
-    private final Map<String, N> map;
+    /**
+     * Elements of the list. Persistent map is shared between copies of the node and replaced on every modification,
+     * so both {@link #copy()} and modifications don't depend on the size of the list.
+     */
+    private PersistentHashMap<String, N> map;
+
+    /** Whether the list is frozen. Published the same way as {@link InnerNode#frozen()}. */
+    private boolean frozen;
+
+    /**
+     * Keys of the elements that have been created or copied since the previous freeze, {@code null} if there are none.
+     * Other elements are shared with the frozen lists, so both {@link #freeze()} and {@link #copy()} only visit these.
+     */
+    private Set<String> mutableKeys;
 
     /**
      * Default constructor.
@@ -40,7 +57,7 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
      */
     public NamedListNode(Supplier<N> valSupplier) {
         this.valSupplier = valSupplier;
-        map = new HashMap<>();
+        map = PersistentHashMap.empty();
     }
 
     /**
@@ -50,7 +67,7 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
      */
     private NamedListNode(NamedListNode<N> node) {
         valSupplier = node.valSupplier;
-        map = new HashMap<>(node.map);
+        map = node.map;
     }
 
     /** {@inheritDoc} */
@@ -60,7 +77,7 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
 
     /** {@inheritDoc} */
     @Override public final Set<String> namedListKeys() {
-        return Collections.unmodifiableSet(map.keySet());
+        return map.keySet();
     }
 
     /** {@inheritDoc} */
@@ -72,13 +89,12 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
     @Override public final NamedListChange<N, N> update(String key, Consumer<N> valConsumer) {
         Objects.requireNonNull(valConsumer, "valConsumer");
 
+        checkMutable();
+
         if (map.containsKey(key) && map.get(key) == null)
             throw new IllegalStateException("You can't add entity that has just been deleted [key=" + key + ']');
 
-        N val = map.get(key);
-
-        if (val == null)
-            map.put(key, val = valSupplier.get());
+        N val = mutableElement(key);
 
         valConsumer.accept(val);
 
@@ -87,10 +103,12 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
 
     /** {@inheritDoc} */
     @Override public NamedListChange<N, N> delete(String key) {
+        checkMutable();
+
         if (map.containsKey(key) && map.get(key) != null)
             throw new IllegalStateException("You can't add entity that has just been modified [key=" + key + ']');
 
-        map.put(key, null);
+        map = map.put(key, null);
 
         return this;
     }
@@ -98,10 +116,9 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
     @Override public NamedListChange<N, N> create(String key, Consumer<N> valConsumer) {
         Objects.requireNonNull(valConsumer, "valConsumer");
 
-        N val = map.get(key);
+        checkMutable();
 
-        if (val == null)
-            map.put(key, val = valSupplier.get());
+        N val = mutableElement(key);
 
         valConsumer.accept(val);
 
@@ -110,16 +127,79 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
 
     /** {@inheritDoc} */
     @Override public void construct(String key, ConfigurationSource src) {
+        checkMutable();
+
         if (src == null)
-            map.remove(key);
-        else {
+            map = map.remove(key);
+        else
+            src.descend(mutableElement(key));
+    }
+
+    /**
+     * Returns the element that can be changed, creating it or copying the frozen one if necessary.
+     *
+     * @param key Key of the element.
+     * @return Mutable element.
+     */
+    private N mutableElement(String key) {
+        N val = map.get(key);
+
+        N mutableVal = val == null ? valSupplier.get() : val.frozen() ? copy(val) : val;
+
+        if (mutableVal != val) {
+            map = map.put(key, mutableVal);
+
+            if (mutableKeys == null)
+                mutableKeys = new HashSet<>();
+
+            mutableKeys.add(key);
+        }
+
+        return mutableVal;
+    }
+
+    /**
+     * Writes values of all elements to the sink. Deleted elements are written as {@code null} values of all their
+     * leaves in the current list.
+     *
+     * @param prefix Escaped prefix of the list including the trailing dot.
+     * @param cur Same list in the current configuration, or {@code null} if there's none.
+     * @param sink Consumer of the escaped keys and values.
+     * @see InnerNode#writeFlat(String, InnerNode, BiConsumer)
+     */
+    public void writeFlat(String prefix, NamedListNode<?> cur, BiConsumer<String, Serializable> sink) {
+        for (String key : map.keySet()) {
             N val = map.get(key);
 
-            val = val == null ? valSupplier.get() : (N)val.copy();
+            InnerNode curVal = cur == null ? null : cur.get(key);
 
-            map.put(key, val);
+            String elementPrefix = prefix + escape(key) + '.';
 
-            src.descend(val);
+            if (val != null)
+                val.writeFlat(elementPrefix, curVal, sink);
+            else if (curVal != null)
+                curVal.writeFlat(elementPrefix, null, (k, v) -> sink.accept(k, null));
+        }
+    }
+
+    /**
+     * Reads elements from the cursor. Element that contains {@code null} values is removed from the list.
+     *
+     * @param cursor Cursor positioned at the first entry of the list.
+     * @see InnerNode#readFlat(FlatCursor)
+     */
+    public void readFlat(FlatCursor cursor) {
+        checkMutable();
+
+        for (String key; (key = cursor.name()) != null; ) {
+            N val = mutableElement(key);
+
+            int nulls = cursor.nulls();
+
+            cursor.descend(val);
+
+            if (cursor.nulls() != nulls)
+                map = map.remove(key);
         }
     }
 
@@ -128,8 +208,80 @@ public final class NamedListNode<N extends InnerNode> implements NamedListView<N
         return false;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * Freezes the list together with all its elements. Only the elements that have been created or copied since the
+     * previous freeze are visited.
+     *
+     * @see InnerNode#freeze()
+     */
+    public void freeze() {
+        if (frozen)
+            return;
+
+        frozen = true;
+
+        if (mutableKeys != null) {
+            for (String key : mutableKeys) {
+                N val = map.get(key);
+
+                if (val != null)
+                    val.freeze();
+            }
+
+            mutableKeys = null;
+        }
+    }
+
+    /**
+     * @return {@code true} if the list is frozen and can't be changed.
+     */
+    public boolean frozen() {
+        return frozen;
+    }
+
+    /**
+     * @throws IllegalStateException If the list is frozen.
+     */
+    private void checkMutable() {
+        if (frozen)
+            throw new IllegalStateException("Frozen named list can't be changed");
+    }
+
+    /**
+     * @return This list if it's not frozen, otherwise its mutable {@link #copy() copy}.
+     */
+    public NamedListNode<N> copyOnWrite() {
+        return frozen ? copy() : this;
+    }
+
+    /**
+     * Creates a mutable copy of the list. Frozen elements are shared between the list and the copy, and are copied on
+     * write. Mutable elements are copied right away, so the list itself is not frozen.
+     *
+     * @return Mutable copy of the list.
+     */
     @Override public NamedListNode<N> copy() {
-        return new NamedListNode<>(this);
+        NamedListNode<N> copy = new NamedListNode<>(this);
+
+        if (mutableKeys != null) {
+            for (String key : mutableKeys) {
+                N val = map.get(key);
+
+                if (val != null)
+                    copy.map = copy.map.put(key, copy(val));
+            }
+
+            copy.mutableKeys = new HashSet<>(mutableKeys);
+        }
+
+        return copy;
+    }
+
+    /**
+     * @param val Element of the list.
+     * @return Mutable copy of the element.
+     */
+    private N copy(N val) {
+        return (N)val.copy();
     }
 }
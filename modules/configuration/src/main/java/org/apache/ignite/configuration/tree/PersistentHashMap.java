@@ -0,0 +1,567 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.tree;
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable hash array mapped trie. Every modification returns a new map that shares all untouched parts of the trie
+ * with the original one, so "copying" is free and both lookups and updates take O(log<sub>32</sub>(n)) time.
+ * <p/>
+ * Keys can't be {@code null}, values can.
+ *
+ * @param <K> Type of keys.
+ * @param <V> Type of values.
+ */
+public final class PersistentHashMap<K, V> {
+    /** Number of hash bits consumed by a single level of the trie. */
+    private static final int BITS = 5;
+
+    /** Mask to extract {@link #BITS} bits of the hash. */
+    private static final int MASK = (1 << BITS) - 1;
+
+    /** Maximal depth of the trie: 7 levels of bitmap nodes and a collision node at the bottom. */
+    private static final int MAX_DEPTH = 8;
+
+    /** Empty map. */
+    private static final PersistentHashMap<?, ?> EMPTY = new PersistentHashMap<>(BitmapNode.EMPTY, 0);
+
+    /** Root of the trie. */
+    private final Node root;
+
+    /** Number of entries. */
+    private final int size;
+
+    /** Lazily created keys view. Benign data race. */
+    private Set<K> keySet;
+
+    /**
+     * @param root Root of the trie.
+     * @param size Number of entries.
+     */
+    private PersistentHashMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * @param <K> Type of keys.
+     * @param <V> Type of values.
+     * @return Empty map.
+     */
+    public static <K, V> PersistentHashMap<K, V> empty() {
+        return (PersistentHashMap<K, V>)EMPTY;
+    }
+
+    /**
+     * @return Number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param key Key.
+     * @return {@code true} if map has an entry with given key, even if it's mapped to {@code null}.
+     */
+    public boolean containsKey(Object key) {
+        return root.find(key, hash(key), 0) != null;
+    }
+
+    /**
+     * @param key Key.
+     * @return Value mapped to the key or {@code null} if there's no such key.
+     */
+    public V get(Object key) {
+        Entry e = root.find(key, hash(key), 0);
+
+        return e == null ? null : (V)e.val;
+    }
+
+    /**
+     * @param key Key.
+     * @param val Value, possibly {@code null}.
+     * @return Map with the key mapped to the value. Same map if the key has already been mapped to the same object.
+     */
+    public PersistentHashMap<K, V> put(K key, V val) {
+        Objects.requireNonNull(key, "key");
+
+        int hash = hash(key);
+
+        Entry old = root.find(key, hash, 0);
+
+        if (old != null && old.val == val)
+            return this;
+
+        return new PersistentHashMap<>(root.put(new Entry(hash, key, val), 0), old == null ? size + 1 : size);
+    }
+
+    /**
+     * @param key Key.
+     * @return Map without given key. Same map if there was no such key.
+     */
+    public PersistentHashMap<K, V> remove(Object key) {
+        Node newRoot = root.remove(key, hash(key), 0);
+
+        if (newRoot == root)
+            return this;
+
+        return newRoot == null ? empty() : new PersistentHashMap<>(newRoot, size - 1);
+    }
+
+    /**
+     * @return Unmodifiable set of keys backed by the map. Iteration order is not specified but it's stable.
+     */
+    public Set<K> keySet() {
+        Set<K> keys = keySet;
+
+        if (keys == null) {
+            keySet = keys = new AbstractSet<>() {
+                /** {@inheritDoc} */
+                @Override public Iterator<K> iterator() {
+                    return new KeyIterator<>(root);
+                }
+
+                /** {@inheritDoc} */
+                @Override public int size() {
+                    return size;
+                }
+
+                /** {@inheritDoc} */
+                @Override public boolean contains(Object o) {
+                    return containsKey(o);
+                }
+            };
+        }
+
+        return keys;
+    }
+
+    /**
+     * @param key Key.
+     * @return Spread hash code of the key.
+     */
+    private static int hash(Object key) {
+        int h = Objects.hashCode(key);
+
+        return h ^ (h >>> 16);
+    }
+
+    /** Key-value pair. Leaf of the trie. */
+    private static final class Entry {
+        /** Hash of the key. */
+        final int hash;
+
+        /** */
+        final Object key;
+
+        /** */
+        final Object val;
+
+        /**
+         * @param hash Hash of the key.
+         * @param key Key.
+         * @param val Value.
+         */
+        Entry(int hash, Object key, Object val) {
+            this.hash = hash;
+            this.key = key;
+            this.val = val;
+        }
+
+        /**
+         * @param key Key.
+         * @param hash Hash of the key.
+         * @return {@code true} if entry has given key.
+         */
+        boolean matches(Object key, int hash) {
+            return this.hash == hash && this.key.equals(key);
+        }
+    }
+
+    /** Inner node of the trie. */
+    private abstract static class Node {
+        /** Entries and child nodes. */
+        final Object[] slots;
+
+        /**
+         * @param slots Entries and child nodes.
+         */
+        Node(Object[] slots) {
+            this.slots = slots;
+        }
+
+        /**
+         * @param key Key.
+         * @param hash Hash of the key.
+         * @param shift Number of hash bits consumed by the upper levels.
+         * @return Entry with given key or {@code null} if there's none.
+         */
+        abstract Entry find(Object key, int hash, int shift);
+
+        /**
+         * @param e New entry.
+         * @param shift Number of hash bits consumed by the upper levels.
+         * @return Node with the entry, possibly replacing an entry with the same key.
+         */
+        abstract Node put(Entry e, int shift);
+
+        /**
+         * @param key Key.
+         * @param hash Hash of the key.
+         * @param shift Number of hash bits consumed by the upper levels.
+         * @return Node without the key, same node if there was no such key or {@code null} if node became empty.
+         */
+        abstract Node remove(Object key, int hash, int shift);
+
+        /**
+         * @return The only entry of the node if node has no other entries or children, {@code null} otherwise.
+         */
+        Entry singleEntry() {
+            return slots.length == 1 && slots[0] instanceof Entry ? (Entry)slots[0] : null;
+        }
+    }
+
+    /** Node that holds up to 32 entries or children, indexed by {@link #BITS} bits of the hash. */
+    private static final class BitmapNode extends Node {
+        /** */
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        /** Bitmap of occupied positions, slots are stored in the order of positions. */
+        final int bitmap;
+
+        /**
+         * @param bitmap Bitmap of occupied positions.
+         * @param slots Entries and child nodes.
+         */
+        BitmapNode(int bitmap, Object[] slots) {
+            super(slots);
+
+            this.bitmap = bitmap;
+        }
+
+        /** {@inheritDoc} */
+        @Override Entry find(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+
+            if ((bitmap & bit) == 0)
+                return null;
+
+            Object slot = slots[index(bit)];
+
+            if (slot instanceof Entry)
+                return ((Entry)slot).matches(key, hash) ? (Entry)slot : null;
+
+            return ((Node)slot).find(key, hash, shift + BITS);
+        }
+
+        /** {@inheritDoc} */
+        @Override Node put(Entry e, int shift) {
+            int bit = bit(e.hash, shift);
+            int idx = index(bit);
+
+            if ((bitmap & bit) == 0)
+                return new BitmapNode(bitmap | bit, insert(slots, idx, e));
+
+            Object slot = slots[idx];
+
+            Object newSlot;
+
+            if (slot instanceof Entry) {
+                Entry old = (Entry)slot;
+
+                newSlot = old.matches(e.key, e.hash) ? e : merge(old, e, shift + BITS);
+            }
+            else
+                newSlot = ((Node)slot).put(e, shift + BITS);
+
+            return new BitmapNode(bitmap, replace(slots, idx, newSlot));
+        }
+
+        /** {@inheritDoc} */
+        @Override Node remove(Object key, int hash, int shift) {
+            int bit = bit(hash, shift);
+
+            if ((bitmap & bit) == 0)
+                return this;
+
+            int idx = index(bit);
+
+            Object slot = slots[idx];
+
+            Object newSlot;
+
+            if (slot instanceof Entry) {
+                if (!((Entry)slot).matches(key, hash))
+                    return this;
+
+                newSlot = null;
+            }
+            else {
+                Node child = (Node)slot;
+
+                Node newChild = child.remove(key, hash, shift + BITS);
+
+                if (newChild == child)
+                    return this;
+
+                // Child with a single entry is replaced with the entry itself to keep the trie compact.
+                Entry single = newChild == null ? null : newChild.singleEntry();
+
+                newSlot = single != null ? single : newChild;
+            }
+
+            if (newSlot != null)
+                return new BitmapNode(bitmap, replace(slots, idx, newSlot));
+
+            if (bitmap == bit)
+                return null;
+
+            return new BitmapNode(bitmap ^ bit, delete(slots, idx));
+        }
+
+        /**
+         * @param bit Bit of the slot position in the bitmap.
+         * @return Index of the slot in the array.
+         */
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        /**
+         * @param e1 Entry.
+         * @param e2 Entry with a different key.
+         * @param shift Number of hash bits consumed by the upper levels.
+         * @return Node that holds both entries.
+         */
+        private static Node merge(Entry e1, Entry e2, int shift) {
+            if (e1.hash == e2.hash)
+                return new CollisionNode(e1.hash, new Object[] {e1, e2});
+
+            int bit1 = bit(e1.hash, shift);
+            int bit2 = bit(e2.hash, shift);
+
+            if (bit1 == bit2)
+                return new BitmapNode(bit1, new Object[] {merge(e1, e2, shift + BITS)});
+
+            // Highest position has a negative bit.
+            boolean ordered = Integer.compareUnsigned(bit1, bit2) < 0;
+
+            return new BitmapNode(bit1 | bit2, ordered ? new Object[] {e1, e2} : new Object[] {e2, e1});
+        }
+
+        /**
+         * @param hash Hash.
+         * @param shift Number of hash bits consumed by the upper levels.
+         * @return Bit that corresponds to the position of the hash on the given level.
+         */
+        private static int bit(int hash, int shift) {
+            return 1 << ((hash >>> shift) & MASK);
+        }
+    }
+
+    /** Node with entries that have completely equal hashes. */
+    private static final class CollisionNode extends Node {
+        /** Common hash of all entries. */
+        final int hash;
+
+        /**
+         * @param hash Common hash of all entries.
+         * @param entries Entries.
+         */
+        CollisionNode(int hash, Object[] entries) {
+            super(entries);
+
+            this.hash = hash;
+        }
+
+        /** {@inheritDoc} */
+        @Override Entry find(Object key, int hash, int shift) {
+            if (hash != this.hash)
+                return null;
+
+            int idx = indexOf(key);
+
+            return idx < 0 ? null : (Entry)slots[idx];
+        }
+
+        /** {@inheritDoc} */
+        @Override Node put(Entry e, int shift) {
+            // Different hash can only be placed on the lower levels, this node becomes a child of the bitmap node.
+            if (e.hash != hash)
+                return new BitmapNode(BitmapNode.bit(hash, shift), new Object[] {this}).put(e, shift);
+
+            int idx = indexOf(e.key);
+
+            if (idx < 0)
+                return new CollisionNode(hash, insert(slots, slots.length, e));
+
+            return new CollisionNode(hash, replace(slots, idx, e));
+        }
+
+        /** {@inheritDoc} */
+        @Override Node remove(Object key, int hash, int shift) {
+            if (hash != this.hash)
+                return this;
+
+            int idx = indexOf(key);
+
+            if (idx < 0)
+                return this;
+
+            return slots.length == 1 ? null : new CollisionNode(hash, delete(slots, idx));
+        }
+
+        /**
+         * @param key Key.
+         * @return Index of the entry with given key or {@code -1} if there's none.
+         */
+        private int indexOf(Object key) {
+            for (int i = 0; i < slots.length; i++) {
+                if (((Entry)slots[i]).key.equals(key))
+                    return i;
+            }
+
+            return -1;
+        }
+    }
+
+    /**
+     * Depth-first iterator over the keys of the trie.
+     *
+     * @param <K> Type of keys.
+     */
+    private static final class KeyIterator<K> implements Iterator<K> {
+        /** Slots of the nodes on the current path. */
+        private final Object[][] path = new Object[MAX_DEPTH][];
+
+        /** Indexes of the next slots to visit on the current path. */
+        private final int[] idxs = new int[MAX_DEPTH];
+
+        /** Current depth, {@code -1} if iteration is finished. */
+        private int depth;
+
+        /** Next entry, {@code null} if iteration is finished. */
+        private Entry next;
+
+        /**
+         * @param root Root of the trie.
+         */
+        KeyIterator(Node root) {
+            path[0] = root.slots;
+
+            advance();
+        }
+
+        /** {@inheritDoc} */
+        @Override public boolean hasNext() {
+            return next != null;
+        }
+
+        /** {@inheritDoc} */
+        @Override public K next() {
+            Entry e = next;
+
+            if (e == null)
+                throw new NoSuchElementException();
+
+            advance();
+
+            return (K)e.key;
+        }
+
+        /**
+         * Finds next entry.
+         */
+        private void advance() {
+            while (depth >= 0) {
+                Object[] slots = path[depth];
+
+                if (idxs[depth] == slots.length) {
+                    depth--;
+
+                    continue;
+                }
+
+                Object slot = slots[idxs[depth]++];
+
+                if (slot instanceof Entry) {
+                    next = (Entry)slot;
+
+                    return;
+                }
+
+                depth++;
+
+                path[depth] = ((Node)slot).slots;
+                idxs[depth] = 0;
+            }
+
+            next = null;
+        }
+    }
+
+    /**
+     * @param arr Array.
+     * @param idx Index of the new element.
+     * @param elem New element.
+     * @return Copy of the array with the element inserted at given index.
+     */
+    private static Object[] insert(Object[] arr, int idx, Object elem) {
+        Object[] res = new Object[arr.length + 1];
+
+        System.arraycopy(arr, 0, res, 0, idx);
+        System.arraycopy(arr, idx, res, idx + 1, arr.length - idx);
+
+        res[idx] = elem;
+
+        return res;
+    }
+
+    /**
+     * @param arr Array.
+     * @param idx Index of the element.
+     * @param elem New element.
+     * @return Copy of the array with the element at given index replaced.
+     */
+    private static Object[] replace(Object[] arr, int idx, Object elem) {
+        Object[] res = arr.clone();
+
+        res[idx] = elem;
+
+        return res;
+    }
+
+    /**
+     * @param arr Array.
+     * @param idx Index of the element.
+     * @return Copy of the array without the element at given index.
+     */
+    private static Object[] delete(Object[] arr, int idx) {
+        Object[] res = new Object[arr.length - 1];
+
+        System.arraycopy(arr, 0, res, 0, idx);
+        System.arraycopy(arr, idx + 1, res, idx, arr.length - idx - 1);
+
+        return res;
+    }
+}
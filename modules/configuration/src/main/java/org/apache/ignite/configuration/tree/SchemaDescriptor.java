@@ -0,0 +1,422 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.configuration.tree;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Runtime description of the configuration schema, generated for every schema class together with its
+ * {@link InnerNode}. Fields are indexed by their {@link InnerNode#ordinal(String) ordinals}, all the properties of a
+ * field are kept in arrays, so schema can be inspected without instantiating configuration trees.
+ * <p/>
+ * Descriptor of the root is available through {@link org.apache.ignite.configuration.RootKey#schema()}.
+ */
+public final class SchemaDescriptor {
+    /** Kind of the schema field. */
+    public enum FieldKind {
+        /** Leaf value. */
+        LEAF,
+
+        /** Inner configuration node. */
+        INNER_NODE,
+
+        /** Named list of configuration nodes. */
+        NAMED_LIST
+    }
+
+    /** Schema class. */
+    private final Class<?> schemaClass;
+
+    /** Field names by ordinals. */
+    private final String[] names;
+
+    /** Field kinds by ordinals. */
+    private final FieldKind[] kinds;
+
+    /** Leaf types, or schema classes of inner nodes and named list elements, by ordinals. */
+    private final Class<?>[] types;
+
+    /** Descriptors of inner nodes and named list elements by ordinals, {@code null} for leaves. */
+    private final SchemaDescriptor[] children;
+
+    /** Whether the leaves have default values, by ordinals. */
+    private final boolean[] hasDefaults;
+
+    /** Default values of the leaves by ordinals. */
+    private final Serializable[] defaults;
+
+    /** {@code @Min} bounds of the leaves by ordinals, {@link Long#MIN_VALUE} if there's none. */
+    private final long[] mins;
+
+    /** {@code @Max} bounds of the leaves by ordinals, {@link Long#MAX_VALUE} if there's none. */
+    private final long[] maxs;
+
+    /** Whether the fields are immutable, by ordinals. */
+    private final boolean[] immutables;
+
+    /** Ordinals by field names. */
+    private final Map<String, Integer> ordinals;
+
+    /**
+     * @param builder Builder.
+     */
+    private SchemaDescriptor(Builder builder) {
+        int size = builder.fields.size();
+
+        schemaClass = builder.schemaClass;
+        names = new String[size];
+        kinds = new FieldKind[size];
+        types = new Class<?>[size];
+        children = new SchemaDescriptor[size];
+        hasDefaults = new boolean[size];
+        defaults = new Serializable[size];
+        mins = new long[size];
+        maxs = new long[size];
+        immutables = new boolean[size];
+        ordinals = new HashMap<>(size * 2);
+
+        for (int i = 0; i < size; i++) {
+            Field field = builder.fields.get(i);
+
+            names[i] = field.name;
+            kinds[i] = field.kind;
+            types[i] = field.type;
+            children[i] = field.child;
+            hasDefaults[i] = field.hasDefault;
+            defaults[i] = field.dflt;
+            mins[i] = field.min;
+            maxs[i] = field.max;
+            immutables[i] = field.immutable;
+
+            ordinals.put(field.name, i);
+        }
+    }
+
+    /**
+     * @param schemaClass Schema class.
+     * @return Builder of the descriptor. Fields must be added in the order of their ordinals.
+     */
+    public static Builder builder(Class<?> schemaClass) {
+        return new Builder(schemaClass);
+    }
+
+    /**
+     * @return Schema class.
+     */
+    public Class<?> schemaClass() {
+        return schemaClass;
+    }
+
+    /**
+     * @return Number of fields.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param name Field name.
+     * @return Ordinal of the field.
+     * @throws NoSuchElementException If there's no such field.
+     */
+    public int ordinal(String name) throws NoSuchElementException {
+        Integer ordinal = ordinals.get(name);
+
+        if (ordinal == null)
+            throw new NoSuchElementException(name);
+
+        return ordinal;
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return Field name.
+     */
+    public String name(int ordinal) {
+        return names[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return Kind of the field.
+     */
+    public FieldKind kind(int ordinal) {
+        return kinds[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return Type of the leaf, e.g. {@code int.class} or {@code String[].class}, or schema class of the inner node or
+     *      of the named list element.
+     */
+    public Class<?> type(int ordinal) {
+        return types[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return Descriptor of the inner node or of the named list element, {@code null} for the leaf.
+     */
+    public SchemaDescriptor child(int ordinal) {
+        return children[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return {@code true} if the field is a leaf with the default value.
+     */
+    public boolean hasDefault(int ordinal) {
+        return hasDefaults[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return Default value of the leaf, {@code null} if there's none. Arrays are shared and must not be modified.
+     */
+    public Serializable defaultValue(int ordinal) {
+        return defaults[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return {@code @Min} bound of the leaf, {@link Long#MIN_VALUE} if there's none.
+     */
+    public long min(int ordinal) {
+        return mins[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return {@code @Max} bound of the leaf, {@link Long#MAX_VALUE} if there's none.
+     */
+    public long max(int ordinal) {
+        return maxs[ordinal];
+    }
+
+    /**
+     * @param ordinal Ordinal of the field.
+     * @return {@code true} if the field can't be changed after initialization.
+     */
+    public boolean immutable(int ordinal) {
+        return immutables[ordinal];
+    }
+
+    /**
+     * Finds the descriptor of the node that contains the field at the end of the path. Named list elements have no
+     * descriptors of their own, their keys are skipped.
+     *
+     * @param path Keys relative to the node of this descriptor.
+     * @return Descriptor of the last node on the path, so that the last key is resolved with its
+     *      {@link #ordinal(String)}.
+     * @throws NoSuchElementException If path doesn't match the schema.
+     */
+    public SchemaDescriptor parentOf(List<String> path) throws NoSuchElementException {
+        SchemaDescriptor desc = this;
+
+        for (int i = 0; i < path.size() - 1; i++) {
+            int ordinal = desc.ordinal(path.get(i));
+
+            switch (desc.kinds[ordinal]) {
+                case INNER_NODE:
+                    desc = desc.children[ordinal];
+
+                    break;
+
+                case NAMED_LIST:
+                    // Key of the element.
+                    if (++i == path.size() - 1)
+                        throw new NoSuchElementException(String.join(".", path));
+
+                    desc = desc.children[ordinal];
+
+                    break;
+
+                default:
+                    throw new NoSuchElementException(String.join(".", path));
+            }
+        }
+
+        return desc;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "SchemaDescriptor [schemaClass=" + schemaClass.getName() + ", fields=" + Arrays.toString(names) + ']';
+    }
+
+    /** Builder of the descriptor, used by the generated code. */
+    public static final class Builder {
+        /** Schema class. */
+        private final Class<?> schemaClass;
+
+        /** Fields in the order of their ordinals. */
+        private final List<Field> fields = new ArrayList<>();
+
+        /**
+         * @param schemaClass Schema class.
+         */
+        private Builder(Class<?> schemaClass) {
+            this.schemaClass = schemaClass;
+        }
+
+        /**
+         * @param name Field name.
+         * @param type Type of the leaf.
+         * @param immutable Whether the leaf can't be changed after initialization.
+         * @return {@code this} for chaining.
+         */
+        public Builder leaf(String name, Class<?> type, boolean immutable) {
+            return add(new Field(name, FieldKind.LEAF, type, null, immutable));
+        }
+
+        /**
+         * @param name Field name.
+         * @param child Descriptor of the inner node.
+         * @param immutable Whether the node can't be changed after initialization.
+         * @return {@code this} for chaining.
+         */
+        public Builder innerNode(String name, SchemaDescriptor child, boolean immutable) {
+            return add(new Field(name, FieldKind.INNER_NODE, child.schemaClass, child, immutable));
+        }
+
+        /**
+         * @param name Field name.
+         * @param element Descriptor of the named list element.
+         * @return {@code this} for chaining.
+         */
+        public Builder namedList(String name, SchemaDescriptor element) {
+            return add(new Field(name, FieldKind.NAMED_LIST, element.schemaClass, element, false));
+        }
+
+        /**
+         * Sets the default value of the last added leaf.
+         *
+         * @param dflt Default value.
+         * @return {@code this} for chaining.
+         */
+        public Builder defaultValue(Serializable dflt) {
+            Field field = last();
+
+            field.hasDefault = true;
+            field.dflt = dflt;
+
+            return this;
+        }
+
+        /**
+         * Sets the {@code @Min} bound of the last added leaf.
+         *
+         * @param min Bound.
+         * @return {@code this} for chaining.
+         */
+        public Builder min(long min) {
+            last().min = min;
+
+            return this;
+        }
+
+        /**
+         * Sets the {@code @Max} bound of the last added leaf.
+         *
+         * @param max Bound.
+         * @return {@code this} for chaining.
+         */
+        public Builder max(long max) {
+            last().max = max;
+
+            return this;
+        }
+
+        /**
+         * @return Descriptor.
+         */
+        public SchemaDescriptor build() {
+            return new SchemaDescriptor(this);
+        }
+
+        /**
+         * @param field Field.
+         * @return {@code this} for chaining.
+         */
+        private Builder add(Field field) {
+            fields.add(field);
+
+            return this;
+        }
+
+        /**
+         * @return Last added leaf.
+         */
+        private Field last() {
+            assert !fields.isEmpty() && fields.get(fields.size() - 1).kind == FieldKind.LEAF : fields;
+
+            return fields.get(fields.size() - 1);
+        }
+    }
+
+    /** Field that's being added to the builder. */
+    private static final class Field {
+        /** */
+        final String name;
+
+        /** */
+        final FieldKind kind;
+
+        /** */
+        final Class<?> type;
+
+        /** */
+        final SchemaDescriptor child;
+
+        /** */
+        final boolean immutable;
+
+        /** */
+        boolean hasDefault;
+
+        /** */
+        Serializable dflt;
+
+        /** */
+        long min = Long.MIN_VALUE;
+
+        /** */
+        long max = Long.MAX_VALUE;
+
+        /**
+         * @param name Field name.
+         * @param kind Field kind.
+         * @param type Field type.
+         * @param child Descriptor of the child node.
+         * @param immutable Immutability flag.
+         */
+        Field(String name, FieldKind kind, Class<?> type, SchemaDescriptor child, boolean immutable) {
+            this.name = name;
+            this.kind = kind;
+            this.type = type;
+            this.child = child;
+            this.immutable = immutable;
+        }
+    }
+}
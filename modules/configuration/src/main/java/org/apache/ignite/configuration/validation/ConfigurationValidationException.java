@@ -32,6 +32,8 @@ public class ConfigurationValidationException extends RuntimeException {
     }
 
     public ConfigurationValidationException(List<ValidationIssue> issues) {
+        super("Configuration validation failed: " + issues);
+
         this.issues = issues;
     }
 
@@ -16,5 +16,48 @@
  */
 package org.apache.ignite.configuration.validation;
 
+/**
+ * Single issue found by the validation of the configuration changes.
+ */
 public class ValidationIssue {
+    /** Escaped dot-separated key of the invalid value, {@code null} if unknown. */
+    private final String key;
+
+    /** Validation error message. */
+    private final String message;
+
+    /** Constructor. */
+    public ValidationIssue() {
+        this(null, null);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param key Escaped dot-separated key of the invalid value.
+     * @param message Validation error message.
+     */
+    public ValidationIssue(String key, String message) {
+        this.key = key;
+        this.message = message;
+    }
+
+    /**
+     * @return Escaped dot-separated key of the invalid value, {@code null} if unknown.
+     */
+    public String key() {
+        return key;
+    }
+
+    /**
+     * @return Validation error message.
+     */
+    public String message() {
+        return message;
+    }
+
+    /** {@inheritDoc} */
+    @Override public String toString() {
+        return "ValidationIssue [key=" + key + ", message=" + message + ']';
+    }
 }
@@ -0,0 +1,342 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.network.configuration;
+
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.ignite.configuration.storage.Data;
+import org.apache.ignite.network.MessageHandlerHolder;
+import org.apache.ignite.network.NetworkCluster;
+import org.apache.ignite.network.NetworkClusterFactory;
+import org.apache.ignite.network.scalecube.ScaleCubeMemberResolver;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of {@link ClusterConfigurationStorage} with several in-process members.
+ */
+class ITClusterConfigurationStorageTest {
+    /** */
+    private static final int PORT = 3444;
+
+    /** Directory of the members state. */
+    @TempDir
+    Path dir;
+
+    /** */
+    private final List<NetworkCluster> clusters = new ArrayList<>();
+
+    /** */
+    private final List<ClusterConfigurationStorage> storages = new ArrayList<>();
+
+    /** */
+    @AfterEach
+    public void afterEach() throws Exception {
+        for (ClusterConfigurationStorage storage : storages)
+            storage.close();
+
+        for (NetworkCluster cluster : clusters)
+            cluster.shutdown();
+    }
+
+    /**
+     * Tests that writes of any member are applied by all members in the same order, and that write with a stale
+     * version is rejected.
+     */
+    @Test
+    public void writesAreReplicated() throws Exception {
+        startMembers(3);
+
+        List<Data> notifications = new CopyOnWriteArrayList<>();
+
+        storages.get(2).addListener(notifications::add);
+
+        assertTrue(write(storages.get(0), Map.of("key1", 1), 0));
+        assertTrue(write(storages.get(2), Map.of("key2", "2"), 1));
+        assertTrue(write(storages.get(1), mapOf("key1", null), 2));
+
+        assertFalse(write(storages.get(2), Map.of("key3", 3), 2));
+
+        // Rejected write completes after the conflicting batch is applied locally.
+        assertEquals(3, storages.get(2).readAll().version());
+
+        waitForVersion(3);
+
+        for (ClusterConfigurationStorage storage : storages)
+            assertEquals(Map.of("key2", "2"), storage.readAll().values());
+
+        assertEquals(3, notifications.size());
+
+        for (int i = 0; i < 3; i++)
+            assertEquals(i + 1, notifications.get(i).version());
+
+        assertEquals(mapOf("key1", null, "key2", "2"), storages.get(2).changesSince(1).values());
+    }
+
+    /**
+     * Tests that concurrent writers on different members that retry on version conflicts don't lose each other's
+     * writes.
+     */
+    @Test
+    public void concurrentWrites() throws Exception {
+        startMembers(3);
+
+        int writesPerMember = 50;
+
+        List<CompletableFuture<Void>> futs = new ArrayList<>();
+
+        for (int m = 0; m < storages.size(); m++) {
+            ClusterConfigurationStorage storage = storages.get(m);
+
+            int member = m;
+
+            futs.add(CompletableFuture.runAsync(() -> {
+                for (int i = 0; i < writesPerMember; i++) {
+                    try {
+                        while (!write(storage, Map.of("m" + member + ".k" + i, i), storage.readAll().version())) {
+                            // Retry with the new version.
+                        }
+                    }
+                    catch (Exception e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+
+        CompletableFuture.allOf(futs.toArray(CompletableFuture[]::new)).get(30, SECONDS);
+
+        int total = storages.size() * writesPerMember;
+
+        waitForVersion(total);
+
+        for (ClusterConfigurationStorage storage : storages)
+            assertEquals(total, storage.readAll().values().size());
+    }
+
+    /**
+     * Tests that member that joins the cluster later receives all the data.
+     */
+    @Test
+    public void newMemberCatchesUp() throws Exception {
+        startMember(0, 3);
+        startMember(1, 3);
+
+        waitForMembers(2);
+
+        for (int i = 0; i < 10; i++)
+            assertTrue(write(storages.get(1), Map.of("key" + i, i), i));
+
+        startMember(2, 3);
+
+        waitForMembers(3);
+
+        waitForVersion(10);
+
+        assertEquals(10, storages.get(2).readAll().values().size());
+
+        assertTrue(write(storages.get(2), Map.of("key10", 10), 10));
+
+        waitForVersion(11);
+    }
+
+    /**
+     * Tests that member that joins the cluster later with the smallest name doesn't lose the data of the others.
+     */
+    @Test
+    public void memberWithSmallestNameJoinsLater() throws Exception {
+        startMember(1, 3);
+        startMember(2, 3);
+
+        waitForMembers(2);
+
+        for (int i = 0; i < 10; i++)
+            assertTrue(write(storages.get(1), Map.of("key" + i, i), i));
+
+        startMember(0, 3);
+
+        waitForMembers(3);
+
+        waitForVersion(10);
+
+        for (ClusterConfigurationStorage storage : storages)
+            assertEquals(10, storage.readAll().values().size());
+
+        assertTrue(write(storages.get(2), Map.of("key10", 10), 10));
+
+        waitForVersion(11);
+    }
+
+    /**
+     * Tests that member that is left without the majority of the members doesn't commit writes.
+     */
+    @Test
+    public void minorityDoesNotCommit() throws Exception {
+        startMembers(3);
+
+        assertTrue(write(storages.get(2), Map.of("key1", 1), 0));
+
+        waitForVersion(1);
+
+        for (int i = 0; i < 2; i++) {
+            storages.remove(0).close();
+            clusters.remove(0).shutdown();
+        }
+
+        waitForMembers(1);
+
+        ClusterConfigurationStorage storage = storages.get(0);
+
+        CompletableFuture<Boolean> fut = storage.write(new HashMap<>(Map.of("key2", 2)), 1);
+
+        assertThrows(ExecutionException.class, () -> fut.get(30, SECONDS));
+
+        assertEquals(Map.of("key1", 1), storage.readAll().values());
+        assertEquals(1, storage.readAll().version());
+    }
+
+    /**
+     * Tests that members that are restarted recover the applied data and the received batches from their directories,
+     * and keep committing writes.
+     */
+    @Test
+    public void restartedMembersRecoverTheirState() throws Exception {
+        startMembers(3);
+
+        for (int i = 0; i < 5; i++)
+            assertTrue(write(storages.get(i % 3), Map.of("key" + i, i), i));
+
+        waitForVersion(5);
+
+        // All members are restarted, so the data can only be recovered from their directories.
+        for (int i = 0; i < 3; i++) {
+            storages.remove(0).close();
+            clusters.remove(0).shutdown();
+        }
+
+        startMembers(3);
+
+        for (ClusterConfigurationStorage storage : storages)
+            assertEquals(5, storage.readAll().values().size());
+
+        assertTrue(write(storages.get(1), Map.of("key5", 5), 5));
+
+        waitForVersion(6);
+
+        for (ClusterConfigurationStorage storage : storages)
+            assertEquals(6, storage.readAll().values().size());
+    }
+
+    /**
+     * Starts members and waits until they see each other.
+     *
+     * @param cnt Number of members.
+     */
+    private void startMembers(int cnt) throws Exception {
+        for (int i = 0; i < cnt; i++)
+            startMember(i, cnt);
+
+        waitForMembers(cnt);
+    }
+
+    /**
+     * @param idx Index of the member.
+     * @param cnt Number of members, for the seed addresses and the member names.
+     */
+    private void startMember(int idx, int cnt) {
+        List<String> addresses = IntStream.range(0, cnt)
+            .mapToObj(i -> "localhost:" + (PORT + i))
+            .collect(Collectors.toList());
+
+        NetworkCluster cluster = new NetworkClusterFactory("member" + idx, PORT + idx, addresses)
+            .startScaleCubeBasedCluster(new ScaleCubeMemberResolver(), new MessageHandlerHolder());
+
+        clusters.add(cluster);
+
+        List<String> memberNames = IntStream.range(0, cnt)
+            .mapToObj(i -> "member" + i)
+            .collect(Collectors.toList());
+
+        storages.add(new ClusterConfigurationStorage(cluster, memberNames, dir.resolve("member" + idx)));
+    }
+
+    /** */
+    private void waitForMembers(int cnt) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (!clusters.stream().allMatch(c -> c.allMembers().size() == cnt)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Members haven't joined the cluster");
+
+            Thread.sleep(50);
+        }
+    }
+
+    /** */
+    private void waitForVersion(long ver) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+
+        while (!storages.stream().allMatch(s -> s.readAll().version() == ver)) {
+            assertTrue(System.currentTimeMillis() < deadline, "Version " + ver + " hasn't been applied");
+
+            Thread.sleep(50);
+        }
+    }
+
+    /** */
+    private static boolean write(
+        ClusterConfigurationStorage storage,
+        Map<String, ? extends Serializable> values,
+        long version
+    ) throws Exception {
+        return storage.write(new HashMap<>(values), version).get(10, SECONDS);
+    }
+
+    /** Map that allows {@code null} values. */
+    private static Map<String, Serializable> mapOf(String k1, Serializable v1) {
+        Map<String, Serializable> map = new HashMap<>();
+
+        map.put(k1, v1);
+
+        return map;
+    }
+
+    /** Map that allows {@code null} values. */
+    private static Map<String, Serializable> mapOf(String k1, Serializable v1, String k2, Serializable v2) {
+        Map<String, Serializable> map = mapOf(k1, v1);
+
+        map.put(k2, v2);
+
+        return map;
+    }
+}
@@ -74,6 +74,16 @@ public interface NetworkCluster {
      */
     <R> CompletableFuture<R> sendWithResponse(NetworkMember member, Object msg, long timeout);
 
+    /**
+     * Sends asynchronously a response to the message that has been sent with
+     * {@link #sendWithResponse(NetworkMember, Object, long)}. Responses are not passed to the message handlers.
+     *
+     * @param member Network member which has sent the request.
+     * @param msg A response.
+     * @param correlationId Identifier of the request, see {@link NetworkMessage#correlationId()}.
+     */
+    Future<?> sendResponse(NetworkMember member, Object msg, String correlationId);
+
     /**
      * Add provider which allows to get configured handlers for different cluster events(ex. received message).
      *
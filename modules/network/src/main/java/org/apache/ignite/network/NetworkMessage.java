@@ -26,13 +26,26 @@ public class NetworkMessage {
     /** Network member who sent this message. */
     private final NetworkMember senderMember;
 
+    /** Identifier of the request that expects a response, {@code null} for one-way messages. */
+    private final String correlationId;
+
     /**
      * @param data Custom data.
      * @param senderMember Network member who sent this message.
      */
     public NetworkMessage(Object data, NetworkMember senderMember) {
+        this(data, senderMember, null);
+    }
+
+    /**
+     * @param data Custom data.
+     * @param senderMember Network member who sent this message.
+     * @param correlationId Identifier of the request that expects a response, {@code null} for one-way messages.
+     */
+    public NetworkMessage(Object data, NetworkMember senderMember, String correlationId) {
         this.data = data;
         this.senderMember = senderMember;
+        this.correlationId = correlationId;
     }
 
     /**
@@ -50,10 +63,19 @@ public class NetworkMessage {
         return senderMember;
     }
 
+    /**
+     * @return Identifier of the request that expects a response, {@code null} for one-way messages. Response must be
+     *      sent with {@link NetworkCluster#sendResponse(NetworkMember, Object, String)}.
+     */
+    public String correlationId() {
+        return correlationId;
+    }
+
     @Override public String toString() {
         return "NetworkMessage{" +
             "data=" + data +
             ", senderMember=" + senderMember +
+            ", correlationId=" + correlationId +
             '}';
     }
 }
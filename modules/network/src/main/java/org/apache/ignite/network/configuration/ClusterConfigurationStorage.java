@@ -0,0 +1,1573 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.network.configuration;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.apache.ignite.configuration.RootKey;
+import org.apache.ignite.configuration.internal.util.ConfigurationUtil;
+import org.apache.ignite.configuration.storage.ChangesTrackingConfigurationStorage;
+import org.apache.ignite.configuration.storage.ConfigurationStorageListener;
+import org.apache.ignite.configuration.storage.ConfigurationStorageListeners;
+import org.apache.ignite.configuration.storage.Data;
+import org.apache.ignite.configuration.storage.DataCodec;
+import org.apache.ignite.configuration.storage.StorageException;
+import org.apache.ignite.network.NetworkCluster;
+import org.apache.ignite.network.NetworkHandlersProvider;
+import org.apache.ignite.network.NetworkMember;
+import org.apache.ignite.network.NetworkMessage;
+import org.apache.ignite.network.NetworkMessageHandler;
+
+
+/**
+ * Cluster-wide configuration storage on top of the {@link NetworkCluster}.
+ * <p>
+ * Storage is replicated between a fixed set of members, given by their names. Quorum is the majority of these members,
+ * not of the members that are currently visible, so a member that is cut off from the majority never commits anything.
+ * <p>
+ * One of the members is the leader. It serializes all writes: every member sends its writes to the leader
+ * (see {@link NetworkCluster#sendWithResponse(NetworkMember, Object, long)}), which compares the version of the write
+ * with the version of its latest accepted batch, assigns the next version to the batch and replicates it to the other
+ * members. Replication is pipelined: leader doesn't wait for the acknowledgement of a batch before sending the next
+ * one, up to {@link #MAX_IN_FLIGHT} batches per member. Batch is committed once it's received by the quorum.
+ * Committed batches are applied in the order of versions on every member, storage listeners are notified about each of
+ * them, and {@link #readAll()} returns applied data, so reads never leave the local member.
+ * <p>
+ * Write completes on the member that has issued it after the batch is applied locally, so that the result of the
+ * write is visible to the following reads on the same member. Likewise, failed compare-and-set completes only after
+ * the conflicting batch is applied, so that {@link #changesSince(long)} reports the conflicting changes. Writes issued
+ * while there's no leader, or whose leader doesn't respond, are retried until the leader is elected or the write times
+ * out. Every write has its own id that is replicated together with its batch, so the leader recognizes the retry of the
+ * write it already has and reports its batch instead of comparing the version of the retry with it.
+ * <p>
+ * Leadership follows the Raft rules. Every leader has its own term, every batch is tagged with the term of the leader
+ * that has sent it, and a member only accepts a batch if it follows the batches it has received from the same
+ * leader, replacing the batches of the deposed leaders that haven't been committed. Leader sends heartbeats that carry
+ * its committed version, members respond with the version of the latest matching batch, which lets the leader resend
+ * lost batches and catch up new members (with a snapshot of the data if the batches are not known anymore). Member
+ * that doesn't hear from the leader starts an election: it first asks the quorum whether it could win, so that a
+ * member that is cut off from the leader doesn't depose it when it comes back, then starts a new term and asks for
+ * votes. Member only votes for a candidate whose batches are at least as recent as its own, so the elected leader has
+ * all the committed batches. Members campaign in the order of their names, so the member with the smallest name
+ * usually becomes the leader, unless it's behind the others. New leader takes over the batches of the previous ones
+ * that are not committed yet by re-tagging them with its own term. Leader that doesn't hear from the quorum steps
+ * down.
+ * <p>
+ * Term, vote and received batches of the member are persisted by {@link ClusterStorageLog} in the given directory and
+ * flushed before the member responds to any message, so a restarted member keeps the votes it has granted and the
+ * batches it has acknowledged, and the quorum that has committed a batch still has it after restarts. Member that
+ * fails to persist its state stops.
+ */
+public class ClusterConfigurationStorage implements ChangesTrackingConfigurationStorage, AutoCloseable {
+    /** Maximal number of batches sent to a member and not acknowledged by it. */
+    public static final int MAX_IN_FLIGHT = 16;
+
+    /** Interval between the heartbeats in milliseconds. */
+    private static final long HEARTBEAT_INTERVAL = 100;
+
+    /** Time without the heartbeats after which the leader is considered lost, in milliseconds. */
+    private static final long ELECTION_TIMEOUT = 5 * HEARTBEAT_INTERVAL;
+
+    /** Delay of the election of the member per member with a smaller name, in milliseconds. */
+    private static final long ELECTION_DELAY = 2 * HEARTBEAT_INTERVAL;
+
+    /** Timeout of the write in milliseconds, including the retries. */
+    private static final long WRITE_TIMEOUT = 10_000;
+
+    /** Timeout of a single write request to the leader in milliseconds, the request is retried after it. */
+    private static final long WRITE_REQUEST_TIMEOUT = 2 * ELECTION_TIMEOUT;
+
+    /** Maximal number of the committed batches that are kept for {@link #changesSince(long)} and replication. */
+    private static final int MAX_HISTORY_SIZE = 1024;
+
+    /** Maximal number of the ids of the received writes that are kept to recognize the retries. */
+    private static final int MAX_WRITE_IDS = 4 * MAX_HISTORY_SIZE;
+
+    /** */
+    private final NetworkCluster cluster;
+
+    /** Local member. */
+    private final NetworkMember localMember;
+
+    /** Names of the members that replicate the storage. */
+    private final NavigableSet<String> memberNames;
+
+    /** Number of the members that should receive a batch to commit it. */
+    private final int quorum;
+
+    /** Time without the heartbeats after which the local member starts an election, in milliseconds. */
+    private final long electionTimeout;
+
+    /** Executor of the notifications and heartbeats. */
+    private final ScheduledExecutorService executor;
+
+    /** Listeners. */
+    private final ConfigurationStorageListeners listeners = new ConfigurationStorageListeners();
+
+    /** Applied values, sorted for the range reads. */
+    private final NavigableMap<String, Serializable> values = new TreeMap<>();
+
+    /** Version of the applied values, it's also the committed version known by this member. */
+    private long appliedVersion;
+
+    /** Received batches: the latest applied ones followed by the ones that are not committed yet. */
+    private final List<LogEntry> log = new ArrayList<>();
+
+    /** Durable term, vote and received batches. */
+    private final ClusterStorageLog durableLog;
+
+    /** Versions of the received batches by the ids of their writes, the latest ones are kept after compaction. */
+    private final Map<UUID, Long> writeVersions = new LinkedHashMap<>() {
+        /** {@inheritDoc} */
+        @Override protected boolean removeEldestEntry(Map.Entry<UUID, Long> eldest) {
+            return size() > MAX_WRITE_IDS;
+        }
+    };
+
+    /** Version of the first batch of the {@link #log}. */
+    private long logStart = 1;
+
+    /** Term of the batch that precedes the first batch of the {@link #log}. */
+    private long logStartTerm;
+
+    /** Latest term known by this member. */
+    private long term;
+
+    /** Name of the member this member has voted for in the current {@link #term}. */
+    private String votedFor;
+
+    /** Leader of the current {@link #term}, {@code null} if it's not known. */
+    private NetworkMember leader;
+
+    /** Time of the latest heartbeat of the leader or of the latest granted vote, in milliseconds. */
+    private long lastContact;
+
+    /** Names of the members that have granted their votes, {@code null} if local member is not a candidate. */
+    private Set<String> votes;
+
+    /** Whether the {@link #votes} are collected for a pre-vote. */
+    private boolean preVote;
+
+    /** Replication state of the other members, {@code null} if local member is not the leader. */
+    private Map<NetworkMember, FollowerState> followers;
+
+    /** Version of the latest batch committed by the leader, only used by the leader. */
+    private long committedVersion;
+
+    /** Futures waiting for the {@link #appliedVersion} to reach the given version. */
+    private final PriorityQueue<VersionWaiter> waiters = new PriorityQueue<>();
+
+    /** */
+    private volatile boolean stopped;
+
+    /**
+     * Constructor. Recovers the state of the local member from the directory.
+     *
+     * @param cluster Network cluster.
+     * @param memberNames Names of the members that replicate the storage, including the local one. All of them must
+     *      be configured with the same names.
+     * @param dir Directory of the local member state, created if doesn't exist.
+     * @throws StorageException If failed to recover the state.
+     */
+    public ClusterConfigurationStorage(
+        NetworkCluster cluster,
+        Collection<String> memberNames,
+        Path dir
+    ) throws StorageException {
+        this.cluster = cluster;
+
+        localMember = cluster.localMember();
+
+        this.memberNames = new TreeSet<>(memberNames);
+
+        if (!this.memberNames.contains(localMember.name()))
+            throw new IllegalArgumentException("Local member is not one of the members: " + localMember.name());
+
+        quorum = this.memberNames.size() / 2 + 1;
+
+        electionTimeout = ELECTION_TIMEOUT + this.memberNames.headSet(localMember.name()).size() * ELECTION_DELAY;
+
+        durableLog = new ClusterStorageLog(dir);
+
+        Data snapshot = durableLog.snapshot();
+
+        values.putAll(snapshot.values());
+
+        appliedVersion = snapshot.version();
+        logStart = appliedVersion + 1;
+        logStartTerm = durableLog.snapshotTerm();
+
+        term = durableLog.term();
+        votedFor = durableLog.votedFor();
+
+        for (LogEntry entry : durableLog.entries()) {
+            log.add(entry);
+
+            writeVersions.put(entry.writeId, entry.batch.version());
+        }
+
+        // Batches that have been applied before the restart are applied again, the following ones are applied once
+        // the leader reports that they are committed.
+        while (appliedVersion < durableLog.appliedVersion())
+            applyBatch(entry(++appliedVersion).batch);
+
+        lastContact = now();
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "config-cluster-storage-" + localMember.name());
+
+            t.setDaemon(true);
+
+            return t;
+        });
+
+        cluster.addHandlersProvider(new NetworkHandlersProvider() {
+            /** {@inheritDoc} */
+            @Override public NetworkMessageHandler messageHandler() {
+                return ClusterConfigurationStorage.this::onMessage;
+            }
+        });
+
+        executor.scheduleWithFixedDelay(this::tick, 0, HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data readAll() throws StorageException {
+        return new Data(new HashMap<>(values), appliedVersion);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data readRange(String prefix) throws StorageException {
+        Map<String, Serializable> range = new TreeMap<>();
+
+        ConfigurationUtil.copyRange(values, prefix, range);
+
+        return new Data(range, appliedVersion);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data readRoots(Set<RootKey<?>> rootKeys) throws StorageException {
+        Map<String, Serializable> roots = new TreeMap<>();
+
+        for (RootKey<?> rootKey : rootKeys)
+            ConfigurationUtil.copyRange(values, rootKey.key(), roots);
+
+        return new Data(roots, appliedVersion);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Boolean> write(Map<String, Serializable> newValues, long version) {
+        return writeVersioned(newValues, version).thenApply(Objects::nonNull);
+    }
+
+    /** {@inheritDoc} */
+    @Override public CompletableFuture<Long> writeVersioned(Map<String, Serializable> newValues, long version) {
+        if (stopped)
+            return CompletableFuture.failedFuture(new StorageException("Storage is stopped"));
+
+        WriteRequest req;
+
+        try {
+            req = new WriteRequest(UUID.randomUUID(), DataCodec.encode(newValues, version));
+        }
+        catch (IllegalArgumentException e) {
+            return CompletableFuture.failedFuture(new StorageException("Failed to encode values", e));
+        }
+
+        CompletableFuture<Long> fut = new CompletableFuture<>();
+
+        sendWrite(req, now() + WRITE_TIMEOUT, fut);
+
+        return fut;
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Data changesSince(long version) throws StorageException {
+        if (version > appliedVersion)
+            return null;
+
+        if (version < logStart - 1)
+            return null;
+
+        Map<String, Serializable> changes = new HashMap<>();
+
+        for (long ver = version + 1; ver <= appliedVersion; ver++)
+            changes.putAll(entry(ver).batch.values());
+
+        return new Data(changes, appliedVersion);
+    }
+
+    /** {@inheritDoc} */
+    @Override public synchronized Set<String> keys() throws StorageException {
+        return new HashSet<>(values.keySet());
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(ConfigurationStorageListener listener) {
+        listeners.add("", listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void addListener(String prefix, ConfigurationStorageListener listener) {
+        listeners.add(prefix, listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void removeListener(ConfigurationStorageListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        stopped = true;
+
+        executor.shutdownNow();
+
+        synchronized (this) {
+            for (VersionWaiter waiter; (waiter = waiters.poll()) != null; )
+                waiter.fut.completeExceptionally(new StorageException("Storage is stopped"));
+
+            durableLog.close();
+        }
+    }
+
+    /**
+     * @return Leader of the current term, {@code null} if it's not known.
+     */
+    synchronized NetworkMember leader() {
+        return leader;
+    }
+
+    /**
+     * Sends the write to the leader, or retries it later if there's no leader.
+     *
+     * @param req Write request.
+     * @param deadline Time after which the write is not retried anymore, in milliseconds.
+     * @param fut Future of the write, completed with the version of the batch or {@code null} if it's rejected.
+     */
+    private void sendWrite(WriteRequest req, long deadline, CompletableFuture<Long> fut) {
+        NetworkMember leader = leader();
+
+        if (leader == null) {
+            retryWrite(req, deadline, fut);
+
+            return;
+        }
+
+        CompletableFuture<WriteResponse> resFut;
+
+        try {
+            resFut = leader.equals(localMember)
+                ? CompletableFuture.completedFuture(onWriteRequest(req))
+                : cluster.sendWithResponse(leader, req, WRITE_REQUEST_TIMEOUT);
+        }
+        catch (RuntimeException e) {
+            fut.completeExceptionally(new StorageException("Failed to send the write to " + leader, e));
+
+            return;
+        }
+
+        resFut.whenComplete((res, err) -> {
+            if (err != null || res == null) {
+                // Leader hasn't responded or has changed. Retry has the same id, so it's not applied twice.
+                retryWrite(req, deadline, fut);
+            }
+            else {
+                awaitApplied(res.version, res.success ? res.term : 0).whenComplete((applied, e) -> {
+                    if (e != null)
+                        fut.completeExceptionally(e);
+                    else
+                        fut.complete(res.success && applied ? res.version : null);
+                });
+            }
+        });
+    }
+
+    /**
+     * Schedules the write to be sent again after the heartbeat interval.
+     *
+     * @param req Write request.
+     * @param deadline Time after which the write is not retried anymore, in milliseconds.
+     * @param fut Future of the write.
+     */
+    private void retryWrite(WriteRequest req, long deadline, CompletableFuture<Long> fut) {
+        if (stopped)
+            fut.completeExceptionally(new StorageException("Storage is stopped"));
+        else if (now() >= deadline)
+            fut.completeExceptionally(new StorageException("Leader hasn't been elected or doesn't respond"));
+        else {
+            try {
+                executor.schedule(() -> sendWrite(req, deadline, fut), HEARTBEAT_INTERVAL, TimeUnit.MILLISECONDS);
+            }
+            catch (RejectedExecutionException e) {
+                fut.completeExceptionally(new StorageException("Storage is stopped"));
+            }
+        }
+    }
+
+    /**
+     * @param msg Network message.
+     */
+    private void onMessage(NetworkMessage msg) {
+        if (stopped)
+            return;
+
+        Object data = msg.data();
+
+        if (data instanceof WriteRequest)
+            cluster.sendResponse(msg.sender(), onWriteRequest((WriteRequest)data), msg.correlationId());
+        else if (data instanceof ReplicateRequest)
+            onReplicateRequest(msg.sender(), (ReplicateRequest)data);
+        else if (data instanceof ReplicateResponse)
+            onReplicateResponse(msg.sender(), (ReplicateResponse)data);
+        else if (data instanceof VoteRequest)
+            onVoteRequest(msg.sender(), (VoteRequest)data);
+        else if (data instanceof VoteResponse)
+            onVoteResponse(msg.sender(), (VoteResponse)data);
+    }
+
+    /**
+     * Accepts the write if its version matches the version of the latest accepted batch, or reports the batch of the
+     * write if it's a retry.
+     *
+     * @param req Write request.
+     * @return Response, {@code null} if local member is not the leader.
+     */
+    private WriteResponse onWriteRequest(WriteRequest req) {
+        Data batch = DataCodec.decode(req.data);
+
+        List<Runnable> actions = new ArrayList<>();
+
+        WriteResponse res;
+
+        synchronized (this) {
+            if (stopped || !localMember.equals(leader))
+                return null;
+
+            Long writeVersion = writeVersions.get(req.id);
+
+            if (writeVersion != null) {
+                // Batch of the write has been accepted by this leader or by a previous one, but the response is lost.
+                // Batches that are not known anymore have been committed, so any batch of their version is awaited.
+                long origin = writeVersion >= logStart ? entry(writeVersion).origin : 0;
+
+                return new WriteResponse(true, writeVersion, origin);
+            }
+
+            long lastVersion = lastVersion();
+
+            if (batch.version() != lastVersion)
+                return new WriteResponse(false, lastVersion, 0);
+
+            addEntry(new LogEntry(new Data(batch.values(), lastVersion + 1), term, term, req.id));
+
+            res = new WriteResponse(true, lastVersion + 1, term);
+
+            for (Map.Entry<NetworkMember, FollowerState> e : followers.entrySet())
+                replicate(e.getKey(), e.getValue(), actions);
+
+            commit(actions);
+
+            if (!sync(actions))
+                res = null;
+        }
+
+        actions.forEach(Runnable::run);
+
+        return res;
+    }
+
+    /**
+     * Sends heartbeats if local member is the leader, otherwise starts an election if the leader hasn't been heard
+     * from for too long.
+     */
+    private void tick() {
+        List<Runnable> actions = new ArrayList<>();
+
+        synchronized (this) {
+            if (stopped)
+                return;
+
+            if (localMember.equals(leader))
+                heartbeat(actions);
+            else if (now() - lastContact >= electionTimeout)
+                campaign(true, actions);
+
+            sync(actions);
+        }
+
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Sends heartbeats to the other members, or steps down if the quorum hasn't responded for too long.
+     *
+     * @param actions Sends to perform after the lock is released.
+     */
+    private void heartbeat(List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        long now = now();
+
+        Collection<NetworkMember> members = otherMembers();
+
+        followers.keySet().retainAll(members);
+
+        int alive = 1;
+
+        for (NetworkMember member : members) {
+            FollowerState follower = followers.computeIfAbsent(member, m -> new FollowerState(lastVersion(), now));
+
+            if (now - follower.lastResponse < ELECTION_TIMEOUT)
+                alive++;
+        }
+
+        if (alive < quorum) {
+            // Leader is cut off from the quorum and can't commit anything, members of the quorum elect a new one.
+            stepDown(term);
+
+            return;
+        }
+
+        for (Map.Entry<NetworkMember, FollowerState> e : followers.entrySet()) {
+            NetworkMember member = e.getKey();
+            FollowerState follower = e.getValue();
+
+            // Batches or their acknowledgements have been lost.
+            if (follower.sentVersion > follower.knownVersion && !follower.acked)
+                follower.sentVersion = follower.knownVersion;
+
+            follower.acked = false;
+
+            if (follower.sentVersion < lastVersion())
+                replicate(member, follower, actions);
+            else {
+                ReplicateRequest req = heartbeatRequest(follower.sentVersion);
+
+                actions.add(() -> send(member, req));
+            }
+        }
+
+        // Majority could have changed.
+        commit(actions);
+    }
+
+    /**
+     * Starts an election.
+     *
+     * @param pre Whether it's a pre-vote: members respond whether they would vote for the local member in the next
+     *      term, but the term is not started.
+     * @param actions Sends to perform after the lock is released.
+     */
+    private void campaign(boolean pre, List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        leader = null;
+        followers = null;
+
+        // Next election is started after another timeout if this one doesn't succeed.
+        lastContact = now();
+
+        if (!pre) {
+            term++;
+
+            votedFor = localMember.name();
+
+            durableLog.vote(term, votedFor);
+        }
+
+        votes = new HashSet<>();
+        preVote = pre;
+
+        votes.add(localMember.name());
+
+        VoteRequest req = new VoteRequest(pre ? term + 1 : term, lastTerm(), lastVersion(), pre);
+
+        for (NetworkMember member : otherMembers())
+            actions.add(() -> send(member, req));
+
+        checkVotes(actions);
+    }
+
+    /**
+     * Proceeds with the election if the quorum has granted the votes.
+     *
+     * @param actions Sends to perform after the lock is released.
+     */
+    private void checkVotes(List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        if (votes.size() < quorum)
+            return;
+
+        if (preVote)
+            campaign(false, actions);
+        else
+            becomeLeader(actions);
+    }
+
+    /**
+     * @param sender Candidate.
+     * @param req Vote request.
+     */
+    private void onVoteRequest(NetworkMember sender, VoteRequest req) {
+        List<Runnable> actions = new ArrayList<>();
+
+        synchronized (this) {
+            if (!memberNames.contains(sender.name()))
+                return;
+
+            // Members that hear from the leader don't let a member that has been cut off from it start a new term.
+            boolean hasLeader = localMember.equals(leader) || leader != null && now() - lastContact < ELECTION_TIMEOUT;
+
+            boolean upToDate = req.lastTerm > lastTerm()
+                || req.lastTerm == lastTerm() && req.lastVersion >= lastVersion();
+
+            boolean granted;
+
+            if (req.pre)
+                granted = !hasLeader && req.term > term && upToDate;
+            else if (hasLeader)
+                granted = false;
+            else {
+                if (req.term > term)
+                    stepDown(req.term);
+
+                granted = req.term == term && (votedFor == null || votedFor.equals(sender.name())) && upToDate;
+
+                if (granted) {
+                    votedFor = sender.name();
+
+                    lastContact = now();
+
+                    durableLog.vote(term, votedFor);
+                }
+            }
+
+            VoteResponse res = new VoteResponse(term, granted, req.pre);
+
+            actions.add(() -> send(sender, res));
+
+            sync(actions);
+        }
+
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * @param sender Member that has responded to the vote request.
+     * @param res Response.
+     */
+    private void onVoteResponse(NetworkMember sender, VoteResponse res) {
+        List<Runnable> actions = new ArrayList<>();
+
+        synchronized (this) {
+            if (!memberNames.contains(sender.name()))
+                return;
+
+            if (res.term > term) {
+                stepDown(res.term);
+
+                return;
+            }
+
+            // Votes of the previous elections are ignored.
+            if (!res.granted || votes == null || res.pre != preVote || !res.pre && res.term != term)
+                return;
+
+            votes.add(sender.name());
+
+            checkVotes(actions);
+
+            sync(actions);
+        }
+
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Initializes the leader state after the local member has won the election.
+     *
+     * @param actions Sends to perform after the lock is released.
+     */
+    private void becomeLeader(List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        votes = null;
+        leader = localMember;
+        followers = new HashMap<>();
+
+        // Batches received from the previous leaders are re-replicated and committed on behalf of this one. Leader has
+        // all the committed batches, so none of the batches that have been committed by the previous leaders is lost.
+        for (long ver = appliedVersion + 1; ver <= lastVersion(); ver++)
+            entry(ver).term = term;
+
+        if (appliedVersion < lastVersion())
+            durableLog.retag(appliedVersion + 1, term);
+
+        committedVersion = appliedVersion;
+
+        heartbeat(actions);
+    }
+
+    /**
+     * Drops the leader and candidate state.
+     *
+     * @param newTerm Term, greater than the current one if another member has started a new term.
+     */
+    private void stepDown(long newTerm) {
+        assert Thread.holdsLock(this);
+
+        if (newTerm > term) {
+            term = newTerm;
+
+            votedFor = null;
+
+            durableLog.vote(term, null);
+        }
+
+        leader = null;
+        followers = null;
+        votes = null;
+
+        lastContact = now();
+    }
+
+    /**
+     * Sends the batches that the member hasn't received yet, without exceeding the {@link #MAX_IN_FLIGHT} limit.
+     *
+     * @param member Member.
+     * @param follower Replication state of the member.
+     * @param actions Sends to perform after the lock is released.
+     */
+    private void replicate(NetworkMember member, FollowerState follower, List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        if (follower.knownVersion < logStart - 1) {
+            // Batches are not known anymore.
+            byte[] snapshot = DataCodec.encode(values, appliedVersion);
+
+            ReplicateRequest req = new ReplicateRequest(
+                term, snapshot, true, 0, 0, termAt(appliedVersion), 0, null, committedVersion
+            );
+
+            actions.add(() -> send(member, req));
+
+            follower.sentVersion = appliedVersion;
+        }
+
+        while (follower.sentVersion < lastVersion() && follower.sentVersion - follower.knownVersion < MAX_IN_FLIGHT) {
+            long ver = ++follower.sentVersion;
+
+            LogEntry entry = entry(ver);
+
+            ReplicateRequest req = new ReplicateRequest(
+                term, DataCodec.encode(entry.batch), false, ver - 1, termAt(ver - 1), entry.term, entry.origin,
+                entry.writeId, committedVersion
+            );
+
+            actions.add(() -> send(member, req));
+        }
+    }
+
+    /**
+     * @param prevVersion Version of the latest batch the member is expected to have.
+     * @return Heartbeat request.
+     */
+    private ReplicateRequest heartbeatRequest(long prevVersion) {
+        return new ReplicateRequest(term, null, false, prevVersion, termAt(prevVersion), 0, 0, null, committedVersion);
+    }
+
+    /**
+     * @param sender Member that has received the batches.
+     * @param res Response.
+     */
+    private void onReplicateResponse(NetworkMember sender, ReplicateResponse res) {
+        List<Runnable> actions = new ArrayList<>();
+
+        synchronized (this) {
+            if (res.term > term) {
+                stepDown(res.term);
+
+                return;
+            }
+
+            if (!localMember.equals(leader) || res.term < term)
+                return;
+
+            FollowerState follower = followers.get(sender);
+
+            if (follower == null)
+                return;
+
+            follower.acked = true;
+            follower.lastResponse = now();
+
+            if (res.success) {
+                follower.matchVersion = Math.max(follower.matchVersion, res.version);
+                follower.knownVersion = Math.max(follower.knownVersion, follower.matchVersion);
+                follower.sentVersion = Math.max(follower.sentVersion, follower.knownVersion);
+            }
+            else {
+                // Member has missed some batches, has batches of a deposed leader or has been restarted.
+                follower.matchVersion = Math.min(follower.matchVersion, res.version);
+                follower.knownVersion = Math.min(res.version, follower.sentVersion);
+                follower.sentVersion = follower.knownVersion;
+            }
+
+            replicate(sender, follower, actions);
+
+            commit(actions);
+
+            sync(actions);
+        }
+
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Commits the batches received by the quorum and applies them locally.
+     *
+     * @param actions Sends and notifications to perform after the lock is released.
+     */
+    private void commit(List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        // Members that are not visible haven't received anything as far as the leader knows.
+        long[] received = new long[memberNames.size()];
+
+        int i = 0;
+
+        received[i++] = lastVersion();
+
+        for (FollowerState follower : followers.values())
+            received[i++] = follower.matchVersion;
+
+        Arrays.sort(received);
+
+        // Version received by the quorum.
+        long quorumVersion = received[received.length - quorum];
+
+        if (quorumVersion <= committedVersion)
+            return;
+
+        // Batches that haven't been committed are re-tagged with the current term by the new leader.
+        assert termAt(quorumVersion) == term;
+
+        committedVersion = quorumVersion;
+
+        for (Map.Entry<NetworkMember, FollowerState> e : followers.entrySet()) {
+            NetworkMember member = e.getKey();
+            FollowerState follower = e.getValue();
+
+            if (follower.matchVersion >= logStart - 1) {
+                ReplicateRequest req = heartbeatRequest(follower.matchVersion);
+
+                actions.add(() -> send(member, req));
+            }
+        }
+
+        apply(committedVersion, actions);
+    }
+
+    /**
+     * @param sender Leader.
+     * @param req Replication request.
+     */
+    private void onReplicateRequest(NetworkMember sender, ReplicateRequest req) {
+        List<Runnable> actions = new ArrayList<>();
+
+        synchronized (this) {
+            if (!memberNames.contains(sender.name()))
+                return;
+
+            ReplicateResponse res;
+
+            // Sender is a deposed leader, it steps down once it learns the current term from the response.
+            if (req.term < term)
+                res = new ReplicateResponse(term, lastVersion(), false);
+            else {
+                if (req.term > term || leader == null)
+                    stepDown(req.term);
+
+                leader = sender;
+                lastContact = now();
+
+                res = append(req, actions);
+            }
+
+            actions.add(() -> send(sender, res));
+
+            sync(actions);
+        }
+
+        actions.forEach(Runnable::run);
+    }
+
+    /**
+     * Appends the batch received from the leader if it follows the received batches.
+     *
+     * @param req Replication request of the current leader.
+     * @param actions Notifications to perform after the lock is released.
+     * @return Response.
+     */
+    private ReplicateResponse append(ReplicateRequest req, List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        if (req.snapshot) {
+            Data snapshot = DataCodec.decode(req.data);
+
+            if (snapshot.version() > appliedVersion)
+                installSnapshot(snapshot, req.batchTerm, actions);
+
+            return new ReplicateResponse(term, snapshot.version(), true);
+        }
+
+        if (req.prevVersion > lastVersion())
+            return new ReplicateResponse(term, lastVersion(), false);
+
+        // Applied batches are committed, so they match the batches of the leader.
+        if (req.prevVersion > appliedVersion && termAt(req.prevVersion) != req.prevTerm) {
+            // Batch has been received from a leader that has been deposed before committing it.
+            truncate(req.prevVersion);
+
+            return new ReplicateResponse(term, lastVersion(), false);
+        }
+
+        long matchVersion = req.prevVersion;
+
+        if (req.data != null) {
+            Data batch = DataCodec.decode(req.data);
+
+            matchVersion = batch.version();
+
+            if (matchVersion > appliedVersion) {
+                // Batch of the new leader replaces the one received from the previous leader, batches resent by the
+                // same leader are duplicates.
+                if (matchVersion <= lastVersion() && entry(matchVersion).term != req.batchTerm)
+                    truncate(matchVersion);
+
+                if (matchVersion == lastVersion() + 1)
+                    addEntry(new LogEntry(batch, req.batchTerm, req.batchOrigin, req.batchWriteId));
+            }
+        }
+
+        // Batches that follow the matching one may still be replaced, so they are not applied.
+        apply(Math.min(req.committedVersion, matchVersion), actions);
+
+        return new ReplicateResponse(term, matchVersion, true);
+    }
+
+    /**
+     * Removes the batches that have not been committed.
+     *
+     * @param version Version of the first removed batch.
+     */
+    private void truncate(long version) {
+        assert Thread.holdsLock(this);
+        assert version > appliedVersion;
+
+        List<LogEntry> removed = log.subList((int)(version - logStart), log.size());
+
+        for (LogEntry entry : removed)
+            writeVersions.remove(entry.writeId);
+
+        removed.clear();
+
+        durableLog.truncate(version);
+    }
+
+    /**
+     * Appends the batch to the {@link #log}.
+     *
+     * @param entry Batch that follows the latest received one.
+     */
+    private void addEntry(LogEntry entry) {
+        assert Thread.holdsLock(this);
+        assert entry.batch.version() == lastVersion() + 1;
+
+        log.add(entry);
+
+        writeVersions.put(entry.writeId, entry.batch.version());
+
+        durableLog.batch(entry);
+    }
+
+    /**
+     * Replaces local data with the snapshot received from the leader.
+     *
+     * @param snapshot Snapshot.
+     * @param snapshotTerm Term of the latest batch of the snapshot.
+     * @param actions Notifications to perform after the lock is released.
+     */
+    private void installSnapshot(Data snapshot, long snapshotTerm, List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        Map<String, Serializable> changes = new HashMap<>();
+
+        for (String key : values.keySet())
+            changes.put(key, null);
+
+        changes.putAll(snapshot.values());
+
+        values.clear();
+        values.putAll(snapshot.values());
+
+        appliedVersion = snapshot.version();
+
+        log.clear();
+
+        logStart = appliedVersion + 1;
+        logStartTerm = snapshotTerm;
+
+        // Writes of the snapshot are not known, their retries are compared with the versions as the new writes.
+        writeVersions.clear();
+
+        durableLog.compact(snapshot, snapshotTerm, term, votedFor, log);
+
+        Data data = new Data(changes, appliedVersion);
+
+        actions.add(() -> execute(() -> notifyListeners(data)));
+
+        completeWaiters(actions);
+    }
+
+    /**
+     * Applies received batches up to the given version.
+     *
+     * @param version Committed version.
+     * @param actions Notifications to perform after the lock is released.
+     */
+    private void apply(long version, List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        if (version <= appliedVersion)
+            return;
+
+        List<Data> applied = new ArrayList<>();
+
+        while (appliedVersion < version) {
+            Data batch = entry(++appliedVersion).batch;
+
+            applyBatch(batch);
+
+            applied.add(batch);
+        }
+
+        durableLog.applied(appliedVersion);
+
+        // Notifications are executed by a single thread, so they are delivered in the order of versions.
+        actions.add(() -> execute(() -> applied.forEach(this::notifyListeners)));
+
+        // Waiters check the applied batches, so they are completed before the batches are removed.
+        completeWaiters(actions);
+
+        if (log.size() > 2 * MAX_HISTORY_SIZE && appliedVersion - logStart >= MAX_HISTORY_SIZE) {
+            int removed = (int)(appliedVersion - logStart + 1 - MAX_HISTORY_SIZE);
+
+            logStartTerm = log.get(removed - 1).term;
+
+            log.subList(0, removed).clear();
+
+            logStart += removed;
+
+            // Applied batches are replaced on the disk with the snapshot of the values.
+            durableLog.compact(
+                new Data(values, appliedVersion),
+                termAt(appliedVersion),
+                term,
+                votedFor,
+                log.subList((int)(appliedVersion + 1 - logStart), log.size())
+            );
+        }
+    }
+
+    /**
+     * Flushes the durable state, so that nothing is sent before the term, the vote and the batches it depends on
+     * survive a crash. Member that fails to flush stops, because it can't keep the promises it has made anymore.
+     *
+     * @param actions Sends and notifications to perform after the lock is released, they are replaced with the
+     *      failure of the waiting writes if the state is not flushed.
+     * @return Whether the state has been flushed.
+     */
+    private boolean sync(List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        try {
+            durableLog.sync();
+
+            return true;
+        }
+        catch (IOException e) {
+            stopped = true;
+
+            actions.clear();
+
+            StorageException err = new StorageException("Failed to persist the state of the storage", e);
+
+            for (VersionWaiter waiter; (waiter = waiters.poll()) != null; ) {
+                CompletableFuture<Boolean> fut = waiter.fut;
+
+                actions.add(() -> fut.completeExceptionally(err));
+            }
+
+            actions.add(executor::shutdownNow);
+
+            return false;
+        }
+    }
+
+    /**
+     * Executes the task by the {@link #executor}, unless the storage is stopped concurrently.
+     *
+     * @param task Notification or completion.
+     * @return Whether the task has been submitted.
+     */
+    private boolean execute(Runnable task) {
+        try {
+            executor.execute(task);
+
+            return true;
+        }
+        catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @param batch Committed batch that follows the applied ones.
+     */
+    private void applyBatch(Data batch) {
+        for (Map.Entry<String, Serializable> entry : batch.values().entrySet()) {
+            if (entry.getValue() == null)
+                values.remove(entry.getKey());
+            else
+                values.put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @param data Applied batch.
+     */
+    private void notifyListeners(Data data) {
+        listeners.notify(data);
+    }
+
+    /**
+     * Completes futures that wait for the versions that have been applied.
+     *
+     * @param actions Completions to perform after notifications.
+     */
+    private void completeWaiters(List<Runnable> actions) {
+        assert Thread.holdsLock(this);
+
+        while (!waiters.isEmpty() && waiters.peek().version <= appliedVersion) {
+            VersionWaiter waiter = waiters.poll();
+
+            CompletableFuture<Boolean> fut = waiter.fut;
+
+            try {
+                boolean accepted = isAccepted(waiter.version, waiter.origin);
+
+                actions.add(() -> {
+                    if (!execute(() -> fut.complete(accepted)))
+                        fut.completeExceptionally(new StorageException("Storage is stopped"));
+                });
+            }
+            catch (StorageException e) {
+                actions.add(() -> {
+                    if (!execute(() -> fut.completeExceptionally(e)))
+                        fut.completeExceptionally(new StorageException("Storage is stopped"));
+                });
+            }
+        }
+    }
+
+    /**
+     * @param version Version.
+     * @param origin Term of the leader that has accepted the awaited batch, {@code 0} to wait for any batch.
+     * @return Future that is completed after the version is applied and listeners are notified about it. It's
+     *      completed with {@code false} if the applied batch is not the awaited one: the latter has been accepted by a
+     *      leader that has been deposed before committing it.
+     */
+    private synchronized CompletableFuture<Boolean> awaitApplied(long version, long origin) {
+        if (version <= appliedVersion) {
+            try {
+                return CompletableFuture.completedFuture(isAccepted(version, origin));
+            }
+            catch (StorageException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+
+        CompletableFuture<Boolean> fut = new CompletableFuture<>();
+
+        waiters.add(new VersionWaiter(version, origin, fut));
+
+        return fut.orTimeout(WRITE_TIMEOUT, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param version Applied version.
+     * @param origin Term of the leader that has accepted the awaited batch, {@code 0} to accept any batch.
+     * @return Whether the batch of the given version has been accepted by the leader of the given term.
+     * @throws StorageException If the batch has been removed from the log or applied as a part of a snapshot.
+     */
+    private boolean isAccepted(long version, long origin) throws StorageException {
+        assert Thread.holdsLock(this);
+
+        if (origin == 0)
+            return true;
+
+        if (version < logStart)
+            throw new StorageException("Outcome of the write is unknown, its batch is not known anymore");
+
+        return entry(version).origin == origin;
+    }
+
+    /**
+     * Sends the message, errors are ignored: the message is considered lost and heartbeats recover the replication.
+     *
+     * @param member Member.
+     * @param msg Message.
+     */
+    private void send(NetworkMember member, Object msg) {
+        try {
+            cluster.send(member, msg);
+        }
+        catch (RuntimeException ignored) {
+            // No-op.
+        }
+    }
+
+    /**
+     * @return Visible members that replicate the storage, except for the local one.
+     */
+    private Collection<NetworkMember> otherMembers() {
+        List<NetworkMember> members = new ArrayList<>();
+
+        for (NetworkMember member : cluster.allMembers()) {
+            if (memberNames.contains(member.name()) && !member.equals(localMember))
+                members.add(member);
+        }
+
+        return members;
+    }
+
+    /**
+     * @return Version of the latest received batch.
+     */
+    private long lastVersion() {
+        return logStart + log.size() - 1;
+    }
+
+    /**
+     * @return Term of the latest received batch.
+     */
+    private long lastTerm() {
+        return termAt(lastVersion());
+    }
+
+    /**
+     * @param version Version, not less than the version that precedes the first batch of the {@link #log}.
+     * @return Term of the batch of the given version.
+     */
+    private long termAt(long version) {
+        return version == logStart - 1 ? logStartTerm : entry(version).term;
+    }
+
+    /**
+     * @param version Version.
+     * @return Log entry of the given version.
+     */
+    private LogEntry entry(long version) {
+        return log.get((int)(version - logStart));
+    }
+
+    /**
+     * @return Monotonic time in milliseconds.
+     */
+    private static long now() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+    }
+
+    /** Received batch. */
+    static class LogEntry {
+        /** */
+        final Data batch;
+
+        /** Term of the leader that has sent the batch. */
+        long term;
+
+        /** Term of the leader that has accepted the write, it's not changed when the batch is re-tagged. */
+        final long origin;
+
+        /** Id of the write, the same for all its retries. */
+        final UUID writeId;
+
+        /** */
+        LogEntry(Data batch, long term, long origin, UUID writeId) {
+            this.batch = batch;
+            this.term = term;
+            this.origin = origin;
+            this.writeId = writeId;
+        }
+    }
+
+    /** Replication state of the member. */
+    private static class FollowerState {
+        /** Version of the latest batch that is known to match the batch of the leader. */
+        long matchVersion;
+
+        /** Version of the latest batch the member is assumed to have, batches are sent after it. */
+        long knownVersion;
+
+        /** Version of the latest batch sent to the member. */
+        long sentVersion;
+
+        /** Whether the member has responded since the previous heartbeat. */
+        boolean acked = true;
+
+        /** Time of the latest response of the member, in milliseconds. */
+        long lastResponse;
+
+        /**
+         * @param knownVersion Version of the latest batch the member is assumed to have, heartbeats detect whether it
+         *      actually does.
+         * @param now Current time in milliseconds.
+         */
+        FollowerState(long knownVersion, long now) {
+            this.knownVersion = knownVersion;
+
+            sentVersion = knownVersion;
+            lastResponse = now;
+        }
+    }
+
+    /** Future waiting for the version to be applied. */
+    private static class VersionWaiter implements Comparable<VersionWaiter> {
+        /** */
+        final long version;
+
+        /** Term of the leader that has accepted the awaited batch, {@code 0} to wait for any batch. */
+        final long origin;
+
+        /** */
+        final CompletableFuture<Boolean> fut;
+
+        /** */
+        VersionWaiter(long version, long origin, CompletableFuture<Boolean> fut) {
+            this.version = version;
+            this.origin = origin;
+            this.fut = fut;
+        }
+
+        /** {@inheritDoc} */
+        @Override public int compareTo(VersionWaiter o) {
+            return Long.compare(version, o.version);
+        }
+    }
+
+    /** Write sent to the leader. */
+    private static class WriteRequest implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Id of the write, the same for all its retries. */
+        final UUID id;
+
+        /** Values and the version they have been calculated for, encoded with {@link DataCodec}. */
+        final byte[] data;
+
+        /** */
+        WriteRequest(UUID id, byte[] data) {
+            this.id = id;
+            this.data = data;
+        }
+    }
+
+    /** Result of the write. */
+    private static class WriteResponse implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Whether the write has been accepted. */
+        final boolean success;
+
+        /** Version of the accepted write, or version of the latest batch the write has conflicted with. */
+        final long version;
+
+        /** Term of the leader that has accepted the write, {@code 0} if it hasn't been accepted. */
+        final long term;
+
+        /** */
+        WriteResponse(boolean success, long version, long term) {
+            this.success = success;
+            this.version = version;
+            this.term = term;
+        }
+    }
+
+    /** Batch, snapshot or heartbeat sent by the leader. */
+    private static class ReplicateRequest implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Term of the leader. */
+        final long term;
+
+        /** Batch or snapshot encoded with {@link DataCodec}, {@code null} for heartbeats. */
+        final byte[] data;
+
+        /** Whether {@link #data} is a snapshot of all values. */
+        final boolean snapshot;
+
+        /** Version of the batch that precedes the sent one, or of the latest batch the member is expected to have. */
+        final long prevVersion;
+
+        /** Term of the batch of the {@link #prevVersion}. */
+        final long prevTerm;
+
+        /** Term of the sent batch, or of the latest batch of the snapshot. */
+        final long batchTerm;
+
+        /** Term of the leader that has accepted the sent batch. */
+        final long batchOrigin;
+
+        /** Id of the write of the sent batch. */
+        final UUID batchWriteId;
+
+        /** Committed version. */
+        final long committedVersion;
+
+        /** */
+        ReplicateRequest(
+            long term,
+            byte[] data,
+            boolean snapshot,
+            long prevVersion,
+            long prevTerm,
+            long batchTerm,
+            long batchOrigin,
+            UUID batchWriteId,
+            long committedVersion
+        ) {
+            this.term = term;
+            this.data = data;
+            this.snapshot = snapshot;
+            this.prevVersion = prevVersion;
+            this.prevTerm = prevTerm;
+            this.batchTerm = batchTerm;
+            this.batchOrigin = batchOrigin;
+            this.batchWriteId = batchWriteId;
+            this.committedVersion = committedVersion;
+        }
+    }
+
+    /** Acknowledgement of the replicated batches. */
+    private static class ReplicateResponse implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Term of the member. */
+        final long term;
+
+        /** Version of the latest batch that matches the batch of the leader, or of the latest received one. */
+        final long version;
+
+        /** Whether the batch has been accepted, {@code false} if it doesn't follow the received batches. */
+        final boolean success;
+
+        /** */
+        ReplicateResponse(long term, long version, boolean success) {
+            this.term = term;
+            this.version = version;
+            this.success = success;
+        }
+    }
+
+    /** Request for the vote sent by a candidate. */
+    private static class VoteRequest implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Term of the election. */
+        final long term;
+
+        /** Term of the latest batch of the candidate. */
+        final long lastTerm;
+
+        /** Version of the latest batch of the candidate. */
+        final long lastVersion;
+
+        /** Whether it's a pre-vote. */
+        final boolean pre;
+
+        /** */
+        VoteRequest(long term, long lastTerm, long lastVersion, boolean pre) {
+            this.term = term;
+            this.lastTerm = lastTerm;
+            this.lastVersion = lastVersion;
+            this.pre = pre;
+        }
+    }
+
+    /** Vote. */
+    private static class VoteResponse implements Serializable {
+        /** */
+        private static final long serialVersionUID = 0L;
+
+        /** Term of the member. */
+        final long term;
+
+        /** Whether the vote has been granted. */
+        final boolean granted;
+
+        /** Whether it's a pre-vote. */
+        final boolean pre;
+
+        /** */
+        VoteResponse(long term, boolean granted, boolean pre) {
+            this.term = term;
+            this.granted = granted;
+            this.pre = pre;
+        }
+    }
+}
@@ -0,0 +1,566 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.ignite.network.configuration;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+import org.apache.ignite.configuration.storage.Data;
+import org.apache.ignite.configuration.storage.DataCodec;
+import org.apache.ignite.configuration.storage.StorageException;
+import org.apache.ignite.network.configuration.ClusterConfigurationStorage.LogEntry;
+
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Durable state of the member of the {@link ClusterConfigurationStorage}: its term, its vote and the received batches.
+ * <p/>
+ * State is kept in a single file of records {@code int(length) int(crc32) payload}. The file starts with the snapshot
+ * of the applied values, followed by the changes of the term, the vote, the received batches and the applied version
+ * in the order they have happened. Records are appended without waiting for the disk, {@link #sync()} flushes them,
+ * and the storage calls it before it sends anything, so a member never forgets a vote it has granted or a batch it has
+ * acknowledged.
+ * <p/>
+ * Compaction writes the snapshot of the applied values, the term, the vote and the batches that are not applied yet to
+ * a new file and atomically replaces the old one with it. Recovery reads the file sequentially, a torn or corrupted
+ * record at its end is the result of a crash during the write, so it's discarded together with everything after it.
+ * <p/>
+ * Errors are not thrown by the methods that append records: the first one is remembered, all the following records are
+ * dropped, and {@link #sync()} throws it, so the member never sends anything that depends on a lost record.
+ */
+class ClusterStorageLog implements AutoCloseable {
+    /** Name of the log file. */
+    static final String LOG_FILE_NAME = "cluster-config.log";
+
+    /** Size of the record header: length and checksum. */
+    private static final int RECORD_HEADER_SIZE = 8;
+
+    /** Record of the applied values: term of the latest applied batch and values with their version. */
+    private static final byte SNAPSHOT = 1;
+
+    /** Record of the term and the vote in it. */
+    private static final byte VOTE = 2;
+
+    /** Record of the received batch: its term, origin, write id and values with their version. */
+    private static final byte BATCH = 3;
+
+    /** Record of the removal of the batches starting with the given version. */
+    private static final byte TRUNCATE = 4;
+
+    /** Record of the re-tagging of the batches starting with the given version with the given term. */
+    private static final byte RETAG = 5;
+
+    /** Record of the version up to which the batches are committed and applied. */
+    private static final byte APPLIED = 6;
+
+    /** Directory of the log. */
+    private final Path dir;
+
+    /** Log file. */
+    private FileChannel ch;
+
+    /** Whether there are records that are not flushed yet. */
+    private boolean dirty;
+
+    /** Error that made the log unusable, thrown by all the following flushes. */
+    private IOException failure;
+
+    /** Recovered applied values and their version. */
+    private Data snapshot = new Data(new HashMap<>(), 0);
+
+    /** Recovered term of the latest applied batch. */
+    private long snapshotTerm;
+
+    /** Recovered term. */
+    private long term;
+
+    /** Recovered vote in the {@link #term}. */
+    private String votedFor;
+
+    /** Recovered batches that follow the {@link #snapshot}. */
+    private final List<LogEntry> entries = new ArrayList<>();
+
+    /** Recovered version up to which the batches are applied, not less than the version of the {@link #snapshot}. */
+    private long appliedVersion;
+
+    /**
+     * Constructor. Recovers the state from the directory.
+     *
+     * @param dir Directory of the log, created if doesn't exist.
+     * @throws StorageException If failed to recover the state.
+     */
+    ClusterStorageLog(Path dir) throws StorageException {
+        this.dir = dir;
+
+        try {
+            Files.createDirectories(dir);
+
+            Files.deleteIfExists(dir.resolve(LOG_FILE_NAME + ".tmp"));
+
+            ch = FileChannel.open(dir.resolve(LOG_FILE_NAME), CREATE, READ, WRITE);
+
+            try {
+                recover();
+            }
+            catch (IOException | RuntimeException e) {
+                ch.close();
+
+                throw e;
+            }
+        }
+        catch (IOException e) {
+            throw new StorageException("Failed to recover cluster configuration storage: " + dir, e);
+        }
+    }
+
+    /**
+     * @return Recovered applied values and their version.
+     */
+    Data snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * @return Recovered term of the latest applied batch.
+     */
+    long snapshotTerm() {
+        return snapshotTerm;
+    }
+
+    /**
+     * @return Recovered term.
+     */
+    long term() {
+        return term;
+    }
+
+    /**
+     * @return Recovered vote in the {@link #term()}, {@code null} if the member hasn't voted.
+     */
+    String votedFor() {
+        return votedFor;
+    }
+
+    /**
+     * @return Recovered batches that follow the {@link #snapshot()}.
+     */
+    List<LogEntry> entries() {
+        return entries;
+    }
+
+    /**
+     * @return Recovered version up to which the batches are committed and applied. Batches that follow the
+     *      {@link #snapshot()} up to this version can be applied without waiting for the leader.
+     */
+    long appliedVersion() {
+        return appliedVersion;
+    }
+
+    /**
+     * Appends the change of the term or of the vote.
+     *
+     * @param term Term.
+     * @param votedFor Name of the member this member has voted for in the term, {@code null} if it hasn't voted.
+     */
+    void vote(long term, String votedFor) {
+        append(voteRecord(term, votedFor));
+    }
+
+    /**
+     * Appends the received batch.
+     *
+     * @param entry Batch.
+     */
+    void batch(LogEntry entry) {
+        append(batchRecord(entry));
+    }
+
+    /**
+     * Appends the removal of the batches that have not been committed.
+     *
+     * @param version Version of the first removed batch.
+     */
+    void truncate(long version) {
+        append(ByteBuffer.allocate(1 + 8).put(TRUNCATE).putLong(version).array());
+    }
+
+    /**
+     * Appends the re-tagging of the batches by the new leader.
+     *
+     * @param version Version of the first re-tagged batch.
+     * @param term Term of the new leader.
+     */
+    void retag(long version, long term) {
+        append(ByteBuffer.allocate(1 + 8 + 8).put(RETAG).putLong(version).putLong(term).array());
+    }
+
+    /**
+     * Appends the version up to which the batches are applied. It's not required to flush it: the batches that are
+     * not known to be applied after recovery are committed again by the leader.
+     *
+     * @param version Applied version.
+     */
+    void applied(long version) {
+        append(ByteBuffer.allocate(1 + 8).put(APPLIED).putLong(version).array());
+    }
+
+    /**
+     * Replaces the log with the given state and flushes it.
+     *
+     * @param snapshot Applied values and their version.
+     * @param snapshotTerm Term of the latest applied batch.
+     * @param term Term.
+     * @param votedFor Vote in the term, {@code null} if the member hasn't voted.
+     * @param entries Batches that follow the snapshot.
+     */
+    void compact(Data snapshot, long snapshotTerm, long term, String votedFor, Collection<LogEntry> entries) {
+        if (failure != null)
+            return;
+
+        Path file = dir.resolve(LOG_FILE_NAME);
+        Path tmp = dir.resolve(LOG_FILE_NAME + ".tmp");
+
+        try {
+            try (FileChannel tmpCh = FileChannel.open(tmp, CREATE, TRUNCATE_EXISTING, WRITE)) {
+                write(tmpCh, snapshotRecord(snapshot, snapshotTerm));
+                write(tmpCh, voteRecord(term, votedFor));
+
+                for (LogEntry entry : entries)
+                    write(tmpCh, batchRecord(entry));
+
+                tmpCh.force(true);
+            }
+
+            Files.move(tmp, file, ATOMIC_MOVE, REPLACE_EXISTING);
+
+            syncDirectory();
+
+            ch.close();
+
+            ch = FileChannel.open(file, READ, WRITE);
+
+            ch.position(ch.size());
+
+            dirty = false;
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * Flushes the appended records.
+     *
+     * @throws IOException If failed to write or to flush any of the records.
+     */
+    void sync() throws IOException {
+        if (failure != null)
+            throw failure;
+
+        if (!dirty)
+            return;
+
+        try {
+            ch.force(false);
+        }
+        catch (IOException e) {
+            failure = e;
+
+            throw e;
+        }
+
+        dirty = false;
+    }
+
+    /** {@inheritDoc} */
+    @Override public void close() {
+        try {
+            ch.close();
+        }
+        catch (IOException ignored) {
+            // No-op.
+        }
+    }
+
+    /**
+     * @param payload Record payload.
+     */
+    private void append(byte[] payload) {
+        if (failure != null)
+            return;
+
+        try {
+            write(ch, payload);
+
+            dirty = true;
+        }
+        catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /**
+     * @param ch File channel.
+     * @param payload Record payload.
+     * @throws IOException If failed.
+     */
+    private static void write(FileChannel ch, byte[] payload) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length)
+            .putInt(payload.length)
+            .putInt(crc(payload))
+            .put(payload)
+            .flip();
+
+        while (buf.hasRemaining())
+            ch.write(buf);
+    }
+
+    /**
+     * @param snapshot Applied values and their version.
+     * @param snapshotTerm Term of the latest applied batch.
+     * @return Record payload.
+     */
+    private static byte[] snapshotRecord(Data snapshot, long snapshotTerm) {
+        byte[] data = DataCodec.encode(snapshot);
+
+        return ByteBuffer.allocate(1 + 8 + data.length).put(SNAPSHOT).putLong(snapshotTerm).put(data).array();
+    }
+
+    /**
+     * @param term Term.
+     * @param votedFor Vote in the term, {@code null} if the member hasn't voted.
+     * @return Record payload.
+     */
+    private static byte[] voteRecord(long term, String votedFor) {
+        byte[] name = votedFor == null ? null : votedFor.getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer buf = ByteBuffer.allocate(1 + 8 + 4 + (name == null ? 0 : name.length))
+            .put(VOTE)
+            .putLong(term)
+            .putInt(name == null ? -1 : name.length);
+
+        if (name != null)
+            buf.put(name);
+
+        return buf.array();
+    }
+
+    /**
+     * @param entry Batch.
+     * @return Record payload.
+     */
+    private static byte[] batchRecord(LogEntry entry) {
+        byte[] data = DataCodec.encode(entry.batch);
+
+        return ByteBuffer.allocate(1 + 8 + 8 + 16 + data.length)
+            .put(BATCH)
+            .putLong(entry.term)
+            .putLong(entry.origin)
+            .putLong(entry.writeId.getMostSignificantBits())
+            .putLong(entry.writeId.getLeastSignificantBits())
+            .put(data)
+            .array();
+    }
+
+    /**
+     * Replays the log in a single sequential read and truncates torn or corrupted records at its end.
+     *
+     * @throws IOException If failed.
+     */
+    private void recover() throws IOException {
+        long size = ch.size();
+
+        if (size > Integer.MAX_VALUE)
+            throw new StorageException("Cluster configuration log is too large: " + size);
+
+        MappedByteBuffer buf = ch.map(READ_ONLY, 0, size);
+
+        long validEnd = 0;
+
+        while (buf.remaining() >= RECORD_HEADER_SIZE) {
+            int len = buf.getInt();
+            int crc = buf.getInt();
+
+            if (len <= 0 || len > buf.remaining())
+                break;
+
+            byte[] payload = new byte[len];
+
+            buf.get(payload);
+
+            if (crc(payload) != crc)
+                break;
+
+            try {
+                if (!replay(ByteBuffer.wrap(payload), validEnd == 0))
+                    break;
+            }
+            catch (BufferUnderflowException | StorageException e) {
+                break;
+            }
+
+            validEnd = buf.position();
+        }
+
+        if (validEnd < size) {
+            ch.truncate(validEnd);
+
+            ch.force(true);
+        }
+
+        ch.position(validEnd);
+    }
+
+    /**
+     * @param payload Record payload.
+     * @param first Whether it's the first record of the file, the only one that may be a snapshot.
+     * @return Whether the record is valid.
+     * @throws StorageException If encoded values are corrupted.
+     */
+    private boolean replay(ByteBuffer payload, boolean first) throws StorageException {
+        switch (payload.get()) {
+            case SNAPSHOT: {
+                if (!first)
+                    return false;
+
+                snapshotTerm = payload.getLong();
+
+                snapshot = DataCodec.decode(payload.array(), payload.position(), payload.remaining());
+
+                appliedVersion = snapshot.version();
+
+                return true;
+            }
+
+            case VOTE: {
+                term = payload.getLong();
+
+                int len = payload.getInt();
+
+                if (len < 0)
+                    votedFor = null;
+                else {
+                    byte[] name = new byte[len];
+
+                    payload.get(name);
+
+                    votedFor = new String(name, StandardCharsets.UTF_8);
+                }
+
+                return true;
+            }
+
+            case BATCH: {
+                long batchTerm = payload.getLong();
+                long origin = payload.getLong();
+
+                UUID writeId = new UUID(payload.getLong(), payload.getLong());
+
+                Data batch = DataCodec.decode(payload.array(), payload.position(), payload.remaining());
+
+                if (batch.version() != snapshot.version() + entries.size() + 1)
+                    return false;
+
+                entries.add(new LogEntry(batch, batchTerm, origin, writeId));
+
+                return true;
+            }
+
+            case TRUNCATE: {
+                long version = payload.getLong();
+
+                if (version <= appliedVersion)
+                    return false;
+
+                int from = (int)Math.min(version - snapshot.version() - 1, entries.size());
+
+                entries.subList(from, entries.size()).clear();
+
+                return true;
+            }
+
+            case RETAG: {
+                long version = payload.getLong();
+                long newTerm = payload.getLong();
+
+                for (LogEntry entry : entries) {
+                    if (entry.batch.version() >= version)
+                        entry.term = newTerm;
+                }
+
+                return true;
+            }
+
+            case APPLIED: {
+                long version = payload.getLong();
+
+                if (version > snapshot.version() + entries.size())
+                    return false;
+
+                appliedVersion = Math.max(appliedVersion, version);
+
+                return true;
+            }
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Flushes the directory entries, so that renamed files survive the crash. Not supported on some platforms, where
+     * it's not required either.
+     */
+    private void syncDirectory() {
+        try (FileChannel dirCh = FileChannel.open(dir, READ)) {
+            dirCh.force(true);
+        }
+        catch (IOException ignored) {
+            // No-op.
+        }
+    }
+
+    /**
+     * @param bytes Bytes.
+     * @return CRC32 checksum.
+     */
+    private static int crc(byte[] bytes) {
+        CRC32 crc = new CRC32();
+
+        crc.update(bytes, 0, bytes.length);
+
+        return (int)crc.getValue();
+    }
+}
@@ -63,9 +63,14 @@ public class ScaleCubeMessageHandler implements ClusterMessageHandler {
 
     /** {@inheritDoc} */
     @Override public void onMessage(Message message) {
-        for (NetworkMessageHandler handler : messageHandlerHolder.messageHandlers()) {
-            handler.onReceived(new NetworkMessage(message.data(), memberForAddress(message.sender())));
-        }
+        // Responses are consumed by the futures returned from the "sendWithResponse".
+        if (message.header(ScaleCubeNetworkCluster.RESPONSE_HEADER) != null)
+            return;
+
+        NetworkMember sender = memberForAddress(message.sender());
+
+        for (NetworkMessageHandler handler : messageHandlerHolder.messageHandlers())
+            handler.onReceived(new NetworkMessage(message.data(), sender, message.correlationId()));
     }
 
     /**
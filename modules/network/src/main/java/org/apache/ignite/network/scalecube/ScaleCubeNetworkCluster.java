@@ -17,7 +17,9 @@
 package org.apache.ignite.network.scalecube;
 
 import io.scalecube.cluster.Cluster;
+import io.scalecube.cluster.transport.api.Message;
 import java.util.Collection;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.stream.Collectors;
@@ -35,6 +37,9 @@ import static java.time.Duration.ofMillis;
  * Implementation of {@link NetworkCluster} based on ScaleCube.
  */
 public class ScaleCubeNetworkCluster implements NetworkCluster {
+    /** Header of the response messages, such messages are only passed to the requester. */
+    static final String RESPONSE_HEADER = "ignite-response";
+
     /** Inner representation of cluster of scalecube. */
     private final Cluster cluster;
 
@@ -91,10 +96,19 @@ public class ScaleCubeNetworkCluster implements NetworkCluster {
 
     /** {@inheritDoc} */
     @Override public <R> CompletableFuture<R> sendWithResponse(NetworkMember member, Object msg, long timeout) {
-        return cluster.requestResponse(memberResolver.resolveMember(member), fromData(msg))
+        Message req = Message.withData(msg).correlationId(UUID.randomUUID().toString()).build();
+
+        return cluster.requestResponse(memberResolver.resolveMember(member), req)
             .timeout(ofMillis(timeout)).toFuture().thenApply(m -> m.data());
     }
 
+    /** {@inheritDoc} */
+    @Override public Future<?> sendResponse(NetworkMember member, Object msg, String correlationId) {
+        Message resp = Message.withData(msg).correlationId(correlationId).header(RESPONSE_HEADER, "").build();
+
+        return cluster.send(memberResolver.resolveMember(member), resp).toFuture();
+    }
+
     /** {@inheritDoc} */
     @Override public void addHandlersProvider(NetworkHandlersProvider networkHandlersProvider) {
         NetworkClusterEventHandler lsnr = networkHandlersProvider.clusterEventHandler();
@@ -19,7 +19,6 @@ package org.apache.ignite.rest;
 
 import com.google.gson.JsonSyntaxException;
 import io.javalin.Javalin;
-import java.io.Reader;
 import java.util.Collections;
 import org.apache.ignite.configuration.ConfigurationRegistry;
 import org.apache.ignite.configuration.validation.ConfigurationValidationException;
@@ -61,17 +60,10 @@ public class RestModule {
     }
 
     /** */
-    public void prepareStart(ConfigurationRegistry sysConfig, Reader moduleConfReader) {
+    public void prepareStart(ConfigurationRegistry sysConfig) {
         sysConf = sysConfig;
 
-        presentation = new JsonPresentation(Collections.emptyMap());
-
-//        FormatConverter converter = new JsonConverter();
-//
-//        Configurator<RestConfigurationImpl> restConf = Configurator.create(RestConfigurationImpl::new,
-//            converter.convertFrom(moduleConfReader, "rest", InitRest.class));
-//
-//        sysConfig.registerConfigurator(restConf);
+        presentation = new JsonPresentation(Collections.emptyMap(), sysConfig);
     }
 
     /** */
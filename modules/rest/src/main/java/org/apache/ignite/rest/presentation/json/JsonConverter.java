@@ -17,12 +17,19 @@
 
 package org.apache.ignite.rest.presentation.json;
 
+import java.io.EOFException;
+import java.io.IOException;
 import java.io.Reader;
+import java.io.StringReader;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.MalformedJsonException;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 import org.apache.ignite.rest.presentation.FormatConverter;
 
 /** */
@@ -46,29 +53,53 @@ public class JsonConverter implements FormatConverter {
 
     /** {@inheritDoc} */
     @Override public String rootName(String source) {
-        Map<String, Object> map = gson.fromJson(source, Map.class);
-
         // Peek only first root for simplicity. See comment in ConfigurationPresentation#update for more context.
-        Optional<String> firstOpt = map.keySet().stream().findFirst();
+        try {
+            JsonReader reader = new JsonReader(new StringReader(source));
+
+            reader.beginObject();
 
-        return firstOpt.isPresent() ? firstOpt.get() : null;
+            return reader.peek() == JsonToken.NAME ? reader.nextName() : null;
+        }
+        catch (IOException e) {
+            throw wrap(e);
+        }
     }
 
     /** {@inheritDoc} */
     @Override public Object convertFrom(String source, String rootName, Class<?> clazz) {
-        Map map = gson.fromJson(source, Map.class);
-
-        String root = gson.toJson(map.get(rootName));
-
-        return gson.fromJson(root, clazz);
+        return convertFrom(new StringReader(source), rootName, clazz);
     }
 
     /** {@inheritDoc} */
     @Override public <T> T convertFrom(Reader source, String rootName, Class<T> clazz) {
-        Map map = gson.fromJson(source, Map.class);
+        // Deserialize the root in place, skipping other roots, instead of re-serializing a parsed map.
+        try {
+            JsonReader reader = new JsonReader(source);
 
-        String root = gson.toJson(map.get(rootName));
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                if (rootName.equals(reader.nextName()))
+                    return gson.fromJson(reader, clazz);
+
+                reader.skipValue();
+            }
+
+            return null;
+        }
+        catch (IOException e) {
+            throw wrap(e);
+        }
+    }
 
-        return gson.fromJson(root, clazz);
+    /**
+     * @param e Exception thrown by the JSON reader.
+     * @return Exception of the same kind as thrown by {@link Gson#fromJson(Reader, Class)}.
+     */
+    private static RuntimeException wrap(IOException e) {
+        return e instanceof MalformedJsonException || e instanceof EOFException
+            ? new JsonSyntaxException(e)
+            : new JsonIOException(e);
     }
 }
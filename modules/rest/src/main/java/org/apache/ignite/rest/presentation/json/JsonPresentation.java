@@ -17,10 +17,14 @@
 
 package org.apache.ignite.rest.presentation.json;
 
+import java.io.StringReader;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
+import org.apache.ignite.configuration.ConfigurationRegistry;
 import org.apache.ignite.configuration.Configurator;
 import org.apache.ignite.configuration.internal.DynamicConfiguration;
+import org.apache.ignite.configuration.internal.util.JsonConfigurationSource;
 import org.apache.ignite.rest.presentation.ConfigurationPresentation;
 
 /** */
@@ -31,9 +35,16 @@ public class JsonPresentation implements ConfigurationPresentation<String> {
     /** */
     private final Map<String, Configurator<? extends DynamicConfiguration<?, ?, ?>>> configsMap;
 
+    /** Registry that the updates are applied to. */
+    private final ConfigurationRegistry sysConf;
+
     /** */
-    public JsonPresentation(Map<String, Configurator<? extends DynamicConfiguration<?, ?, ?>>> configsMap) {
+    public JsonPresentation(
+        Map<String, Configurator<? extends DynamicConfiguration<?, ?, ?>>> configsMap,
+        ConfigurationRegistry sysConf
+    ) {
         this.configsMap = configsMap;
+        this.sysConf = sysConf;
     }
 
     /** {@inheritDoc} */
@@ -69,14 +80,15 @@ public class JsonPresentation implements ConfigurationPresentation<String> {
             throw new IllegalArgumentException("Invalid request, no root in request: " + configUpdate);
         }
 
-        Configurator<? extends DynamicConfiguration<?, ?, ?>> configurator = configsMap.get(root);
-
-        if (configurator == null) {
-            throw new IllegalArgumentException("Invalid request, configuration root not found: " + configUpdate);
+        // Request is parsed directly into the changes of the roots, roots that aren't registered are ignored.
+        try {
+            sysConf.change(new JsonConfigurationSource(new StringReader(configUpdate))).join();
         }
+        catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
 
-//        Object updateObj = converter.convertFrom(configUpdate, root, configurator.getChangeType());
-
-//        configurator.set(BaseSelectors.find(root), updateObj);
+            throw e;
+        }
     }
 }
@@ -21,7 +21,6 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.io.StringReader;
 import java.util.Arrays;
 import java.util.stream.Collectors;
 import org.apache.ignite.configuration.ConfigurationModule;
@@ -95,17 +94,9 @@ public class IgniteRunner {
                     IgniteRunner.class.getClassLoader().getResourceAsStream(DFLT_CONF_FILE_NAME)));
             }
 
-            StringBuilder bldr = new StringBuilder();
+            restModule.prepareStart(confModule.configurationRegistry());
 
-            String str;
-
-            while ((str = confReader.readLine()) != null) {
-                bldr.append(str);
-            }
-
-            restModule.prepareStart(confModule.configurationRegistry(), new StringReader(bldr.toString()));
-
-            confModule.bootstrap(new StringReader(bldr.toString()));
+            confModule.bootstrap(confReader);
         }
         finally {
             if (confReader != null)
@@ -18,28 +18,27 @@
 package org.apache.ignite.configuration;
 
 import java.io.Reader;
+import org.apache.ignite.configuration.internal.util.JsonConfigurationSource;
 
 /**
  * Module is responsible for preparing configuration when module is started.
  *
- * Preparing configuration includes reading it from configuration file, parsing it and initializing
- * {@link Configurator} object.
+ * Preparing configuration includes reading it from configuration file and applying it to the registered roots.
+ * File is parsed in a single pass directly into configuration trees.
  */
 public class ConfigurationModule {
-//    /** */
-//    private Configurator<LocalConfigurationImpl> localConfigurator;
-
     /** */
     private final ConfigurationRegistry confRegistry = new ConfigurationRegistry();
 
-    /** */
+    /**
+     * Applies bootstrap configuration in JSON or HOCON format to the registered roots. Blocks until the changes are
+     * written to the storages and can be read from the registered configurations.
+     *
+     * @param confReader Configuration reader.
+     * @throws java.util.concurrent.CompletionException If the configuration can't be applied.
+     */
     public void bootstrap(Reader confReader) {
-//        FormatConverter converter = new JsonConverter();
-//
-//        Configurator<LocalConfigurationImpl> configurator =
-//            Configurator.create(LocalConfigurationImpl::new, converter.convertFrom(confReader, "local", InitLocal.class));
-//
-//        confRegistry.registerConfigurator(configurator);
+        confRegistry.change(new JsonConfigurationSource(confReader)).join();
     }
 
     /** */